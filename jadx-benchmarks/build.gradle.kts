@@ -0,0 +1,42 @@
+plugins {
+	id("jadx-java")
+	id("me.champeau.jmh") version "0.7.3"
+}
+
+dependencies {
+	implementation("com.google.code.gson:gson:2.13.2")
+
+	jmhImplementation(project(":jadx-core"))
+	jmhImplementation(project(":jadx-plugins:jadx-dex-input"))
+	jmhImplementation(project(":jadx-plugins:jadx-java-input"))
+	jmhRuntimeOnly("ch.qos.logback:logback-classic:1.5.22")
+}
+
+jmh {
+	jmhVersion = "1.37"
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+	jvmArgs = listOf("-Xms512M", "-Xmx2G")
+
+	// run only selected benchmarks: -PjmhIncludes=PassesBenchmark
+	project.findProperty("jmhIncludes")?.let { includes = listOf(it.toString()) }
+	// use custom input file instead of checked-in fixture: -PjmhInput=path/to/app.apk
+	project.findProperty("jmhInput")?.let { jvmArgsAppend = listOf("-Djadx.bench.input=" + file(it).absolutePath) }
+}
+
+// usage: ./gradlew :jadx-benchmarks:jmhCompare -Pbaseline=path/to/baseline.json [-PregressionThreshold=10]
+tasks.register<JavaExec>("jmhCompare") {
+	group = "benchmark"
+	description = "Compare JMH results with baseline and report regressions"
+	classpath = sourceSets.main.get().runtimeClasspath
+	mainClass = "jadx.benchmarks.report.CompareResults"
+	val baseline = project.findProperty("baseline")?.toString()
+	val current = project.findProperty("current")?.toString() ?: layout.buildDirectory.file("results/jmh/results.json").get().asFile.path
+	val threshold = project.findProperty("regressionThreshold")?.toString() ?: "10"
+	args = listOf(baseline ?: "", current, threshold)
+	doFirst {
+		if (baseline == null) {
+			throw GradleException("Baseline results file not set, use '-Pbaseline=<file>'")
+		}
+	}
+}
@@ -0,0 +1,129 @@
+package jadx.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
+
+import jadx.api.JadxDecompiler;
+
+/**
+ * Benchmarks input: checked-in fixture apk or custom file set by 'jadx.bench.input' system property
+ */
+final class BenchInput {
+	static final String INPUT_PROP = "jadx.bench.input";
+	static final String JAVA_INPUT_PROP = "jadx.bench.javaInput";
+	private static final String DEFAULT_FIXTURE = "/fixtures/small.apk";
+
+	private static Path inputFile;
+	private static Path javaInputFile;
+
+	static synchronized Path getInputFile() throws IOException {
+		if (inputFile == null) {
+			String customInput = System.getProperty(INPUT_PROP);
+			if (customInput != null) {
+				inputFile = Path.of(customInput);
+			} else {
+				inputFile = copyFixture(DEFAULT_FIXTURE);
+			}
+		}
+		return inputFile;
+	}
+
+	/**
+	 * Jar input: custom file set by 'jadx.bench.javaInput' system property
+	 * or jadx-core jar from benchmark class path (packed into temp jar if loaded from classes dir)
+	 */
+	static synchronized Path getJavaInputFile() throws IOException {
+		if (javaInputFile == null) {
+			String customInput = System.getProperty(JAVA_INPUT_PROP);
+			if (customInput != null) {
+				javaInputFile = Path.of(customInput);
+			} else {
+				javaInputFile = getJarFor(JadxDecompiler.class);
+			}
+		}
+		return javaInputFile;
+	}
+
+	private static Path getJarFor(Class<?> cls) throws IOException {
+		Path path;
+		try {
+			path = Path.of(cls.getProtectionDomain().getCodeSource().getLocation().toURI());
+		} catch (Exception e) {
+			throw new IOException("Failed to get location of class: " + cls.getName(), e);
+		}
+		if (!Files.isDirectory(path)) {
+			return path;
+		}
+		Path tmpFile = Files.createTempFile("jadx-bench-", ".jar");
+		tmpFile.toFile().deleteOnExit();
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(tmpFile));
+				Stream<Path> files = Files.walk(path)) {
+			for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+				out.putNextEntry(new ZipEntry(path.relativize(file).toString().replace('\\', '/')));
+				Files.copy(file, out);
+				out.closeEntry();
+			}
+		}
+		return tmpFile;
+	}
+
+	private static Path copyFixture(String resName) throws IOException {
+		try (InputStream in = BenchInput.class.getResourceAsStream(resName)) {
+			if (in == null) {
+				throw new IOException("Fixture not found: " + resName);
+			}
+			Path tmpFile = Files.createTempFile("jadx-bench-", ".apk");
+			tmpFile.toFile().deleteOnExit();
+			Files.copy(in, tmpFile, StandardCopyOption.REPLACE_EXISTING);
+			return tmpFile;
+		}
+	}
+
+	static List<byte[]> readDexFiles() throws IOException {
+		Path input = getInputFile();
+		if (input.getFileName().toString().endsWith(".dex")) {
+			return List.of(Files.readAllBytes(input));
+		}
+		List<byte[]> list = new ArrayList<>();
+		try (ZipFile zip = new ZipFile(input.toFile())) {
+			Enumeration<? extends ZipEntry> entries = zip.entries();
+			while (entries.hasMoreElements()) {
+				ZipEntry entry = entries.nextElement();
+				String name = entry.getName();
+				if (name.startsWith("classes") && name.endsWith(".dex")) {
+					list.add(readEntry(zip, entry));
+				}
+			}
+		}
+		return list;
+	}
+
+	static byte[] readZipEntry(String entryName) throws IOException {
+		try (ZipFile zip = new ZipFile(getInputFile().toFile())) {
+			ZipEntry entry = zip.getEntry(entryName);
+			if (entry == null) {
+				throw new IOException("Entry '" + entryName + "' not found in " + getInputFile());
+			}
+			return readEntry(zip, entry);
+		}
+	}
+
+	private static byte[] readEntry(ZipFile zip, ZipEntry entry) throws IOException {
+		try (InputStream in = zip.getInputStream(entry)) {
+			return in.readAllBytes();
+		}
+	}
+
+	private BenchInput() {
+	}
+}
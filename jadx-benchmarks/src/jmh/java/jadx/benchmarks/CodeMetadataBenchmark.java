@@ -0,0 +1,115 @@
+package jadx.benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.ICodeInfo;
+import jadx.api.metadata.ICodeAnnotation;
+import jadx.api.metadata.ICodeAnnotation.AnnType;
+import jadx.api.metadata.ICodeMetadata;
+import jadx.api.metadata.impl.ArrayCodeMetadata;
+import jadx.api.metadata.impl.CodeMetadataStorage;
+import jadx.core.dex.nodes.ClassNode;
+
+/**
+ * Code metadata implementations: build and lookups by random positions.
+ * Run with '-prof gc' to compare allocated bytes for build (close to retained size).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeMetadataBenchmark {
+	private static final int LOOKUPS_COUNT = 10_000;
+
+	@Param({ "array", "tree" })
+	private String impl;
+
+	private final List<Map<Integer, ICodeAnnotation>> annotationsList = new ArrayList<>();
+	private final List<Map<Integer, Integer>> linesList = new ArrayList<>();
+	private final List<ICodeMetadata> metadataList = new ArrayList<>();
+	private int[] lookupCls;
+	private int[] lookupPos;
+
+	@Setup(Level.Trial)
+	public void prepare(DecompilerState state) {
+		List<Integer> codeLengths = new ArrayList<>();
+		for (ClassNode cls : state.getClasses()) {
+			ICodeInfo code = cls.getCode();
+			ICodeMetadata metadata = code.getCodeMetadata();
+			if (metadata.getAsMap().isEmpty()) {
+				continue;
+			}
+			annotationsList.add(new HashMap<>(metadata.getAsMap()));
+			linesList.add(new TreeMap<>(metadata.getLineMapping()));
+			codeLengths.add(code.getCodeStr().length());
+		}
+		for (int i = 0; i < annotationsList.size(); i++) {
+			metadataList.add(build(i));
+		}
+		Random rnd = new Random(1);
+		lookupCls = new int[LOOKUPS_COUNT];
+		lookupPos = new int[LOOKUPS_COUNT];
+		for (int i = 0; i < LOOKUPS_COUNT; i++) {
+			int cls = rnd.nextInt(metadataList.size());
+			lookupCls[i] = cls;
+			lookupPos[i] = rnd.nextInt(codeLengths.get(cls) + 1);
+		}
+	}
+
+	private ICodeMetadata build(int i) {
+		if (impl.equals("tree")) {
+			return CodeMetadataStorage.build(linesList.get(i), annotationsList.get(i));
+		}
+		return ArrayCodeMetadata.build(linesList.get(i), annotationsList.get(i));
+	}
+
+	@Benchmark
+	public void build(Blackhole bh) {
+		for (int i = 0; i < annotationsList.size(); i++) {
+			bh.consume(build(i));
+		}
+	}
+
+	@Benchmark
+	public void getAt(Blackhole bh) {
+		for (int i = 0; i < LOOKUPS_COUNT; i++) {
+			bh.consume(metadataList.get(lookupCls[i]).getAt(lookupPos[i]));
+		}
+	}
+
+	@Benchmark
+	public void getClosestUp(Blackhole bh) {
+		for (int i = 0; i < LOOKUPS_COUNT; i++) {
+			bh.consume(metadataList.get(lookupCls[i]).getClosestUp(lookupPos[i]));
+		}
+	}
+
+	@Benchmark
+	public void searchUp(Blackhole bh) {
+		for (int i = 0; i < LOOKUPS_COUNT; i++) {
+			bh.consume(metadataList.get(lookupCls[i]).searchUp(lookupPos[i], AnnType.DECLARATION));
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package jadx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.core.codegen.CodeGen;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.LoadStage;
+
+/**
+ * Code generation ({@code ClassGen}, {@code MethodGen}, {@code InsnGen}) for fully processed classes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodegenBenchmark {
+
+	@Setup(Level.Invocation)
+	public void prepare(DecompilerState state) {
+		state.reloadClasses(LoadStage.CODEGEN_STAGE);
+		state.runPasses(0, state.getPassesCount());
+	}
+
+	@Benchmark
+	public void generate(DecompilerState state, Blackhole bh) {
+		for (ClassNode cls : state.getClasses()) {
+			bh.consume(CodeGen.generate(cls));
+		}
+	}
+}
@@ -0,0 +1,90 @@
+package jadx.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.LoadStage;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.dex.visitors.DepthTraversal;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+
+/**
+ * Loaded decompiler instance shared by all invocations of benchmark
+ */
+@State(Scope.Benchmark)
+public class DecompilerState {
+	private JadxDecompiler jadx;
+	private RootNode root;
+	private List<ClassNode> classes;
+
+	@Setup(Level.Trial)
+	public void load() throws IOException {
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().add(BenchInput.getInputFile().toFile());
+		args.setThreadsCount(1);
+		args.setSkipResources(true);
+		jadx = new JadxDecompiler(args);
+		jadx.load();
+		root = jadx.getRoot();
+		classes = root.getClassesWithoutInner();
+	}
+
+	@TearDown(Level.Trial)
+	public void close() {
+		jadx.close();
+	}
+
+	/**
+	 * Unload all classes and load again without running any passes
+	 */
+	public void reloadClasses(LoadStage loadStage) {
+		for (ClassNode cls : classes) {
+			cls.unload();
+			cls.setLoadStage(loadStage);
+			cls.load();
+		}
+	}
+
+	/**
+	 * Apply passes from {@code fromIdx} (inclusive) to {@code toIdx} (exclusive) to all classes
+	 */
+	public void runPasses(int fromIdx, int toIdx) {
+		List<IDexTreeVisitor> passes = root.getPasses();
+		for (ClassNode cls : classes) {
+			for (int i = fromIdx; i < toIdx; i++) {
+				DepthTraversal.visit(passes.get(i), cls);
+			}
+		}
+	}
+
+	public int getPassIndex(String passName) {
+		List<IDexTreeVisitor> passes = root.getPasses();
+		for (int i = 0; i < passes.size(); i++) {
+			if (passes.get(i).getName().equals(passName)) {
+				return i;
+			}
+		}
+		throw new IllegalArgumentException("Pass not found: " + passName);
+	}
+
+	public int getPassesCount() {
+		return root.getPasses().size();
+	}
+
+	public RootNode getRoot() {
+		return root;
+	}
+
+	public List<ClassNode> getClasses() {
+		return classes;
+	}
+}
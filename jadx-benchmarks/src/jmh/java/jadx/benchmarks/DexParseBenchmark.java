@@ -0,0 +1,97 @@
+package jadx.benchmarks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.plugins.input.data.ICodeReader;
+import jadx.api.plugins.input.data.IMethodRef;
+import jadx.plugins.input.dex.DexReader;
+import jadx.plugins.input.dex.utils.DexStringsPool;
+
+/**
+ * Dex parsing using {@link DexReader} and {@code SectionReader}: classes, fields, methods and raw instructions
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DexParseBenchmark {
+	private List<byte[]> dexFiles;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		dexFiles = BenchInput.readDexFiles();
+	}
+
+	@Benchmark
+	public void parseClasses(Blackhole bh) {
+		int id = 0;
+		for (byte[] content : dexFiles) {
+			DexReader dexReader = new DexReader(id++, "classes.dex", content, 0);
+			visitClasses(dexReader, bh);
+		}
+	}
+
+	/**
+	 * Same as {@link #parseClasses(Blackhole)} but with strings shared between all dex files
+	 */
+	@Benchmark
+	public void parseClassesSharedStrings(Blackhole bh) {
+		DexStringsPool stringsPool = new DexStringsPool();
+		int id = 0;
+		for (byte[] content : dexFiles) {
+			DexReader dexReader = new DexReader(id++, "classes.dex", ByteBuffer.wrap(content), 0, stringsPool);
+			visitClasses(dexReader, bh);
+		}
+	}
+
+	private static void visitClasses(DexReader dexReader, Blackhole bh) {
+		dexReader.visitClasses(cls -> {
+			bh.consume(cls.getType());
+			cls.visitFieldsAndMethods(
+					fld -> bh.consume(fld.getType()),
+					mth -> {
+						IMethodRef mthRef = mth.getMethodRef();
+						mthRef.load();
+						bh.consume(mthRef.getName());
+					});
+		});
+	}
+
+	@Benchmark
+	public void decodeRawInstructions(Blackhole bh) {
+		int id = 0;
+		for (byte[] content : dexFiles) {
+			DexReader dexReader = new DexReader(id++, "classes.dex", content, 0);
+			dexReader.visitClasses(cls -> cls.visitFieldsAndMethods(
+					fld -> {
+					},
+					mth -> {
+						ICodeReader codeReader = mth.getCodeReader();
+						if (codeReader != null) {
+							codeReader.visitInstructions(insn -> {
+								insn.decode();
+								bh.consume(insn.getOpcode());
+							});
+						}
+					}));
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package jadx.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.core.dex.info.ClassInfo;
+import jadx.core.dex.info.FieldInfo;
+import jadx.core.dex.info.InfoStorage;
+import jadx.core.dex.info.MethodInfo;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.FieldNode;
+import jadx.core.dex.nodes.MethodNode;
+
+/**
+ * Contention of {@link InfoStorage} interning on 1, 8 and 32 threads.
+ * Every operation is a lookup of already stored info (most common case on decode path).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InfoStorageBenchmark {
+
+	@State(Scope.Benchmark)
+	public static class StorageState {
+		private InfoStorage storage;
+		private ClassInfo[] classes;
+		private MethodInfo[] methods;
+		private FieldInfo[] fields;
+		private int[] methodIds;
+
+		@Setup(Level.Trial)
+		public void collect(DecompilerState state) {
+			storage = state.getRoot().getInfoStorage();
+			List<ClassInfo> clsList = new ArrayList<>();
+			List<MethodInfo> mthList = new ArrayList<>();
+			List<FieldInfo> fldList = new ArrayList<>();
+			for (ClassNode cls : state.getRoot().getClasses()) {
+				clsList.add(cls.getClassInfo());
+				for (MethodNode mth : cls.getMethods()) {
+					mthList.add(mth.getMethodInfo());
+				}
+				for (FieldNode fld : cls.getFields()) {
+					fldList.add(fld.getFieldInfo());
+				}
+			}
+			classes = clsList.toArray(new ClassInfo[0]);
+			methods = mthList.toArray(new MethodInfo[0]);
+			fields = fldList.toArray(new FieldInfo[0]);
+			// ids in unused input file range
+			methodIds = new int[methods.length];
+			for (int i = 0; i < methods.length; i++) {
+				methodIds[i] = 0xFFFE0000 | i;
+				storage.putByUniqId(methodIds[i], methods[i]);
+			}
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		private int pos;
+
+		int next() {
+			int p = pos++;
+			if (pos == Integer.MAX_VALUE) {
+				pos = 0;
+			}
+			return p;
+		}
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void lookup1(StorageState state, Cursor cursor, Blackhole bh) {
+		lookup(state, cursor, bh);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public void lookup8(StorageState state, Cursor cursor, Blackhole bh) {
+		lookup(state, cursor, bh);
+	}
+
+	@Benchmark
+	@Threads(32)
+	public void lookup32(StorageState state, Cursor cursor, Blackhole bh) {
+		lookup(state, cursor, bh);
+	}
+
+	private static void lookup(StorageState state, Cursor cursor, Blackhole bh) {
+		InfoStorage storage = state.storage;
+		int pos = cursor.next();
+		bh.consume(storage.getCls(state.classes[pos % state.classes.length].getType()));
+		int mthIdx = pos % state.methods.length;
+		bh.consume(storage.putMethod(state.methods[mthIdx]));
+		bh.consume(storage.getByUniqId(state.methodIds[mthIdx]));
+		if (state.fields.length != 0) {
+			bh.consume(storage.getField(state.fields[pos % state.fields.length]));
+		}
+	}
+}
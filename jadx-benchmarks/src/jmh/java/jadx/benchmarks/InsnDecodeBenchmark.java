@@ -0,0 +1,46 @@
+package jadx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.core.dex.instructions.InsnDecoder;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.exceptions.DecodeException;
+
+/**
+ * Convert raw instructions into jadx IR using {@link InsnDecoder} (called on method load)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsnDecodeBenchmark {
+
+	@Benchmark
+	public void loadMethods(DecompilerState state, Blackhole bh) throws DecodeException {
+		for (ClassNode cls : state.getClasses()) {
+			loadMethods(cls, bh);
+		}
+	}
+
+	private static void loadMethods(ClassNode cls, Blackhole bh) throws DecodeException {
+		for (MethodNode mth : cls.getMethods()) {
+			mth.unload();
+			mth.load();
+			bh.consume(mth.getInstructions());
+		}
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			loadMethods(innerCls, bh);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package jadx.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.plugins.input.java.JavaClassReader;
+import jadx.plugins.input.java.JavaInputLoader;
+import jadx.zip.ZipReader;
+
+/**
+ * Load of jar input (jadx-core jar by default) using java-input plugin:
+ * jar entries reading and full load with class nodes creation
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavaLoadBenchmark {
+
+	@Param({ "1", "4" })
+	private int threads;
+
+	private Path input;
+	private Path tempDir;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		input = BenchInput.getJavaInputFile();
+		tempDir = Files.createTempDirectory("jadx-bench-");
+		tempDir.toFile().deleteOnExit();
+	}
+
+	@Benchmark
+	public void readJar(Blackhole bh) {
+		JavaInputLoader loader = new JavaInputLoader(new ZipReader(), tempDir);
+		loader.setThreadsCount(threads);
+		List<JavaClassReader> readers = loader.collectFiles(Collections.singletonList(input));
+		bh.consume(readers);
+	}
+
+	@Benchmark
+	public void load(Blackhole bh) {
+		JadxArgs args = new JadxArgs();
+		args.setInputFile(input.toFile());
+		args.setSkipResources(true);
+		args.setThreadsCount(threads);
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			bh.consume(jadx.getRoot().getClasses().size());
+		}
+	}
+}
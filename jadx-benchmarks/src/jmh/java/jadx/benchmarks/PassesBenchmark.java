@@ -0,0 +1,55 @@
+package jadx.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jadx.core.dex.nodes.LoadStage;
+
+/**
+ * Run single decompilation pass for all classes.
+ * Classes reloaded and all previous passes applied before every invocation.
+ * <br>
+ * 'RegionMakerVisitor' covers {@code IfRegionMaker}, {@code LoopRegionMaker} and other region makers,
+ * 'TypeInferenceVisitor' includes {@code TypeSearch} fallback.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PassesBenchmark {
+
+	@Param({ "SSATransform", "TypeInferenceVisitor", "RegionMakerVisitor" })
+	public String passName;
+
+	private int passIdx;
+
+	@Setup(Level.Trial)
+	public void findPass(DecompilerState state) {
+		passIdx = state.getPassIndex(passName);
+	}
+
+	@Setup(Level.Invocation)
+	public void prepare(DecompilerState state) {
+		state.reloadClasses(LoadStage.PROCESS_STAGE);
+		state.runPasses(0, passIdx);
+	}
+
+	@Benchmark
+	public void runPass(DecompilerState state) {
+		state.runPasses(passIdx, passIdx + 1);
+	}
+}
@@ -0,0 +1,54 @@
+package jadx.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import jadx.core.xmlgen.BinaryXMLParser;
+import jadx.core.xmlgen.ResTableBinaryParser;
+
+/**
+ * Decode 'resources.arsc' and binary 'AndroidManifest.xml'
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourcesBenchmark {
+	private byte[] resTable;
+	private byte[] manifest;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		resTable = BenchInput.readZipEntry("resources.arsc");
+		manifest = BenchInput.readZipEntry("AndroidManifest.xml");
+	}
+
+	@Benchmark
+	public void parseResTable(DecompilerState state, Blackhole bh) throws IOException {
+		ResTableBinaryParser parser = new ResTableBinaryParser(state.getRoot());
+		parser.decode(new ByteArrayInputStream(resTable));
+		bh.consume(parser.getResStorage());
+	}
+
+	@Benchmark
+	public void parseManifest(DecompilerState state, Blackhole bh) throws IOException {
+		BinaryXMLParser parser = new BinaryXMLParser(state.getRoot());
+		bh.consume(parser.parse(new ByteArrayInputStream(manifest)));
+	}
+}
@@ -0,0 +1,70 @@
+package jadx.benchmarks.report;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Single benchmark result from JMH JSON report
+ */
+public final class BenchmarkResult {
+	private final String benchmark;
+	private final String mode;
+	private final Map<String, String> params;
+	private final double score;
+	private final double scoreError;
+	private final String scoreUnit;
+
+	public BenchmarkResult(String benchmark, String mode, Map<String, String> params,
+			double score, double scoreError, String scoreUnit) {
+		this.benchmark = benchmark;
+		this.mode = mode;
+		this.params = new TreeMap<>(params);
+		this.score = score;
+		this.scoreError = scoreError;
+		this.scoreUnit = scoreUnit;
+	}
+
+	/**
+	 * Benchmark name with params, used to match results from different runs
+	 */
+	public String getKey() {
+		if (params.isEmpty()) {
+			return benchmark;
+		}
+		StringBuilder sb = new StringBuilder(benchmark);
+		sb.append(':');
+		params.forEach((k, v) -> sb.append(' ').append(k).append('=').append(v));
+		return sb.toString();
+	}
+
+	/**
+	 * For throughput mode bigger score is better, for other modes (time per operation) - smaller
+	 */
+	public boolean isHigherBetter() {
+		return mode.equals("thrpt");
+	}
+
+	public String getBenchmark() {
+		return benchmark;
+	}
+
+	public String getMode() {
+		return mode;
+	}
+
+	public Map<String, String> getParams() {
+		return params;
+	}
+
+	public double getScore() {
+		return score;
+	}
+
+	public double getScoreError() {
+		return scoreError;
+	}
+
+	public String getScoreUnit() {
+		return scoreUnit;
+	}
+}
@@ -0,0 +1,58 @@
+package jadx.benchmarks.report;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+import jadx.benchmarks.report.ResultsComparator.Comparison;
+import jadx.benchmarks.report.ResultsComparator.Status;
+
+/**
+ * Print comparison of two JMH result files and exit with code 1 if regressions found.
+ * <br>
+ * Usage: {@code CompareResults <baseline.json> <current.json> [threshold percent, default: 10]}
+ */
+public class CompareResults {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2 || args[0].isEmpty()) {
+			System.err.println("Usage: CompareResults <baseline.json> <current.json> [threshold percent]");
+			System.exit(2);
+		}
+		double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+		List<BenchmarkResult> baseline = ResultsComparator.load(Path.of(args[0]));
+		List<BenchmarkResult> current = ResultsComparator.load(Path.of(args[1]));
+		List<Comparison> comparisons = new ResultsComparator(threshold).compare(baseline, current);
+
+		int regressions = 0;
+		for (Comparison cmp : comparisons) {
+			System.out.println(format(cmp));
+			if (cmp.getStatus() == Status.REGRESSION) {
+				regressions++;
+			}
+		}
+		if (regressions != 0) {
+			System.out.println("Found " + regressions + " regression(s) (threshold: " + threshold + "%)");
+			System.exit(1);
+		}
+		System.out.println("No regressions found (threshold: " + threshold + "%)");
+	}
+
+	private static String format(Comparison cmp) {
+		BenchmarkResult base = cmp.getBaseline();
+		BenchmarkResult cur = cmp.getCurrent();
+		switch (cmp.getStatus()) {
+			case NEW:
+				return String.format(Locale.ROOT, "%-10s %s: %s", cmp.getStatus(), cmp.getKey(), formatScore(cur));
+			case MISSING:
+				return String.format(Locale.ROOT, "%-10s %s: %s", cmp.getStatus(), cmp.getKey(), formatScore(base));
+			default:
+				return String.format(Locale.ROOT, "%-10s %s: %s -> %s (%+.1f%%)",
+						cmp.getStatus(), cmp.getKey(), formatScore(base), formatScore(cur), cmp.getChangePercent());
+		}
+	}
+
+	private static String formatScore(BenchmarkResult result) {
+		return String.format(Locale.ROOT, "%.3f +- %.3f %s", result.getScore(), result.getScoreError(), result.getScoreUnit());
+	}
+}
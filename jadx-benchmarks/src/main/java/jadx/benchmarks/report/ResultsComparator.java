@@ -0,0 +1,179 @@
+package jadx.benchmarks.report;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Compare two JMH result files (JSON format)
+ */
+public class ResultsComparator {
+
+	public enum Status {
+		OK,
+		IMPROVED,
+		REGRESSION,
+		NEW,
+		MISSING
+	}
+
+	public static final class Comparison {
+		private final String key;
+		private final BenchmarkResult baseline;
+		private final BenchmarkResult current;
+		private final double changePercent;
+		private final Status status;
+
+		private Comparison(String key, BenchmarkResult baseline, BenchmarkResult current, double changePercent, Status status) {
+			this.key = key;
+			this.baseline = baseline;
+			this.current = current;
+			this.changePercent = changePercent;
+			this.status = status;
+		}
+
+		public String getKey() {
+			return key;
+		}
+
+		public BenchmarkResult getBaseline() {
+			return baseline;
+		}
+
+		public BenchmarkResult getCurrent() {
+			return current;
+		}
+
+		/**
+		 * Score change relative to baseline, positive value means slowdown
+		 */
+		public double getChangePercent() {
+			return changePercent;
+		}
+
+		public Status getStatus() {
+			return status;
+		}
+	}
+
+	private final double thresholdPercent;
+
+	/**
+	 * @param thresholdPercent minimal score change (in percents) to report regression or improvement
+	 */
+	public ResultsComparator(double thresholdPercent) {
+		this.thresholdPercent = thresholdPercent;
+	}
+
+	public List<Comparison> compare(List<BenchmarkResult> baseline, List<BenchmarkResult> current) {
+		Map<String, BenchmarkResult> baseMap = toMap(baseline);
+		Map<String, BenchmarkResult> curMap = toMap(current);
+		List<Comparison> list = new ArrayList<>();
+		for (BenchmarkResult cur : curMap.values()) {
+			String key = cur.getKey();
+			BenchmarkResult base = baseMap.get(key);
+			if (base == null) {
+				list.add(new Comparison(key, null, cur, 0, Status.NEW));
+			} else {
+				list.add(compare(key, base, cur));
+			}
+		}
+		for (BenchmarkResult base : baseMap.values()) {
+			if (!curMap.containsKey(base.getKey())) {
+				list.add(new Comparison(base.getKey(), base, null, 0, Status.MISSING));
+			}
+		}
+		return list;
+	}
+
+	private Comparison compare(String key, BenchmarkResult base, BenchmarkResult cur) {
+		double baseScore = base.getScore();
+		double diff = cur.getScore() - baseScore;
+		if (cur.isHigherBetter()) {
+			diff = -diff;
+		}
+		double changePercent = baseScore == 0 ? 0 : diff * 100.0 / baseScore;
+		Status status;
+		if (Math.abs(changePercent) < thresholdPercent || isWithinError(base, cur)) {
+			status = Status.OK;
+		} else {
+			status = changePercent > 0 ? Status.REGRESSION : Status.IMPROVED;
+		}
+		return new Comparison(key, base, cur, changePercent, status);
+	}
+
+	/**
+	 * Scores difference not significant if confidence intervals overlap
+	 */
+	private static boolean isWithinError(BenchmarkResult base, BenchmarkResult cur) {
+		double baseErr = sanitizeError(base.getScoreError());
+		double curErr = sanitizeError(cur.getScoreError());
+		return Math.abs(cur.getScore() - base.getScore()) <= baseErr + curErr;
+	}
+
+	private static double sanitizeError(double err) {
+		// JMH writes 'NaN' if not enough iterations for error estimation
+		return Double.isNaN(err) ? 0 : err;
+	}
+
+	private static Map<String, BenchmarkResult> toMap(List<BenchmarkResult> results) {
+		Map<String, BenchmarkResult> map = new LinkedHashMap<>();
+		for (BenchmarkResult result : results) {
+			map.put(result.getKey(), result);
+		}
+		return map;
+	}
+
+	public static List<BenchmarkResult> load(Path file) throws IOException {
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return parse(JsonParser.parseReader(reader));
+		}
+	}
+
+	public static List<BenchmarkResult> parse(JsonElement root) {
+		if (!root.isJsonArray()) {
+			return Collections.emptyList();
+		}
+		JsonArray array = root.getAsJsonArray();
+		List<BenchmarkResult> list = new ArrayList<>(array.size());
+		for (JsonElement element : array) {
+			JsonObject obj = element.getAsJsonObject();
+			Map<String, String> params = new LinkedHashMap<>();
+			JsonObject paramsObj = obj.getAsJsonObject("params");
+			if (paramsObj != null) {
+				for (Map.Entry<String, JsonElement> entry : paramsObj.entrySet()) {
+					params.put(entry.getKey(), entry.getValue().getAsString());
+				}
+			}
+			JsonObject metric = obj.getAsJsonObject("primaryMetric");
+			JsonElement errElement = metric.get("scoreError");
+			double scoreError = errElement == null || !errElement.isJsonPrimitive() ? 0 : parseDouble(errElement);
+			list.add(new BenchmarkResult(
+					obj.get("benchmark").getAsString(),
+					obj.get("mode").getAsString(),
+					params,
+					parseDouble(metric.get("score")),
+					scoreError,
+					metric.get("scoreUnit").getAsString()));
+		}
+		return list;
+	}
+
+	private static double parseDouble(JsonElement element) {
+		// 'NaN' stored as string
+		String str = element.getAsString();
+		return str.equals("NaN") ? Double.NaN : Double.parseDouble(str);
+	}
+}
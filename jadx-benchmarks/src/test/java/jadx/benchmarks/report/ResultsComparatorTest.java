@@ -0,0 +1,61 @@
+package jadx.benchmarks.report;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonParser;
+
+import jadx.benchmarks.report.ResultsComparator.Comparison;
+import jadx.benchmarks.report.ResultsComparator.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ResultsComparatorTest {
+
+	@Test
+	void testCompare() {
+		List<BenchmarkResult> baseline = parse(
+				result("jadx.Passes.runPass", "avgt", "SSATransform", 100, 2),
+				result("jadx.Passes.runPass", "avgt", "RegionMakerVisitor", 100, 2),
+				result("jadx.Codegen.generate", "avgt", null, 100, 2),
+				result("jadx.Dex.parse", "thrpt", null, 100, 2),
+				result("jadx.Removed.run", "avgt", null, 10, 1));
+		List<BenchmarkResult> current = parse(
+				result("jadx.Passes.runPass", "avgt", "SSATransform", 130, 2),
+				result("jadx.Passes.runPass", "avgt", "RegionMakerVisitor", 80, 2),
+				result("jadx.Codegen.generate", "avgt", null, 104, 2),
+				result("jadx.Dex.parse", "thrpt", null, 70, 2),
+				result("jadx.Added.run", "avgt", null, 10, 1));
+
+		List<Comparison> list = new ResultsComparator(10).compare(baseline, current);
+		assertThat(list).extracting(Comparison::getKey, Comparison::getStatus).containsExactlyInAnyOrder(
+				tuple("jadx.Passes.runPass: passName=SSATransform", Status.REGRESSION),
+				tuple("jadx.Passes.runPass: passName=RegionMakerVisitor", Status.IMPROVED),
+				tuple("jadx.Codegen.generate", Status.OK),
+				tuple("jadx.Dex.parse", Status.REGRESSION),
+				tuple("jadx.Added.run", Status.NEW),
+				tuple("jadx.Removed.run", Status.MISSING));
+	}
+
+	@Test
+	void testErrorOverlap() {
+		List<BenchmarkResult> baseline = parse(result("jadx.A.run", "avgt", null, 100, 20));
+		List<BenchmarkResult> current = parse(result("jadx.A.run", "avgt", null, 130, 20));
+		List<Comparison> list = new ResultsComparator(10).compare(baseline, current);
+		assertThat(list).hasSize(1);
+		assertThat(list.get(0).getStatus()).isEqualTo(Status.OK);
+		assertThat(list.get(0).getChangePercent()).isEqualTo(30.0);
+	}
+
+	private static List<BenchmarkResult> parse(String... results) {
+		return ResultsComparator.parse(JsonParser.parseString('[' + String.join(",", results) + ']'));
+	}
+
+	private static String result(String name, String mode, String passName, double score, double error) {
+		String params = passName == null ? "" : "\"params\": { \"passName\": \"" + passName + "\" },";
+		return "{ \"benchmark\": \"" + name + "\", \"mode\": \"" + mode + "\", " + params
+				+ " \"primaryMetric\": { \"score\": " + score + ", \"scoreError\": " + error + ", \"scoreUnit\": \"us/op\" } }";
+	}
+}
@@ -56,7 +56,7 @@ public static int execute(String[] args, @Nullable Consumer<JadxArgs> argsMod) {
 		}
 	}
 
-	private static JadxArgs buildArgs(JadxCLIArgs cliArgs) {
+	public static JadxArgs buildArgs(JadxCLIArgs cliArgs) {
 		JadxArgs jadxArgs = cliArgs.toJadxArgs();
 		jadxArgs.setCodeCache(new NoOpCodeCache());
 		jadxArgs.setUsageInfoCache(new EmptyUsageInfoCache());
@@ -68,13 +68,22 @@ private static JadxArgs buildArgs(JadxCLIArgs cliArgs) {
 	}
 
 	private static int runSave(JadxArgs jadxArgs, JadxCLIArgs cliArgs) {
+		return runSave(jadxArgs, cliArgs, LogHelper.getLogLevel() != LogLevelEnum.QUIET);
+	}
+
+	/**
+	 * Load and save with provided args
+	 *
+	 * @return exit code
+	 */
+	public static int runSave(JadxArgs jadxArgs, JadxCLIArgs cliArgs, boolean showProgress) {
 		try (JadxDecompiler jadx = new JadxDecompiler(jadxArgs)) {
 			jadx.load();
 			if (checkForErrors(jadx)) {
 				return 2;
 			}
 			if (!SingleClassMode.process(jadx, cliArgs)) {
-				save(jadx);
+				save(jadx, showProgress);
 			}
 			int errorsCount = jadx.getErrorsCount();
 			if (errorsCount != 0) {
@@ -118,8 +127,8 @@ private static boolean checkForErrors(JadxDecompiler jadx) {
 		return false;
 	}
 
-	private static void save(JadxDecompiler jadx) {
-		if (LogHelper.getLogLevel() == LogLevelEnum.QUIET) {
+	private static void save(JadxDecompiler jadx, boolean showProgress) {
+		if (!showProgress) {
 			jadx.save();
 		} else {
 			LOG.info("processing ...");
@@ -28,8 +28,10 @@
 import jadx.api.JadxArgs.RenameEnum;
 import jadx.api.JadxArgs.UseKotlinMethodsForVarNames;
 import jadx.api.JadxDecompiler;
+import jadx.api.args.DecompileSchedulerType;
 import jadx.api.args.GeneratedRenamesMappingFileMode;
 import jadx.api.args.IntegerFormat;
+import jadx.api.args.PassesProfileFormat;
 import jadx.api.args.ResourceNameSource;
 import jadx.api.args.UseSourceNameAsClassNameAlias;
 import jadx.api.args.UserRenamesMappingsMode;
@@ -63,6 +65,13 @@ public class JadxCLIArgs implements IJadxConfig {
 	@Parameter(names = { "-dr", "--output-dir-res" }, description = "output directory for resources")
 	protected String outDirRes;
 
+	@JadxConfigExclude
+	@Parameter(
+			names = { "--output-zip" },
+			description = "write sources and resources into zip file instead of output directories"
+	)
+	protected String outputZip;
+
 	@Parameter(names = { "-r", "--no-res" }, description = "do not decode resources")
 	protected boolean skipResources = false;
 
@@ -72,6 +81,54 @@ public class JadxCLIArgs implements IJadxConfig {
 	@Parameter(names = { "-j", "--threads-count" }, description = "processing threads count")
 	protected int threadsCount = JadxArgs.DEFAULT_THREADS_COUNT;
 
+	@Parameter(
+			names = { "--save-threads-count" },
+			description = "threads count for write files in background, 0 - write from processing threads"
+	)
+	protected int saveThreadsCount = 0;
+
+	@Parameter(
+			names = { "--decompile-scheduler" },
+			description = "classes decompilation order:"
+					+ "\n 'batches' - static batches with class dependencies (default)"
+					+ "\n 'deps-graph' - live dependency graph, class processed right after its dependencies",
+			converter = DecompileSchedulerTypeConverter.class
+	)
+	protected DecompileSchedulerType decompileSchedulerType = DecompileSchedulerType.BATCHES;
+
+	@Parameter(names = { "--parallel-methods" }, description = "process methods of big classes in parallel")
+	protected boolean parallelMethodsProcessing = false;
+
+	@Parameter(
+			names = { "--unload-memory-threshold" },
+			description = "heap usage percent after GC to start unloading of processed classes"
+					+ " (reloaded on demand), 0 - disabled"
+	)
+	protected int unloadMemoryThreshold = 0;
+
+	@JadxConfigExclude
+	@Parameter(
+			names = { "--profile-passes" },
+			description = "collect time and allocations for every decompilation pass and save into provided file"
+	)
+	protected String passesProfileFile = null;
+
+	@Parameter(
+			names = { "--profile-passes-format" },
+			description = "passes profile file format:"
+					+ "\n 'json' - stats for every pass, class and method (default)"
+					+ "\n 'collapsed' - collapsed stacks with CPU time, input for flame graph tools",
+			converter = PassesProfileFormatConverter.class
+	)
+	protected PassesProfileFormat passesProfileFormat = PassesProfileFormat.JSON;
+
+	@JadxConfigExclude
+	@Parameter(
+			names = { "--incremental-cache" },
+			description = "directory for generated code cache, unchanged classes will be saved without decompilation on next run"
+	)
+	protected String incrementalCacheDir = null;
+
 	@JadxConfigExclude
 	@Parameter(names = { "--single-class" }, description = "decompile a single class, full name, raw or alias")
 	protected String singleClass = null;
@@ -80,6 +137,13 @@ public class JadxCLIArgs implements IJadxConfig {
 	@Parameter(names = { "--single-class-output" }, description = "file or dir for write if decompile a single class")
 	protected String singleClassOutput = null;
 
+	@JadxConfigExclude
+	@Parameter(
+			names = { "--single-class-lazy" },
+			description = "load only class from '--single-class' (raw full name) and classes used by it, faster for big inputs"
+	)
+	protected boolean singleClassLazyLoad = false;
+
 	@Parameter(names = { "--output-format" }, description = "can be 'java' or 'json'")
 	protected String outputFormat = "java";
 
@@ -442,6 +506,12 @@ public void verify() {
 		if (threadsCount <= 0) {
 			throw new JadxArgsValidateException("Threads count must be positive, got: " + threadsCount);
 		}
+		if (saveThreadsCount < 0) {
+			throw new JadxArgsValidateException("Save threads count can't be negative, got: " + saveThreadsCount);
+		}
+		if (unloadMemoryThreshold < 0 || unloadMemoryThreshold > 100) {
+			throw new JadxArgsValidateException("Unload memory threshold must be in range 0..100, got: " + unloadMemoryThreshold);
+		}
 	}
 
 	private static <T extends JadxCLIArgs> void saveConfig(T argsObj, @Nullable JadxConfigAdapter<T> configAdapter) {
@@ -459,8 +529,21 @@ public JadxArgs toJadxArgs() {
 		args.setOutDir(FileUtils.toFile(outDir));
 		args.setOutDirSrc(FileUtils.toFile(outDirSrc));
 		args.setOutDirRes(FileUtils.toFile(outDirRes));
+		args.setOutputArchive(FileUtils.toFile(outputZip));
 		args.setOutputFormat(JadxArgs.OutputFormatEnum.valueOf(outputFormat.toUpperCase()));
 		args.setThreadsCount(threadsCount);
+		args.setSaveThreadsCount(saveThreadsCount);
+		args.setDecompileSchedulerType(decompileSchedulerType);
+		args.setParallelMethodsProcessing(parallelMethodsProcessing);
+		args.setUnloadMemoryThreshold(unloadMemoryThreshold);
+		args.setPassesProfileFile(FileUtils.toFile(passesProfileFile));
+		args.setPassesProfileFormat(passesProfileFormat);
+		args.setIncrementalCacheDir(FileUtils.toFile(incrementalCacheDir));
+		if (singleClass != null && singleClassLazyLoad) {
+			String clsName = singleClass;
+			args.setClassFilter(clsName::equals);
+			args.setLazyLoad(true);
+		}
 		args.setSkipSources(skipSources);
 		args.setSkipResources(skipResources);
 		if (fallbackMode) {
@@ -540,6 +623,10 @@ public String getOutDirRes() {
 		return outDirRes;
 	}
 
+	public String getOutputZip() {
+		return outputZip;
+	}
+
 	public String getSingleClass() {
 		return singleClass;
 	}
@@ -548,6 +635,10 @@ public String getSingleClassOutput() {
 		return singleClassOutput;
 	}
 
+	public boolean isSingleClassLazyLoad() {
+		return singleClassLazyLoad;
+	}
+
 	public boolean isSkipResources() {
 		return skipResources;
 	}
@@ -572,6 +663,62 @@ public void setThreadsCount(int threadsCount) {
 		this.threadsCount = threadsCount;
 	}
 
+	public int getSaveThreadsCount() {
+		return saveThreadsCount;
+	}
+
+	public void setSaveThreadsCount(int saveThreadsCount) {
+		this.saveThreadsCount = saveThreadsCount;
+	}
+
+	public DecompileSchedulerType getDecompileSchedulerType() {
+		return decompileSchedulerType;
+	}
+
+	public void setDecompileSchedulerType(DecompileSchedulerType decompileSchedulerType) {
+		this.decompileSchedulerType = decompileSchedulerType;
+	}
+
+	public boolean isParallelMethodsProcessing() {
+		return parallelMethodsProcessing;
+	}
+
+	public void setParallelMethodsProcessing(boolean parallelMethodsProcessing) {
+		this.parallelMethodsProcessing = parallelMethodsProcessing;
+	}
+
+	public int getUnloadMemoryThreshold() {
+		return unloadMemoryThreshold;
+	}
+
+	public void setUnloadMemoryThreshold(int unloadMemoryThreshold) {
+		this.unloadMemoryThreshold = unloadMemoryThreshold;
+	}
+
+	public String getPassesProfileFile() {
+		return passesProfileFile;
+	}
+
+	public void setPassesProfileFile(String passesProfileFile) {
+		this.passesProfileFile = passesProfileFile;
+	}
+
+	public PassesProfileFormat getPassesProfileFormat() {
+		return passesProfileFormat;
+	}
+
+	public void setPassesProfileFormat(PassesProfileFormat passesProfileFormat) {
+		this.passesProfileFormat = passesProfileFormat;
+	}
+
+	public String getIncrementalCacheDir() {
+		return incrementalCacheDir;
+	}
+
+	public void setIncrementalCacheDir(String incrementalCacheDir) {
+		this.incrementalCacheDir = incrementalCacheDir;
+	}
+
 	public boolean isFallbackMode() {
 		return fallbackMode;
 	}
@@ -1004,6 +1151,18 @@ public DecompilationModeConverter() {
 		}
 	}
 
+	public static class DecompileSchedulerTypeConverter extends BaseEnumConverter<DecompileSchedulerType> {
+		public DecompileSchedulerTypeConverter() {
+			super(DecompileSchedulerType::valueOf, DecompileSchedulerType::values);
+		}
+	}
+
+	public static class PassesProfileFormatConverter extends BaseEnumConverter<PassesProfileFormat> {
+		public PassesProfileFormatConverter() {
+			super(PassesProfileFormat::valueOf, PassesProfileFormat::values);
+		}
+	}
+
 	public static class ExportGradleTypeConverter extends BaseEnumConverter<ExportGradleType> {
 		public ExportGradleTypeConverter() {
 			super(ExportGradleType::valueOf, ExportGradleType::values);
@@ -0,0 +1,60 @@
+package jadx.cli.commands;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import com.beust.jcommander.Parameters;
+
+import jadx.cli.JCommanderWrapper;
+import jadx.cli.LogHelper;
+import jadx.cli.daemon.JadxDaemon;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+@Parameters(commandDescription = "run daemon to process many jobs in one process")
+public class CommandDaemon implements ICommand {
+
+	@Parameter(
+			names = { "-p", "--port" },
+			description = "listen for jobs on local port, if not set jobs read from stdin",
+			defaultValueDescription = "<port>"
+	)
+	protected int port = -1;
+
+	@Parameter(names = { "-j", "--jobs" }, description = "max count of concurrently running jobs")
+	protected int jobs = 2;
+
+	@Parameter(names = { "-h", "--help" }, description = "print this help", help = true)
+	protected boolean printHelp = false;
+
+	@Override
+	public String name() {
+		return "daemon";
+	}
+
+	@Override
+	public void process(JCommanderWrapper jcw, JCommander subCommander) {
+		if (printHelp) {
+			jcw.printUsage(subCommander);
+			return;
+		}
+		Set<String> unknownOptions = new HashSet<>(subCommander.getUnknownOptions());
+		boolean verbose = unknownOptions.remove("-v") || unknownOptions.remove("--verbose");
+		boolean quiet = unknownOptions.remove("-q") || unknownOptions.remove("--quiet");
+		LogHelper.setLogLevel(verbose ? LogHelper.LogLevelEnum.DEBUG
+				: quiet ? LogHelper.LogLevelEnum.ERROR : LogHelper.LogLevelEnum.INFO);
+		if (!unknownOptions.isEmpty()) {
+			System.err.println("Error: found unknown options: " + unknownOptions);
+		}
+		try (JadxDaemon daemon = new JadxDaemon(jobs)) {
+			if (port >= 0) {
+				daemon.runServer(port);
+			} else {
+				daemon.runWithStdin();
+			}
+		} catch (Exception e) {
+			throw new JadxRuntimeException("Daemon failed", e);
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package jadx.cli.daemon;
+
+import java.io.Closeable;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+
+import jadx.api.plugins.JadxPlugin;
+import jadx.api.plugins.loader.JadxPluginLoader;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.plugins.tools.JadxExternalPluginsLoader;
+
+/**
+ * Search and load plugins only once, external plugins class loaders kept open until daemon stop.
+ * For every job new plugin instances created, because plugins can hold decompiler state.
+ */
+final class DaemonPluginLoader implements Closeable {
+	private final JadxExternalPluginsLoader loader = new JadxExternalPluginsLoader();
+	private List<Constructor<? extends JadxPlugin>> constructors;
+
+	synchronized List<JadxPlugin> newInstances() {
+		if (constructors == null) {
+			List<JadxPlugin> plugins = loader.load();
+			List<Constructor<? extends JadxPlugin>> list = new ArrayList<>(plugins.size());
+			for (JadxPlugin plugin : plugins) {
+				list.add(getConstructor(plugin.getClass()));
+			}
+			constructors = list;
+			return plugins;
+		}
+		List<JadxPlugin> plugins = new ArrayList<>(constructors.size());
+		for (Constructor<? extends JadxPlugin> constructor : constructors) {
+			try {
+				plugins.add(constructor.newInstance());
+			} catch (Exception e) {
+				throw new JadxRuntimeException("Failed to create plugin instance: " + constructor.getDeclaringClass().getName(), e);
+			}
+		}
+		return plugins;
+	}
+
+	private static <T extends JadxPlugin> Constructor<T> getConstructor(Class<T> pluginCls) {
+		try {
+			return pluginCls.getConstructor();
+		} catch (Exception e) {
+			throw new JadxRuntimeException("Plugin should have public no-args constructor: " + pluginCls.getName(), e);
+		}
+	}
+
+	/**
+	 * Loader for use in single job, close do nothing
+	 */
+	JadxPluginLoader forJob() {
+		return new JadxPluginLoader() {
+			@Override
+			public List<JadxPlugin> load() {
+				return newInstances();
+			}
+
+			@Override
+			public void close() {
+				// loaded plugins shared between jobs
+			}
+		};
+	}
+
+	@Override
+	public synchronized void close() {
+		loader.close();
+	}
+}
@@ -0,0 +1,37 @@
+package jadx.cli.daemon;
+
+import java.util.List;
+
+/**
+ * Daemon job request, one JSON object per line.
+ * <br>
+ * Example: {@code {"id": "job-1", "args": ["-d", "out", "app.apk"]}}
+ */
+public class DaemonRequest {
+	/**
+	 * Optional id, will be copied to response
+	 */
+	private String id;
+
+	/**
+	 * Command line arguments for jadx (same as for jadx-cli)
+	 */
+	private List<String> args;
+
+	/**
+	 * Control command instead of job: 'shutdown' - wait running jobs and stop daemon
+	 */
+	private String command;
+
+	public String getId() {
+		return id;
+	}
+
+	public List<String> getArgs() {
+		return args;
+	}
+
+	public String getCommand() {
+		return command;
+	}
+}
@@ -0,0 +1,46 @@
+package jadx.cli.daemon;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Job result, written as one JSON line
+ */
+public class DaemonResponse {
+	private final String id;
+
+	/**
+	 * Same as jadx-cli exit code: 0 - success, 1 - arguments or processing error,
+	 * 2 - load failed, 3 - finished with decompilation errors
+	 */
+	private final int result;
+
+	/**
+	 * Job processing time in milliseconds
+	 */
+	private final long time;
+
+	private final String error;
+
+	public DaemonResponse(String id, int result, long time, @Nullable String error) {
+		this.id = id;
+		this.result = result;
+		this.time = time;
+		this.error = error;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public int getResult() {
+		return result;
+	}
+
+	public long getTime() {
+		return time;
+	}
+
+	public @Nullable String getError() {
+		return error;
+	}
+}
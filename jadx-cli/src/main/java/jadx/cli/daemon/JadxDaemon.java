@@ -0,0 +1,274 @@
+package jadx.cli.daemon;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+
+import jadx.api.JadxArgs;
+import jadx.cli.JadxCLI;
+import jadx.cli.JadxCLIArgs;
+import jadx.cli.LogHelper;
+import jadx.cli.LogHelper.LogLevelEnum;
+import jadx.cli.config.JadxConfigAdapter;
+import jadx.commons.app.JadxTempFiles;
+import jadx.core.utils.Utils;
+import jadx.core.utils.exceptions.JadxArgsValidateException;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Long-running process for execute many decompilation jobs in one warm JVM.
+ * <br>
+ * Jobs received as JSON lines (see {@link DaemonRequest}) from stdin or from local socket connections,
+ * for every job result printed as JSON line (see {@link DaemonResponse}).
+ * Up to 'jobs' count decompiler instances run concurrently.
+ * Shared between jobs: loaded plugins classes, bundled class set data and JIT compiled code.
+ */
+public class JadxDaemon implements Closeable {
+	private static final Logger LOG = LoggerFactory.getLogger(JadxDaemon.class);
+
+	private static final String SHUTDOWN_COMMAND = "shutdown";
+
+	/**
+	 * Args parsing changes global log levels, so process it one at a time
+	 */
+	private static final Object ARGS_LOCK = new Object();
+
+	private final ExecutorService jobsExecutor;
+	private final DaemonPluginLoader pluginLoader = new DaemonPluginLoader();
+	private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+	private final AtomicInteger jobsCounter = new AtomicInteger();
+	private final @Nullable LogLevelEnum logLevel;
+
+	private volatile boolean stopped;
+	private volatile @Nullable ServerSocket serverSocket;
+
+	public JadxDaemon(int jobsCount) {
+		if (jobsCount <= 0) {
+			throw new JadxArgsValidateException("Jobs count must be positive, got: " + jobsCount);
+		}
+		this.jobsExecutor = Executors.newFixedThreadPool(jobsCount, Utils.simpleThreadFactory("daemon-job"));
+		this.logLevel = LogHelper.getLogLevel();
+	}
+
+	/**
+	 * Read requests from stdin until end of stream or 'shutdown' command.
+	 * Responses printed to stdout, all other output redirected to stderr.
+	 */
+	public void runWithStdin() {
+		PrintStream out = System.out;
+		System.setOut(System.err);
+		try {
+			process(new InputStreamReader(System.in, StandardCharsets.UTF_8), new OutputStreamWriter(out, StandardCharsets.UTF_8));
+		} finally {
+			System.setOut(out);
+		}
+	}
+
+	/**
+	 * Accept connections on loopback interface until 'shutdown' command.
+	 * Every connection can send several requests, responses written back to same connection.
+	 */
+	public void runServer(int port) throws IOException {
+		ExecutorService connExecutor = Executors.newCachedThreadPool(Utils.simpleThreadFactory("daemon-conn"));
+		try (ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress())) {
+			serverSocket = server;
+			LOG.info("Daemon started on port: {}", server.getLocalPort());
+			while (!stopped) {
+				Socket socket;
+				try {
+					socket = server.accept();
+				} catch (SocketException e) {
+					if (stopped) {
+						break;
+					}
+					throw e;
+				}
+				connExecutor.execute(() -> processConnection(socket));
+			}
+		} finally {
+			connExecutor.shutdown();
+		}
+	}
+
+	private void processConnection(Socket socket) {
+		try (Socket s = socket;
+				Reader reader = new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8);
+				Writer writer = new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8)) {
+			process(reader, writer);
+		} catch (Exception e) {
+			LOG.error("Daemon connection processing error", e);
+		}
+	}
+
+	/**
+	 * Read requests until end of input or 'shutdown' command and wait for all started jobs.
+	 */
+	public void process(Reader input, Writer output) {
+		BufferedReader reader = new BufferedReader(input);
+		PrintWriter writer = new PrintWriter(output, true);
+		List<Future<?>> jobs = new ArrayList<>();
+		try {
+			while (!stopped) {
+				String line = reader.readLine();
+				if (line == null) {
+					break;
+				}
+				if (line.isBlank()) {
+					continue;
+				}
+				DaemonRequest request;
+				try {
+					request = gson.fromJson(line, DaemonRequest.class);
+				} catch (JsonParseException e) {
+					sendResponse(writer, new DaemonResponse(null, 1, 0, "Request parse error: " + e.getMessage()));
+					continue;
+				}
+				if (SHUTDOWN_COMMAND.equals(request.getCommand())) {
+					stop();
+					break;
+				}
+				if (request.getCommand() != null) {
+					sendResponse(writer, new DaemonResponse(request.getId(), 1, 0, "Unknown command: " + request.getCommand()));
+					continue;
+				}
+				jobs.add(jobsExecutor.submit(() -> sendResponse(writer, runJob(request))));
+			}
+		} catch (IOException e) {
+			LOG.error("Daemon requests read error", e);
+		}
+		// wait for responses before close output
+		for (Future<?> job : jobs) {
+			try {
+				job.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				LOG.error("Daemon job failed", e);
+			}
+		}
+	}
+
+	private void sendResponse(PrintWriter writer, DaemonResponse response) {
+		String json = gson.toJson(response);
+		synchronized (writer) {
+			writer.println(json);
+		}
+	}
+
+	DaemonResponse runJob(DaemonRequest request) {
+		long start = System.currentTimeMillis();
+		String id = request.getId() != null ? request.getId() : "job-" + jobsCounter.incrementAndGet();
+		List<String> args = request.getArgs();
+		if (args == null || args.isEmpty()) {
+			return new DaemonResponse(id, 1, 0, "Missing jadx args");
+		}
+		Path tempDir = null;
+		try {
+			JadxCLIArgs cliArgs = parseArgs(args);
+			if (cliArgs == null) {
+				return new DaemonResponse(id, 0, System.currentTimeMillis() - start, null);
+			}
+			tempDir = Files.createTempDirectory(JadxTempFiles.getTempRootDir(), "job-");
+			JadxArgs jadxArgs = JadxCLI.buildArgs(cliArgs);
+			jadxArgs.setPluginLoader(pluginLoader.forJob());
+			jadxArgs.setFilesGetter(new JobFilesGetter(tempDir));
+			LOG.info("Job '{}' started", id);
+			int result = JadxCLI.runSave(jadxArgs, cliArgs, false);
+			long time = System.currentTimeMillis() - start;
+			LOG.info("Job '{}' finished in {} ms, result: {}", id, time, result);
+			return new DaemonResponse(id, result, time, null);
+		} catch (JadxArgsValidateException e) {
+			return new DaemonResponse(id, 1, System.currentTimeMillis() - start, "Incorrect arguments: " + e.getMessage());
+		} catch (Throwable e) {
+			LOG.error("Job '{}' failed", id, e);
+			return new DaemonResponse(id, 1, System.currentTimeMillis() - start, "Process error: " + e.getMessage());
+		} finally {
+			if (tempDir != null) {
+				deleteTempDir(tempDir);
+			}
+		}
+	}
+
+	private @Nullable JadxCLIArgs parseArgs(List<String> args) {
+		synchronized (ARGS_LOCK) {
+			try {
+				return JadxCLIArgs.processArgs(args.toArray(new String[0]),
+						new JadxCLIArgs(),
+						new JadxConfigAdapter<>(JadxCLIArgs.class, "cli"));
+			} finally {
+				// log level controlled by daemon options
+				if (logLevel != null) {
+					LogHelper.setLogLevel(logLevel);
+				}
+			}
+		}
+	}
+
+	private static void deleteTempDir(Path tempDir) {
+		try {
+			if (Files.isDirectory(tempDir)) {
+				FileUtils.deleteDir(tempDir);
+			}
+		} catch (Exception e) {
+			LOG.warn("Failed to delete job temp dir: {}", tempDir, e);
+		}
+	}
+
+	public void stop() {
+		stopped = true;
+		ServerSocket server = serverSocket;
+		if (server != null) {
+			try {
+				server.close();
+			} catch (IOException e) {
+				LOG.warn("Failed to close daemon socket", e);
+			}
+		}
+	}
+
+	@Override
+	public void close() {
+		stop();
+		jobsExecutor.shutdown();
+		try {
+			if (!jobsExecutor.awaitTermination(1, TimeUnit.HOURS)) {
+				throw new JadxRuntimeException("Daemon jobs termination timeout");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			pluginLoader.close();
+		}
+	}
+}
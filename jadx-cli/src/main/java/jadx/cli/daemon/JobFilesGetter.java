@@ -0,0 +1,33 @@
+package jadx.cli.daemon;
+
+import java.nio.file.Path;
+
+import jadx.commons.app.JadxCommonFiles;
+import jadx.core.plugins.files.IJadxFilesGetter;
+
+/**
+ * Separate temp directory for every job, it will be removed on decompiler close
+ * without affecting other running jobs.
+ */
+class JobFilesGetter implements IJadxFilesGetter {
+	private final Path tempDir;
+
+	JobFilesGetter(Path tempDir) {
+		this.tempDir = tempDir;
+	}
+
+	@Override
+	public Path getConfigDir() {
+		return JadxCommonFiles.getConfigDir();
+	}
+
+	@Override
+	public Path getCacheDir() {
+		return JadxCommonFiles.getCacheDir();
+	}
+
+	@Override
+	public Path getTempDir() {
+		return tempDir;
+	}
+}
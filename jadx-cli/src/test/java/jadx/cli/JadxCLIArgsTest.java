@@ -1,5 +1,6 @@
 package jadx.cli;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.Map;
 
@@ -7,6 +8,10 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jadx.api.JadxArgs;
+import jadx.api.args.DecompileSchedulerType;
+import jadx.api.args.PassesProfileFormat;
+
 import static jadx.core.utils.Utils.newConstStringMap;
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -33,6 +38,63 @@ public void testSrcOption() {
 		assertThat(parse("").isSkipSources()).isFalse();
 	}
 
+	@Test
+	public void testDecompileSchedulerOption() {
+		assertThat(parse("--decompile-scheduler", "deps-graph").getDecompileSchedulerType())
+				.isEqualTo(DecompileSchedulerType.DEPS_GRAPH);
+		assertThat(parse("").getDecompileSchedulerType()).isEqualTo(DecompileSchedulerType.BATCHES);
+	}
+
+	@Test
+	public void testParallelMethodsOption() {
+		assertThat(parse("--parallel-methods").toJadxArgs().isParallelMethodsProcessing()).isTrue();
+		assertThat(parse("").toJadxArgs().isParallelMethodsProcessing()).isFalse();
+	}
+
+	@Test
+	public void testSaveThreadsOption() {
+		assertThat(parse("--save-threads-count", "0").toJadxArgs().getSaveThreadsCount()).isEqualTo(0);
+		assertThat(parse("--save-threads-count", "4").toJadxArgs().getSaveThreadsCount()).isEqualTo(4);
+		assertThat(parse("").toJadxArgs().getSaveThreadsCount()).isEqualTo(0);
+	}
+
+	@Test
+	public void testUnloadMemoryThresholdOption() {
+		assertThat(parse("--unload-memory-threshold", "75").toJadxArgs().getUnloadMemoryThreshold()).isEqualTo(75);
+		assertThat(parse("").toJadxArgs().getUnloadMemoryThreshold()).isEqualTo(0);
+	}
+
+	@Test
+	public void testOutputZipOption() {
+		assertThat(parse("--output-zip", "out.zip").toJadxArgs().getOutputArchive()).isEqualTo(new File("out.zip"));
+		assertThat(parse("").toJadxArgs().getOutputArchive()).isNull();
+	}
+
+	@Test
+	public void testPassesProfileOptions() {
+		JadxArgs args = parse("--profile-passes", "profile.txt", "--profile-passes-format", "collapsed").toJadxArgs();
+		assertThat(args.getPassesProfileFile()).isEqualTo(new File("profile.txt"));
+		assertThat(args.getPassesProfileFormat()).isEqualTo(PassesProfileFormat.COLLAPSED);
+		assertThat(parse("").toJadxArgs().getPassesProfileFile()).isNull();
+	}
+
+	@Test
+	public void testIncrementalCacheOption() {
+		JadxArgs args = parse("--incremental-cache", "cache").toJadxArgs();
+		assertThat(args.getIncrementalCacheDir()).isEqualTo(new File("cache"));
+		assertThat(parse("").toJadxArgs().getIncrementalCacheDir()).isNull();
+	}
+
+	@Test
+	public void testSingleClassLazyOption() {
+		JadxArgs args = parse("--single-class", "a.b.C", "--single-class-lazy").toJadxArgs();
+		assertThat(args.isLazyLoad()).isTrue();
+		assertThat(args.getClassFilter().test("a.b.C")).isTrue();
+		assertThat(args.getClassFilter().test("a.b.D")).isFalse();
+		assertThat(parse("--single-class", "a.b.C").toJadxArgs().isLazyLoad()).isFalse();
+		assertThat(parse("--single-class-lazy").toJadxArgs().isLazyLoad()).isFalse();
+	}
+
 	@Test
 	public void testOptionsOverride() {
 		assertThat(override(new JadxCLIArgs(), "--no-imports").isUseImports()).isFalse();
@@ -0,0 +1,71 @@
+package jadx.cli.daemon;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.Gson;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JadxDaemonTest {
+
+	@TempDir
+	Path testDir;
+
+	@Test
+	public void testJobs() throws Exception {
+		URL resource = getClass().getClassLoader().getResource("samples/hello.dex");
+		assertThat(resource).isNotNull();
+		String sample = Paths.get(resource.toURI()).toAbsolutePath().toString();
+		Path out1 = testDir.resolve("out1");
+		Path out2 = testDir.resolve("out2");
+
+		String requests = String.join("\n",
+				"{\"id\": \"job1\", \"args\": [\"-d\", " + quote(out1) + ", " + quote(sample) + "]}",
+				"{\"id\": \"job2\", \"args\": [\"-d\", " + quote(out2) + ", " + quote(sample) + "]}",
+				"{\"id\": \"bad\"}",
+				"not a json",
+				"{\"command\": \"shutdown\"}",
+				"{\"id\": \"skipped\", \"args\": [\"-d\", " + quote(out1) + ", " + quote(sample) + "]}");
+		StringWriter output = new StringWriter();
+		try (JadxDaemon daemon = new JadxDaemon(2)) {
+			daemon.process(new StringReader(requests), output);
+		}
+		Gson gson = new Gson();
+		Map<String, DaemonResponse> responses = Arrays.stream(output.toString().split("\\R"))
+				.map(line -> gson.fromJson(line, DaemonResponse.class))
+				.collect(Collectors.toMap(r -> String.valueOf(r.getId()), Function.identity()));
+
+		assertThat(responses).containsOnlyKeys("job1", "job2", "bad", "null");
+		assertThat(responses.get("job1").getResult()).isEqualTo(0);
+		assertThat(responses.get("job2").getResult()).isEqualTo(0);
+		assertThat(responses.get("bad").getResult()).isEqualTo(1);
+		assertThat(responses.get("bad").getError()).isNotNull();
+		assertThat(responses.get("null").getError()).startsWith("Request parse error");
+
+		assertThat(countJavaFiles(out1)).isEqualTo(1);
+		assertThat(countJavaFiles(out2)).isEqualTo(1);
+	}
+
+	private static String quote(Object str) {
+		return new Gson().toJson(str.toString());
+	}
+
+	private static long countJavaFiles(Path dir) throws Exception {
+		try (Stream<Path> files = Files.walk(dir)) {
+			return files.filter(f -> f.toString().endsWith(".java")).count();
+		}
+	}
+}
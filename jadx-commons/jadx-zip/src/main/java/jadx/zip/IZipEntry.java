@@ -2,6 +2,7 @@
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 public interface IZipEntry {
 
@@ -15,6 +16,15 @@ public interface IZipEntry {
 	 */
 	byte[] getBytes();
 
+	/**
+	 * Uncompressed content as read-only buffer.
+	 * Implementation can return slice of memory mapped zip file for stored entries
+	 * or direct (off-heap) buffer for compressed entries to reduce heap usage.
+	 */
+	default ByteBuffer getByteBuffer() {
+		return ByteBuffer.wrap(getBytes()).asReadOnlyBuffer();
+	}
+
 	/**
 	 * Stream of uncompressed bytes.
 	 */
@@ -2,6 +2,7 @@
 
 import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import jadx.zip.IZipEntry;
 
@@ -64,6 +65,11 @@ public byte[] getBytes() {
 		return parser.getBytes(this);
 	}
 
+	@Override
+	public ByteBuffer getByteBuffer() {
+		return parser.getByteBuffer(this);
+	}
+
 	@Override
 	public InputStream getInputStream() {
 		return parser.getInputStream(this);
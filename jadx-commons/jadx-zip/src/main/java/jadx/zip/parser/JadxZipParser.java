@@ -312,20 +312,57 @@ synchronized InputStream getInputStream(JadxZipEntry entry) {
 		return stream;
 	}
 
-	synchronized byte[] getBytes(JadxZipEntry entry) {
+	byte[] getBytes(JadxZipEntry entry) {
 		if (verify) {
 			verifyEntry(entry);
 		}
+		ByteBuffer buf = getBufferView();
 		if (entry.getCompressMethod() == 8) {
 			try {
-				return ZipDeflate.decompressEntryToBytes(byteBuffer, entry);
+				return ZipDeflate.decompressEntryToBytes(buf, entry);
 			} catch (Exception e) {
-				entryParseFailed(entry, e);
-				return useFallbackParser(entry).getBytes();
+				return getFallbackEntry(entry, e).getBytes();
 			}
 		}
 		// treat any other compression methods values as UNCOMPRESSED
-		return bufferToBytes(byteBuffer, entry.getDataStart(), (int) entry.getUncompressedSize());
+		return bufferToBytes(buf, entry.getDataStart(), (int) entry.getUncompressedSize());
+	}
+
+	/**
+	 * Stored entries returned as a slice of memory mapped file (zero-copy),
+	 * compressed entries decompressed into direct buffer.
+	 * For small zip files loaded into heap, stored entries are copied to not hold whole zip content.
+	 */
+	ByteBuffer getByteBuffer(JadxZipEntry entry) {
+		if (verify) {
+			verifyEntry(entry);
+		}
+		ByteBuffer buf = getBufferView();
+		if (entry.getCompressMethod() == 8) {
+			try {
+				return ZipDeflate.decompressEntryToDirectBuffer(buf, entry);
+			} catch (Exception e) {
+				return getFallbackEntry(entry, e).getByteBuffer();
+			}
+		}
+		// treat any other compression methods values as UNCOMPRESSED
+		int size = (int) entry.getUncompressedSize();
+		if (!buf.isDirect()) {
+			return ByteBuffer.wrap(bufferToBytes(buf, entry.getDataStart(), size)).asReadOnlyBuffer();
+		}
+		return bufferSlice(buf, entry.getDataStart(), size);
+	}
+
+	/**
+	 * Buffer with own position to allow entries decompression from several threads
+	 */
+	private synchronized ByteBuffer getBufferView() {
+		return byteBuffer.duplicate();
+	}
+
+	private synchronized IZipEntry getFallbackEntry(JadxZipEntry entry, Exception e) {
+		entryParseFailed(entry, e);
+		return useFallbackParser(entry);
 	}
 
 	private static void verifyEntry(JadxZipEntry entry) {
@@ -391,10 +428,14 @@ static byte[] bufferToBytes(ByteBuffer buf, int start, int size) {
 	}
 
 	static InputStream bufferToStream(ByteBuffer buf, int start, int size) {
+		return new ByteBufferBackedInputStream(bufferSlice(buf, start, size));
+	}
+
+	static ByteBuffer bufferSlice(ByteBuffer buf, int start, int size) {
 		buf.position(start);
-		ByteBuffer streamBuf = buf.slice();
-		streamBuf.limit(size);
-		return new ByteBufferBackedInputStream(streamBuf);
+		ByteBuffer slice = buf.slice();
+		slice.limit(size);
+		return slice;
 	}
 
 	private static int readU2(ByteBuffer buf) {
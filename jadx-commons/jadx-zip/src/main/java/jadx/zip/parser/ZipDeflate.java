@@ -30,6 +30,30 @@ static byte[] decompressEntryToBytes(ByteBuffer buf, JadxZipEntry entry) throws
 		return out;
 	}
 
+	static ByteBuffer decompressEntryToDirectBuffer(ByteBuffer buf, JadxZipEntry entry) throws DataFormatException {
+		buf.position(entry.getDataStart());
+		ByteBuffer entryBuf = buf.slice();
+		entryBuf.limit((int) entry.getCompressedSize());
+		if (entry.getUncompressedSize() > Integer.MAX_VALUE) {
+			throw new DataFormatException("Entry too large: " + entry.getUncompressedSize());
+		}
+		int size = (int) entry.getUncompressedSize();
+		ByteBuffer out = ByteBuffer.allocateDirect(size);
+		Inflater inflater = new Inflater(true);
+		try {
+			inflater.setInput(entryBuf);
+			int written = inflater.inflate(out);
+			if (written != size) {
+				throw new DataFormatException("Unexpected size of decompressed entry: " + entry
+						+ ", got: " + written + ", expected: " + size);
+			}
+		} finally {
+			inflater.end();
+		}
+		out.flip();
+		return out.asReadOnlyBuffer();
+	}
+
 	static InputStream decompressEntryToStream(ByteBuffer buf, JadxZipEntry entry) {
 		InputStream stream = bufferToStream(buf, entry.getDataStart(), (int) entry.getCompressedSize());
 		Inflater inflater = new Inflater(true);
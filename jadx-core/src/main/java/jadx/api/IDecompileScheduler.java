@@ -1,7 +1,26 @@
 package jadx.api;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface IDecompileScheduler {
 	List<List<JavaClass>> buildBatches(List<JavaClass> classes);
+
+	/**
+	 * Build tasks for parallel execution, every task should process classes using provided consumer.
+	 * Default implementation run every batch from {@link #buildBatches(List)} as a separate task.
+	 */
+	default List<Runnable> buildTasks(List<JavaClass> classes, Consumer<JavaClass> clsProcessor) {
+		List<List<JavaClass>> batches = buildBatches(classes);
+		List<Runnable> tasks = new ArrayList<>(batches.size());
+		for (List<JavaClass> batch : batches) {
+			tasks.add(() -> {
+				for (JavaClass cls : batch) {
+					clsProcessor.accept(cls);
+				}
+			});
+		}
+		return tasks;
+	}
 }
@@ -18,8 +18,10 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jadx.api.args.DecompileSchedulerType;
 import jadx.api.args.GeneratedRenamesMappingFileMode;
 import jadx.api.args.IntegerFormat;
+import jadx.api.args.PassesProfileFormat;
 import jadx.api.args.ResourceNameSource;
 import jadx.api.args.UseSourceNameAsClassNameAlias;
 import jadx.api.args.UserRenamesMappingsMode;
@@ -62,6 +64,12 @@ public class JadxArgs implements Closeable {
 	private File outDirSrc;
 	private File outDirRes;
 
+	/**
+	 * Write output files (sources and resources) into single zip file instead of output directories.
+	 * Entries paths are relative to output directory.
+	 */
+	private @Nullable File outputArchive;
+
 	private ICodeCache codeCache = new InMemoryCodeCache();
 
 	/**
@@ -74,6 +82,40 @@ public class JadxArgs implements Closeable {
 
 	private int threadsCount = DEFAULT_THREADS_COUNT;
 
+	/**
+	 * Threads count for write code files in background.
+	 * Disabled by default (0): files written directly from processing threads.
+	 */
+	private int saveThreadsCount = 0;
+
+	private DecompileSchedulerType decompileSchedulerType = DecompileSchedulerType.BATCHES;
+
+	/**
+	 * Process methods of big classes in parallel (only for passes marked as method local)
+	 */
+	private boolean parallelMethodsProcessing = false;
+
+	/**
+	 * Heap usage threshold (percent of max heap) to start unloading of processed classes.
+	 * Checked after GC, least recently used classes unloaded and reloaded on demand.
+	 * Set to 0 to disable.
+	 */
+	private int unloadMemoryThreshold = 0;
+
+	/**
+	 * Collect time and allocations for every pass and save results into this file.
+	 * Profiling disabled if {@code null}.
+	 */
+	private File passesProfileFile = null;
+	private PassesProfileFormat passesProfileFormat = PassesProfileFormat.JSON;
+
+	/**
+	 * Directory for persistent cache of generated code.
+	 * On next run unchanged classes (with same content and dependencies) saved without processing.
+	 * Cache disabled if {@code null}.
+	 */
+	private File incrementalCacheDir = null;
+
 	private boolean cfgOutput = false;
 	private boolean rawCFGOutput = false;
 
@@ -102,6 +144,12 @@ public class JadxArgs implements Closeable {
 	 */
 	private boolean includeDependencies = false;
 
+	/**
+	 * Create class nodes only for classes accepted by {@code classFilter} and their dependencies,
+	 * other classes not loaded at all. Supported only for inputs with search by type (dex, java classes).
+	 */
+	private boolean lazyLoad = false;
+
 	private Path userRenamesMappingsPath = null;
 	private UserRenamesMappingsMode userRenamesMappingsMode = UserRenamesMappingsMode.getDefault();
 
@@ -285,6 +333,14 @@ public void setOutDirRes(File outDirRes) {
 		this.outDirRes = outDirRes;
 	}
 
+	public @Nullable File getOutputArchive() {
+		return outputArchive;
+	}
+
+	public void setOutputArchive(@Nullable File outputArchive) {
+		this.outputArchive = outputArchive;
+	}
+
 	public int getThreadsCount() {
 		return threadsCount;
 	}
@@ -293,6 +349,62 @@ public void setThreadsCount(int threadsCount) {
 		this.threadsCount = Math.max(1, threadsCount); // make sure threadsCount >= 1
 	}
 
+	public int getSaveThreadsCount() {
+		return saveThreadsCount;
+	}
+
+	public void setSaveThreadsCount(int saveThreadsCount) {
+		this.saveThreadsCount = Math.max(0, saveThreadsCount);
+	}
+
+	public DecompileSchedulerType getDecompileSchedulerType() {
+		return decompileSchedulerType;
+	}
+
+	public void setDecompileSchedulerType(DecompileSchedulerType decompileSchedulerType) {
+		this.decompileSchedulerType = decompileSchedulerType;
+	}
+
+	public boolean isParallelMethodsProcessing() {
+		return parallelMethodsProcessing;
+	}
+
+	public void setParallelMethodsProcessing(boolean parallelMethodsProcessing) {
+		this.parallelMethodsProcessing = parallelMethodsProcessing;
+	}
+
+	public int getUnloadMemoryThreshold() {
+		return unloadMemoryThreshold;
+	}
+
+	public void setUnloadMemoryThreshold(int unloadMemoryThreshold) {
+		this.unloadMemoryThreshold = Math.max(0, Math.min(100, unloadMemoryThreshold));
+	}
+
+	public File getPassesProfileFile() {
+		return passesProfileFile;
+	}
+
+	public void setPassesProfileFile(File passesProfileFile) {
+		this.passesProfileFile = passesProfileFile;
+	}
+
+	public PassesProfileFormat getPassesProfileFormat() {
+		return passesProfileFormat;
+	}
+
+	public void setPassesProfileFormat(PassesProfileFormat passesProfileFormat) {
+		this.passesProfileFormat = passesProfileFormat;
+	}
+
+	public File getIncrementalCacheDir() {
+		return incrementalCacheDir;
+	}
+
+	public void setIncrementalCacheDir(File incrementalCacheDir) {
+		this.incrementalCacheDir = incrementalCacheDir;
+	}
+
 	public boolean isCfgOutput() {
 		return cfgOutput;
 	}
@@ -419,6 +531,14 @@ public boolean isIncludeDependencies() {
 		return includeDependencies;
 	}
 
+	public boolean isLazyLoad() {
+		return lazyLoad;
+	}
+
+	public void setLazyLoad(boolean lazyLoad) {
+		this.lazyLoad = lazyLoad;
+	}
+
 	public Predicate<String> getClassFilter() {
 		return classFilter;
 	}
@@ -886,13 +1006,22 @@ public String toString() {
 				+ ", outDir=" + outDir
 				+ ", outDirSrc=" + outDirSrc
 				+ ", outDirRes=" + outDirRes
+				+ ", outputArchive=" + outputArchive
 				+ ", threadsCount=" + threadsCount
+				+ ", saveThreadsCount=" + saveThreadsCount
+				+ ", decompileSchedulerType=" + decompileSchedulerType
+				+ ", parallelMethodsProcessing=" + parallelMethodsProcessing
+				+ ", unloadMemoryThreshold=" + unloadMemoryThreshold
+				+ ", passesProfileFile=" + passesProfileFile
+				+ ", passesProfileFormat=" + passesProfileFormat
+				+ ", incrementalCacheDir=" + incrementalCacheDir
 				+ ", decompilationMode=" + decompilationMode
 				+ ", showInconsistentCode=" + showInconsistentCode
 				+ ", useImports=" + useImports
 				+ ", skipResources=" + skipResources
 				+ ", skipSources=" + skipSources
 				+ ", includeDependencies=" + includeDependencies
+				+ ", lazyLoad=" + lazyLoad
 				+ ", userRenamesMappingsPath=" + userRenamesMappingsPath
 				+ ", userRenamesMappingsMode=" + userRenamesMappingsMode
 				+ ", deobfuscationOn=" + deobfuscationOn
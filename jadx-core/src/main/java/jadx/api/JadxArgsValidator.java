@@ -1,6 +1,7 @@
 package jadx.api;
 
 import java.io.File;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.jetbrains.annotations.NotNull;
@@ -57,6 +58,32 @@ private static void validateOutDirs(JadxArgs args) {
 		checkDir(args.getOutDir(), "Output");
 		checkDir(args.getOutDirSrc(), "Source output");
 		checkDir(args.getOutDirRes(), "Resources output");
+		validateOutputArchive(args);
+	}
+
+	private static void validateOutputArchive(JadxArgs args) {
+		File archive = args.getOutputArchive();
+		if (archive == null) {
+			return;
+		}
+		if (archive.isDirectory()) {
+			throw new JadxArgsValidateException("Output archive exists as directory " + archive);
+		}
+		if (args.getExportGradleType() != null) {
+			throw new JadxArgsValidateException("Gradle export not supported with output archive");
+		}
+		// entries names are paths relative to output directory
+		checkSubDir(args.getOutDir(), args.getOutDirSrc(), "Source output");
+		checkSubDir(args.getOutDir(), args.getOutDirRes(), "Resources output");
+	}
+
+	private static void checkSubDir(File outDir, File dir, String desc) {
+		Path outPath = outDir.toPath().toAbsolutePath().normalize();
+		Path dirPath = dir.toPath().toAbsolutePath().normalize();
+		if (!dirPath.startsWith(outPath)) {
+			throw new JadxArgsValidateException(desc + " directory should be inside output directory"
+					+ " for output archive: " + dir);
+		}
 	}
 
 	@NotNull
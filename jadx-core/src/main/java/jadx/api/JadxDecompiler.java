@@ -13,6 +13,7 @@
 import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -21,6 +22,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jadx.api.impl.SimpleCodeInfo;
 import jadx.api.metadata.ICodeAnnotation;
 import jadx.api.metadata.ICodeNodeRef;
 import jadx.api.metadata.annotations.NodeDeclareRef;
@@ -48,10 +50,17 @@
 import jadx.core.plugins.JadxPluginManager;
 import jadx.core.plugins.PluginContext;
 import jadx.core.plugins.events.JadxEventsImpl;
+import jadx.core.utils.ClassUnloadGovernor;
 import jadx.core.utils.DecompilerScheduler;
+import jadx.core.utils.DepsGraphScheduler;
+import jadx.core.utils.PassesProfiler;
 import jadx.core.utils.Utils;
+import jadx.core.utils.cache.IncrementalCodeCache;
 import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.AsyncFileWriter;
 import jadx.core.utils.files.FileUtils;
+import jadx.core.utils.files.IFilesWriter;
+import jadx.core.utils.files.ZipFilesWriter;
 import jadx.core.utils.tasks.TaskExecutor;
 import jadx.core.xmlgen.ResourcesSaver;
 import jadx.zip.ZipReader;
@@ -95,13 +104,14 @@ public final class JadxDecompiler implements Closeable {
 	private List<JavaClass> classes;
 	private List<ResourceFile> resources;
 
-	private final IDecompileScheduler decompileScheduler = new DecompilerScheduler();
+	private final IDecompileScheduler decompileScheduler;
 	private final ResourcesLoader resourcesLoader;
 
 	private final List<ICodeLoader> customCodeLoaders = new ArrayList<>();
 	private final List<CustomResourcesLoader> customResourcesLoaders = new ArrayList<>();
 	private final Map<JadxPassType, List<JadxPass>> customPasses = new HashMap<>();
 	private final List<Closeable> closeableList = new ArrayList<>();
+	private @Nullable IncrementalCodeCache incrementalCache;
 
 	private IJadxEvents events = new JadxEventsImpl();
 
@@ -113,9 +123,21 @@ public JadxDecompiler(JadxArgs args) {
 		this.args = Objects.requireNonNull(args);
 		this.pluginManager = new JadxPluginManager(this);
 		this.resourcesLoader = new ResourcesLoader(this);
+		this.decompileScheduler = buildDecompileScheduler(args);
 		this.zipReader = new ZipReader(args.getSecurity());
 	}
 
+	private static IDecompileScheduler buildDecompileScheduler(JadxArgs args) {
+		switch (args.getDecompileSchedulerType()) {
+			case BATCHES:
+				return new DecompilerScheduler();
+			case DEPS_GRAPH:
+				return new DepsGraphScheduler();
+			default:
+				throw new JadxRuntimeException("Unknown decompile scheduler type: " + args.getDecompileSchedulerType());
+		}
+	}
+
 	public void load() {
 		reset();
 		JadxArgsValidator.validate(this);
@@ -179,7 +201,13 @@ private void loadInputFiles() {
 	}
 
 	private void reset() {
+		if (root != null && LOG.isDebugEnabled()) {
+			LOG.debug("Type compare cache stats: {}", root.getTypeCompare().getCache().getStats());
+		}
 		unloadPlugins();
+		if (root != null) {
+			root.close();
+		}
 		root = null;
 		classes = null;
 		resources = null;
@@ -315,32 +343,71 @@ private TaskExecutor getSaveTasks(boolean saveSources, boolean saveResources) {
 		} else {
 			gradleExport = null;
 			outDirs = new OutDirs(args.getOutDirSrc(), args.getOutDirRes());
-			outDirs.makeDirs();
+			if (args.getOutputArchive() == null) {
+				outDirs.makeDirs();
+			}
 		}
+		IFilesWriter archiveWriter = openArchiveWriter();
+		AtomicBoolean writeFailed = new AtomicBoolean(false);
 
 		TaskExecutor executor = new TaskExecutor();
 		executor.setThreadsCount(args.getThreadsCount());
 		if (saveResources) {
 			// save resources first because decompilation can stop or fail
-			appendResourcesSaveTasks(executor, outDirs.getResOutDir());
+			appendResourcesSaveTasks(executor, outDirs.getResOutDir(), archiveWriter);
 		}
+		IncrementalCodeCache incrementalCache = null;
 		if (saveSources) {
-			appendSourcesSave(executor, outDirs.getSrcOutDir());
+			incrementalCache = appendSourcesSave(executor, outDirs.getSrcOutDir(), archiveWriter, writeFailed);
+			if (root.getPassesProfiler() != null) {
+				executor.addSequentialTask(this::savePassesProfile);
+			}
+			ClassUnloadGovernor unloadGovernor = root.getClassUnloadGovernor();
+			if (unloadGovernor != null) {
+				executor.addSequentialTask(() -> LOG.info("Classes unload {}", unloadGovernor.getStats()));
+			}
 		}
 		if (gradleExport != null) {
 			executor.addSequentialTask(gradleExport::generateGradleFiles);
 		}
+		if (archiveWriter != null) {
+			executor.addSequentialTask(() -> closeFileWriter(archiveWriter, writeFailed));
+		}
+		if (incrementalCache != null) {
+			// commit only after all files written
+			IncrementalCodeCache cache = incrementalCache;
+			executor.addSequentialTask(() -> commitIncrementalCache(cache, writeFailed));
+		}
 		return executor;
 	}
 
-	private void appendResourcesSaveTasks(ITaskExecutor executor, File outDir) {
+	private @Nullable IFilesWriter openArchiveWriter() {
+		File archive = args.getOutputArchive();
+		if (archive == null || args.isSkipFilesSave()) {
+			return null;
+		}
+		ZipFilesWriter archiveWriter = new ZipFilesWriter(archive, args.getOutDir());
+		// close if save not finished
+		closeableList.add(archiveWriter);
+		return archiveWriter;
+	}
+
+	private void savePassesProfile() {
+		PassesProfiler profiler = root.getPassesProfiler();
+		File profileFile = args.getPassesProfileFile();
+		if (profiler != null && profileFile != null) {
+			profiler.save(profileFile.toPath(), args.getPassesProfileFormat());
+		}
+	}
+
+	private void appendResourcesSaveTasks(ITaskExecutor executor, File outDir, @Nullable IFilesWriter fileWriter) {
 		if (args.isSkipFilesSave()) {
 			return;
 		}
 		// process AndroidManifest.xml first to load complete resource ids table
 		for (ResourceFile resourceFile : getResources()) {
 			if (resourceFile.getType() == ResourceType.MANIFEST) {
-				new ResourcesSaver(this, outDir, resourceFile).run();
+				new ResourcesSaver(this, outDir, resourceFile, fileWriter).run();
 				break;
 			}
 		}
@@ -366,7 +433,7 @@ private void appendResourcesSaveTasks(ITaskExecutor executor, File outDir) {
 				// do not trust file extensions, use only sources set as class inputs
 				continue;
 			}
-			tasks.add(new ResourcesSaver(this, outDir, resourceFile));
+			tasks.add(new ResourcesSaver(this, outDir, resourceFile, fileWriter));
 		}
 		executor.addParallelTasks(tasks);
 	}
@@ -394,31 +461,91 @@ private Set<String> collectCodeSources() {
 		return set;
 	}
 
-	private void appendSourcesSave(ITaskExecutor executor, File outDir) {
+	private @Nullable IncrementalCodeCache appendSourcesSave(ITaskExecutor executor, File outDir,
+			@Nullable IFilesWriter archiveWriter, AtomicBoolean writeFailed) {
 		List<JavaClass> classes = getClasses();
 		List<JavaClass> processQueue = filterClasses(classes);
-		List<List<JavaClass>> batches;
+		IncrementalCodeCache incrementalCache = openIncrementalCache();
+		IFilesWriter fileWriter = archiveWriter != null ? archiveWriter : openFileWriter();
+		List<Runnable> decompileTasks;
 		try {
-			batches = decompileScheduler.buildBatches(processQueue);
-		} catch (Exception e) {
-			throw new JadxRuntimeException("Decompilation batches build failed", e);
-		}
-		List<Runnable> decompileTasks = new ArrayList<>(batches.size());
-		for (List<JavaClass> decompileBatch : batches) {
-			decompileTasks.add(() -> {
-				for (JavaClass cls : decompileBatch) {
-					try {
-						ClassNode clsNode = cls.getClassNode();
-						ICodeInfo code = clsNode.getCode();
-						SaveCode.save(outDir, clsNode, code);
-					} catch (Exception e) {
-						LOG.error("Error saving class: {}", cls, e);
+			decompileTasks = decompileScheduler.buildTasks(processQueue, cls -> {
+				try {
+					ClassNode clsNode = cls.getClassNode();
+					ICodeInfo code;
+					if (incrementalCache != null) {
+						// only code string required for save
+						code = new SimpleCodeInfo(incrementalCache.getCodeStr(clsNode));
+					} else {
+						code = clsNode.getCode();
 					}
+					SaveCode.save(outDir, clsNode, code, fileWriter);
+				} catch (Exception e) {
+					LOG.error("Error saving class: {}", cls, e);
 				}
-
 			});
+		} catch (Exception e) {
+			throw new JadxRuntimeException("Decompilation batches build failed", e);
 		}
 		executor.addParallelTasks(decompileTasks);
+		if (fileWriter != null && fileWriter != archiveWriter) {
+			executor.addSequentialTask(() -> closeFileWriter(fileWriter, writeFailed));
+		}
+		return incrementalCache;
+	}
+
+	private @Nullable AsyncFileWriter openFileWriter() {
+		int saveThreads = args.getSaveThreadsCount();
+		if (saveThreads <= 0 || args.isSkipFilesSave()) {
+			return null;
+		}
+		AsyncFileWriter fileWriter = new AsyncFileWriter(saveThreads);
+		// close if save not finished
+		closeableList.add(fileWriter);
+		return fileWriter;
+	}
+
+	/**
+	 * Failure counted as error, because some output files can be lost
+	 */
+	private void closeFileWriter(IFilesWriter fileWriter, AtomicBoolean writeFailed) {
+		try {
+			fileWriter.close();
+		} catch (Exception e) {
+			writeFailed.set(true);
+			root.getErrorsCounter().addGeneralError("Failed to finish files write", e);
+		}
+	}
+
+	private @Nullable IncrementalCodeCache openIncrementalCache() {
+		File cacheDir = args.getIncrementalCacheDir();
+		if (cacheDir == null) {
+			return null;
+		}
+		try {
+			String codeVersion = IncrementalCodeCache.buildCodeVersion(args, this);
+			IncrementalCodeCache cache = new IncrementalCodeCache(cacheDir.toPath(), codeVersion);
+			// drop new entries if save not finished
+			closeableList.add(cache);
+			incrementalCache = cache;
+			return cache;
+		} catch (Exception e) {
+			LOG.error("Failed to open incremental cache, all classes will be processed", e);
+			return null;
+		}
+	}
+
+	private void commitIncrementalCache(IncrementalCodeCache cache, AtomicBoolean writeFailed) {
+		if (writeFailed.get()) {
+			LOG.warn("Incremental cache not saved because some files not written");
+			return;
+		}
+		try {
+			cache.commit();
+			LOG.info("Incremental cache {}", cache.getStats());
+		} catch (Exception e) {
+			LOG.error("Failed to save incremental cache", e);
+		}
 	}
 
 	private List<JavaClass> filterClasses(List<JavaClass> classes) {
@@ -702,6 +829,14 @@ public IDecompileScheduler getDecompileScheduler() {
 		return decompileScheduler;
 	}
 
+	/**
+	 * Incremental cache used in last save, {@code null} if disabled
+	 */
+	@ApiStatus.Internal
+	public @Nullable IncrementalCodeCache getIncrementalCache() {
+		return incrementalCache;
+	}
+
 	public IJadxEvents events() {
 		return events;
 	}
@@ -0,0 +1,13 @@
+package jadx.api.args;
+
+public enum DecompileSchedulerType {
+	/**
+	 * Static batches with class dependencies built before decompilation (default)
+	 */
+	BATCHES,
+
+	/**
+	 * Live dependency graph, classes released for processing after all dependencies are complete
+	 */
+	DEPS_GRAPH
+}
@@ -0,0 +1,13 @@
+package jadx.api.args;
+
+public enum PassesProfileFormat {
+	/**
+	 * Per pass, class and method stats in JSON
+	 */
+	JSON,
+
+	/**
+	 * Collapsed stacks ('pass;class;method value'), can be used as input for flame graph tools
+	 */
+	COLLAPSED
+}
@@ -5,7 +5,7 @@
 import jadx.api.ICodeInfo;
 import jadx.api.metadata.ICodeAnnotation;
 import jadx.api.metadata.ICodeMetadata;
-import jadx.api.metadata.impl.CodeMetadataStorage;
+import jadx.api.metadata.impl.ArrayCodeMetadata;
 
 public class AnnotatedCodeInfo implements ICodeInfo {
 
@@ -14,7 +14,12 @@ public class AnnotatedCodeInfo implements ICodeInfo {
 
 	public AnnotatedCodeInfo(String code, Map<Integer, Integer> lineMapping, Map<Integer, ICodeAnnotation> annotations) {
 		this.code = code;
-		this.metadata = CodeMetadataStorage.build(lineMapping, annotations);
+		this.metadata = ArrayCodeMetadata.build(lineMapping, annotations);
+	}
+
+	public AnnotatedCodeInfo(String code, ICodeMetadata metadata) {
+		this.code = code;
+		this.metadata = metadata;
 	}
 
 	@Override
@@ -0,0 +1,474 @@
+package jadx.api.impl;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import jadx.api.ICodeCache;
+import jadx.api.ICodeInfo;
+import jadx.api.metadata.ICodeMetadata;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * In memory code cache with compressed code strings stored outside of java heap.
+ * <br>
+ * Code deflated and appended into direct byte buffer chunks, metadata kept as is
+ * (annotations reference live nodes). If allocated storage exceed the limit, oldest chunk dropped
+ * with all its entries (entry read from oldest chunk moved into current one to not lose hot classes).
+ * Recently used decoded entries kept in small LRU front cache,
+ * {@link #getCode(String)} (used by search) don't put entries into front cache.
+ * <br>
+ * Decoding done without lock, so after put into front cache stored entry checked again
+ * and decoded value dropped if entry was replaced or removed concurrently.
+ */
+public class CompressedCodeCache implements ICodeCache {
+	public static final long DEFAULT_MAX_STORAGE_SIZE = 256 * 1024 * 1024L;
+	public static final int DEFAULT_FRONT_CACHE_SIZE = 64;
+
+	private static final int MAX_CHUNK_SIZE = 4 * 1024 * 1024;
+	private static final int MIN_CHUNK_SIZE = 64 * 1024;
+
+	private final long maxStorageSize;
+	private final int chunkSize;
+	private final int frontCacheSize;
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+	private final Map<String, ICodeInfo> frontCache;
+	private final Deque<Chunk> chunks = new ArrayDeque<>();
+	private final Queue<Deflater> deflatersPool = new ConcurrentLinkedQueue<>();
+	private final Queue<Inflater> inflatersPool = new ConcurrentLinkedQueue<>();
+
+	// guarded by 'this'
+	private long allocatedSize;
+	private long compressedSize;
+	private long rawSize;
+
+	private final LongAdder frontHits = new LongAdder();
+	private final LongAdder storageHits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public CompressedCodeCache() {
+		this(DEFAULT_MAX_STORAGE_SIZE, DEFAULT_FRONT_CACHE_SIZE);
+	}
+
+	/**
+	 * @param maxStorageSize limit for allocated off-heap memory in bytes
+	 * @param frontCacheSize max count of decoded entries to keep, 0 to disable
+	 */
+	public CompressedCodeCache(long maxStorageSize, int frontCacheSize) {
+		if (maxStorageSize <= 0) {
+			throw new IllegalArgumentException("Storage size limit should be positive: " + maxStorageSize);
+		}
+		if (frontCacheSize < 0) {
+			throw new IllegalArgumentException("Front cache size can't be negative: " + frontCacheSize);
+		}
+		this.maxStorageSize = maxStorageSize;
+		this.chunkSize = (int) Math.max(MIN_CHUNK_SIZE, Math.min(MAX_CHUNK_SIZE, maxStorageSize / 16));
+		this.frontCacheSize = frontCacheSize;
+		this.frontCache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ICodeInfo> eldest) {
+				return size() > CompressedCodeCache.this.frontCacheSize;
+			}
+		};
+	}
+
+	@Override
+	public void add(String clsFullName, ICodeInfo codeInfo) {
+		byte[] raw = codeInfo.getCodeStr().getBytes(StandardCharsets.UTF_8);
+		byte[] data = compress(raw);
+		Entry entry = store(clsFullName, data, raw.length, codeInfo.getCodeMetadata());
+		// just added code most likely will be requested soon
+		putToFront(clsFullName, codeInfo, entry);
+	}
+
+	@Override
+	public synchronized void remove(String clsFullName) {
+		// remove from storage first, so concurrent 'get' will not keep decoded value in front cache
+		Entry entry = entries.remove(clsFullName);
+		removeFromFront(clsFullName);
+		if (entry != null) {
+			entryRemoved(entry);
+		}
+	}
+
+	@NotNull
+	@Override
+	public ICodeInfo get(String clsFullName) {
+		ICodeInfo frontCodeInfo = getFromFront(clsFullName);
+		if (frontCodeInfo != null) {
+			frontHits.increment();
+			return frontCodeInfo;
+		}
+		Entry entry = entries.get(clsFullName);
+		if (entry == null) {
+			misses.increment();
+			return ICodeInfo.EMPTY;
+		}
+		storageHits.increment();
+		byte[] data = readData(entry);
+		String code = decompress(data, entry.getRawLength());
+		ICodeMetadata metadata = entry.getMetadata();
+		ICodeInfo codeInfo = metadata == ICodeMetadata.EMPTY
+				? new SimpleCodeInfo(code)
+				: new AnnotatedCodeInfo(code, metadata);
+		Entry current = promote(clsFullName, entry, data);
+		putToFront(clsFullName, codeInfo, current);
+		return codeInfo;
+	}
+
+	@Override
+	public @Nullable String getCode(String clsFullName) {
+		ICodeInfo frontCodeInfo = getFromFront(clsFullName);
+		if (frontCodeInfo != null) {
+			frontHits.increment();
+			return frontCodeInfo.getCodeStr();
+		}
+		Entry entry = entries.get(clsFullName);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		storageHits.increment();
+		return decompress(readData(entry), entry.getRawLength());
+	}
+
+	@Override
+	public boolean contains(String clsFullName) {
+		return entries.containsKey(clsFullName);
+	}
+
+	private synchronized Entry store(String clsFullName, byte[] data, int rawLength, ICodeMetadata metadata) {
+		Chunk chunk = getChunkForData(data.length);
+		int offset = chunk.append(data);
+		chunk.getNames().add(clsFullName);
+		Entry entry = new Entry(chunk, offset, data.length, rawLength, metadata);
+		Entry prev = entries.put(clsFullName, entry);
+		if (prev != null) {
+			entryRemoved(prev);
+		}
+		compressedSize += data.length;
+		this.rawSize += rawLength;
+		return entry;
+	}
+
+	/**
+	 * Move entry from oldest chunk to the current one, so it will not be evicted soon
+	 *
+	 * @return entry for decoded data, new one if moved
+	 */
+	private Entry promote(String clsFullName, Entry entry, byte[] data) {
+		synchronized (this) {
+			if (chunks.size() > 1
+					&& chunks.peekFirst() == entry.getChunk()
+					&& entries.get(clsFullName) == entry) {
+				return store(clsFullName, data, entry.getRawLength(), entry.getMetadata());
+			}
+			return entry;
+		}
+	}
+
+	private Chunk getChunkForData(int size) {
+		Chunk last = chunks.peekLast();
+		if (last != null && last.remaining() >= size) {
+			return last;
+		}
+		Chunk chunk = new Chunk(Math.max(chunkSize, size));
+		chunks.addLast(chunk);
+		allocatedSize += chunk.getCapacity();
+		while (allocatedSize > maxStorageSize && chunks.size() > 1) {
+			evict(chunks.pollFirst());
+		}
+		return chunk;
+	}
+
+	private void evict(Chunk chunk) {
+		allocatedSize -= chunk.getCapacity();
+		for (String name : chunk.getNames()) {
+			Entry entry = entries.get(name);
+			if (entry != null && entry.getChunk() == chunk) {
+				entries.remove(name);
+				removeFromFront(name);
+				entryRemoved(entry);
+				evictions.increment();
+			}
+		}
+	}
+
+	private void entryRemoved(Entry entry) {
+		compressedSize -= entry.getLength();
+		rawSize -= entry.getRawLength();
+	}
+
+	private static byte[] readData(Entry entry) {
+		// chunks never reused, so data can be read without lock even if chunk already evicted
+		ByteBuffer buf = entry.getChunk().getBuffer().duplicate();
+		buf.position(entry.getOffset());
+		byte[] data = new byte[entry.getLength()];
+		buf.get(data);
+		return data;
+	}
+
+	private byte[] compress(byte[] raw) {
+		Deflater deflater = deflatersPool.poll();
+		if (deflater == null) {
+			deflater = new Deflater(Deflater.BEST_SPEED, true);
+		}
+		try {
+			deflater.setInput(raw);
+			deflater.finish();
+			byte[] buf = new byte[Math.max(64, raw.length / 4)];
+			int len = 0;
+			while (!deflater.finished()) {
+				if (len == buf.length) {
+					buf = Arrays.copyOf(buf, buf.length * 2);
+				}
+				len += deflater.deflate(buf, len, buf.length - len);
+			}
+			return Arrays.copyOf(buf, len);
+		} finally {
+			deflater.reset();
+			deflatersPool.add(deflater);
+		}
+	}
+
+	private String decompress(byte[] data, int rawLength) {
+		Inflater inflater = inflatersPool.poll();
+		if (inflater == null) {
+			inflater = new Inflater(true);
+		}
+		try {
+			inflater.setInput(data);
+			byte[] raw = new byte[rawLength];
+			int len = 0;
+			while (len < rawLength) {
+				int read = inflater.inflate(raw, len, rawLength - len);
+				if (read == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+					break;
+				}
+				len += read;
+			}
+			if (len != rawLength) {
+				throw new JadxRuntimeException("Code decompression failed, expected length: " + rawLength + ", got: " + len);
+			}
+			return new String(raw, StandardCharsets.UTF_8);
+		} catch (DataFormatException e) {
+			throw new JadxRuntimeException("Code decompression failed", e);
+		} finally {
+			inflater.reset();
+			inflatersPool.add(inflater);
+		}
+	}
+
+	private @Nullable ICodeInfo getFromFront(String clsFullName) {
+		if (frontCacheSize == 0) {
+			return null;
+		}
+		synchronized (frontCache) {
+			return frontCache.get(clsFullName);
+		}
+	}
+
+	/**
+	 * @param entry stored entry for this code info, value not kept if entry already replaced or removed
+	 */
+	private void putToFront(String clsFullName, ICodeInfo codeInfo, Entry entry) {
+		if (frontCacheSize == 0) {
+			return;
+		}
+		synchronized (frontCache) {
+			frontCache.put(clsFullName, codeInfo);
+		}
+		// storage changed before or while put, remove or replace will not see this value
+		if (entries.get(clsFullName) != entry) {
+			synchronized (frontCache) {
+				frontCache.remove(clsFullName, codeInfo);
+			}
+		}
+	}
+
+	private void removeFromFront(String clsFullName) {
+		if (frontCacheSize == 0) {
+			return;
+		}
+		synchronized (frontCache) {
+			frontCache.remove(clsFullName);
+		}
+	}
+
+	public long getFrontHits() {
+		return frontHits.sum();
+	}
+
+	public long getStorageHits() {
+		return storageHits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Count of entries removed because of storage size limit
+	 */
+	public long getEvictions() {
+		return evictions.sum();
+	}
+
+	public int getEntriesCount() {
+		return entries.size();
+	}
+
+	/**
+	 * Off-heap memory allocated for storage
+	 */
+	public synchronized long getAllocatedSize() {
+		return allocatedSize;
+	}
+
+	public synchronized long getCompressedSize() {
+		return compressedSize;
+	}
+
+	/**
+	 * Size of stored code in UTF-8 before compression
+	 */
+	public synchronized long getRawSize() {
+		return rawSize;
+	}
+
+	public long getMaxStorageSize() {
+		return maxStorageSize;
+	}
+
+	public int getFrontCacheSize() {
+		return frontCacheSize;
+	}
+
+	public String getStats() {
+		return "entries: " + getEntriesCount()
+				+ ", raw size: " + getRawSize()
+				+ ", compressed size: " + getCompressedSize()
+				+ ", allocated: " + getAllocatedSize() + " of " + maxStorageSize
+				+ ", front hits: " + getFrontHits()
+				+ ", storage hits: " + getStorageHits()
+				+ ", misses: " + getMisses()
+				+ ", evictions: " + getEvictions();
+	}
+
+	@Override
+	public synchronized void close() {
+		entries.clear();
+		chunks.clear();
+		synchronized (frontCache) {
+			frontCache.clear();
+		}
+		allocatedSize = 0;
+		compressedSize = 0;
+		rawSize = 0;
+		Deflater deflater;
+		while ((deflater = deflatersPool.poll()) != null) {
+			deflater.end();
+		}
+		Inflater inflater;
+		while ((inflater = inflatersPool.poll()) != null) {
+			inflater.end();
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "CompressedCodeCache: " + getStats();
+	}
+
+	private static final class Chunk {
+		private final ByteBuffer buffer;
+		private final List<String> names = new ArrayList<>();
+		private int pos;
+
+		private Chunk(int capacity) {
+			this.buffer = ByteBuffer.allocateDirect(capacity);
+		}
+
+		/**
+		 * @return offset of appended data
+		 */
+		public int append(byte[] data) {
+			int offset = pos;
+			ByteBuffer buf = buffer.duplicate();
+			buf.position(offset);
+			buf.put(data);
+			pos += data.length;
+			return offset;
+		}
+
+		public int remaining() {
+			return buffer.capacity() - pos;
+		}
+
+		public int getCapacity() {
+			return buffer.capacity();
+		}
+
+		public ByteBuffer getBuffer() {
+			return buffer;
+		}
+
+		public List<String> getNames() {
+			return names;
+		}
+	}
+
+	private static final class Entry {
+		private final Chunk chunk;
+		private final int offset;
+		private final int length;
+		private final int rawLength;
+		private final ICodeMetadata metadata;
+
+		private Entry(Chunk chunk, int offset, int length, int rawLength, ICodeMetadata metadata) {
+			this.chunk = chunk;
+			this.offset = offset;
+			this.length = length;
+			this.rawLength = rawLength;
+			this.metadata = metadata;
+		}
+
+		public Chunk getChunk() {
+			return chunk;
+		}
+
+		public int getOffset() {
+			return offset;
+		}
+
+		public int getLength() {
+			return length;
+		}
+
+		public int getRawLength() {
+			return rawLength;
+		}
+
+		public ICodeMetadata getMetadata() {
+			return metadata;
+		}
+	}
+}
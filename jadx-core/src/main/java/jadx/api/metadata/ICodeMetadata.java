@@ -5,11 +5,11 @@
 
 import org.jetbrains.annotations.Nullable;
 
-import jadx.api.metadata.impl.CodeMetadataStorage;
+import jadx.api.metadata.impl.ArrayCodeMetadata;
 
 public interface ICodeMetadata {
 
-	ICodeMetadata EMPTY = CodeMetadataStorage.empty();
+	ICodeMetadata EMPTY = ArrayCodeMetadata.empty();
 
 	@Nullable
 	ICodeAnnotation getAt(int position);
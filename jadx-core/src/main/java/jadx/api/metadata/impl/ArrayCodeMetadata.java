@@ -0,0 +1,319 @@
+package jadx.api.metadata.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import org.jetbrains.annotations.Nullable;
+
+import jadx.api.metadata.ICodeAnnotation;
+import jadx.api.metadata.ICodeAnnotation.AnnType;
+import jadx.api.metadata.ICodeMetadata;
+import jadx.api.metadata.ICodeNodeRef;
+import jadx.api.metadata.annotations.NodeDeclareRef;
+
+/**
+ * Immutable code metadata stored in sorted primitive arrays.
+ * <br>
+ * Annotations positions kept in ascending order with parallel annotations array,
+ * lookups use binary search. Compared to {@link CodeMetadataStorage} no boxed keys and map entries allocated.
+ * Maps returned by {@link #getAsMap()} and {@link #getLineMapping()} are read-only views,
+ * annotations map iterated in descending positions order (same as in {@link CodeMetadataStorage}).
+ */
+public final class ArrayCodeMetadata implements ICodeMetadata {
+	private static final int[] EMPTY_INTS = new int[0];
+	private static final ICodeAnnotation[] EMPTY_ANNOTATIONS = new ICodeAnnotation[0];
+
+	public static ICodeMetadata build(Map<Integer, Integer> lines, Map<Integer, ICodeAnnotation> map) {
+		if (map.isEmpty() && lines.isEmpty()) {
+			return ICodeMetadata.EMPTY;
+		}
+		int[] positions = sortedKeys(map);
+		int count = positions.length;
+		ICodeAnnotation[] annotations = new ICodeAnnotation[count];
+		for (int i = 0; i < count; i++) {
+			annotations[i] = map.get(positions[i]);
+		}
+		int[] lineKeys = sortedKeys(lines);
+		int linesCount = lineKeys.length;
+		int[] lineValues = new int[linesCount];
+		for (int i = 0; i < linesCount; i++) {
+			lineValues[i] = lines.get(lineKeys[i]);
+		}
+		return new ArrayCodeMetadata(positions, annotations, lineKeys, lineValues);
+	}
+
+	public static ICodeMetadata empty() {
+		return new ArrayCodeMetadata(EMPTY_INTS, EMPTY_ANNOTATIONS, EMPTY_INTS, EMPTY_INTS);
+	}
+
+	private static int[] sortedKeys(Map<Integer, ?> map) {
+		if (map.isEmpty()) {
+			return EMPTY_INTS;
+		}
+		int[] keys = new int[map.size()];
+		int i = 0;
+		for (Integer key : map.keySet()) {
+			keys[i++] = key;
+		}
+		Arrays.sort(keys);
+		return keys;
+	}
+
+	// <character index into the file> -> <code annotation>
+	private final int[] positions;
+	private final ICodeAnnotation[] annotations;
+
+	// <decomp file line number> -> <dex debug line number>
+	private final int[] lineKeys;
+	private final int[] lineValues;
+
+	private ArrayCodeMetadata(int[] positions, ICodeAnnotation[] annotations, int[] lineKeys, int[] lineValues) {
+		this.positions = positions;
+		this.annotations = annotations;
+		this.lineKeys = lineKeys;
+		this.lineValues = lineValues;
+	}
+
+	/**
+	 * Index of the greatest position less than or equal to given, -1 if not found
+	 */
+	private int floorIndex(int position) {
+		int idx = Arrays.binarySearch(positions, position);
+		return idx >= 0 ? idx : -idx - 2;
+	}
+
+	/**
+	 * Index of the smallest position greater than or equal to given, array length if not found
+	 */
+	private int ceilIndex(int position) {
+		int idx = Arrays.binarySearch(positions, position);
+		return idx >= 0 ? idx : -idx - 1;
+	}
+
+	@Override
+	public @Nullable ICodeAnnotation getAt(int position) {
+		int idx = Arrays.binarySearch(positions, position);
+		return idx >= 0 ? annotations[idx] : null;
+	}
+
+	@Override
+	public @Nullable ICodeAnnotation getClosestUp(int position) {
+		int idx = ceilIndex(position) - 1;
+		return idx >= 0 ? annotations[idx] : null;
+	}
+
+	@Override
+	public @Nullable ICodeAnnotation searchUp(int position, AnnType annType) {
+		for (int i = floorIndex(position); i >= 0; i--) {
+			ICodeAnnotation ann = annotations[i];
+			if (ann.getAnnType() == annType) {
+				return ann;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public @Nullable ICodeAnnotation searchUp(int position, int limitPos, AnnType annType) {
+		for (int i = floorIndex(position); i >= 0 && positions[i] >= limitPos; i--) {
+			ICodeAnnotation ann = annotations[i];
+			if (ann.getAnnType() == annType) {
+				return ann;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public <T> @Nullable T searchUp(int startPos, BiFunction<Integer, ICodeAnnotation, T> visitor) {
+		for (int i = floorIndex(startPos); i >= 0; i--) {
+			T value = visitor.apply(positions[i], annotations[i]);
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public <T> @Nullable T searchDown(int startPos, BiFunction<Integer, ICodeAnnotation, T> visitor) {
+		int count = positions.length;
+		for (int i = ceilIndex(startPos); i < count; i++) {
+			T value = visitor.apply(positions[i], annotations[i]);
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public @Nullable ICodeNodeRef getNodeAt(int position) {
+		int nesting = 0;
+		for (int i = floorIndex(position); i >= 0; i--) {
+			ICodeAnnotation ann = annotations[i];
+			switch (ann.getAnnType()) {
+				case END:
+					nesting++;
+					break;
+
+				case DECLARATION:
+					ICodeNodeRef node = ((NodeDeclareRef) ann).getNode();
+					AnnType nodeType = node.getAnnType();
+					if (nodeType == AnnType.CLASS || nodeType == AnnType.METHOD) {
+						if (nesting == 0) {
+							return node;
+						}
+						nesting--;
+					}
+					break;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public @Nullable ICodeNodeRef getNodeBelow(int position) {
+		int count = positions.length;
+		for (int i = ceilIndex(position); i < count; i++) {
+			ICodeAnnotation ann = annotations[i];
+			if (ann.getAnnType() == AnnType.DECLARATION) {
+				ICodeNodeRef node = ((NodeDeclareRef) ann).getNode();
+				AnnType nodeType = node.getAnnType();
+				if (nodeType == AnnType.CLASS || nodeType == AnnType.METHOD) {
+					return node;
+				}
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Map<Integer, ICodeAnnotation> getAsMap() {
+		return new AnnotationsMap();
+	}
+
+	@Override
+	public Map<Integer, Integer> getLineMapping() {
+		return new LinesMap();
+	}
+
+	private final class AnnotationsMap extends AbstractMap<Integer, ICodeAnnotation> {
+		@Override
+		public int size() {
+			return positions.length;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Integer && Arrays.binarySearch(positions, (Integer) key) >= 0;
+		}
+
+		@Override
+		public ICodeAnnotation get(Object key) {
+			return key instanceof Integer ? getAt((Integer) key) : null;
+		}
+
+		@Override
+		public Set<Entry<Integer, ICodeAnnotation>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<Integer, ICodeAnnotation>> iterator() {
+					return new Iterator<>() {
+						private int idx = positions.length - 1;
+
+						@Override
+						public boolean hasNext() {
+							return idx >= 0;
+						}
+
+						@Override
+						public Entry<Integer, ICodeAnnotation> next() {
+							if (idx < 0) {
+								throw new NoSuchElementException();
+							}
+							int i = idx--;
+							return new SimpleImmutableEntry<>(positions[i], annotations[i]);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return positions.length;
+				}
+			};
+		}
+	}
+
+	private final class LinesMap extends AbstractMap<Integer, Integer> {
+		@Override
+		public int size() {
+			return lineKeys.length;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return key instanceof Integer && Arrays.binarySearch(lineKeys, (Integer) key) >= 0;
+		}
+
+		@Override
+		public Integer get(Object key) {
+			if (!(key instanceof Integer)) {
+				return null;
+			}
+			int idx = Arrays.binarySearch(lineKeys, (Integer) key);
+			return idx >= 0 ? lineValues[idx] : null;
+		}
+
+		@Override
+		public Set<Entry<Integer, Integer>> entrySet() {
+			return new AbstractSet<>() {
+				@Override
+				public Iterator<Entry<Integer, Integer>> iterator() {
+					return new Iterator<>() {
+						private int idx;
+
+						@Override
+						public boolean hasNext() {
+							return idx < lineKeys.length;
+						}
+
+						@Override
+						public Entry<Integer, Integer> next() {
+							if (idx >= lineKeys.length) {
+								throw new NoSuchElementException();
+							}
+							int i = idx++;
+							return new SimpleImmutableEntry<>(lineKeys[i], lineValues[i]);
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return lineKeys.length;
+				}
+			};
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < positions.length; i++) {
+			if (i != 0) {
+				sb.append("\n ");
+			}
+			sb.append(positions[i]).append('=').append(annotations[i]);
+		}
+		return "CodeMetadata{\nlines=" + getLineMapping()
+				+ "\nannotations=\n " + sb + "\n}";
+	}
+}
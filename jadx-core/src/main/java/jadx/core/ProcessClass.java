@@ -1,8 +1,11 @@
 package jadx.core;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -22,6 +25,8 @@
 import jadx.core.dex.nodes.RootNode;
 import jadx.core.dex.visitors.DepthTraversal;
 import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.utils.ClassUnloadGovernor;
+import jadx.core.utils.PassesProfiler;
 import jadx.core.utils.Utils;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
@@ -36,16 +41,27 @@ public class ProcessClass {
 
 	private static final ICodeInfo NOT_GENERATED = new SimpleCodeInfo("");
 
+	/**
+	 * Minimal methods count in class (including inner classes) to process methods in parallel
+	 */
+	private static final int PARALLEL_METHODS_THRESHOLD = 16;
+
 	private final List<IDexTreeVisitor> passes;
 
+	private List<PassesGroup> passesGroups = Collections.emptyList();
+
 	public ProcessClass(List<IDexTreeVisitor> passesList) {
 		this.passes = passesList;
 	}
 
 	@Nullable
 	private ICodeInfo process(ClassNode cls, boolean codegen) {
+		ClassUnloadGovernor governor = cls.root().getClassUnloadGovernor();
 		if (!codegen && cls.getState() == PROCESS_COMPLETE) {
 			// nothing to do
+			if (governor != null) {
+				governor.onUse(cls);
+			}
 			return null;
 		}
 		Utils.checkThreadInterrupt();
@@ -60,7 +76,8 @@ private ICodeInfo process(ClassNode cls, boolean codegen) {
 					cls.root().runPreDecompileStageForClass(cls);
 					cls.remove(AFlag.CLASS_UNLOADED);
 				}
-				if (cls.getState() == GENERATED_AND_UNLOADED) {
+				boolean reprocess = cls.getState() == GENERATED_AND_UNLOADED;
+				if (reprocess) {
 					// force loading code again
 					cls.setState(NOT_LOADED);
 				}
@@ -74,13 +91,14 @@ private ICodeInfo process(ClassNode cls, boolean codegen) {
 					cls.setLoadStage(LoadStage.PROCESS_STAGE);
 				}
 				if (cls.getState() == NOT_LOADED) {
+					if (governor != null) {
+						governor.onLoad(cls);
+					}
 					cls.load();
 				}
 				if (cls.getState() == LOADED) {
 					cls.setState(PROCESS_STARTED);
-					for (IDexTreeVisitor visitor : passes) {
-						DepthTraversal.visit(visitor, cls);
-					}
+					runPasses(cls);
 					cls.setState(PROCESS_COMPLETE);
 				}
 				if (codegen) {
@@ -92,6 +110,9 @@ private ICodeInfo process(ClassNode cls, boolean codegen) {
 					}
 					return code;
 				}
+				if (reprocess && governor != null) {
+					governor.onReprocessed(cls);
+				}
 				return null;
 			} catch (StackOverflowError | Exception e) {
 				if (codegen) {
@@ -103,12 +124,44 @@ private ICodeInfo process(ClassNode cls, boolean codegen) {
 		}
 	}
 
+	private void runPasses(ClassNode cls) {
+		PassesProfiler profiler = cls.root().getPassesProfiler();
+		if (passesGroups.isEmpty() || countMethods(cls) < PARALLEL_METHODS_THRESHOLD) {
+			for (IDexTreeVisitor visitor : passes) {
+				DepthTraversal.visit(visitor, cls, profiler);
+			}
+			return;
+		}
+		ForkJoinPool pool = cls.root().getMethodsPool();
+		for (PassesGroup group : passesGroups) {
+			if (group.isMethodLocal()) {
+				DepthTraversal.visitMethodsParallel(group.getPasses(), cls, pool, profiler);
+			} else {
+				for (IDexTreeVisitor visitor : group.getPasses()) {
+					DepthTraversal.visit(visitor, cls, profiler);
+				}
+			}
+		}
+	}
+
+	private static int countMethods(ClassNode cls) {
+		int count = cls.getMethods().size();
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			count += countMethods(innerCls);
+		}
+		return count;
+	}
+
 	@NotNull
 	public ICodeInfo generateCode(ClassNode cls) {
 		ClassNode topParentClass = cls.getTopParentClass();
 		if (topParentClass != cls) {
 			return generateCode(topParentClass);
 		}
+		ClassUnloadGovernor governor = cls.root().getClassUnloadGovernor();
+		if (governor != null) {
+			governor.enter();
+		}
 		try {
 			if (cls.contains(AFlag.DONT_GENERATE)) {
 				process(cls, false);
@@ -130,6 +183,10 @@ public ICodeInfo generateCode(ClassNode cls) {
 			return code;
 		} catch (StackOverflowError | Exception e) {
 			throw new JadxRuntimeException("Failed to generate code for class: " + cls.getFullName(), e);
+		} finally {
+			if (governor != null) {
+				governor.exit();
+			}
 		}
 	}
 
@@ -142,10 +199,18 @@ public void forceProcess(ClassNode cls) {
 			forceProcess(topParentClass);
 			return;
 		}
+		ClassUnloadGovernor governor = cls.root().getClassUnloadGovernor();
+		if (governor != null) {
+			governor.enter();
+		}
 		try {
 			process(cls, false);
 		} catch (StackOverflowError | Exception e) {
 			throw new JadxRuntimeException("Failed to process class: " + cls.getFullName(), e);
+		} finally {
+			if (governor != null) {
+				governor.exit();
+			}
 		}
 	}
 
@@ -153,10 +218,18 @@ public void forceProcess(ClassNode cls) {
 	 * Generate code for class without processing its deps
 	 */
 	public @Nullable ICodeInfo forceGenerateCode(ClassNode cls) {
+		ClassUnloadGovernor governor = cls.root().getClassUnloadGovernor();
+		if (governor != null) {
+			governor.enter();
+		}
 		try {
 			return process(cls, true);
 		} catch (StackOverflowError | Exception e) {
 			throw new JadxRuntimeException("Failed to generate code for class: " + cls.getFullName(), e);
+		} finally {
+			if (governor != null) {
+				governor.exit();
+			}
 		}
 	}
 
@@ -205,6 +278,54 @@ public void initPasses(RootNode root) {
 				LOG.error("Visitor init failed: {}", pass.getClass().getSimpleName(), e);
 			}
 		}
+		initParallelMethods(root.getArgs());
+	}
+
+	private void initParallelMethods(JadxArgs args) {
+		if (!args.isParallelMethodsProcessing()) {
+			passesGroups = Collections.emptyList();
+			return;
+		}
+		passesGroups = buildPassesGroups(passes);
+		if (LOG.isDebugEnabled()) {
+			long methodLocalCount = passesGroups.stream().filter(PassesGroup::isMethodLocal).count();
+			LOG.debug("Parallel methods processing enabled, passes groups: {}, method local: {}",
+					passesGroups.size(), methodLocalCount);
+		}
+	}
+
+	/**
+	 * Merge sequential method local passes into groups, other passes act as barriers
+	 */
+	private static List<PassesGroup> buildPassesGroups(List<IDexTreeVisitor> passes) {
+		List<PassesGroup> groups = new ArrayList<>();
+		PassesGroup current = null;
+		for (IDexTreeVisitor pass : passes) {
+			boolean methodLocal = DepthTraversal.isMethodLocal(pass);
+			if (current == null || current.isMethodLocal() != methodLocal) {
+				current = new PassesGroup(methodLocal);
+				groups.add(current);
+			}
+			current.getPasses().add(pass);
+		}
+		return groups;
+	}
+
+	private static final class PassesGroup {
+		private final boolean methodLocal;
+		private final List<IDexTreeVisitor> passes = new ArrayList<>();
+
+		private PassesGroup(boolean methodLocal) {
+			this.methodLocal = methodLocal;
+		}
+
+		public boolean isMethodLocal() {
+			return methodLocal;
+		}
+
+		public List<IDexTreeVisitor> getPasses() {
+			return passes;
+		}
 	}
 
 	// TODO: make passes list private and not visible
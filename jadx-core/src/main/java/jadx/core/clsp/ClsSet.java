@@ -1,14 +1,21 @@
 package jadx.core.clsp;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
-import java.io.DataInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -44,9 +51,9 @@ public class ClsSet {
 	private static final String CLST_PATH = "/clst/" + CLST_FILENAME;
 
 	private static final String JADX_CLS_SET_HEADER = "jadx-cst";
-	private static final int VERSION = 5;
+	private static final int VERSION = 6;
 
-	private static final String STRING_CHARSET = "US-ASCII";
+	private static final Charset STRING_CHARSET = StandardCharsets.US_ASCII;
 
 	private static final ArgType[] EMPTY_ARGTYPE_ARRAY = new ArgType[0];
 	private static final ArgType[] OBJECT_ARGTYPE_ARRAY = new ArgType[] { ArgType.OBJECT };
@@ -69,21 +76,60 @@ private enum TypeEnum {
 		PRIMITIVE
 	}
 
+	/**
+	 * Content of bundled class set file, read only and shared between all instances
+	 */
+	private static volatile ByteBuffer bundledData;
+
 	private ClspClass[] classes;
 
+	/**
+	 * Buffer with file content, used for lazy load of class details
+	 */
+	private ByteBuffer data;
+	private int detailsStart;
+
 	public void loadFromClstFile() throws IOException, DecodeException {
 		long startTime = System.currentTimeMillis();
-		try (InputStream input = ClsSet.class.getResourceAsStream(CLST_PATH)) {
-			if (input == null) {
-				throw new JadxRuntimeException("Can't load classpath file: " + CLST_PATH);
-			}
-			load(input);
-		}
+		load(getBundledData());
 		if (LOG.isDebugEnabled()) {
 			long time = System.currentTimeMillis() - startTime;
-			int methodsCount = Stream.of(classes).mapToInt(clspClass -> clspClass.getMethodsMap().size()).sum();
-			LOG.debug("Clst file loaded in {}ms, android api: {}, classes: {}, methods: {}",
-					time, androidApiLevel, classes.length, methodsCount);
+			LOG.debug("Clst file loaded in {}ms, android api: {}, classes: {}, size: {} bytes",
+					time, androidApiLevel, classes.length, data.capacity());
+		}
+	}
+
+	private static ByteBuffer getBundledData() throws IOException {
+		ByteBuffer buf = bundledData;
+		if (buf == null) {
+			synchronized (ClsSet.class) {
+				buf = bundledData;
+				if (buf == null) {
+					URL url = ClsSet.class.getResource(CLST_PATH);
+					if (url == null) {
+						throw new JadxRuntimeException("Can't load classpath file: " + CLST_PATH);
+					}
+					buf = readData(url);
+					bundledData = buf;
+				}
+			}
+		}
+		return buf;
+	}
+
+	/**
+	 * Map file if possible (not packed into jar), else read all bytes.
+	 */
+	private static ByteBuffer readData(URL url) throws IOException {
+		if ("file".equals(url.getProtocol())) {
+			try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			} catch (URISyntaxException | IllegalArgumentException | UnsupportedOperationException e) {
+				LOG.debug("Failed to map classpath file, fallback to stream read", e);
+			}
+		}
+		try (InputStream input = url.openStream()) {
+			return ByteBuffer.wrap(input.readAllBytes());
 		}
 	}
 
@@ -212,15 +258,23 @@ private void save(OutputStream output) throws IOException {
 			writeString(out, clsName);
 			names.put(clsName, cls);
 		}
+		// parents loaded at start, other details (type parameters and methods) loaded on first use,
+		// so store details separately and put offset for every class
+		ByteArrayOutputStream detailsBytes = new ByteArrayOutputStream();
+		DataOutputStream details = new DataOutputStream(detailsBytes);
 		for (ClspClass cls : classes) {
 			writeArgTypesArray(out, cls.getParents(), names);
-			writeArgTypesList(out, cls.getTypeParameters(), names);
+			out.writeInt(details.size());
+			writeArgTypesList(details, cls.getTypeParameters(), names);
 			List<ClspMethod> methods = cls.getSortedMethodsList();
-			out.writeShort(methods.size());
+			details.writeShort(methods.size());
 			for (ClspMethod method : methods) {
-				writeMethod(out, method, names);
+				writeMethod(details, method, names);
 			}
 		}
+		details.flush();
+		detailsBytes.writeTo(out);
+		out.flush();
 		int methodsCount = Stream.of(classes).mapToInt(c -> c.getMethodsMap().size()).sum();
 		LOG.info("Classes: {}, methods: {}, file size: {} bytes", classes.length, methodsCount, out.size());
 	}
@@ -304,38 +358,53 @@ private static void writeArgType(DataOutputStream out, ArgType argType, Map<Stri
 		}
 	}
 
-	private void load(InputStream input) throws IOException, DecodeException {
-		try (DataInputStream in = new DataInputStream(new BufferedInputStream(input))) {
-			byte[] header = new byte[JADX_CLS_SET_HEADER.length()];
-			int readHeaderLength = in.read(header);
-			if (readHeaderLength != JADX_CLS_SET_HEADER.length()
-					|| !JADX_CLS_SET_HEADER.equals(new String(header, STRING_CHARSET))) {
-				throw new DecodeException("Wrong jadx class set header");
-			}
-			int version = in.readByte();
-			if (version != VERSION) {
-				throw new DecodeException("Wrong jadx class set version, got: " + version + ", expect: " + VERSION);
-			}
-			androidApiLevel = in.readInt();
-			int clsCount = in.readInt();
-			classes = new ClspClass[clsCount];
-			for (int i = 0; i < clsCount; i++) {
-				int accFlags = in.readInt();
-				ClspClassSource clsSource = readClsSource(in);
-				String name = readString(in);
-				classes[i] = new ClspClass(ArgType.object(name), i, accFlags, clsSource);
-			}
-			for (int i = 0; i < clsCount; i++) {
-				ClspClass nClass = classes[i];
-				ClassInfo clsInfo = ClassInfo.fromType(root, nClass.getClsType());
-				nClass.setParents(readArgTypesArray(in));
-				nClass.setTypeParameters(readArgTypesList(in));
-				nClass.setMethods(readClsMethods(in, clsInfo));
-			}
+	private void load(ByteBuffer buf) throws DecodeException {
+		ByteBuffer in = buf.duplicate();
+		byte[] header = new byte[JADX_CLS_SET_HEADER.length()];
+		if (in.remaining() < header.length + 1) {
+			throw new DecodeException("Wrong jadx class set header");
+		}
+		in.get(header);
+		if (!JADX_CLS_SET_HEADER.equals(new String(header, STRING_CHARSET))) {
+			throw new DecodeException("Wrong jadx class set header");
+		}
+		int version = in.get();
+		if (version != VERSION) {
+			throw new DecodeException("Wrong jadx class set version, got: " + version + ", expect: " + VERSION);
+		}
+		androidApiLevel = in.getInt();
+		int clsCount = in.getInt();
+		classes = new ClspClass[clsCount];
+		for (int i = 0; i < clsCount; i++) {
+			int accFlags = in.getInt();
+			ClspClassSource clsSource = readClsSource(in);
+			String name = readString(in);
+			classes[i] = new ClspClass(ArgType.object(name), i, accFlags, clsSource);
 		}
+		int[] offsets = new int[clsCount];
+		for (int i = 0; i < clsCount; i++) {
+			classes[i].setParents(readArgTypesArray(in));
+			offsets[i] = in.getInt();
+		}
+		data = buf;
+		detailsStart = in.position();
+		for (int i = 0; i < clsCount; i++) {
+			classes[i].setLazyDetails(this, offsets[i]);
+		}
+	}
+
+	/**
+	 * Load type parameters and methods for class, called by {@link ClspClass} on first access.
+	 */
+	void loadDetails(ClspClass cls, int offset) {
+		ByteBuffer in = data.duplicate();
+		in.position(detailsStart + offset);
+		ClassInfo clsInfo = ClassInfo.fromType(root, cls.getClsType());
+		cls.setTypeParameters(readArgTypesList(in));
+		cls.setMethods(readClsMethods(in, clsInfo));
 	}
 
-	private static ClspClassSource readClsSource(DataInputStream in) throws IOException, DecodeException {
+	private static ClspClassSource readClsSource(ByteBuffer in) throws DecodeException {
 		int source = readUnsignedByte(in);
 		ClspClassSource[] clspClassSources = ClspClassSource.values();
 		if (source < 0 || source > clspClassSources.length) {
@@ -344,8 +413,8 @@ private static ClspClassSource readClsSource(DataInputStream in) throws IOExcept
 		return clspClassSources[source];
 	}
 
-	private List<ClspMethod> readClsMethods(DataInputStream in, ClassInfo clsInfo) throws IOException {
-		int mCount = in.readShort();
+	private List<ClspMethod> readClsMethods(ByteBuffer in, ClassInfo clsInfo) {
+		int mCount = in.getShort();
 		List<ClspMethod> methods = new ArrayList<>(mCount);
 		for (int j = 0; j < mCount; j++) {
 			methods.add(readMethod(in, clsInfo));
@@ -353,7 +422,7 @@ private List<ClspMethod> readClsMethods(DataInputStream in, ClassInfo clsInfo) t
 		return methods;
 	}
 
-	private ClspMethod readMethod(DataInputStream in, ClassInfo clsInfo) throws IOException {
+	private ClspMethod readMethod(ByteBuffer in, ClassInfo clsInfo) {
 		String name = readString(in);
 		List<ArgType> argTypes = readArgTypesList(in);
 		ArgType retType = readArgType(in);
@@ -366,7 +435,7 @@ private ClspMethod readMethod(DataInputStream in, ClassInfo clsInfo) throws IOEx
 			genericRetType = retType;
 		}
 		List<ArgType> typeParameters = readArgTypesList(in);
-		int accFlags = in.readInt();
+		int accFlags = in.getInt();
 		List<ArgType> throwList = readArgTypesList(in);
 		MethodInfo methodInfo = MethodInfo.fromDetails(root, clsInfo, name, argTypes, retType);
 		return new ClspMethod(methodInfo,
@@ -374,8 +443,8 @@ private ClspMethod readMethod(DataInputStream in, ClassInfo clsInfo) throws IOEx
 				typeParameters, throwList, accFlags);
 	}
 
-	private List<ArgType> readArgTypesList(DataInputStream in) throws IOException {
-		int count = in.readByte();
+	private List<ArgType> readArgTypesList(ByteBuffer in) {
+		int count = in.get();
 		if (count == 0) {
 			return Collections.emptyList();
 		}
@@ -387,8 +456,8 @@ private List<ArgType> readArgTypesList(DataInputStream in) throws IOException {
 	}
 
 	@Nullable
-	private ArgType[] readArgTypesArray(DataInputStream in) throws IOException {
-		int count = in.readByte();
+	private ArgType[] readArgTypesArray(ByteBuffer in) {
+		int count = in.get();
 		switch (count) {
 			case -1:
 				return null;
@@ -405,14 +474,14 @@ private ArgType[] readArgTypesArray(DataInputStream in) throws IOException {
 		}
 	}
 
-	private ArgType readArgType(DataInputStream in) throws IOException {
-		int ordinal = in.readByte();
+	private ArgType readArgType(ByteBuffer in) {
+		int ordinal = in.get();
 		if (ordinal == -1) {
 			return null;
 		}
 		switch (TypeEnum.values()[ordinal]) {
 			case WILDCARD:
-				ArgType.WildcardBound bound = ArgType.WildcardBound.getByNum(in.readByte());
+				ArgType.WildcardBound bound = ArgType.WildcardBound.getByNum(in.get());
 				if (bound == ArgType.WildcardBound.UNBOUND) {
 					return ArgType.WILDCARD;
 				}
@@ -425,7 +494,7 @@ private ArgType readArgType(DataInputStream in) throws IOException {
 				return ArgType.outerGeneric(outerType, innerType);
 
 			case GENERIC:
-				ArgType clsType = classes[in.readInt()].getClsType();
+				ArgType clsType = classes[in.getInt()].getClsType();
 				return ArgType.generic(clsType, readArgTypesList(in));
 
 			case GENERIC_TYPE_VARIABLE:
@@ -434,13 +503,13 @@ private ArgType readArgType(DataInputStream in) throws IOException {
 				return ArgType.genericType(typeVar, extendTypes);
 
 			case OBJECT:
-				return classes[in.readInt()].getClsType();
+				return classes[in.getInt()].getClsType();
 
 			case ARRAY:
 				return ArgType.array(Objects.requireNonNull(readArgType(in)));
 
 			case PRIMITIVE:
-				char shortName = (char) in.readByte();
+				char shortName = (char) in.get();
 				return ArgType.parse(shortName);
 
 			default:
@@ -458,22 +527,14 @@ private static void writeString(DataOutputStream out, String name) throws IOExce
 		out.write(bytes);
 	}
 
-	private static String readString(DataInputStream in) throws IOException {
+	private static String readString(ByteBuffer in) {
 		int len = readUnsignedByte(in);
 		return readString(in, len);
 	}
 
-	private static String readString(DataInputStream in, int len) throws IOException {
+	private static String readString(ByteBuffer in, int len) {
 		byte[] bytes = new byte[len];
-		int count = in.read(bytes);
-		while (count != len) {
-			int res = in.read(bytes, count, len - count);
-			if (res == -1) {
-				throw new IOException("String read error");
-			} else {
-				count += res;
-			}
-		}
+		in.get(bytes);
 		return new String(bytes, STRING_CHARSET);
 	}
 
@@ -484,8 +545,8 @@ private static void writeUnsignedByte(DataOutputStream out, int value) throws IO
 		out.writeByte(value);
 	}
 
-	private static int readUnsignedByte(DataInputStream in) throws IOException {
-		return ((int) in.readByte()) & 0xFF;
+	private static int readUnsignedByte(ByteBuffer in) {
+		return ((int) in.get()) & 0xFF;
 	}
 
 	public int getClassesCount() {
@@ -26,6 +26,12 @@ public class ClspClass {
 
 	private final ClspClassSource source;
 
+	/**
+	 * Set if methods and type parameters not yet loaded, see {@link #loadDetails()}
+	 */
+	private volatile ClsSet detailsLoader;
+	private int detailsOffset;
+
 	public ClspClass(ArgType clsType, int id, int accFlags, ClspClassSource source) {
 		this.clsType = clsType;
 		this.id = id;
@@ -66,10 +72,12 @@ public void setParents(ArgType[] parents) {
 	}
 
 	public Map<String, ClspMethod> getMethodsMap() {
+		loadDetails();
 		return methodsMap;
 	}
 
 	public List<ClspMethod> getSortedMethodsList() {
+		loadDetails();
 		List<ClspMethod> list = new ArrayList<>(methodsMap.size());
 		list.addAll(methodsMap.values());
 		Collections.sort(list);
@@ -89,6 +97,7 @@ public void setMethods(List<ClspMethod> methods) {
 	}
 
 	public List<ArgType> getTypeParameters() {
+		loadDetails();
 		return typeParameters;
 	}
 
@@ -96,6 +105,23 @@ public void setTypeParameters(List<ArgType> typeParameters) {
 		this.typeParameters = typeParameters;
 	}
 
+	void setLazyDetails(ClsSet loader, int offset) {
+		this.detailsOffset = offset;
+		this.detailsLoader = loader;
+	}
+
+	private void loadDetails() {
+		if (detailsLoader != null) {
+			synchronized (this) {
+				ClsSet loader = detailsLoader;
+				if (loader != null) {
+					loader.loadDetails(this, detailsOffset);
+					detailsLoader = null;
+				}
+			}
+		}
+	}
+
 	public ClspClassSource getSource() {
 		return this.source;
 	}
@@ -4,16 +4,15 @@
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import jadx.core.Consts;
 import jadx.core.dex.info.MethodInfo;
 import jadx.core.dex.instructions.args.ArgType;
 import jadx.core.dex.nodes.ClassNode;
@@ -30,10 +29,12 @@ public class ClspGraph {
 
 	private final RootNode root;
 	private Map<String, ClspClass> nameMap;
-	private Map<String, Set<String>> superTypesCache;
-	private Map<String, List<String>> implementsCache;
+	private volatile ClspHierarchy hierarchy;
 
-	private final Set<String> missingClasses = new HashSet<>();
+	/**
+	 * Filled from any thread: on lazy hierarchy build and by type inference lookups
+	 */
+	private final Set<String> missingClasses = ConcurrentHashMap.newKeySet();
 
 	public ClspGraph(RootNode rootNode) {
 		this.root = rootNode;
@@ -63,9 +64,11 @@ public void addApp(List<ClassNode> classes) {
 		}
 	}
 
+	/**
+	 * Reset classes hierarchy index, new one will be built on first use
+	 */
 	public void initCache() {
-		fillSuperTypesCache();
-		fillImplementsCache();
+		hierarchy = null;
 	}
 
 	public boolean isClsKnown(String fullName) {
@@ -116,25 +119,11 @@ private void addClass(ClassNode cls) {
 	 * @return {@code clsName} instanceof {@code implClsName}
 	 */
 	public boolean isImplements(String clsName, String implClsName) {
-		Set<String> anc = getSuperTypes(clsName);
-		return anc.contains(implClsName);
+		return getHierarchy().isImplements(clsName, implClsName);
 	}
 
 	public List<String> getImplementations(String clsName) {
-		List<String> list = implementsCache.get(clsName);
-		return list == null ? Collections.emptyList() : list;
-	}
-
-	private void fillImplementsCache() {
-		Map<String, List<String>> map = new HashMap<>(nameMap.size());
-		List<String> classes = new ArrayList<>(nameMap.keySet());
-		Collections.sort(classes);
-		for (String cls : classes) {
-			for (String st : getSuperTypes(cls)) {
-				map.computeIfAbsent(st, v -> new ArrayList<>()).add(cls);
-			}
-		}
-		implementsCache = map;
+		return getHierarchy().getImplementations(clsName);
 	}
 
 	public String getCommonAncestor(String clsName, String implClsName) {
@@ -170,69 +159,41 @@ private String searchCommonParent(Set<String> anc, ClspClass cls) {
 		return null;
 	}
 
+	/**
+	 * @return all super types (classes and interfaces) in breadth-first order (nearest types first)
+	 */
 	public Set<String> getSuperTypes(String clsName) {
-		Set<String> result = superTypesCache.get(clsName);
-		return result == null ? Collections.emptySet() : result;
-	}
-
-	private static final Set<String> OBJECT_SINGLE_SET = Collections.singleton(Consts.CLASS_OBJECT);
-
-	private void fillSuperTypesCache() {
-		Map<String, Set<String>> map = new HashMap<>(nameMap.size());
-		Set<String> tmpSet = new HashSet<>();
-		for (Map.Entry<String, ClspClass> entry : nameMap.entrySet()) {
-			ClspClass cls = entry.getValue();
-			tmpSet.clear();
-			addSuperTypes(cls, tmpSet);
-			Set<String> result;
-			int size = tmpSet.size();
-			switch (size) {
-				case 0: {
-					result = Collections.emptySet();
-					break;
-				}
-				case 1: {
-					String supCls = tmpSet.iterator().next();
-					if (supCls.equals(Consts.CLASS_OBJECT)) {
-						result = OBJECT_SINGLE_SET;
-					} else {
-						result = Collections.singleton(supCls);
+		return getHierarchy().getSuperTypes(clsName);
+	}
+
+	private ClspHierarchy getHierarchy() {
+		ClspHierarchy h = hierarchy;
+		if (h == null) {
+			synchronized (this) {
+				h = hierarchy;
+				if (h == null) {
+					long start = System.currentTimeMillis();
+					h = ClspHierarchy.build(nameMap, this::getClspClass);
+					hierarchy = h;
+					if (LOG.isDebugEnabled()) {
+						LOG.debug("Classes hierarchy index built in {} ms: {}", System.currentTimeMillis() - start, h);
 					}
-					break;
-				}
-				default: {
-					result = new HashSet<>(tmpSet);
-					break;
 				}
 			}
-			map.put(cls.getName(), result);
 		}
-		superTypesCache = map;
+		return h;
 	}
 
-	private void addSuperTypes(ClspClass cls, Set<String> result) {
-		for (ArgType parentType : cls.getParents()) {
-			if (parentType == null) {
-				continue;
-			}
-			ClspClass parentCls = getClspClass(parentType);
-			if (parentCls != null) {
-				boolean isNew = result.add(parentCls.getName());
-				if (isNew) {
-					addSuperTypes(parentCls, result);
-				}
-			} else {
-				// parent type is unknown
-				result.add(parentType.getObject());
-			}
-		}
+	@Nullable
+	private ClspClass getClspClass(ArgType clsType) {
+		return getClspClass(clsType.getObject());
 	}
 
 	@Nullable
-	private ClspClass getClspClass(ArgType clsType) {
-		ClspClass clspClass = nameMap.get(clsType.getObject());
+	private ClspClass getClspClass(String clsName) {
+		ClspClass clspClass = nameMap.get(clsName);
 		if (clspClass == null) {
-			missingClasses.add(clsType.getObject());
+			missingClasses.add(clsName);
 		}
 		return clspClass;
 	}
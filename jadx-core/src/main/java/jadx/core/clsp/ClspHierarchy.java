@@ -0,0 +1,284 @@
+package jadx.core.clsp;
+
+import java.util.AbstractList;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.function.Function;
+
+import jadx.core.dex.instructions.args.ArgType;
+
+/**
+ * Compact classes hierarchy index.
+ * <br>
+ * Every class name (including unknown parents) get dense int id in names sort order.
+ * Super types stored as id arrays in breadth-first order (nearest types first),
+ * implementations as sorted id arrays.
+ * Equal super types arrays are shared, so most classes reference same few arrays.
+ * Immutable after creation (implementations arrays created lazily) and can be used from any thread.
+ */
+final class ClspHierarchy {
+	private static final int[] EMPTY = new int[0];
+
+	private final String[] names;
+	private final Map<String, Integer> idMap;
+	private final int[][] superTypes;
+	private final int knownCount;
+
+	private volatile int[][] implementations;
+
+	private ClspHierarchy(String[] names, Map<String, Integer> idMap, int[][] superTypes, int knownCount) {
+		this.names = names;
+		this.idMap = idMap;
+		this.superTypes = superTypes;
+		this.knownCount = knownCount;
+	}
+
+	/**
+	 * @param getClsFunc should return class for known names and collect missing classes
+	 */
+	static ClspHierarchy build(Map<String, ClspClass> nameMap, Function<String, ClspClass> getClsFunc) {
+		Map<String, Integer> idMap = new HashMap<>(nameMap.size());
+		for (ClspClass cls : nameMap.values()) {
+			idMap.put(cls.getName(), 0);
+			for (ArgType parent : cls.getParents()) {
+				if (parent != null) {
+					idMap.put(parent.getObject(), 0);
+				}
+			}
+		}
+		String[] names = idMap.keySet().toArray(new String[0]);
+		Arrays.sort(names);
+		int count = names.length;
+		for (int i = 0; i < count; i++) {
+			idMap.put(names[i], i);
+		}
+		int[][] superTypes = new int[count][];
+		Map<IntArrayKey, int[]> sharedArrays = new HashMap<>();
+		int[] marks = new int[count];
+		int[] buffer = new int[16];
+		int knownCount = 0;
+		for (int id = 0; id < count; id++) {
+			ClspClass cls = nameMap.get(names[id]);
+			if (cls == null) {
+				superTypes[id] = EMPTY;
+				continue;
+			}
+			knownCount++;
+			int mark = id + 1;
+			int size = 0;
+			int pos = -1;
+			ClspClass current = cls;
+			while (true) {
+				for (ArgType parentType : current.getParents()) {
+					if (parentType == null) {
+						continue;
+					}
+					int parentId = idMap.get(parentType.getObject());
+					if (marks[parentId] == mark) {
+						continue;
+					}
+					marks[parentId] = mark;
+					if (size == buffer.length) {
+						buffer = Arrays.copyOf(buffer, size * 2);
+					}
+					buffer[size++] = parentId;
+				}
+				// breadth-first walk: use collected types as queue
+				current = null;
+				while (current == null && ++pos < size) {
+					current = getClsFunc.apply(names[buffer[pos]]);
+				}
+				if (current == null) {
+					break;
+				}
+			}
+			if (size == 0) {
+				superTypes[id] = EMPTY;
+			} else {
+				int[] arr = Arrays.copyOf(buffer, size);
+				superTypes[id] = sharedArrays.computeIfAbsent(new IntArrayKey(arr), k -> k.array);
+			}
+		}
+		return new ClspHierarchy(names, idMap, superTypes, knownCount);
+	}
+
+	private int getId(String clsName) {
+		Integer id = idMap.get(clsName);
+		return id == null ? -1 : id;
+	}
+
+	boolean isImplements(String clsName, String implClsName) {
+		int clsId = getId(clsName);
+		if (clsId == -1) {
+			return false;
+		}
+		int implId = getId(implClsName);
+		if (implId == -1) {
+			return false;
+		}
+		return contains(superTypes[clsId], implId);
+	}
+
+	private static boolean contains(int[] arr, int value) {
+		// super types arrays are short, linear search is fast enough
+		for (int v : arr) {
+			if (v == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	Set<String> getSuperTypes(String clsName) {
+		int id = getId(clsName);
+		if (id == -1) {
+			return Collections.emptySet();
+		}
+		int[] arr = superTypes[id];
+		if (arr.length == 0) {
+			return Collections.emptySet();
+		}
+		return new NamesSet(arr);
+	}
+
+	List<String> getImplementations(String clsName) {
+		int id = getId(clsName);
+		if (id == -1) {
+			return Collections.emptyList();
+		}
+		int[] arr = getImplementationsArrays()[id];
+		if (arr.length == 0) {
+			return Collections.emptyList();
+		}
+		return new NamesList(arr);
+	}
+
+	private int[][] getImplementationsArrays() {
+		int[][] impl = implementations;
+		if (impl == null) {
+			synchronized (this) {
+				impl = implementations;
+				if (impl == null) {
+					impl = buildImplementations();
+					implementations = impl;
+				}
+			}
+		}
+		return impl;
+	}
+
+	private int[][] buildImplementations() {
+		int count = names.length;
+		int[] sizes = new int[count];
+		for (int[] arr : superTypes) {
+			for (int st : arr) {
+				sizes[st]++;
+			}
+		}
+		int[][] impl = new int[count][];
+		for (int i = 0; i < count; i++) {
+			impl[i] = sizes[i] == 0 ? EMPTY : new int[sizes[i]];
+			sizes[i] = 0;
+		}
+		// classes processed in ids order, so arrays will be sorted
+		for (int cls = 0; cls < count; cls++) {
+			for (int st : superTypes[cls]) {
+				impl[st][sizes[st]++] = cls;
+			}
+		}
+		return impl;
+	}
+
+	private final class NamesSet extends AbstractSet<String> {
+		private final int[] ids;
+
+		NamesSet(int[] ids) {
+			this.ids = ids;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			if (!(o instanceof String)) {
+				return false;
+			}
+			int id = getId((String) o);
+			return id != -1 && ClspHierarchy.contains(ids, id);
+		}
+
+		@Override
+		public Iterator<String> iterator() {
+			return new Iterator<String>() {
+				private int pos;
+
+				@Override
+				public boolean hasNext() {
+					return pos < ids.length;
+				}
+
+				@Override
+				public String next() {
+					if (pos >= ids.length) {
+						throw new NoSuchElementException();
+					}
+					return names[ids[pos++]];
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return ids.length;
+		}
+	}
+
+	private final class NamesList extends AbstractList<String> implements RandomAccess {
+		private final int[] ids;
+
+		NamesList(int[] ids) {
+			this.ids = ids;
+		}
+
+		@Override
+		public String get(int index) {
+			return names[ids[index]];
+		}
+
+		@Override
+		public int size() {
+			return ids.length;
+		}
+	}
+
+	private static final class IntArrayKey {
+		private final int[] array;
+		private final int hash;
+
+		IntArrayKey(int[] array) {
+			this.array = array;
+			this.hash = Arrays.hashCode(array);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			return this == o || o instanceof IntArrayKey && Arrays.equals(array, ((IntArrayKey) o).array);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "ClspHierarchy{classes=" + knownCount + ", names=" + names.length + '}';
+	}
+}
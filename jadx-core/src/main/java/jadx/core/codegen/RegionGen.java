@@ -301,9 +301,14 @@ private void useField(ICodeWriter code, FieldInfo fldInfo, @Nullable FieldNode f
 			return;
 		}
 		staticField(code, fldInfo);
-		if (fld != null && mth.checkCommentsLevel(CommentsLevel.INFO)) {
+		if (mth.checkCommentsLevel(CommentsLevel.INFO)) {
 			// print original value, sometimes replaced with incorrect field
-			EncodedValue constVal = fld.get(JadxAttrType.CONSTANT_VALUE);
+			EncodedValue constVal;
+			if (fld != null) {
+				constVal = fld.get(JadxAttrType.CONSTANT_VALUE);
+			} else {
+				constVal = root.getConstValues().getNotLoadedFieldValue(fldInfo);
+			}
 			if (constVal != null && constVal.getValue() != null) {
 				code.add(" /* ").add(constVal.getValue().toString()).add(" */");
 			}
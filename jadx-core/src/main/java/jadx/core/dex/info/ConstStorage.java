@@ -9,6 +9,7 @@
 import org.jetbrains.annotations.Nullable;
 
 import jadx.api.JadxArgs;
+import jadx.api.plugins.input.data.annotations.EncodedValue;
 import jadx.core.dex.instructions.args.LiteralArg;
 import jadx.core.dex.instructions.args.PrimitiveType;
 import jadx.core.dex.nodes.ClassNode;
@@ -66,6 +67,10 @@ void removeForCls(ClassNode cls) {
 	private final boolean replaceEnabled;
 	private final ValueStorage globalValues = new ValueStorage();
 	private final Map<ClassNode, ValueStorage> classes = new HashMap<>();
+	/**
+	 * Values of constants from not loaded classes (see {@link jadx.api.JadxArgs#isLazyLoad()})
+	 */
+	private final Map<FieldInfo, EncodedValue> notLoadedFields = new HashMap<>();
 
 	private Map<Integer, String> resourcesNames = new HashMap<>();
 
@@ -85,6 +90,18 @@ public void addGlobalConstField(IFieldInfoRef fld, Object value) {
 		globalValues.put(value, fld);
 	}
 
+	/**
+	 * Add public constant from class without class node
+	 */
+	public void addNotLoadedConstField(FieldInfo fld, EncodedValue value) {
+		addGlobalConstField(fld, value.getValue());
+		notLoadedFields.put(fld, value);
+	}
+
+	public @Nullable EncodedValue getNotLoadedFieldValue(FieldInfo fld) {
+		return notLoadedFields.get(fld);
+	}
+
 	/**
 	 * Use method from CollectConstValues class
 	 */
@@ -1,73 +1,113 @@
 package jadx.core.dex.info;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.jetbrains.annotations.Nullable;
 
 import jadx.core.dex.instructions.args.ArgType;
 
+/**
+ * Interning storage for class, method, field and package info objects.
+ * <br>
+ * All methods can be called concurrently (lock is used only once for methods ids table allocation),
+ * for parallel put of the same value first added instance returned to all callers.
+ */
 public class InfoStorage {
+	private static final int FILE_BITS = 16;
+	private static final int FILES_COUNT = 1 << (Integer.SIZE - FILE_BITS);
+	private static final int PAGE_BITS = 8;
+	private static final int PAGE_SIZE = 1 << PAGE_BITS;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+	private static final int PAGES_PER_FILE = 1 << (FILE_BITS - PAGE_BITS);
 
-	private final Map<ArgType, ClassInfo> classes = new HashMap<>();
-	private final Map<FieldInfo, FieldInfo> fields = new HashMap<>();
+	private final Map<ArgType, ClassInfo> classes = new ConcurrentHashMap<>();
+	private final Map<FieldInfo, FieldInfo> fields = new ConcurrentHashMap<>();
 	// use only one MethodInfo instance
-	private final Map<MethodInfo, MethodInfo> uniqueMethods = new HashMap<>();
-	// can contain same method with different ids (from different files)
-	private final Map<Integer, MethodInfo> methods = new HashMap<>();
+	private final Map<MethodInfo, MethodInfo> uniqueMethods = new ConcurrentHashMap<>();
+	// can contain same method with different ids (from different files).
+	// Id is split into input file id and method index in file, methods stored in small pages
+	// allocated on first use (java input use separate file id for every class with only few methods).
+	// Top level array also allocated on first put, because many storages never use ids.
+	private volatile @Nullable AtomicReferenceArray<AtomicReferenceArray<AtomicReferenceArray<MethodInfo>>> methodFiles;
 
-	private final Map<String, PackageInfo> packages = new HashMap<>();
+	private final Map<String, PackageInfo> packages = new ConcurrentHashMap<>();
 
-	public ClassInfo getCls(ArgType type) {
+	public @Nullable ClassInfo getCls(ArgType type) {
 		return classes.get(type);
 	}
 
 	public ClassInfo putCls(ClassInfo cls) {
-		synchronized (classes) {
-			ClassInfo prev = classes.put(cls.getType(), cls);
-			return prev == null ? cls : prev;
-		}
+		ClassInfo prev = classes.putIfAbsent(cls.getType(), cls);
+		return prev == null ? cls : prev;
 	}
 
-	public MethodInfo getByUniqId(int id) {
-		synchronized (methods) {
-			return methods.get(id);
+	public @Nullable MethodInfo getByUniqId(int id) {
+		AtomicReferenceArray<AtomicReferenceArray<AtomicReferenceArray<MethodInfo>>> files = methodFiles;
+		if (files == null) {
+			return null;
+		}
+		AtomicReferenceArray<AtomicReferenceArray<MethodInfo>> filePages = files.get(id >>> FILE_BITS);
+		if (filePages == null) {
+			return null;
 		}
+		AtomicReferenceArray<MethodInfo> page = filePages.get((id >>> PAGE_BITS) & (PAGES_PER_FILE - 1));
+		if (page == null) {
+			return null;
+		}
+		return page.get(id & PAGE_MASK);
 	}
 
 	public void putByUniqId(int id, MethodInfo mth) {
-		synchronized (methods) {
-			methods.put(id, mth);
-		}
+		AtomicReferenceArray<AtomicReferenceArray<MethodInfo>> filePages = getOrCreate(getMethodFiles(), id >>> FILE_BITS, PAGES_PER_FILE);
+		AtomicReferenceArray<MethodInfo> page = getOrCreate(filePages, (id >>> PAGE_BITS) & (PAGES_PER_FILE - 1), PAGE_SIZE);
+		page.set(id & PAGE_MASK, mth);
 	}
 
-	public MethodInfo putMethod(MethodInfo newMth) {
-		synchronized (uniqueMethods) {
-			MethodInfo prev = uniqueMethods.get(newMth);
-			if (prev != null) {
-				return prev;
+	private AtomicReferenceArray<AtomicReferenceArray<AtomicReferenceArray<MethodInfo>>> getMethodFiles() {
+		AtomicReferenceArray<AtomicReferenceArray<AtomicReferenceArray<MethodInfo>>> files = methodFiles;
+		if (files != null) {
+			return files;
+		}
+		synchronized (this) {
+			files = methodFiles;
+			if (files == null) {
+				files = new AtomicReferenceArray<>(FILES_COUNT);
+				methodFiles = files;
 			}
-			uniqueMethods.put(newMth, newMth);
-			return newMth;
+			return files;
 		}
 	}
 
-	public FieldInfo getField(FieldInfo field) {
-		synchronized (fields) {
-			FieldInfo f = fields.get(field);
-			if (f != null) {
-				return f;
-			}
-			fields.put(field, field);
-			return field;
+	private static <T> AtomicReferenceArray<T> getOrCreate(AtomicReferenceArray<AtomicReferenceArray<T>> arr, int idx, int size) {
+		AtomicReferenceArray<T> page = arr.get(idx);
+		if (page != null) {
+			return page;
 		}
+		AtomicReferenceArray<T> newPage = new AtomicReferenceArray<>(size);
+		if (arr.compareAndSet(idx, null, newPage)) {
+			return newPage;
+		}
+		return arr.get(idx);
+	}
+
+	public MethodInfo putMethod(MethodInfo newMth) {
+		MethodInfo prev = uniqueMethods.putIfAbsent(newMth, newMth);
+		return prev == null ? newMth : prev;
+	}
+
+	public FieldInfo getField(FieldInfo field) {
+		FieldInfo prev = fields.putIfAbsent(field, field);
+		return prev == null ? field : prev;
 	}
 
 	public @Nullable PackageInfo getPkg(String fullName) {
 		return packages.get(fullName);
 	}
 
-	public void putPkg(PackageInfo pkg) {
-		packages.put(pkg.getFullName(), pkg);
+	public PackageInfo putPkg(PackageInfo pkg) {
+		PackageInfo prev = packages.putIfAbsent(pkg.getFullName(), pkg);
+		return prev == null ? pkg : prev;
 	}
 }
@@ -12,7 +12,7 @@ public class PackageInfo {
 	private final String fullName;
 	private final String name;
 
-	public static synchronized PackageInfo fromFullPkg(RootNode root, String fullPkg) {
+	public static PackageInfo fromFullPkg(RootNode root, String fullPkg) {
 		PackageInfo existPkg = root.getInfoStorage().getPkg(fullPkg);
 		if (existPkg != null) {
 			return existPkg;
@@ -26,19 +26,17 @@ public static synchronized PackageInfo fromFullPkg(RootNode root, String fullPkg
 			PackageInfo parentPkg = fromFullPkg(root, fullPkg.substring(0, lastDot));
 			newPkg = new PackageInfo(fullPkg, parentPkg, fullPkg.substring(lastDot + 1));
 		}
-		root.getInfoStorage().putPkg(newPkg);
-		return newPkg;
+		return root.getInfoStorage().putPkg(newPkg);
 	}
 
-	public static synchronized PackageInfo fromShortName(RootNode root, @Nullable PackageInfo parent, String shortName) {
+	public static PackageInfo fromShortName(RootNode root, @Nullable PackageInfo parent, String shortName) {
 		String fullPkg = parent == null ? shortName : parent.getFullName() + '.' + shortName;
 		PackageInfo existPkg = root.getInfoStorage().getPkg(fullPkg);
 		if (existPkg != null) {
 			return existPkg;
 		}
 		PackageInfo newPkg = new PackageInfo(fullPkg, parent, shortName);
-		root.getInfoStorage().putPkg(newPkg);
-		return newPkg;
+		return root.getInfoStorage().putPkg(newPkg);
 	}
 
 	private PackageInfo(String fullName, @Nullable PackageInfo parentPkg, String name) {
@@ -1,9 +1,13 @@
 package jadx.core.dex.instructions.args;
 
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import org.jetbrains.annotations.NotNull;
@@ -19,6 +23,14 @@
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
 public abstract class ArgType {
+	/**
+	 * Global intern tables, declared before constants to use in constants init.
+	 * Object types stored by descriptor and by clean name, generic objects by name and type arguments.
+	 * Types referenced weakly, so entries removed with last usage (e.g. after decompiler instance closed).
+	 */
+	private static final InternTable<String> OBJECT_TYPES = new InternTable<>();
+	private static final InternTable<List<Object>> GENERIC_OBJECT_TYPES = new InternTable<>();
+
 	public static final ArgType INT = primitive(PrimitiveType.INT);
 	public static final ArgType BOOLEAN = primitive(PrimitiveType.BOOLEAN);
 	public static final ArgType BYTE = primitive(PrimitiveType.BYTE);
@@ -38,7 +50,7 @@ public abstract class ArgType {
 	public static final ArgType EXCEPTION = objectNoCache(Consts.CLASS_EXCEPTION);
 	public static final ArgType RUNTIME_EXCEPTION = objectNoCache(Consts.CLASS_RUNTIME_EXCEPTION);
 	public static final ArgType OBJECT_ARRAY = array(OBJECT);
-	public static final ArgType WILDCARD = wildcard();
+	public static final ArgType WILDCARD = new WildcardType(OBJECT, WildcardBound.UNBOUND);
 
 	public static final ArgType UNKNOWN = unknown(PrimitiveType.values());
 	public static final ArgType UNKNOWN_OBJECT = unknown(PrimitiveType.OBJECT, PrimitiveType.ARRAY);
@@ -78,31 +90,53 @@ public abstract class ArgType {
 
 	protected int hash;
 
+	/**
+	 * Canonical instance: only one such instance exists for equal types,
+	 * so two different interned instances are not equal.
+	 */
+	private boolean interned;
+
+	/**
+	 * Cached canonical array type with this type as element
+	 */
+	private volatile ArgType arrayType;
+
 	private static ArgType primitive(PrimitiveType stype) {
-		return new PrimitiveArg(stype);
+		ArgType type = new PrimitiveArg(stype);
+		type.interned = true;
+		return type;
 	}
 
 	private static ArgType objectNoCache(String obj) {
-		return new ObjectType(obj);
+		return intern(OBJECT_TYPES, obj, new ObjectType(obj));
 	}
 
 	public static ArgType object(String obj) {
-		// TODO: add caching
+		ArgType type = OBJECT_TYPES.get(obj);
+		if (type != null) {
+			return type;
+		}
 		String cleanObjectName = Utils.cleanObjectName(obj);
-		switch (cleanObjectName) {
-			case Consts.CLASS_OBJECT:
-				return OBJECT;
-			case Consts.CLASS_STRING:
-				return STRING;
-			case Consts.CLASS_CLASS:
-				return CLASS;
-			case Consts.CLASS_THROWABLE:
-				return THROWABLE;
-			case Consts.CLASS_EXCEPTION:
-				return EXCEPTION;
-			default:
-				return new ObjectType(cleanObjectName);
+		ArgType cleanType = OBJECT_TYPES.get(cleanObjectName);
+		if (cleanType == null) {
+			cleanType = intern(OBJECT_TYPES, cleanObjectName, new ObjectType(cleanObjectName));
+		}
+		if (!obj.equals(cleanObjectName)) {
+			// also store by descriptor
+			OBJECT_TYPES.intern(obj, cleanType);
+		}
+		return cleanType;
+	}
+
+	/**
+	 * Add type into intern table, return already stored type if present
+	 */
+	private static <K> ArgType intern(InternTable<K> table, K key, ArgType type) {
+		ArgType storedType = table.intern(key, type);
+		if (storedType == type) {
+			type.interned = true;
 		}
+		return storedType;
 	}
 
 	public static ArgType genericType(String type) {
@@ -118,7 +152,7 @@ public static ArgType genericType(String type, List<ArgType> extendTypes) {
 	}
 
 	public static ArgType wildcard() {
-		return new WildcardType(OBJECT, WildcardBound.UNBOUND);
+		return WILDCARD;
 	}
 
 	public static ArgType wildcard(ArgType obj, WildcardBound bound) {
@@ -129,7 +163,7 @@ public static ArgType generic(ArgType obj, List<ArgType> generics) {
 		if (!obj.isObject()) {
 			throw new IllegalArgumentException("Expected Object as ArgType, got: " + obj);
 		}
-		return new GenericObject(obj.getObject(), generics);
+		return internGeneric(new GenericObject(obj.getObject(), generics));
 	}
 
 	public static ArgType generic(ArgType obj, ArgType... generics) {
@@ -137,7 +171,73 @@ public static ArgType generic(ArgType obj, ArgType... generics) {
 	}
 
 	public static ArgType generic(String obj, List<ArgType> generics) {
-		return new GenericObject(Utils.cleanObjectName(obj), generics);
+		return internGeneric(new GenericObject(Utils.cleanObjectName(obj), generics));
+	}
+
+	/**
+	 * Type variables are mutable (see {@link #setExtendTypes(List)}), so generics with them are not interned
+	 */
+	private static ArgType internGeneric(ArgType genericObject) {
+		// key without reference to type itself, so type can be collected
+		List<Object> key = Arrays.asList(genericObject.getObject(), genericObject.getGenericTypes());
+		ArgType type = GENERIC_OBJECT_TYPES.get(key);
+		if (type != null) {
+			return type;
+		}
+		if (genericObject.containsTypeVariable()) {
+			return genericObject;
+		}
+		return intern(GENERIC_OBJECT_TYPES, key, genericObject);
+	}
+
+	/**
+	 * Concurrent map with weakly referenced values.
+	 * Entries for collected types removed on next insert.
+	 */
+	private static final class InternTable<K> {
+		private final Map<K, TypeRef<K>> map = new ConcurrentHashMap<>();
+		private final ReferenceQueue<ArgType> queue = new ReferenceQueue<>();
+
+		@Nullable
+		ArgType get(K key) {
+			TypeRef<K> ref = map.get(key);
+			return ref == null ? null : ref.get();
+		}
+
+		ArgType intern(K key, ArgType type) {
+			purge();
+			TypeRef<K> newRef = new TypeRef<>(key, type, queue);
+			while (true) {
+				TypeRef<K> prevRef = map.putIfAbsent(key, newRef);
+				if (prevRef == null) {
+					return type;
+				}
+				ArgType prevType = prevRef.get();
+				if (prevType != null) {
+					return prevType;
+				}
+				if (map.replace(key, prevRef, newRef)) {
+					return type;
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private void purge() {
+			TypeRef<K> ref;
+			while ((ref = (TypeRef<K>) queue.poll()) != null) {
+				map.remove(ref.key, ref);
+			}
+		}
+	}
+
+	private static final class TypeRef<K> extends WeakReference<ArgType> {
+		private final K key;
+
+		TypeRef(K key, ArgType type, ReferenceQueue<ArgType> queue) {
+			super(type, queue);
+			this.key = key;
+		}
 	}
 
 	public static ArgType generic(String obj, ArgType generic) {
@@ -154,16 +254,27 @@ public static ArgType outerGeneric(ArgType genericOuterType, ArgType innerType)
 	}
 
 	public static ArgType array(@NotNull ArgType vtype) {
-		return new ArrayArg(vtype);
+		ArgType arrType = vtype.arrayType;
+		if (arrType != null) {
+			return arrType;
+		}
+		synchronized (vtype) {
+			arrType = vtype.arrayType;
+			if (arrType == null) {
+				ArgType newArrType = new ArrayArg(vtype);
+				// array of canonical element is canonical, because created only here
+				newArrType.interned = vtype.interned;
+				vtype.arrayType = newArrType;
+				arrType = newArrType;
+			}
+			return arrType;
+		}
 	}
 
 	public static ArgType array(@NotNull ArgType type, int dimension) {
-		if (dimension == 1) {
-			return new ArrayArg(type);
-		}
 		ArgType arrType = type;
 		for (int i = 0; i < dimension; i++) {
-			arrType = new ArrayArg(arrType);
+			arrType = array(arrType);
 		}
 		return arrType;
 	}
@@ -559,7 +670,7 @@ public ArgType selectFirst() {
 			if (contains(PrimitiveType.ARRAY)) {
 				return array(OBJECT);
 			}
-			return primitive(possibleTypes[0]);
+			return convertFromPrimitiveType(possibleTypes[0]);
 		}
 
 		@Override
@@ -577,6 +688,14 @@ public String toString() {
 		}
 	}
 
+	/**
+	 * Canonical instance from intern table (see {@link #object(String)}),
+	 * such instances are immutable and equal only to itself.
+	 */
+	public boolean isInterned() {
+		return interned;
+	}
+
 	public boolean isTypeKnown() {
 		return false;
 	}
@@ -937,6 +1056,10 @@ public boolean equals(Object obj) {
 		if (obj == null) {
 			return false;
 		}
+		if (interned && obj instanceof ArgType && ((ArgType) obj).interned) {
+			// fast path for canonical instances
+			return false;
+		}
 		if (hash != obj.hashCode()) {
 			return false;
 		}
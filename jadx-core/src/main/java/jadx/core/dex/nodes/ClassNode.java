@@ -19,9 +19,11 @@
 import jadx.api.ICodeCache;
 import jadx.api.ICodeInfo;
 import jadx.api.JavaClass;
+import jadx.api.impl.AnnotatedCodeInfo;
 import jadx.api.impl.SimpleCodeInfo;
 import jadx.api.impl.SimpleCodeWriter;
 import jadx.api.metadata.ICodeAnnotation;
+import jadx.api.metadata.ICodeMetadata;
 import jadx.api.metadata.annotations.NodeDeclareRef;
 import jadx.api.metadata.annotations.VarRef;
 import jadx.api.plugins.input.data.IClassData;
@@ -49,6 +51,7 @@
 import jadx.core.dex.instructions.args.ArgType;
 import jadx.core.dex.instructions.args.LiteralArg;
 import jadx.core.dex.nodes.utils.TypeUtils;
+import jadx.core.utils.ClassUnloadGovernor;
 import jadx.core.utils.ListUtils;
 import jadx.core.utils.Utils;
 import jadx.core.utils.exceptions.JadxRuntimeException;
@@ -108,13 +111,27 @@ public class ClassNode extends NotificationAttrNode
 	private JavaClass javaNode;
 
 	public ClassNode(RootNode root, IClassData cls) {
+		this(root, cls, true);
+	}
+
+	/**
+	 * Class can be loaded without adding into package,
+	 * in this case {@link #addToPackage()} should be called later (used for parallel loading).
+	 */
+	ClassNode(RootNode root, IClassData cls, boolean addToPackage) {
 		this.root = root;
 		this.clsInfo = ClassInfo.fromType(root, ArgType.object(cls.getType()));
-		this.packageNode = PackageNode.getForClass(root, clsInfo.getPackage(), this);
+		if (addToPackage) {
+			addToPackage();
+		}
 		this.clsData = cls.copy();
 		load(clsData, false);
 	}
 
+	void addToPackage() {
+		this.packageNode = PackageNode.getForClass(root, clsInfo.getPackage(), this);
+	}
+
 	private void load(IClassData cls, boolean reloading) {
 		try {
 			addAttrs(cls.getAttributes());
@@ -324,6 +341,7 @@ public ICodeInfo decompileWithMode(DecompilationMode mode) {
 
 			case SIMPLE:
 			case FALLBACK:
+				checkMemory();
 				synchronized (DECOMPILE_WITH_MODE_SYNC) {
 					try {
 						unload();
@@ -378,10 +396,25 @@ public void unloadFromCache() {
 		codeCache.remove(getRawName());
 	}
 
-	private synchronized ICodeInfo decompile(boolean searchInCache) {
+	private ICodeInfo decompile(boolean searchInCache) {
 		if (isInner()) {
 			return ICodeInfo.EMPTY;
 		}
+		checkMemory();
+		return decompileSync(searchInCache);
+	}
+
+	/**
+	 * Classes unload can wait for other threads processing, so run it before taking class monitor
+	 */
+	private void checkMemory() {
+		ClassUnloadGovernor governor = root.getClassUnloadGovernor();
+		if (governor != null) {
+			governor.checkMemory();
+		}
+	}
+
+	private synchronized ICodeInfo decompileSync(boolean searchInCache) {
 		ICodeCache codeCache = root().getCodeCache();
 		String clsRawName = getRawName();
 		if (searchInCache) {
@@ -403,8 +436,7 @@ private ICodeInfo generateClassCode() {
 				LOG.debug("Decompiling class: {}", this);
 			}
 			ICodeInfo codeInfo = root.getProcessClasses().generateCode(this);
-			processDefinitionAnnotations(codeInfo);
-			return codeInfo;
+			return processDefinitionAnnotations(codeInfo);
 		} catch (StackOverflowError | Exception e) {
 			addError("Code generation failed", e);
 			return new SimpleCodeInfo(Utils.getStackTrace(e));
@@ -412,12 +444,14 @@ private ICodeInfo generateClassCode() {
 	}
 
 	/**
-	 * Save node definition positions found in code
+	 * Save node definition positions found in code.
+	 * Code metadata is immutable, so new code info returned if incorrect annotations removed.
 	 */
-	private static void processDefinitionAnnotations(ICodeInfo codeInfo) {
-		Map<Integer, ICodeAnnotation> annotations = codeInfo.getCodeMetadata().getAsMap();
+	private static ICodeInfo processDefinitionAnnotations(ICodeInfo codeInfo) {
+		ICodeMetadata metadata = codeInfo.getCodeMetadata();
+		Map<Integer, ICodeAnnotation> annotations = metadata.getAsMap();
 		if (annotations.isEmpty()) {
-			return;
+			return codeInfo;
 		}
 		for (Map.Entry<Integer, ICodeAnnotation> entry : annotations.entrySet()) {
 			ICodeAnnotation ann = entry.getValue();
@@ -429,19 +463,23 @@ private static void processDefinitionAnnotations(ICodeInfo codeInfo) {
 			}
 		}
 		// validate var refs
-		annotations.values().removeIf(v -> {
-			if (v.getAnnType() == ICodeAnnotation.AnnType.VAR_REF) {
-				VarRef varRef = (VarRef) v;
-				if (varRef.getRefPos() == 0) {
-					if (LOG.isDebugEnabled()) {
-						LOG.debug("Var reference '{}' incorrect (ref pos is zero) and was removed from metadata", varRef);
-					}
-					return true;
+		Map<Integer, ICodeAnnotation> validAnnotations = null;
+		for (Map.Entry<Integer, ICodeAnnotation> entry : annotations.entrySet()) {
+			ICodeAnnotation ann = entry.getValue();
+			if (ann.getAnnType() == AnnType.VAR_REF && ((VarRef) ann).getRefPos() == 0) {
+				if (LOG.isDebugEnabled()) {
+					LOG.debug("Var reference '{}' incorrect (ref pos is zero) and was removed from metadata", ann);
 				}
-				return false;
+				if (validAnnotations == null) {
+					validAnnotations = new HashMap<>(annotations);
+				}
+				validAnnotations.remove(entry.getKey());
 			}
-			return false;
-		});
+		}
+		if (validAnnotations == null) {
+			return codeInfo;
+		}
+		return new AnnotatedCodeInfo(codeInfo.getCodeStr(), metadata.getLineMapping(), validAnnotations);
 	}
 
 	@Nullable
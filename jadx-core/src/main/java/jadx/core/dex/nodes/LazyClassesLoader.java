@@ -0,0 +1,558 @@
+package jadx.core.dex.nodes;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.plugins.input.ICodeLoader;
+import jadx.api.plugins.input.data.AccessFlags;
+import jadx.api.plugins.input.data.ICatch;
+import jadx.api.plugins.input.data.IClassData;
+import jadx.api.plugins.input.data.ICodeReader;
+import jadx.api.plugins.input.data.IDebugInfo;
+import jadx.api.plugins.input.data.IFieldRef;
+import jadx.api.plugins.input.data.ILocalVar;
+import jadx.api.plugins.input.data.IMethodRef;
+import jadx.api.plugins.input.data.ITry;
+import jadx.api.plugins.input.data.annotations.EncodedValue;
+import jadx.api.plugins.input.data.annotations.IAnnotation;
+import jadx.api.plugins.input.data.attributes.IJadxAttribute;
+import jadx.api.plugins.input.data.attributes.JadxAttrType;
+import jadx.api.plugins.input.data.attributes.types.AnnotationDefaultAttr;
+import jadx.api.plugins.input.data.attributes.types.AnnotationMethodParamsAttr;
+import jadx.api.plugins.input.data.attributes.types.AnnotationsAttr;
+import jadx.api.plugins.input.insns.InsnData;
+import jadx.api.plugins.input.insns.Opcode;
+import jadx.core.dex.attributes.IAttributeNode;
+import jadx.core.dex.info.ConstStorage;
+import jadx.core.dex.info.FieldInfo;
+import jadx.core.dex.info.MethodInfo;
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.parser.SignatureParser;
+import jadx.core.utils.Utils;
+
+/**
+ * Load only classes accepted by class filter and classes used by them:
+ * <ul>
+ * <li>for accepted classes: inner classes, types from fields, methods signatures (including generic),
+ * instructions (with generic signatures of used fields and methods), try/catch handlers, debug info,
+ * annotations and its values, classes from same package with names of used classes</li>
+ * <li>for all loaded classes: outer class, super class, interfaces (full hierarchy needed for class path graph),
+ * methods throws and types created in methods with 'throw' instruction</li>
+ * </ul>
+ * Other classes not loaded (only public constants collected), inputs without search by type are loaded fully.
+ */
+final class LazyClassesLoader {
+	private static final Logger LOG = LoggerFactory.getLogger(LazyClassesLoader.class);
+
+	private static final int CONST_FLAGS = AccessFlags.PUBLIC | AccessFlags.STATIC | AccessFlags.FINAL;
+
+	private final RootNode root;
+	private final Predicate<String> classFilter;
+	private final List<ICodeLoader> searchLoaders = new ArrayList<>();
+	/**
+	 * Types (descriptors) already loaded or checked
+	 */
+	private final Set<String> visited = new HashSet<>();
+	private final Deque<ClassNode> queue = new ArrayDeque<>();
+	/**
+	 * Public constants from not accepted classes
+	 */
+	private final List<ConstField> constFields = new ArrayList<>();
+
+	private int totalCount;
+	private int loadedCount;
+
+	LazyClassesLoader(RootNode root, Predicate<String> classFilter) {
+		this.root = root;
+		this.classFilter = classFilter;
+	}
+
+	void load(List<ICodeLoader> loadedInputs) {
+		boolean collectConsts = root.getArgs().isReplaceConsts();
+		List<ClassNode> accepted = new ArrayList<>();
+		for (ICodeLoader codeLoader : loadedInputs) {
+			boolean searchSupported = codeLoader.isSearchByTypeSupported();
+			if (searchSupported) {
+				searchLoaders.add(codeLoader);
+			}
+			codeLoader.visitClasses(cls -> {
+				totalCount++;
+				boolean accept = isAccepted(cls.getType());
+				if (accept || !searchSupported) {
+					ClassNode clsNode = addClass(cls);
+					if (clsNode != null) {
+						visited.add(Utils.makeQualifiedObjectName(clsNode.getRawName()));
+						queue.add(clsNode);
+						if (accept) {
+							accepted.add(clsNode);
+						}
+					}
+				} else if (collectConsts) {
+					collectConstFields(cls);
+				}
+				Utils.checkThreadInterrupt();
+			});
+		}
+		for (ClassNode cls : accepted) {
+			addCodeDeps(cls);
+			Utils.checkThreadInterrupt();
+		}
+		addSamePackageDeps(accepted);
+		while (!queue.isEmpty()) {
+			addHierarchyDeps(queue.poll());
+			Utils.checkThreadInterrupt();
+		}
+		addConstFields();
+		LOG.info("Lazy load: created {} class nodes from {} classes", loadedCount, totalCount);
+	}
+
+	private boolean isAccepted(String type) {
+		String name = Utils.cleanObjectName(type);
+		if (classFilter.test(name) || classFilter.test(name.replace('$', '.'))) {
+			return true;
+		}
+		// inner classes loaded with outer class
+		int idx = name.lastIndexOf('$');
+		while (idx > 0) {
+			name = name.substring(0, idx);
+			if (classFilter.test(name) || classFilter.test(name.replace('$', '.'))) {
+				return true;
+			}
+			idx = name.lastIndexOf('$');
+		}
+		return false;
+	}
+
+	/**
+	 * Constants replacement use values from all classes (and skip duplicated values),
+	 * so public constants from not loaded classes also collected to get same code as with full load.
+	 */
+	private void collectConstFields(IClassData cls) {
+		try {
+			cls.visitFieldsAndMethods(fld -> {
+				int flags = fld.getAccessFlags();
+				if ((flags & CONST_FLAGS) != CONST_FLAGS) {
+					return;
+				}
+				for (IJadxAttribute attr : fld.getAttributes()) {
+					if (attr.getAttrType() == JadxAttrType.CONSTANT_VALUE && attr != EncodedValue.NULL) {
+						EncodedValue value = (EncodedValue) attr;
+						if (value.getValue() != null) {
+							constFields.add(new ConstField(FieldInfo.fromRef(root, fld), value));
+						}
+					}
+				}
+			}, mth -> {
+			});
+		} catch (Exception e) {
+			LOG.debug("Failed to collect constants from class: {}", cls.getType(), e);
+		}
+	}
+
+	private void addConstFields() {
+		ConstStorage constStorage = root.getConstValues();
+		for (ConstField constField : constFields) {
+			FieldInfo fieldInfo = constField.getField();
+			// fields from loaded classes will be added at class processing
+			if (root.resolveClass(fieldInfo.getDeclClass()) == null) {
+				constStorage.addNotLoadedConstField(fieldInfo, constField.getValue());
+			}
+		}
+		constFields.clear();
+	}
+
+	private @Nullable ClassNode addClass(IClassData cls) {
+		loadedCount++;
+		try {
+			ClassNode clsNode = new ClassNode(root, cls);
+			root.addClassNode(clsNode);
+			return clsNode;
+		} catch (Exception e) {
+			root.addDummyClass(cls, e);
+			return null;
+		}
+	}
+
+	private void addHierarchyDeps(ClassNode cls) {
+		String rawName = cls.getRawName();
+		int idx = rawName.lastIndexOf('$');
+		if (idx > 0) {
+			addType(Utils.makeQualifiedObjectName(rawName.substring(0, idx)));
+		}
+		addType(cls.getSuperClass());
+		for (ArgType intf : cls.getInterfaces()) {
+			addType(intf);
+		}
+		// exceptions hierarchy used to check throws of called methods
+		for (MethodNode mth : cls.getMethods()) {
+			addTypes(mth.getThrows());
+		}
+		addThrownTypesDeps(cls);
+	}
+
+	/**
+	 * Methods code of loaded classes checked for thrown exceptions (see {@link jadx.core.dex.visitors.MethodThrowsVisitor}),
+	 * so add types created in methods with 'throw' instruction.
+	 */
+	private void addThrownTypesDeps(ClassNode cls) {
+		IClassData clsData = cls.getClsData();
+		if (clsData == null) {
+			return;
+		}
+		try {
+			clsData.copy().visitFieldsAndMethods(fld -> {
+			}, mth -> {
+				ICodeReader codeReader = mth.getCodeReader();
+				if (codeReader == null) {
+					return;
+				}
+				List<String> newTypes = new ArrayList<>();
+				AtomicBoolean hasThrow = new AtomicBoolean(false);
+				codeReader.visitInstructions(insn -> {
+					Opcode opcode = insn.getOpcode();
+					if (opcode == Opcode.NEW_INSTANCE) {
+						insn.decode();
+						newTypes.add(insn.getIndexAsType());
+					} else if (opcode == Opcode.THROW) {
+						hasThrow.set(true);
+					}
+				});
+				if (hasThrow.get()) {
+					newTypes.forEach(this::addType);
+				}
+			});
+		} catch (Exception e) {
+			LOG.warn("Failed to collect thrown types for class: {}", cls, e);
+		}
+	}
+
+	private void addCodeDeps(ClassNode cls) {
+		addAnnotationsDeps(cls);
+		addSignatureDeps(cls, sp -> {
+			addTypes(sp.consumeGenericTypeParameters());
+			addTypes(sp.consumeTypeList());
+		});
+		for (FieldNode fld : cls.getFields()) {
+			addType(fld.getType());
+			addAnnotationsDeps(fld);
+			addSignatureDeps(fld, sp -> addType(sp.consumeType()));
+		}
+		for (MethodNode mth : cls.getMethods()) {
+			MethodInfo mthInfo = mth.getMethodInfo();
+			addType(mthInfo.getReturnType());
+			addTypes(mthInfo.getArgumentsTypes());
+			addTypes(mth.getThrows());
+			addMethodAnnotationsDeps(mth);
+			addSignatureDeps(mth, sp -> {
+				addTypes(sp.consumeGenericTypeParameters());
+				addTypes(sp.consumeMethodArgs(mthInfo.getArgsCount()));
+				addType(sp.consumeType());
+			});
+		}
+		IClassData clsData = cls.getClsData();
+		if (clsData == null) {
+			return;
+		}
+		try {
+			clsData.copy().visitFieldsAndMethods(fld -> {
+			}, mth -> {
+				ICodeReader codeReader = mth.getCodeReader();
+				if (codeReader != null) {
+					codeReader.visitInstructions(this::addInsnDeps);
+					addTryCatchDeps(codeReader);
+					addDebugInfoDeps(codeReader);
+				}
+			});
+		} catch (Exception e) {
+			LOG.warn("Failed to collect dependencies for class: {}", cls, e);
+		}
+	}
+
+	/**
+	 * Classes from same package with names equal to used classes, needed to check imports collisions
+	 */
+	private void addSamePackageDeps(List<ClassNode> accepted) {
+		Set<String> packages = new HashSet<>();
+		for (ClassNode cls : accepted) {
+			packages.add(getPackagePrefix(Utils.makeQualifiedObjectName(cls.getRawName())));
+		}
+		List<String> usedTypes = new ArrayList<>(visited);
+		for (String pkg : packages) {
+			for (String type : usedTypes) {
+				String typePkg = getPackagePrefix(type);
+				String shortName = type.substring(typePkg.length());
+				if (!typePkg.equals(pkg) && shortName.indexOf('$') == -1) {
+					addType(pkg + shortName);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return type descriptor prefix with package: 'La/b/' for 'La/b/C;'
+	 */
+	private static String getPackagePrefix(String type) {
+		int idx = type.lastIndexOf('/');
+		return idx == -1 ? "L" : type.substring(0, idx + 1);
+	}
+
+	private void addSignatureDeps(IAttributeNode node, Consumer<SignatureParser> parse) {
+		SignatureParser sp = SignatureParser.fromNode(node);
+		if (sp != null) {
+			try {
+				parse.accept(sp);
+			} catch (Exception e) {
+				// bad signature will be reported at class processing
+				LOG.debug("Failed to collect dependencies from signature: {}", sp.getSignature(), e);
+			}
+		}
+	}
+
+	private void addMethodAnnotationsDeps(MethodNode mth) {
+		addAnnotationsDeps(mth);
+		AnnotationMethodParamsAttr paramsAttr = mth.get(JadxAttrType.ANNOTATION_MTH_PARAMETERS);
+		if (paramsAttr != null) {
+			for (AnnotationsAttr annAttr : paramsAttr.getParamList()) {
+				addAnnotationsDeps(annAttr);
+			}
+		}
+		AnnotationDefaultAttr defaultAttr = mth.get(JadxAttrType.ANNOTATION_DEFAULT);
+		if (defaultAttr != null) {
+			addAnnotationValueDeps(defaultAttr.getValue());
+		}
+	}
+
+	private void addAnnotationsDeps(IAttributeNode node) {
+		addAnnotationsDeps(node.get(JadxAttrType.ANNOTATION_LIST));
+	}
+
+	private void addAnnotationsDeps(@Nullable AnnotationsAttr annAttr) {
+		if (annAttr == null || annAttr.isEmpty()) {
+			return;
+		}
+		for (IAnnotation ann : annAttr.getList()) {
+			addAnnotationDeps(ann);
+		}
+	}
+
+	private void addAnnotationDeps(IAnnotation ann) {
+		addType(ann.getAnnotationClass());
+		for (EncodedValue value : ann.getValues().values()) {
+			addAnnotationValueDeps(value);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void addAnnotationValueDeps(@Nullable EncodedValue value) {
+		if (value == null) {
+			return;
+		}
+		Object obj = value.getValue();
+		switch (value.getType()) {
+			case ENCODED_TYPE:
+				addType((String) obj);
+				break;
+			case ENCODED_ENUM:
+			case ENCODED_FIELD:
+				if (obj instanceof IFieldRef) {
+					addFieldRefDeps((IFieldRef) obj);
+				} else if (obj instanceof FieldInfo) {
+					FieldInfo fieldInfo = (FieldInfo) obj;
+					addType(fieldInfo.getDeclClass().getType());
+					addType(fieldInfo.getType());
+				}
+				break;
+			case ENCODED_METHOD:
+				if (obj instanceof IMethodRef) {
+					addMethodRefDeps((IMethodRef) obj);
+				}
+				break;
+			case ENCODED_ARRAY:
+				for (EncodedValue encodedValue : (List<EncodedValue>) obj) {
+					addAnnotationValueDeps(encodedValue);
+				}
+				break;
+			case ENCODED_ANNOTATION:
+				addAnnotationDeps((IAnnotation) obj);
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void addTryCatchDeps(ICodeReader codeReader) {
+		for (ITry tryData : codeReader.getTries()) {
+			ICatch catchData = tryData.getCatch();
+			for (String type : catchData.getTypes()) {
+				addType(ArgType.object(type));
+			}
+		}
+	}
+
+	private void addDebugInfoDeps(ICodeReader codeReader) {
+		IDebugInfo debugInfo = codeReader.getDebugInfo();
+		if (debugInfo == null) {
+			return;
+		}
+		for (ILocalVar localVar : debugInfo.getLocalVars()) {
+			String type = localVar.getType();
+			if (type != null) {
+				addType(type);
+			}
+			String signature = localVar.getSignature();
+			if (signature != null) {
+				try {
+					addType(new SignatureParser(signature).consumeType());
+				} catch (Exception e) {
+					LOG.debug("Failed to collect dependencies from local variable signature: {}", signature, e);
+				}
+			}
+		}
+	}
+
+	private void addInsnDeps(InsnData insn) {
+		if (insn.getOpcode() == Opcode.UNKNOWN) {
+			return;
+		}
+		switch (insn.getIndexType()) {
+			case TYPE_REF:
+				insn.decode();
+				addType(insn.getIndexAsType());
+				break;
+			case FIELD_REF:
+				insn.decode();
+				addFieldRefDeps(insn.getIndexAsField());
+				break;
+			case METHOD_REF:
+				insn.decode();
+				IMethodRef mthRef = insn.getIndexAsMethod();
+				mthRef.load();
+				addMethodRefDeps(mthRef);
+				break;
+			default:
+				break;
+		}
+	}
+
+	private void addFieldRefDeps(IFieldRef fieldRef) {
+		addType(fieldRef.getParentClassType());
+		addType(fieldRef.getType());
+		// generic field type from loaded class used in type inference
+		FieldInfo fieldInfo = FieldInfo.fromRef(root, fieldRef);
+		ClassNode cls = root.resolveClass(fieldInfo.getDeclClass());
+		if (cls != null) {
+			FieldNode fld = cls.searchField(fieldInfo);
+			if (fld != null) {
+				addSignatureDeps(fld, sp -> addType(sp.consumeType()));
+			}
+		}
+	}
+
+	private void addMethodRefDeps(IMethodRef mthRef) {
+		addType(mthRef.getParentClassType());
+		addType(mthRef.getReturnType());
+		for (String argType : mthRef.getArgTypes()) {
+			addType(argType);
+		}
+		// generic types from method signature of loaded class used in type inference
+		MethodInfo mthInfo = MethodInfo.fromRef(root, mthRef);
+		ClassNode cls = root.resolveClass(mthInfo.getDeclClass());
+		if (cls != null) {
+			MethodNode mth = cls.searchMethod(mthInfo);
+			if (mth != null) {
+				addSignatureDeps(mth, sp -> {
+					addTypes(sp.consumeGenericTypeParameters());
+					addTypes(sp.consumeMethodArgs(mthInfo.getArgsCount()));
+					addType(sp.consumeType());
+				});
+			}
+		}
+	}
+
+	private void addTypes(@Nullable List<ArgType> types) {
+		if (types == null) {
+			return;
+		}
+		for (ArgType type : types) {
+			addType(type);
+		}
+	}
+
+	/**
+	 * Add class types used in type, including generic type parameters and type variables bounds
+	 */
+	private void addType(@Nullable ArgType type) {
+		if (type == null) {
+			return;
+		}
+		if (type.isArray()) {
+			addType(type.getArrayRootElement());
+			return;
+		}
+		if (type.isWildcard()) {
+			addType(type.getWildcardType());
+			return;
+		}
+		if (type.isGenericType()) {
+			// type variable, only bounds are classes
+			addTypes(type.getExtendTypes());
+			return;
+		}
+		if (!type.isObject()) {
+			return;
+		}
+		addType(Utils.makeQualifiedObjectName(type.getObject()));
+		if (type.isGeneric()) {
+			addType(type.getOuterType());
+			addTypes(type.getGenericTypes());
+		}
+	}
+
+	private void addType(String type) {
+		int start = 0;
+		while (start < type.length() && type.charAt(start) == '[') {
+			start++;
+		}
+		String clsType = start == 0 ? type : type.substring(start);
+		if (clsType.charAt(0) != 'L' || !visited.add(clsType)) {
+			return;
+		}
+		for (ICodeLoader codeLoader : searchLoaders) {
+			codeLoader.visitClassesByType(clsType, cls -> {
+				ClassNode clsNode = addClass(cls);
+				if (clsNode != null) {
+					queue.add(clsNode);
+				}
+			});
+		}
+	}
+
+	private static final class ConstField {
+		private final FieldInfo field;
+		private final EncodedValue value;
+
+		private ConstField(FieldInfo field, EncodedValue value) {
+			this.field = field;
+			this.value = value;
+		}
+
+		public FieldInfo getField() {
+			return field;
+		}
+
+		public EncodedValue getValue() {
+			return value;
+		}
+	}
+}
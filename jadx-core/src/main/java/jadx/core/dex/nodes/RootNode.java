@@ -7,7 +7,14 @@
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -53,9 +60,11 @@
 import jadx.core.dex.visitors.typeinference.TypeUpdate;
 import jadx.core.export.GradleInfoStorage;
 import jadx.core.utils.CacheStorage;
+import jadx.core.utils.ClassUnloadGovernor;
 import jadx.core.utils.DebugChecks;
 import jadx.core.utils.ErrorsCounter;
 import jadx.core.utils.PassMerge;
+import jadx.core.utils.PassesProfiler;
 import jadx.core.utils.StringUtils;
 import jadx.core.utils.Utils;
 import jadx.core.utils.android.AndroidResourcesUtils;
@@ -78,6 +87,9 @@ public class RootNode {
 	private final TypeUpdate typeUpdate;
 	private final MethodUtils methodUtils;
 	private final TypeUtils typeUtils;
+	private final @Nullable PassesProfiler passesProfiler;
+	private final @Nullable ClassUnloadGovernor classUnloadGovernor;
+	private @Nullable ForkJoinPool methodsPool;
 	private final AttributeStorage attributes = new AttributeStorage();
 
 	private final List<ICodeDataUpdateListener> codeDataUpdateListeners = new ArrayList<>();
@@ -126,6 +138,9 @@ private RootNode(@Nullable JadxDecompiler decompiler, JadxArgs args) {
 		this.typeUpdate = new TypeUpdate(this);
 		this.methodUtils = new MethodUtils(this);
 		this.typeUtils = new TypeUtils(this);
+		this.passesProfiler = args.getPassesProfileFile() != null ? new PassesProfiler() : null;
+		int unloadThreshold = args.getUnloadMemoryThreshold();
+		this.classUnloadGovernor = unloadThreshold != 0 ? new ClassUnloadGovernor(unloadThreshold) : null;
 	}
 
 	public void init() {
@@ -138,6 +153,20 @@ public void init() {
 	}
 
 	public void loadClasses(List<ICodeLoader> loadedInputs) {
+		Predicate<String> classFilter = args.getClassFilter();
+		if (args.isLazyLoad() && classFilter != null) {
+			new LazyClassesLoader(this, classFilter).load(loadedInputs);
+			return;
+		}
+		List<ICodeLoader> parts = new ArrayList<>();
+		for (ICodeLoader codeLoader : loadedInputs) {
+			parts.addAll(codeLoader.splitForParallelLoad());
+		}
+		int threads = Math.min(args.getThreadsCount(), parts.size());
+		if (threads > 1) {
+			loadClassesParallel(parts, threads);
+			return;
+		}
 		for (ICodeLoader codeLoader : loadedInputs) {
 			codeLoader.visitClasses(cls -> {
 				try {
@@ -150,6 +179,81 @@ public void loadClasses(List<ICodeLoader> loadedInputs) {
 		}
 	}
 
+	/**
+	 * Build class nodes for every part concurrently,
+	 * then add into packages and class maps in the same order as sequential loading.
+	 */
+	private void loadClassesParallel(List<ICodeLoader> parts, int threads) {
+		List<Callable<List<LoadedClass>>> tasks = new ArrayList<>(parts.size());
+		for (ICodeLoader part : parts) {
+			tasks.add(() -> loadPart(part));
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threads, Utils.simpleThreadFactory("load"));
+		try {
+			List<Future<List<LoadedClass>>> results = executor.invokeAll(tasks);
+			for (Future<List<LoadedClass>> result : results) {
+				for (LoadedClass loadedCls : result.get()) {
+					ClassNode clsNode = loadedCls.getClsNode();
+					if (clsNode != null) {
+						clsNode.addToPackage();
+						addClassNode(clsNode);
+					} else {
+						addDummyClass(loadedCls.getClsData(), loadedCls.getError());
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			throw new JadxRuntimeException("Classes load interrupted", e);
+		} catch (ExecutionException e) {
+			throw new JadxRuntimeException("Classes load failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private List<LoadedClass> loadPart(ICodeLoader part) {
+		List<LoadedClass> list = new ArrayList<>();
+		part.visitClasses(cls -> {
+			try {
+				list.add(new LoadedClass(new ClassNode(RootNode.this, cls, false)));
+			} catch (Exception e) {
+				list.add(new LoadedClass(cls.copy(), e));
+			}
+			Utils.checkThreadInterrupt();
+		});
+		return list;
+	}
+
+	private static final class LoadedClass {
+		private final @Nullable ClassNode clsNode;
+		private final @Nullable IClassData clsData;
+		private final @Nullable Exception error;
+
+		LoadedClass(ClassNode clsNode) {
+			this.clsNode = clsNode;
+			this.clsData = null;
+			this.error = null;
+		}
+
+		LoadedClass(IClassData clsData, Exception error) {
+			this.clsNode = null;
+			this.clsData = clsData;
+			this.error = error;
+		}
+
+		public @Nullable ClassNode getClsNode() {
+			return clsNode;
+		}
+
+		public IClassData getClsData() {
+			return Objects.requireNonNull(clsData);
+		}
+
+		public Exception getError() {
+			return Objects.requireNonNull(error);
+		}
+	}
+
 	public void finishClassLoad() {
 		if (classes.size() != clsMap.size()) {
 			// class name duplication detected
@@ -173,7 +277,7 @@ public void finishClassLoad() {
 		Collections.sort(packages);
 	}
 
-	private void addDummyClass(IClassData classData, Exception exc) {
+	void addDummyClass(IClassData classData, Exception exc) {
 		try {
 			String typeStr = classData.getType();
 			String name = null;
@@ -226,6 +330,7 @@ public void addClassNode(ClassNode clsNode) {
 		classes.add(clsNode);
 		clsMap.put(clsNode.getClassInfo(), clsNode);
 		rawClsMap.put(clsNode.getRawName(), clsNode);
+		typeUpdate.getTypeCompare().resetCache();
 	}
 
 	public void loadResources(ResourcesLoader resLoader, List<ResourceFile> resources) {
@@ -271,6 +376,7 @@ public void initClassPath() {
 				newClsp.addApp(classes);
 				newClsp.initCache();
 				this.clsp = newClsp;
+				typeUpdate.getTypeCompare().resetCache();
 			}
 		} catch (Exception e) {
 			throw new JadxRuntimeException("Error loading jadx class set", e);
@@ -381,7 +487,7 @@ public void runPreDecompileStage() {
 				if (cls.isInner()) {
 					continue;
 				}
-				DepthTraversal.visit(pass, cls);
+				DepthTraversal.visit(pass, cls, passesProfiler);
 			}
 			if (debugEnabled) {
 				LOG.debug("Prepare pass: '{}' - {}ms", pass, System.currentTimeMillis() - start);
@@ -391,7 +497,7 @@ public void runPreDecompileStage() {
 
 	public void runPreDecompileStageForClass(ClassNode cls) {
 		for (IDexTreeVisitor pass : preDecompilePasses) {
-			DepthTraversal.visit(pass, cls);
+			DepthTraversal.visit(pass, cls, passesProfiler);
 		}
 	}
 
@@ -410,6 +516,7 @@ public void restartVisitors() {
 			cls.clearAttributes();
 			cls.unloadFromCache();
 		}
+		typeUpdate.getTypeCompare().resetCache();
 		runPreDecompileStage();
 	}
 
@@ -692,6 +799,37 @@ public List<IDexTreeVisitor> getPasses() {
 		return processClasses.getPasses();
 	}
 
+	public @Nullable PassesProfiler getPassesProfiler() {
+		return passesProfiler;
+	}
+
+	/**
+	 * Shared pool for parallel methods processing (used by all decompilation modes), created on first use
+	 */
+	public synchronized ForkJoinPool getMethodsPool() {
+		ForkJoinPool pool = methodsPool;
+		if (pool == null) {
+			pool = new ForkJoinPool(args.getThreadsCount());
+			methodsPool = pool;
+		}
+		return pool;
+	}
+
+	/**
+	 * Release resources owned by root node
+	 */
+	public synchronized void close() {
+		ForkJoinPool pool = methodsPool;
+		if (pool != null) {
+			pool.shutdownNow();
+			methodsPool = null;
+		}
+	}
+
+	public @Nullable ClassUnloadGovernor getClassUnloadGovernor() {
+		return classUnloadGovernor;
+	}
+
 	public List<IDexTreeVisitor> getPreDecompilePasses() {
 		return preDecompilePasses;
 	}
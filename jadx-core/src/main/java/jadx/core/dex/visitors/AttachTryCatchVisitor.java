@@ -29,7 +29,8 @@
 		desc = "Attach try/catch info to instructions",
 		runBefore = {
 				ProcessInstructionsVisitor.class
-		}
+		},
+		methodLocal = true
 )
 public class AttachTryCatchVisitor extends AbstractVisitor {
 	private static final Logger LOG = LoggerFactory.getLogger(AttachTryCatchVisitor.class);
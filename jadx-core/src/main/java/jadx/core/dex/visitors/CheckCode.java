@@ -15,7 +15,8 @@
 
 @JadxVisitor(
 		name = "CheckCode",
-		desc = "Check and remove bad or incorrect code"
+		desc = "Check and remove bad or incorrect code",
+		methodLocal = true
 )
 public class CheckCode extends AbstractVisitor {
 
@@ -1,33 +1,207 @@
 package jadx.core.dex.visitors;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.Nullable;
+
 import jadx.core.dex.attributes.AType;
 import jadx.core.dex.nodes.ClassNode;
 import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.PassesProfiler;
+import jadx.core.utils.exceptions.JadxException;
+import jadx.core.utils.exceptions.JadxRuntimeException;
 
 public class DepthTraversal {
 
 	public static void visit(IDexTreeVisitor visitor, ClassNode cls) {
+		visit(visitor, cls, null);
+	}
+
+	public static void visit(IDexTreeVisitor visitor, MethodNode mth) {
+		visit(visitor, mth, null);
+	}
+
+	public static void visit(IDexTreeVisitor visitor, ClassNode cls, @Nullable PassesProfiler profiler) {
 		try {
-			if (visitor.visit(cls)) {
-				cls.getInnerClasses().forEach(inCls -> visit(visitor, inCls));
-				cls.getMethods().forEach(mth -> visit(visitor, mth));
+			if (visitClass(visitor, cls, profiler)) {
+				cls.getInnerClasses().forEach(inCls -> visit(visitor, inCls, profiler));
+				cls.getMethods().forEach(mth -> visit(visitor, mth, profiler));
 			}
 		} catch (StackOverflowError | BootstrapMethodError | Exception e) {
 			cls.addError(e.getClass().getSimpleName() + " in pass: " + visitor.getClass().getSimpleName(), e);
 		}
 	}
 
-	public static void visit(IDexTreeVisitor visitor, MethodNode mth) {
+	public static void visit(IDexTreeVisitor visitor, MethodNode mth, @Nullable PassesProfiler profiler) {
 		try {
 			if (mth.contains(AType.JADX_ERROR)) {
 				return;
 			}
-			visitor.visit(mth);
+			if (profiler == null) {
+				visitor.visit(mth);
+			} else {
+				PassesProfiler.Sample sample = profiler.start();
+				try {
+					visitor.visit(mth);
+				} finally {
+					profiler.finish(sample, visitor, mth);
+				}
+			}
 		} catch (StackOverflowError | BootstrapMethodError | Exception e) {
 			mth.addError(e.getClass().getSimpleName() + " in pass: " + visitor.getClass().getSimpleName(), e);
 		}
 	}
 
+	private static boolean visitClass(IDexTreeVisitor visitor, ClassNode cls, @Nullable PassesProfiler profiler) throws JadxException {
+		if (profiler == null) {
+			return visitor.visit(cls);
+		}
+		PassesProfiler.Sample sample = profiler.start();
+		try {
+			return visitor.visit(cls);
+		} finally {
+			profiler.finish(sample, visitor, cls);
+		}
+	}
+
+	/**
+	 * Apply method local visitors (see {@link JadxVisitor#methodLocal()}) to all methods of class
+	 * and its inner classes. Methods processed in parallel, all visitors applied to one method in a row.
+	 * Current thread also used for processing, so progress is not blocked by busy pool.
+	 */
+	public static void visitMethodsParallel(List<IDexTreeVisitor> visitors, ClassNode cls,
+			ForkJoinPool pool, @Nullable PassesProfiler profiler) {
+		List<MethodPasses> methods = new ArrayList<>();
+		collectMethods(visitors, cls, methods, profiler);
+		int count = methods.size();
+		if (count == 0) {
+			return;
+		}
+		AtomicInteger next = new AtomicInteger(0);
+		int helpersCount = Math.min(pool.getParallelism(), count - 1);
+		List<MethodsWorker> helpers = new ArrayList<>(helpersCount);
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(helpersCount);
+		for (int i = 0; i < helpersCount; i++) {
+			MethodsWorker helper = new MethodsWorker(methods, next);
+			helpers.add(helper);
+			tasks.add(pool.submit(helper));
+		}
+		try {
+			new MethodsWorker(methods, next).run();
+		} finally {
+			awaitHelpers(helpers, tasks, next, count);
+		}
+	}
+
+	private static void awaitHelpers(List<MethodsWorker> helpers, List<ForkJoinTask<?>> tasks, AtomicInteger next, int count) {
+		for (int i = 0; i < helpers.size(); i++) {
+			ForkJoinTask<?> task = tasks.get(i);
+			if (helpers.get(i).cancel()) {
+				// not started yet, no need to wait
+				task.cancel(false);
+				continue;
+			}
+			try {
+				task.get();
+			} catch (InterruptedException e) {
+				// stop taking new methods
+				next.set(count);
+				Thread.currentThread().interrupt();
+				throw new JadxRuntimeException("Thread interrupted");
+			} catch (ExecutionException e) {
+				Throwable cause = e.getCause();
+				if (cause instanceof Error) {
+					throw (Error) cause;
+				}
+				throw new JadxRuntimeException("Method processing failed", cause);
+			}
+		}
+	}
+
+	private static void collectMethods(List<IDexTreeVisitor> visitors, ClassNode cls, List<MethodPasses> methods,
+			@Nullable PassesProfiler profiler) {
+		List<IDexTreeVisitor> clsVisitors = new ArrayList<>(visitors.size());
+		for (IDexTreeVisitor visitor : visitors) {
+			try {
+				if (visitClass(visitor, cls, profiler)) {
+					clsVisitors.add(visitor);
+				}
+			} catch (StackOverflowError | BootstrapMethodError | Exception e) {
+				cls.addError(e.getClass().getSimpleName() + " in pass: " + visitor.getClass().getSimpleName(), e);
+			}
+		}
+		if (clsVisitors.isEmpty()) {
+			return;
+		}
+		for (ClassNode innerCls : cls.getInnerClasses()) {
+			collectMethods(clsVisitors, innerCls, methods, profiler);
+		}
+		for (MethodNode mth : cls.getMethods()) {
+			methods.add(new MethodPasses(mth, clsVisitors, profiler));
+		}
+	}
+
+	public static boolean isMethodLocal(IDexTreeVisitor visitor) {
+		JadxVisitor ann = visitor.getClass().getAnnotation(JadxVisitor.class);
+		return ann != null && ann.methodLocal();
+	}
+
+	private static final class MethodsWorker implements Runnable {
+		private final List<MethodPasses> methods;
+		private final AtomicInteger next;
+		private final AtomicBoolean started = new AtomicBoolean(false);
+
+		private MethodsWorker(List<MethodPasses> methods, AtomicInteger next) {
+			this.methods = methods;
+			this.next = next;
+		}
+
+		@Override
+		public void run() {
+			if (!started.compareAndSet(false, true)) {
+				return;
+			}
+			int count = methods.size();
+			int i;
+			while ((i = next.getAndIncrement()) < count) {
+				methods.get(i).visit();
+			}
+		}
+
+		/**
+		 * Prevent worker start
+		 *
+		 * @return false if worker already started
+		 */
+		public boolean cancel() {
+			return started.compareAndSet(false, true);
+		}
+	}
+
+	private static final class MethodPasses {
+		private final MethodNode mth;
+		private final List<IDexTreeVisitor> visitors;
+		private final @Nullable PassesProfiler profiler;
+
+		private MethodPasses(MethodNode mth, List<IDexTreeVisitor> visitors, @Nullable PassesProfiler profiler) {
+			this.mth = mth;
+			this.visitors = visitors;
+			this.profiler = profiler;
+		}
+
+		public void visit() {
+			for (IDexTreeVisitor visitor : visitors) {
+				DepthTraversal.visit(visitor, mth, profiler);
+			}
+		}
+	}
+
 	private DepthTraversal() {
 	}
 }
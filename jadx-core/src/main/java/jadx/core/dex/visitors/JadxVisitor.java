@@ -30,4 +30,13 @@
 	 * This visitor must be run <b>before</b> listed visitors
 	 */
 	Class<? extends IDexTreeVisitor>[] runBefore() default {};
+
+	/**
+	 * Visitor process only method data and don't read or change other methods, parent class
+	 * or shared root state (like method details or type bounds from invoke targets).
+	 * Such visitors can be applied to methods of one class in parallel.
+	 * <br>
+	 * Class visit method will be called before methods processing and should not have side effects.
+	 */
+	boolean methodLocal() default false;
 }
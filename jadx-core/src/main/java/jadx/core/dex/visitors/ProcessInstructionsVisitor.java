@@ -28,7 +28,8 @@
 		desc = "Init instructions info",
 		runBefore = {
 				BlockSplitter.class
-		}
+		},
+		methodLocal = true
 )
 public class ProcessInstructionsVisitor extends AbstractVisitor {
 
@@ -4,6 +4,7 @@
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
 
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -14,6 +15,7 @@
 import jadx.core.dex.nodes.RootNode;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 import jadx.core.utils.files.FileUtils;
+import jadx.core.utils.files.IFilesWriter;
 
 public class SaveCode {
 	private static final Logger LOG = LoggerFactory.getLogger(SaveCode.class);
@@ -22,6 +24,13 @@ private SaveCode() {
 	}
 
 	public static void save(File dir, ClassNode cls, ICodeInfo code) {
+		save(dir, cls, code, null);
+	}
+
+	/**
+	 * @param fileWriter write file using provided writer (in background or into archive) if not null
+	 */
+	public static void save(File dir, ClassNode cls, ICodeInfo code, @Nullable IFilesWriter fileWriter) {
 		if (cls.contains(AFlag.DONT_GENERATE)) {
 			return;
 		}
@@ -43,7 +52,12 @@ public static void save(File dir, ClassNode cls, ICodeInfo code) {
 		if (!args.getSecurity().isValidEntryName(fileName)) {
 			return;
 		}
-		save(codeStr, new File(dir, fileName));
+		File file = new File(dir, fileName);
+		if (fileWriter != null) {
+			fileWriter.write(file, codeStr);
+		} else {
+			save(codeStr, file);
+		}
 	}
 
 	public static void save(ICodeInfo codeInfo, File file) {
@@ -45,6 +45,11 @@
 import jadx.core.utils.Utils;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 
+@JadxVisitor(
+		name = "SimplifyVisitor",
+		desc = "Simplify instructions and conditions",
+		methodLocal = true
+)
 public class SimplifyVisitor extends AbstractVisitor {
 
 	private static final Logger LOG = LoggerFactory.getLogger(SimplifyVisitor.class);
@@ -3,7 +3,13 @@
 import jadx.core.dex.attributes.AFlag;
 import jadx.core.dex.nodes.MethodNode;
 import jadx.core.dex.visitors.AbstractVisitor;
+import jadx.core.dex.visitors.JadxVisitor;
 
+@JadxVisitor(
+		name = "BlockFinisher",
+		desc = "Lock blocks lists after processing",
+		methodLocal = true
+)
 public class BlockFinisher extends AbstractVisitor {
 	@Override
 	public void visit(MethodNode mth) {
@@ -28,7 +28,8 @@
 		runBefore = {
 				BlockSplitter.class,
 				SSATransform.class
-		}
+		},
+		methodLocal = true
 )
 public class DebugInfoAttachVisitor extends AbstractVisitor {
 
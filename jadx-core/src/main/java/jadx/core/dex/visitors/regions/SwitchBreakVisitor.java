@@ -35,7 +35,8 @@
 @JadxVisitor(
 		name = "SwitchBreakVisitor",
 		desc = "Optimize 'break' instruction: common code extract, remove unreachable",
-		runAfter = LoopRegionVisitor.class // can add 'continue' at case end
+		runAfter = LoopRegionVisitor.class, // can add 'continue' at case end
+		methodLocal = true
 )
 public class SwitchBreakVisitor extends AbstractVisitor {
 
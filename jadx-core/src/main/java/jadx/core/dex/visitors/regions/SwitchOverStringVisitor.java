@@ -19,6 +19,7 @@
 import jadx.core.dex.attributes.IAttributeNode;
 import jadx.core.dex.attributes.nodes.CodeFeaturesAttr;
 import jadx.core.dex.attributes.nodes.CodeFeaturesAttr.CodeFeature;
+import jadx.core.dex.info.FieldInfo;
 import jadx.core.dex.info.MethodInfo;
 import jadx.core.dex.instructions.IfNode;
 import jadx.core.dex.instructions.IfOp;
@@ -212,7 +213,7 @@ private boolean mergeWithCode(SwitchData switchData) {
 		for (SwitchRegion.CaseInfo caseInfo : codeSwitch.getCases()) {
 			SwitchRegion.CaseInfo newCase = null;
 			for (Object key : caseInfo.getKeys()) {
-				Integer intKey = unwrapIntKey(key);
+				Integer intKey = unwrapIntKey(switchData.getMth(), key);
 				if (intKey != null) {
 					CaseData caseData = casesMap.remove(intKey);
 					if (caseData == null) {
@@ -292,17 +293,21 @@ private boolean mergeWithCode(SwitchData switchData) {
 		return null;
 	}
 
-	private Integer unwrapIntKey(Object key) {
+	private Integer unwrapIntKey(MethodNode mth, Object key) {
 		if (key instanceof Integer) {
 			return (Integer) key;
 		}
+		EncodedValue encodedValue;
 		if (key instanceof FieldNode) {
-			EncodedValue encodedValue = ((FieldNode) key).get(JadxAttrType.CONSTANT_VALUE);
-			if (encodedValue != null && encodedValue.getType() == EncodedType.ENCODED_INT) {
-				return (Integer) encodedValue.getValue();
-			}
+			encodedValue = ((FieldNode) key).get(JadxAttrType.CONSTANT_VALUE);
+		} else if (key instanceof FieldInfo) {
+			encodedValue = mth.root().getConstValues().getNotLoadedFieldValue((FieldInfo) key);
+		} else {
 			return null;
 		}
+		if (encodedValue != null && encodedValue.getType() == EncodedType.ENCODED_INT) {
+			return (Integer) encodedValue.getValue();
+		}
 		return null;
 	}
 
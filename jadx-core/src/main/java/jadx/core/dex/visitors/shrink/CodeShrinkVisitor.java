@@ -30,7 +30,8 @@
 @JadxVisitor(
 		name = "CodeShrinkVisitor",
 		desc = "Inline variables to make code smaller",
-		runAfter = { ModVisitor.class }
+		runAfter = { ModVisitor.class },
+		methodLocal = true
 )
 public class CodeShrinkVisitor extends AbstractVisitor {
 
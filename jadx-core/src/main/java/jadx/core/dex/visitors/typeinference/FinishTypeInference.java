@@ -10,7 +10,8 @@
 		desc = "Check used types",
 		runAfter = {
 				TypeInferenceVisitor.class
-		}
+		},
+		methodLocal = true
 )
 public final class FinishTypeInference extends AbstractVisitor {
 
@@ -33,6 +33,7 @@ public class TypeCompare {
 	private final RootNode root;
 	private final Comparator<ArgType> comparator;
 	private final Comparator<ArgType> reversedComparator;
+	private final TypeCompareCache cache = new TypeCompareCache();
 
 	public TypeCompare(RootNode root) {
 		this.root = root;
@@ -40,6 +41,17 @@ public TypeCompare(RootNode root) {
 		this.reversedComparator = comparator.reversed();
 	}
 
+	public TypeCompareCache getCache() {
+		return cache;
+	}
+
+	/**
+	 * Drop cached results, should be called after classes hierarchy change
+	 */
+	public void resetCache() {
+		cache.reset();
+	}
+
 	public TypeCompareEnum compareTypes(ClassNode first, ClassNode second) {
 		return compareObjects(first.getType(), second.getType());
 	}
@@ -52,6 +64,10 @@ public TypeCompareEnum compareObjects(ArgType first, ArgType second) {
 		if (first == second || Objects.equals(first, second)) {
 			return TypeCompareEnum.EQUAL;
 		}
+		if (first.isObject() && second.isObject() && TypeCompareCache.isCacheable(first, second)) {
+			// for objects results of 'compareTypes' and 'compareObjects' are same, so cache can be shared
+			return compareTypesCached(first, second);
+		}
 		return compareObjectsNoPreCheck(first, second);
 	}
 
@@ -62,6 +78,23 @@ public TypeCompareEnum compareTypes(ArgType first, ArgType second) {
 		if (first == second || Objects.equals(first, second)) {
 			return TypeCompareEnum.EQUAL;
 		}
+		if (TypeCompareCache.isCacheable(first, second)) {
+			return compareTypesCached(first, second);
+		}
+		return compareTypesNoCache(first, second);
+	}
+
+	private TypeCompareEnum compareTypesCached(ArgType first, ArgType second) {
+		TypeCompareEnum cached = cache.get(first, second);
+		if (cached != null) {
+			return cached;
+		}
+		TypeCompareEnum result = compareTypesNoCache(first, second);
+		cache.put(first, second, result);
+		return result;
+	}
+
+	private TypeCompareEnum compareTypesNoCache(ArgType first, ArgType second) {
 		boolean firstKnown = first.isTypeKnown();
 		boolean secondKnown = second.isTypeKnown();
 		if (firstKnown != secondKnown) {
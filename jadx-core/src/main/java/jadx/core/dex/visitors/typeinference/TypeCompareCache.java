@@ -0,0 +1,106 @@
+package jadx.core.dex.visitors.typeinference;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.Nullable;
+
+import jadx.core.dex.instructions.args.ArgType;
+
+/**
+ * Bounded memo cache for {@link TypeCompare} results.
+ * <br>
+ * Only canonical types (see {@link ArgType#isInterned()}) are stored, such types are immutable,
+ * so result depends only on classes hierarchy and cache should be reset after its change.
+ * On overflow cache cleared and filled again.
+ */
+public class TypeCompareCache {
+	private static final int MAX_SIZE = 200_000;
+
+	private final Map<TypePair, TypeCompareEnum> cache = new ConcurrentHashMap<>();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder resets = new LongAdder();
+
+	public static boolean isCacheable(ArgType first, ArgType second) {
+		return first.isInterned() && second.isInterned()
+				&& !(first.isPrimitive() && second.isPrimitive());
+	}
+
+	public @Nullable TypeCompareEnum get(ArgType first, ArgType second) {
+		TypeCompareEnum result = cache.get(new TypePair(first, second));
+		if (result != null) {
+			hits.increment();
+		} else {
+			misses.increment();
+		}
+		return result;
+	}
+
+	public void put(ArgType first, ArgType second, TypeCompareEnum result) {
+		if (cache.size() >= MAX_SIZE) {
+			cache.clear();
+		}
+		cache.put(new TypePair(first, second), result);
+	}
+
+	public void reset() {
+		cache.clear();
+		resets.increment();
+	}
+
+	public long getHits() {
+		return hits.sum();
+	}
+
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Hit rate in percents
+	 */
+	public int getHitRate() {
+		long hitsCount = hits.sum();
+		long total = hitsCount + misses.sum();
+		return total == 0 ? 0 : (int) (hitsCount * 100 / total);
+	}
+
+	public int getSize() {
+		return cache.size();
+	}
+
+	public String getStats() {
+		return "hits: " + getHits() + ", misses: " + getMisses() + " (hit rate " + getHitRate() + "%)"
+				+ ", size: " + cache.size() + ", resets: " + resets.sum();
+	}
+
+	private static final class TypePair {
+		private final ArgType first;
+		private final ArgType second;
+
+		private TypePair(ArgType first, ArgType second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof TypePair)) {
+				return false;
+			}
+			TypePair other = (TypePair) o;
+			// canonical types, compare by identity
+			return first == other.first && second == other.second;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * first.hashCode() + second.hashCode();
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package jadx.core.dex.visitors.usage;
+
+import java.util.Arrays;
+
+/**
+ * Compact set of int ids.
+ * <br>
+ * Ids appended without checks, duplicates removed by sort on array grow and before read.
+ * Not thread safe.
+ */
+final class IdSet {
+	private static final int INITIAL_CAPACITY = 4;
+
+	private int[] data = new int[INITIAL_CAPACITY];
+	private int size;
+	private boolean compact = true;
+
+	void add(int id) {
+		if (size != 0 && data[size - 1] == id) {
+			// fast path for repeated use in same method
+			return;
+		}
+		ensureCapacity(1);
+		data[size++] = id;
+		compact = false;
+	}
+
+	void addAll(IdSet other) {
+		if (other.size == 0) {
+			return;
+		}
+		ensureCapacity(other.size);
+		System.arraycopy(other.data, 0, data, size, other.size);
+		size += other.size;
+		compact = false;
+	}
+
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	int size() {
+		compact();
+		return size;
+	}
+
+	int[] toSortedArray() {
+		compact();
+		return Arrays.copyOf(data, size);
+	}
+
+	private void ensureCapacity(int add) {
+		if (size + add <= data.length) {
+			return;
+		}
+		compact();
+		int required = size + add;
+		if (required > data.length * 3 / 4) {
+			data = Arrays.copyOf(data, Math.max(data.length * 2, required));
+		}
+	}
+
+	private void compact() {
+		if (compact) {
+			return;
+		}
+		Arrays.sort(data, 0, size);
+		int last = 0;
+		for (int i = 1; i < size; i++) {
+			int id = data[i];
+			if (id != data[last]) {
+				data[++last] = id;
+			}
+		}
+		size = size == 0 ? 0 : last + 1;
+		compact = true;
+	}
+}
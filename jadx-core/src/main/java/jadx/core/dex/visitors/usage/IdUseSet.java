@@ -0,0 +1,43 @@
+package jadx.core.dex.visitors.usage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Same as {@link UseSet}, but uses stored as ids from {@link UsageNodeIds}
+ */
+final class IdUseSet<K> {
+	private final Map<K, IdSet> useMap = new HashMap<>();
+
+	void add(K obj, int useId) {
+		useMap.computeIfAbsent(obj, k -> new IdSet()).add(useId);
+	}
+
+	@Nullable
+	IdSet get(K obj) {
+		return useMap.get(obj);
+	}
+
+	/**
+	 * Add all uses from other set. Other set can't be used after merge (sets are moved without copy).
+	 */
+	void merge(IdUseSet<K> other) {
+		for (Map.Entry<K, IdSet> entry : other.useMap.entrySet()) {
+			IdSet set = useMap.get(entry.getKey());
+			if (set == null) {
+				useMap.put(entry.getKey(), entry.getValue());
+			} else {
+				set.addAll(entry.getValue());
+			}
+		}
+	}
+
+	void visit(BiConsumer<K, IdSet> consumer) {
+		for (Map.Entry<K, IdSet> entry : useMap.entrySet()) {
+			consumer.accept(entry.getKey(), entry.getValue());
+		}
+	}
+}
@@ -6,7 +6,6 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Set;
 import java.util.function.Consumer;
 
 import jadx.api.plugins.input.data.IMethodRef;
@@ -28,46 +27,76 @@
 
 public class UsageInfo implements IUsageInfoData {
 	private final RootNode root;
+	private final UsageNodeIds ids;
 
-	private final UseSet<ClassNode, ClassNode> clsDeps = new UseSet<>();
-	private final UseSet<ClassNode, ClassNode> clsUsage = new UseSet<>();
-	private final UseSet<ClassNode, MethodNode> clsUseInMth = new UseSet<>();
-	private final UseSet<FieldNode, MethodNode> fieldUsage = new UseSet<>();
+	private final IdUseSet<ClassNode> clsDeps = new IdUseSet<>();
+	private final IdUseSet<ClassNode> clsUsage = new IdUseSet<>();
+	private final IdUseSet<ClassNode> clsUseInMth = new IdUseSet<>();
+	private final IdUseSet<FieldNode> fieldUsage = new IdUseSet<>();
 	// MethodNodeA -> Set of MethodNodes that MethodNodeA is called from
-	private final UseSet<MethodNode, MethodNode> mthUsage = new UseSet<>();
+	private final IdUseSet<MethodNode> mthUsage = new IdUseSet<>();
 	// MethodNodeA -> Set of MethodNodes that MethodNodeA calls
-	private final UseSet<MethodNode, MethodNode> mthUses = new UseSet<>();
+	private final IdUseSet<MethodNode> mthUses = new IdUseSet<>();
 	// MethodNodeA -> Set of IMethodRefs for methods that MethodNodeA calls that cannot be resolved
 	private final UseSet<MethodNode, IMethodRef> unresolvedMthUsage = new UseSet<>();
 	private final Map<MethodNode, Boolean> selfCalls = new HashMap<>();
 
 	public UsageInfo(RootNode root) {
+		this(root, new UsageNodeIds(root));
+	}
+
+	/**
+	 * Create empty shard sharing node ids with this instance, shard should be added back by {@link #merge(UsageInfo)}
+	 */
+	public UsageInfo makeShard() {
+		return new UsageInfo(root, ids);
+	}
+
+	private UsageInfo(RootNode root, UsageNodeIds ids) {
 		this.root = root;
+		this.ids = ids;
+	}
+
+	/**
+	 * Add all collected data from other shard. Shard can't be used after merge.
+	 */
+	public void merge(UsageInfo shard) {
+		if (shard.ids != ids) {
+			throw new JadxRuntimeException("Can't merge usage info with different node ids");
+		}
+		clsDeps.merge(shard.clsDeps);
+		clsUsage.merge(shard.clsUsage);
+		clsUseInMth.merge(shard.clsUseInMth);
+		fieldUsage.merge(shard.fieldUsage);
+		mthUsage.merge(shard.mthUsage);
+		mthUses.merge(shard.mthUses);
+		unresolvedMthUsage.merge(shard.unresolvedMthUsage);
+		selfCalls.putAll(shard.selfCalls);
 	}
 
 	@Override
 	public void apply() {
-		clsDeps.visit((cls, deps) -> cls.setDependencies(sortedList(deps)));
-		clsUsage.visit((cls, deps) -> cls.setUseIn(sortedList(deps)));
-		clsUseInMth.visit((cls, methods) -> cls.setUseInMth(resolveMthList(sortedList(methods))));
-		fieldUsage.visit((field, methods) -> field.setUseIn(resolveMthList(sortedList(methods))));
-		mthUsage.visit((mth, methods) -> mth.setUseIn(resolveMthList(sortedList(methods))));
-		mthUses.visit((mth, methods) -> mth.setUsed(resolveMthList(sortedList(methods))));
+		clsDeps.visit((cls, deps) -> cls.setDependencies(ids.toClassList(deps)));
+		clsUsage.visit((cls, deps) -> cls.setUseIn(ids.toClassList(deps)));
+		clsUseInMth.visit((cls, methods) -> cls.setUseInMth(resolveMthList(ids.toMethodList(methods))));
+		fieldUsage.visit((field, methods) -> field.setUseIn(resolveMthList(ids.toMethodList(methods))));
+		mthUsage.visit((mth, methods) -> mth.setUseIn(resolveMthList(ids.toMethodList(methods))));
+		mthUses.visit((mth, methods) -> mth.setUsed(resolveMthList(ids.toMethodList(methods))));
 		unresolvedMthUsage.visit((mth, unresolvedMethods) -> mth.setUnresolvedUsed(new ArrayList<>(unresolvedMethods)));
 		selfCalls.forEach((mth, selfCall) -> mth.setCallsSelf(selfCall));
 	}
 
 	@Override
 	public void applyForClass(ClassNode cls) {
-		cls.setDependencies(sortedList(clsDeps.getOrDefault(cls, Collections.emptySet())));
-		cls.setUseIn(sortedList(clsUsage.getOrDefault(cls, Collections.emptySet())));
-		cls.setUseInMth(resolveMthList(sortedList(clsUseInMth.getOrDefault(cls, Collections.emptySet()))));
+		cls.setDependencies(ids.toClassList(clsDeps.get(cls)));
+		cls.setUseIn(ids.toClassList(clsUsage.get(cls)));
+		cls.setUseInMth(resolveMthList(ids.toMethodList(clsUseInMth.get(cls))));
 		for (FieldNode fld : cls.getFields()) {
-			fld.setUseIn(resolveMthList(sortedList(fieldUsage.getOrDefault(fld, Collections.emptySet()))));
+			fld.setUseIn(resolveMthList(ids.toMethodList(fieldUsage.get(fld))));
 		}
 		for (MethodNode mth : cls.getMethods()) {
-			mth.setUseIn(resolveMthList(sortedList(mthUsage.getOrDefault(mth, Collections.emptySet()))));
-			mth.setUsed(resolveMthList(sortedList(mthUses.getOrDefault(mth, Collections.emptySet()))));
+			mth.setUseIn(resolveMthList(ids.toMethodList(mthUsage.get(mth))));
+			mth.setUsed(resolveMthList(ids.toMethodList(mthUses.get(mth))));
 			mth.setUnresolvedUsed(new ArrayList<>(unresolvedMthUsage.getOrDefault(mth, Collections.emptySet())));
 			mth.setCallsSelf(selfCalls.getOrDefault(mth, false));
 		}
@@ -75,12 +104,12 @@ public void applyForClass(ClassNode cls) {
 
 	@Override
 	public void visitUsageData(IUsageInfoVisitor visitor) {
-		clsDeps.visit((cls, deps) -> visitor.visitClassDeps(cls, sortedList(deps)));
-		clsUsage.visit((cls, deps) -> visitor.visitClassUsage(cls, sortedList(deps)));
-		clsUseInMth.visit((cls, methods) -> visitor.visitClassUseInMethods(cls, resolveMthList(sortedList(methods))));
-		fieldUsage.visit((field, methods) -> visitor.visitFieldsUsage(field, resolveMthList(sortedList(methods))));
-		mthUsage.visit((mth, methods) -> visitor.visitMethodsUsage(mth, resolveMthList(sortedList(methods))));
-		mthUses.visit((mth, methods) -> visitor.visitMethodsUses(mth, resolveMthList(sortedList(methods))));
+		clsDeps.visit((cls, deps) -> visitor.visitClassDeps(cls, ids.toClassList(deps)));
+		clsUsage.visit((cls, deps) -> visitor.visitClassUsage(cls, ids.toClassList(deps)));
+		clsUseInMth.visit((cls, methods) -> visitor.visitClassUseInMethods(cls, resolveMthList(ids.toMethodList(methods))));
+		fieldUsage.visit((field, methods) -> visitor.visitFieldsUsage(field, resolveMthList(ids.toMethodList(methods))));
+		mthUsage.visit((mth, methods) -> visitor.visitMethodsUsage(mth, resolveMthList(ids.toMethodList(methods))));
+		mthUses.visit((mth, methods) -> visitor.visitMethodsUses(mth, resolveMthList(ids.toMethodList(methods))));
 		unresolvedMthUsage.visit((mth, unresolvedMethods) -> visitor.visitUnresolvedMethodsUsage(mth, new ArrayList<>(unresolvedMethods)));
 		for (Entry<MethodNode, Boolean> entry : selfCalls.entrySet()) {
 			MethodNode mth = entry.getKey();
@@ -125,16 +154,22 @@ public void clsUse(MethodNode mth, ClassNode useCls) {
 		clsUse(parentClass, useCls);
 		if (parentClass != useCls) {
 			// exclude class usage in self methods
-			clsUseInMth.add(useCls, mth);
+			clsUseInMth.add(useCls, ids.getId(mth));
 		}
 	}
 
 	public void clsUse(ClassNode cls, ClassNode depCls) {
 		ClassNode topParentClass = cls.getTopParentClass();
-		clsDeps.add(topParentClass, depCls.getTopParentClass());
-
-		clsUsage.add(depCls, cls);
-		clsUsage.add(depCls, topParentClass);
+		ClassNode depTopParentClass = depCls.getTopParentClass();
+		if (topParentClass != depTopParentClass) {
+			clsDeps.add(topParentClass, ids.getId(depTopParentClass));
+		}
+		if (depCls != cls) {
+			clsUsage.add(depCls, ids.getId(cls));
+		}
+		if (depCls != topParentClass) {
+			clsUsage.add(depCls, ids.getId(topParentClass));
+		}
 	}
 
 	/**
@@ -142,10 +177,11 @@ public void clsUse(ClassNode cls, ClassNode depCls) {
 	 */
 	public void methodUse(MethodNode mth, MethodNode useMth) {
 		clsUse(mth, useMth.getParentClass());
-		mthUsage.add(useMth, mth); // useMth is used in mth
-		mthUses.add(mth, useMth); // mth uses useMth
 		if (mth == useMth) {
 			selfCalls.put(mth, true);
+		} else {
+			mthUsage.add(useMth, ids.getId(mth)); // useMth is used in mth
+			mthUses.add(mth, ids.getId(useMth)); // mth uses useMth
 		}
 		// implicit usage
 		clsUse(mth, useMth.getReturnType());
@@ -161,7 +197,7 @@ public void unresolvedMethodUse(MethodNode mth, IMethodRef useMth) {
 
 	public void fieldUse(MethodNode mth, FieldNode useFld) {
 		clsUse(mth, useFld.getParentClass());
-		fieldUsage.add(useFld, mth);
+		fieldUsage.add(useFld, ids.getId(mth));
 		// implicit usage
 		clsUse(mth, useFld.getType());
 	}
@@ -224,15 +260,6 @@ private void processType(ArgType type, Consumer<ClassNode> consumer) {
 		}
 	}
 
-	private static <T extends Comparable<T>> List<T> sortedList(Set<T> nodes) {
-		if (nodes == null || nodes.isEmpty()) {
-			return Collections.emptyList();
-		}
-		List<T> list = new ArrayList<>(nodes);
-		Collections.sort(list);
-		return list;
-	}
-
 	private List<MethodNode> resolveMthList(List<MethodNode> mthNodeList) {
 		return Utils.collectionMap(mthNodeList,
 				m -> root.resolveDirectMethod(m.getParentClass().getRawName(), m.getMethodInfo().getShortId()));
@@ -1,7 +1,14 @@
 package jadx.core.dex.visitors.usage;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -35,6 +42,7 @@
 import jadx.core.dex.visitors.SignatureProcessor;
 import jadx.core.dex.visitors.rename.RenameVisitor;
 import jadx.core.utils.ListUtils;
+import jadx.core.utils.Utils;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 import jadx.core.utils.input.InsnDataUtils;
 
@@ -50,6 +58,8 @@
 public class UsageInfoVisitor extends AbstractVisitor {
 	private static final Logger LOG = LoggerFactory.getLogger(UsageInfoVisitor.class);
 
+	private static final int MIN_CLASSES_PER_THREAD = 100;
+
 	@Override
 	public void init(RootNode root) {
 		IUsageInfoCache usageCache = root.getArgs().getUsageInfoCache();
@@ -76,13 +86,62 @@ private static void apply(IUsageInfoData usageInfoData) {
 	}
 
 	private static IUsageInfoData buildUsageData(RootNode root) {
+		long start = System.currentTimeMillis();
 		UsageInfo usageInfo = new UsageInfo(root);
-		for (ClassNode cls : root.getClasses()) {
-			processClass(cls, usageInfo);
+		List<ClassNode> classes = root.getClasses();
+		int threads = Math.min(root.getArgs().getThreadsCount(), classes.size() / MIN_CLASSES_PER_THREAD);
+		if (threads > 1) {
+			collectParallel(usageInfo, classes, threads);
+		} else {
+			for (ClassNode cls : classes) {
+				processClass(cls, usageInfo);
+			}
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Usage data collected in {}ms, classes: {}, threads: {}",
+					System.currentTimeMillis() - start, classes.size(), Math.max(threads, 1));
 		}
 		return usageInfo;
 	}
 
+	/**
+	 * Map-reduce: every thread collects usage into own shard, shards merged after all classes processed.
+	 */
+	private static void collectParallel(UsageInfo usageInfo, List<ClassNode> classes, int threads) {
+		long start = System.currentTimeMillis();
+		AtomicInteger next = new AtomicInteger();
+		List<Callable<UsageInfo>> tasks = new ArrayList<>(threads);
+		for (int i = 0; i < threads; i++) {
+			tasks.add(() -> {
+				UsageInfo shard = usageInfo.makeShard();
+				int size = classes.size();
+				int idx;
+				while ((idx = next.getAndIncrement()) < size) {
+					processClass(classes.get(idx), shard);
+				}
+				return shard;
+			});
+		}
+		ExecutorService executor = Executors.newFixedThreadPool(threads, Utils.simpleThreadFactory("usage"));
+		try {
+			List<Future<UsageInfo>> results = executor.invokeAll(tasks);
+			long mergeStart = System.currentTimeMillis();
+			for (Future<UsageInfo> result : results) {
+				usageInfo.merge(result.get());
+			}
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Usage data scan: {}ms, shards merge: {}ms",
+						mergeStart - start, System.currentTimeMillis() - mergeStart);
+			}
+		} catch (InterruptedException e) {
+			throw new JadxRuntimeException("Usage data collection interrupted", e);
+		} catch (ExecutionException e) {
+			throw new JadxRuntimeException("Usage data collection failed", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
 	private static void processClass(ClassNode cls, UsageInfo usageInfo) {
 		usageInfo.clsUse(cls, cls.getSuperClass());
 		for (ArgType interfaceType : cls.getInterfaces()) {
@@ -0,0 +1,88 @@
+package jadx.core.dex.visitors.usage;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * Dense int ids for class and method nodes used in usage sets.
+ * <br>
+ * Ids assigned in nodes sort order, so sorted ids can be converted into sorted node lists without compare.
+ * Immutable after creation and can be shared between threads.
+ */
+final class UsageNodeIds {
+	private final ClassNode[] classes;
+	private final MethodNode[] methods;
+	private final Map<ClassNode, Integer> clsIds;
+	private final Map<MethodNode, Integer> mthIds;
+
+	UsageNodeIds(RootNode root) {
+		List<ClassNode> clsList = root.getClasses();
+		List<MethodNode> mthList = new ArrayList<>();
+		for (ClassNode cls : clsList) {
+			mthList.addAll(cls.getMethods());
+		}
+		this.classes = clsList.toArray(new ClassNode[0]);
+		this.methods = mthList.toArray(new MethodNode[0]);
+		Arrays.sort(classes);
+		Arrays.sort(methods);
+		this.clsIds = buildIdsMap(classes);
+		this.mthIds = buildIdsMap(methods);
+	}
+
+	private static <T> Map<T, Integer> buildIdsMap(T[] nodes) {
+		Map<T, Integer> map = new IdentityHashMap<>(nodes.length);
+		for (int i = 0; i < nodes.length; i++) {
+			map.put(nodes[i], i);
+		}
+		return map;
+	}
+
+	int getId(ClassNode cls) {
+		Integer id = clsIds.get(cls);
+		if (id == null) {
+			throw new JadxRuntimeException("Unknown class for usage info: " + cls);
+		}
+		return id;
+	}
+
+	int getId(MethodNode mth) {
+		Integer id = mthIds.get(mth);
+		if (id == null) {
+			throw new JadxRuntimeException("Unknown method for usage info: " + mth);
+		}
+		return id;
+	}
+
+	List<ClassNode> toClassList(IdSet set) {
+		if (set == null || set.isEmpty()) {
+			return Collections.emptyList();
+		}
+		int[] ids = set.toSortedArray();
+		List<ClassNode> list = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			list.add(classes[id]);
+		}
+		return list;
+	}
+
+	List<MethodNode> toMethodList(IdSet set) {
+		if (set == null || set.isEmpty()) {
+			return Collections.emptyList();
+		}
+		int[] ids = set.toSortedArray();
+		List<MethodNode> list = new ArrayList<>(ids.length);
+		for (int id : ids) {
+			list.add(methods[id]);
+		}
+		return list;
+	}
+}
@@ -26,6 +26,12 @@ public Set<V> getOrDefault(K obj, Set<V> defaultValue) {
 		return useMap.getOrDefault(obj, defaultValue);
 	}
 
+	public void merge(UseSet<K, V> other) {
+		for (Map.Entry<K, Set<V>> entry : other.useMap.entrySet()) {
+			useMap.computeIfAbsent(entry.getKey(), k -> new HashSet<>()).addAll(entry.getValue());
+		}
+	}
+
 	public void visit(BiConsumer<K, Set<V>> consumer) {
 		for (Map.Entry<K, Set<V>> entry : useMap.entrySet()) {
 			consumer.accept(entry.getKey(), entry.getValue());
@@ -0,0 +1,236 @@
+package jadx.core.utils;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BooleanSupplier;
+
+import org.jetbrains.annotations.TestOnly;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.core.dex.attributes.AFlag;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.ProcessState;
+
+/**
+ * Unload processed classes under memory pressure.
+ * <br>
+ * Class unloaded after code generation, but if it used as dependency later,
+ * it will be loaded and processed again and stay loaded until the end.
+ * Governor tracks such classes in LRU order and, if heap usage after GC exceed threshold
+ * (checked using {@link MemoryPoolMXBean#getCollectionUsage()} after each new GC,
+ * JVM-wide thresholds of memory pools not changed), unload least recently used half of them.
+ * Unloaded class will be loaded and processed again on next use.
+ * <br>
+ * Classes not yet generated are not touched, because unload also drop flags
+ * and attributes added by other classes processing.
+ * <br>
+ * Classes unloaded only then no processing in progress: processing hold read lock, unload use write lock.
+ * Because of that, {@link #checkMemory()} should be called without holding any class monitors.
+ */
+public class ClassUnloadGovernor {
+	private static final Logger LOG = LoggerFactory.getLogger(ClassUnloadGovernor.class);
+
+	private final int threshold;
+	private final List<MemoryPoolMXBean> pools;
+	private final List<GarbageCollectorMXBean> collectors;
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<ClassNode, Boolean> retained = new LinkedHashMap<>(256, 0.75f, true);
+	private final Set<ClassNode> unloaded = ConcurrentHashMap.newKeySet();
+	private final AtomicLong collectionsCount = new AtomicLong();
+	private volatile BooleanSupplier memoryPressureCheck = this::isNewCollectionOverThreshold;
+
+	private final LongAdder pressureEvents = new LongAdder();
+	private final LongAdder unloadsCount = new LongAdder();
+	private final LongAdder reloadsCount = new LongAdder();
+
+	/**
+	 * @param threshold percent of max heap pool size
+	 */
+	public ClassUnloadGovernor(int threshold) {
+		this.threshold = threshold;
+		this.pools = initPools();
+		this.collectors = ManagementFactory.getGarbageCollectorMXBeans();
+		this.collectionsCount.set(getCollectionsCount());
+		if (pools.isEmpty()) {
+			LOG.warn("Memory pools with collection usage not found, classes unload disabled");
+		}
+	}
+
+	private static List<MemoryPoolMXBean> initPools() {
+		List<MemoryPoolMXBean> list = new ArrayList<>();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			// usage threshold supported only by tenured pools
+			if (pool.getType() == MemoryType.HEAP
+					&& pool.isUsageThresholdSupported()
+					&& pool.isCollectionUsageThresholdSupported()
+					&& pool.getUsage().getMax() > 0) {
+				list.add(pool);
+			}
+		}
+		return list;
+	}
+
+	private long getCollectionsCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean collector : collectors) {
+			count += Math.max(0, collector.getCollectionCount());
+		}
+		return count;
+	}
+
+	private boolean isNewCollectionOverThreshold() {
+		if (pools.isEmpty()) {
+			return false;
+		}
+		long count = getCollectionsCount();
+		long prevCount = collectionsCount.get();
+		return count != prevCount
+				&& collectionsCount.compareAndSet(prevCount, count)
+				&& isThresholdExceeded();
+	}
+
+	private boolean isThresholdExceeded() {
+		for (MemoryPoolMXBean pool : pools) {
+			MemoryUsage usage = pool.getCollectionUsage();
+			if (usage != null) {
+				long max = usage.getMax() > 0 ? usage.getMax() : pool.getUsage().getMax();
+				if (max > 0 && usage.getUsed() > max / 100 * threshold) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Call before class processing, must be paired with {@link #exit()}.
+	 */
+	public void enter() {
+		lock.readLock().lock();
+	}
+
+	public void exit() {
+		lock.readLock().unlock();
+	}
+
+	/**
+	 * Unload classes if heap usage after last GC exceed threshold.
+	 * <br>
+	 * Wait for all running processing to finish, so should be called before class processing
+	 * and without holding any class monitors (other thread can wait for it to finish processing).
+	 * Nested calls (then this thread already processing a class) ignored.
+	 */
+	public void checkMemory() {
+		if (lock.getReadHoldCount() != 0) {
+			return;
+		}
+		if (memoryPressureCheck.getAsBoolean()) {
+			pressureEvents.increment();
+			unloadRetained();
+		}
+	}
+
+	/**
+	 * Replace heap usage check, allows to unload classes without real memory pressure
+	 */
+	@TestOnly
+	public void setMemoryPressureCheck(BooleanSupplier memoryPressureCheck) {
+		this.memoryPressureCheck = memoryPressureCheck;
+	}
+
+	private void unloadRetained() {
+		lock.writeLock().lock();
+		try {
+			List<ClassNode> list;
+			synchronized (retained) {
+				int count = (retained.size() + 1) / 2;
+				list = new ArrayList<>(count);
+				Iterator<ClassNode> it = retained.keySet().iterator();
+				while (list.size() < count && it.hasNext()) {
+					list.add(it.next());
+					it.remove();
+				}
+			}
+			for (ClassNode cls : list) {
+				if (cls.getState() == ProcessState.PROCESS_COMPLETE && !cls.contains(AFlag.DONT_UNLOAD_CLASS)) {
+					// same as unload after code generation
+					cls.unload();
+					cls.setState(ProcessState.GENERATED_AND_UNLOADED);
+					unloaded.add(cls);
+					unloadsCount.increment();
+				}
+			}
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Memory threshold exceeded, unloaded {} classes, {}", list.size(), getStats());
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/**
+	 * Already generated class loaded and processed again as dependency
+	 */
+	public void onReprocessed(ClassNode cls) {
+		if (cls.getState() == ProcessState.PROCESS_COMPLETE) {
+			synchronized (retained) {
+				retained.put(cls, Boolean.TRUE);
+			}
+		}
+	}
+
+	/**
+	 * Processed class used as dependency, update LRU order
+	 */
+	public void onUse(ClassNode cls) {
+		synchronized (retained) {
+			retained.get(cls);
+		}
+	}
+
+	/**
+	 * Class will be loaded
+	 */
+	public void onLoad(ClassNode cls) {
+		if (unloaded.remove(cls)) {
+			reloadsCount.increment();
+		}
+	}
+
+	public long getPressureEvents() {
+		return pressureEvents.sum();
+	}
+
+	public long getUnloadsCount() {
+		return unloadsCount.sum();
+	}
+
+	public long getReloadsCount() {
+		return reloadsCount.sum();
+	}
+
+	public String getStats() {
+		int retainedCount;
+		synchronized (retained) {
+			retainedCount = retained.size();
+		}
+		return "memory pressure events: " + getPressureEvents()
+				+ ", unloaded classes: " + getUnloadsCount()
+				+ ", reloaded classes: " + getReloadsCount()
+				+ ", retained classes: " + retainedCount;
+	}
+}
@@ -0,0 +1,517 @@
+package jadx.core.utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.IDecompileScheduler;
+import jadx.api.JavaClass;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * Schedule classes using live dependency graph instead of static batches.
+ * <br>
+ * Cyclic dependencies collapsed into single graph node (strongly connected component),
+ * class released for processing only after all its dependencies are complete.
+ * Ready classes stored in shared queue ordered by the longest chain of dependent classes,
+ * so any idle worker will take the most 'blocking' class first.
+ */
+public class DepsGraphScheduler implements IDecompileScheduler {
+	private static final Logger LOG = LoggerFactory.getLogger(DepsGraphScheduler.class);
+
+	private volatile @Nullable Stats lastStats;
+
+	/**
+	 * Static order for compatibility: dependencies first, every class in separate batch.
+	 */
+	@Override
+	public List<List<JavaClass>> buildBatches(List<JavaClass> classes) {
+		Graph graph = buildGraph(classes);
+		List<List<JavaClass>> result = new ArrayList<>(classes.size());
+		for (Component comp : graph.components) {
+			for (JavaClass cls : comp.classes) {
+				result.add(Collections.singletonList(cls));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Every task process one class, the class is selected at task start from ready queue.
+	 */
+	@Override
+	public List<Runnable> buildTasks(List<JavaClass> classes, Consumer<JavaClass> clsProcessor) {
+		long start = System.currentTimeMillis();
+		Graph graph;
+		try {
+			graph = buildGraph(classes);
+		} catch (StackOverflowError | Exception e) {
+			LOG.warn("Build dependency graph failed, continue with batches", e);
+			return IDecompileScheduler.super.buildTasks(classes, clsProcessor);
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Build dependency graph in {}ms for {} classes, graph nodes: {}",
+					System.currentTimeMillis() - start, classes.size(), graph.components.size());
+		}
+		GraphRun run = new GraphRun(graph, clsProcessor);
+		int count = classes.size();
+		List<Runnable> tasks = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			tasks.add(run::processNext);
+		}
+		return tasks;
+	}
+
+	/**
+	 * Stats for last complete run
+	 */
+	public @Nullable Stats getLastStats() {
+		return lastStats;
+	}
+
+	private static Graph buildGraph(List<JavaClass> classes) {
+		int count = classes.size();
+		Map<ClassNode, Integer> idxMap = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			idxMap.put(classes.get(i).getClassNode(), i);
+		}
+		int[][] deps = new int[count][];
+		int edges = 0;
+		for (int i = 0; i < count; i++) {
+			ClassNode clsNode = classes.get(i).getClassNode();
+			List<ClassNode> clsDeps = clsNode.getDependencies();
+			List<ClassNode> codegenDeps = clsNode.getCodegenDeps();
+			int[] arr = new int[clsDeps.size() + codegenDeps.size()];
+			int n = 0;
+			for (ClassNode dep : clsDeps) {
+				n = addDep(idxMap, arr, n, dep, i);
+			}
+			for (ClassNode dep : codegenDeps) {
+				n = addDep(idxMap, arr, n, dep, i);
+			}
+			deps[i] = n == arr.length ? arr : Arrays.copyOf(arr, n);
+			edges += n;
+		}
+		int[] comp = new int[count];
+		int compCount = collapseCycles(deps, comp);
+
+		// component ids already in topological order (dependencies first)
+		List<Component> components = new ArrayList<>(compCount);
+		for (int c = 0; c < compCount; c++) {
+			components.add(new Component(c));
+		}
+		for (int i = 0; i < count; i++) {
+			components.get(comp[i]).classes.add(classes.get(i));
+		}
+		int[] mark = new int[compCount];
+		Arrays.fill(mark, -1);
+		for (Component component : components) {
+			int c = component.id;
+			for (JavaClass cls : component.classes) {
+				for (int dep : deps[idxMap.get(cls.getClassNode())]) {
+					int depComp = comp[dep];
+					if (depComp != c && mark[depComp] != c) {
+						mark[depComp] = c;
+						components.get(depComp).dependents.add(component);
+						component.depsCount++;
+					}
+				}
+			}
+		}
+		int criticalPath = 0;
+		for (int c = compCount - 1; c >= 0; c--) {
+			Component component = components.get(c);
+			int maxRank = 0;
+			for (Component dependent : component.dependents) {
+				maxRank = Math.max(maxRank, dependent.rank);
+			}
+			component.rank = maxRank + component.classes.size();
+			criticalPath = Math.max(criticalPath, component.rank);
+		}
+		return new Graph(components, count, edges, criticalPath);
+	}
+
+	private static int addDep(Map<ClassNode, Integer> idxMap, int[] arr, int n, ClassNode dep, int clsIdx) {
+		Integer depIdx = idxMap.get(getTopClass(dep));
+		if (depIdx == null || depIdx == clsIdx) {
+			// not scheduled or self reference
+			return n;
+		}
+		arr[n] = depIdx;
+		return n + 1;
+	}
+
+	private static ClassNode getTopClass(ClassNode cls) {
+		JavaClass javaCls = cls.getJavaNode();
+		if (javaCls != null) {
+			// resolve also inlined anonymous classes
+			return javaCls.getTopParentClass().getClassNode();
+		}
+		return cls.getTopParentClass();
+	}
+
+	/**
+	 * Iterative Tarjan's algorithm to find strongly connected components.
+	 * Components numbered in reverse topological order, i.e. dependencies got lower ids.
+	 *
+	 * @return components count
+	 */
+	private static int collapseCycles(int[][] deps, int[] comp) {
+		int count = deps.length;
+		int[] index = new int[count];
+		int[] low = new int[count];
+		boolean[] onStack = new boolean[count];
+		int[] sccStack = new int[count];
+		int[] callStack = new int[count];
+		int[] edgePos = new int[count];
+		Arrays.fill(index, -1);
+		int nextIndex = 0;
+		int compCount = 0;
+		int sp = 0;
+		for (int root = 0; root < count; root++) {
+			if (index[root] != -1) {
+				continue;
+			}
+			int csp = 0;
+			index[root] = nextIndex;
+			low[root] = nextIndex;
+			nextIndex++;
+			sccStack[sp++] = root;
+			onStack[root] = true;
+			callStack[csp] = root;
+			edgePos[csp] = 0;
+			csp++;
+			while (csp > 0) {
+				int v = callStack[csp - 1];
+				int[] vDeps = deps[v];
+				if (edgePos[csp - 1] < vDeps.length) {
+					int w = vDeps[edgePos[csp - 1]++];
+					if (index[w] == -1) {
+						index[w] = nextIndex;
+						low[w] = nextIndex;
+						nextIndex++;
+						sccStack[sp++] = w;
+						onStack[w] = true;
+						callStack[csp] = w;
+						edgePos[csp] = 0;
+						csp++;
+					} else if (onStack[w]) {
+						low[v] = Math.min(low[v], index[w]);
+					}
+				} else {
+					csp--;
+					if (low[v] == index[v]) {
+						int w;
+						do {
+							w = sccStack[--sp];
+							onStack[w] = false;
+							comp[w] = compCount;
+						} while (w != v);
+						compCount++;
+					}
+					if (csp > 0) {
+						int u = callStack[csp - 1];
+						low[u] = Math.min(low[u], low[v]);
+					}
+				}
+			}
+		}
+		return compCount;
+	}
+
+	private static final class Graph {
+		private final List<Component> components;
+		private final int classesCount;
+		private final int edgesCount;
+		private final int criticalPath;
+
+		private Graph(List<Component> components, int classesCount, int edgesCount, int criticalPath) {
+			this.components = components;
+			this.classesCount = classesCount;
+			this.edgesCount = edgesCount;
+			this.criticalPath = criticalPath;
+		}
+	}
+
+	/**
+	 * Graph node: single class or group of classes with cyclic dependencies
+	 */
+	private static final class Component {
+		private final int id;
+		private final List<JavaClass> classes = new ArrayList<>(1);
+		private final List<Component> dependents = new ArrayList<>();
+		private int depsCount;
+		/**
+		 * Classes count in the longest chain of dependents (including this component)
+		 */
+		private int rank;
+
+		// run state, guarded by GraphRun.lock
+		private int pendingDeps;
+		private int remainingClasses;
+		private long processNanos;
+		private long depsPathNanos;
+
+		private Component(int id) {
+			this.id = id;
+		}
+	}
+
+	private static final class ClassEntry {
+		private final JavaClass cls;
+		private final Component comp;
+		private final int order;
+
+		private ClassEntry(JavaClass cls, Component comp, int order) {
+			this.cls = cls;
+			this.comp = comp;
+			this.order = order;
+		}
+	}
+
+	private static final Comparator<ClassEntry> READY_ORDER = Comparator
+			.comparingInt((ClassEntry e) -> -e.comp.rank)
+			.thenComparingInt(e -> e.comp.id)
+			.thenComparingInt(e -> e.order);
+
+	private final class GraphRun {
+		private final Object lock = new Object();
+		private final Graph graph;
+		private final Consumer<JavaClass> clsProcessor;
+		private final PriorityQueue<ClassEntry> ready;
+		private int notStarted;
+		private int inProgress;
+		private long startNanos;
+		private long busyNanos;
+		private long idleNanos;
+		private long criticalPathNanos;
+		private int waitsCount;
+
+		private GraphRun(Graph graph, Consumer<JavaClass> clsProcessor) {
+			this.graph = graph;
+			this.clsProcessor = clsProcessor;
+			this.ready = new PriorityQueue<>(Math.max(1, graph.classesCount), READY_ORDER);
+			this.notStarted = graph.classesCount;
+			for (Component comp : graph.components) {
+				comp.pendingDeps = comp.depsCount;
+				comp.remainingClasses = comp.classes.size();
+				if (comp.depsCount == 0) {
+					addReady(comp);
+				}
+			}
+		}
+
+		public void processNext() {
+			ClassEntry entry = takeNext();
+			if (entry == null) {
+				return;
+			}
+			long start = System.nanoTime();
+			try {
+				clsProcessor.accept(entry.cls);
+			} finally {
+				complete(entry.comp, System.nanoTime() - start);
+			}
+		}
+
+		private @Nullable ClassEntry takeNext() {
+			synchronized (lock) {
+				if (startNanos == 0) {
+					startNanos = System.nanoTime();
+				}
+				while (true) {
+					ClassEntry entry = ready.poll();
+					if (entry != null) {
+						notStarted--;
+						inProgress++;
+						return entry;
+					}
+					if (notStarted == 0) {
+						return null;
+					}
+					if (inProgress == 0) {
+						throw new JadxRuntimeException("Dependency graph scheduler stuck, not started classes: " + notStarted);
+					}
+					// wait for dependencies completion
+					long waitStart = System.nanoTime();
+					waitsCount++;
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						return null;
+					} finally {
+						idleNanos += System.nanoTime() - waitStart;
+					}
+				}
+			}
+		}
+
+		private void complete(Component comp, long time) {
+			synchronized (lock) {
+				inProgress--;
+				busyNanos += time;
+				comp.processNanos += time;
+				if (--comp.remainingClasses == 0) {
+					long pathNanos = comp.depsPathNanos + comp.processNanos;
+					criticalPathNanos = Math.max(criticalPathNanos, pathNanos);
+					for (Component dependent : comp.dependents) {
+						dependent.depsPathNanos = Math.max(dependent.depsPathNanos, pathNanos);
+						if (--dependent.pendingDeps == 0) {
+							addReady(dependent);
+						}
+					}
+				}
+				if (notStarted == 0 && inProgress == 0) {
+					finish();
+				}
+				lock.notifyAll();
+			}
+		}
+
+		private void addReady(Component comp) {
+			List<JavaClass> classes = comp.classes;
+			for (int i = 0, size = classes.size(); i < size; i++) {
+				ready.add(new ClassEntry(classes.get(i), comp, i));
+			}
+		}
+
+		private void finish() {
+			int cycles = 0;
+			int maxCycleSize = 0;
+			for (Component comp : graph.components) {
+				int size = comp.classes.size();
+				if (size > 1) {
+					cycles++;
+					maxCycleSize = Math.max(maxCycleSize, size);
+				}
+			}
+			Stats stats = new Stats(graph.classesCount, graph.components.size(), graph.edgesCount,
+					cycles, maxCycleSize, graph.criticalPath,
+					toMillis(criticalPathNanos), toMillis(System.nanoTime() - startNanos),
+					toMillis(busyNanos), toMillis(idleNanos), waitsCount);
+			lastStats = stats;
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Decompilation dependency graph stats:{}", stats);
+			}
+		}
+	}
+
+	private static long toMillis(long nanos) {
+		return TimeUnit.NANOSECONDS.toMillis(nanos);
+	}
+
+	public static final class Stats {
+		private final int classesCount;
+		private final int nodesCount;
+		private final int edgesCount;
+		private final int cyclesCount;
+		private final int maxCycleSize;
+		private final int criticalPathLength;
+		private final long criticalPathTime;
+		private final long wallTime;
+		private final long busyTime;
+		private final long idleTime;
+		private final int waitsCount;
+
+		public Stats(int classesCount, int nodesCount, int edgesCount, int cyclesCount, int maxCycleSize,
+				int criticalPathLength, long criticalPathTime, long wallTime, long busyTime, long idleTime, int waitsCount) {
+			this.classesCount = classesCount;
+			this.nodesCount = nodesCount;
+			this.edgesCount = edgesCount;
+			this.cyclesCount = cyclesCount;
+			this.maxCycleSize = maxCycleSize;
+			this.criticalPathLength = criticalPathLength;
+			this.criticalPathTime = criticalPathTime;
+			this.wallTime = wallTime;
+			this.busyTime = busyTime;
+			this.idleTime = idleTime;
+			this.waitsCount = waitsCount;
+		}
+
+		public int getClassesCount() {
+			return classesCount;
+		}
+
+		/**
+		 * Graph nodes count, classes with cyclic dependencies merged into one node
+		 */
+		public int getNodesCount() {
+			return nodesCount;
+		}
+
+		public int getEdgesCount() {
+			return edgesCount;
+		}
+
+		public int getCyclesCount() {
+			return cyclesCount;
+		}
+
+		public int getMaxCycleSize() {
+			return maxCycleSize;
+		}
+
+		/**
+		 * Classes count in the longest dependency chain
+		 */
+		public int getCriticalPathLength() {
+			return criticalPathLength;
+		}
+
+		/**
+		 * Measured processing time of the longest dependency chain (in ms).
+		 * Lower bound for total time with unlimited threads.
+		 */
+		public long getCriticalPathTime() {
+			return criticalPathTime;
+		}
+
+		public long getWallTime() {
+			return wallTime;
+		}
+
+		/**
+		 * Sum of classes processing time for all threads (in ms)
+		 */
+		public long getBusyTime() {
+			return busyTime;
+		}
+
+		/**
+		 * Sum of time spent by threads waiting for ready classes (in ms)
+		 */
+		public long getIdleTime() {
+			return idleTime;
+		}
+
+		public int getWaitsCount() {
+			return waitsCount;
+		}
+
+		@Override
+		public String toString() {
+			return "\n classes: " + classesCount
+					+ ",\n graph nodes: " + nodesCount
+					+ ",\n edges: " + edgesCount
+					+ ",\n cycles: " + cyclesCount + " (max size: " + maxCycleSize + ')'
+					+ ",\n critical path length: " + criticalPathLength
+					+ ",\n critical path time: " + criticalPathTime + "ms"
+					+ ",\n wall time: " + wallTime + "ms"
+					+ ",\n busy time: " + busyTime + "ms"
+					+ ",\n idle time: " + idleTime + "ms (waits: " + waitsCount + ')';
+		}
+	}
+}
@@ -26,6 +26,7 @@ public class ErrorsCounter {
 	private int errorsCount;
 	private final Set<IAttributeNode> warnNodes = new HashSet<>();
 	private int warnsCount;
+	private final List<String> generalErrors = new ArrayList<>();
 
 	public static <N extends IDexNode & IAttributeNode> String error(N node, String warnMsg, Throwable th) {
 		return node.root().getErrorsCounter().addError(node, warnMsg, th);
@@ -75,6 +76,15 @@ private synchronized <N extends IDexNode & IAttributeNode> void addWarning(N nod
 		LOG.warn(formatMsg(node, warn));
 	}
 
+	/**
+	 * Error not related to any node (like failed write of output files)
+	 */
+	public synchronized void addGeneralError(String error, @Nullable Throwable e) {
+		generalErrors.add(error);
+		errorsCount++;
+		LOG.error(error, e);
+	}
+
 	public void printReport() {
 		if (getErrorCount() > 0) {
 			LOG.error("{} errors occurred in following nodes:", getErrorCount());
@@ -84,6 +94,7 @@ public void printReport() {
 				errors.add(nodeName + ": " + node);
 			}
 			Collections.sort(errors);
+			errors.addAll(generalErrors);
 			for (String err : errors) {
 				LOG.error("  {}", err);
 			}
@@ -105,6 +116,10 @@ public Set<IAttributeNode> getErrorNodes() {
 		return errorNodes;
 	}
 
+	public List<String> getGeneralErrors() {
+		return generalErrors;
+	}
+
 	public Set<IAttributeNode> getWarnNodes() {
 		return warnNodes;
 	}
@@ -98,11 +98,17 @@ public static Object getConstValueByInsn(RootNode root, InsnNode insn) {
 			case SGET:
 				FieldInfo f = (FieldInfo) ((IndexInsnNode) insn).getIndex();
 				FieldNode fieldNode = root.resolveField(f);
-				if (fieldNode == null) {
-					LOG.warn("Field {} not found", f);
-					return null;
+				EncodedValue constVal;
+				if (fieldNode != null) {
+					constVal = fieldNode.get(JadxAttrType.CONSTANT_VALUE);
+				} else {
+					// constant from not loaded class
+					constVal = root.getConstValues().getNotLoadedFieldValue(f);
+					if (constVal == null) {
+						LOG.warn("Field {} not found", f);
+						return null;
+					}
 				}
-				EncodedValue constVal = fieldNode.get(JadxAttrType.CONSTANT_VALUE);
 				if (constVal != null) {
 					return EncodedValueUtils.convertToConstValue(constVal);
 				}
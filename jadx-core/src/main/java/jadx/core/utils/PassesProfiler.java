@@ -0,0 +1,378 @@
+package jadx.core.utils;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+
+import jadx.api.args.PassesProfileFormat;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.dex.visitors.IDexTreeVisitor;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Collect wall time, thread CPU time and allocated bytes for every pass call.
+ * Results aggregated per pass, per class and per method.
+ * <br>
+ * CPU time and allocations measured using {@link ThreadMXBean},
+ * values set to zero if not supported by current JVM.
+ * <br>
+ * Passes can trigger processing of other classes (for example, to load dependency),
+ * such nested pass calls recorded separately and excluded from outer call,
+ * so all values are 'self' values and totals don't count same work twice.
+ */
+public class PassesProfiler {
+	private static final Logger LOG = LoggerFactory.getLogger(PassesProfiler.class);
+
+	private final ThreadMXBean threadBean;
+	private final boolean cpuTimeSupported;
+	private final boolean allocSupported;
+
+	private final Map<String, PassProfile> passes = new ConcurrentHashMap<>();
+	private final ThreadLocal<Sample> activeSample = new ThreadLocal<>();
+
+	public PassesProfiler() {
+		this.threadBean = ManagementFactory.getThreadMXBean();
+		this.cpuTimeSupported = initCpuTime(threadBean);
+		this.allocSupported = initAllocations(threadBean);
+	}
+
+	private static boolean initCpuTime(ThreadMXBean bean) {
+		try {
+			if (!bean.isCurrentThreadCpuTimeSupported()) {
+				return false;
+			}
+			if (!bean.isThreadCpuTimeEnabled()) {
+				bean.setThreadCpuTimeEnabled(true);
+			}
+			return true;
+		} catch (Exception e) {
+			LOG.debug("Thread CPU time not available", e);
+			return false;
+		}
+	}
+
+	private static boolean initAllocations(ThreadMXBean bean) {
+		try {
+			if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+				return false;
+			}
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (!sunBean.isThreadAllocatedMemorySupported()) {
+				return false;
+			}
+			if (!sunBean.isThreadAllocatedMemoryEnabled()) {
+				sunBean.setThreadAllocatedMemoryEnabled(true);
+			}
+			return true;
+		} catch (Throwable e) {
+			// 'jdk.management' module can be missing
+			LOG.debug("Thread allocations counter not available", e);
+			return false;
+		}
+	}
+
+	public Sample start() {
+		Sample sample = new Sample(activeSample.get());
+		activeSample.set(sample);
+		sample.alloc = getAllocatedBytes();
+		sample.cpu = getCpuTime();
+		sample.wall = System.nanoTime();
+		return sample;
+	}
+
+	/**
+	 * Record class level part of pass (without methods and inner classes)
+	 */
+	public void finish(Sample sample, IDexTreeVisitor pass, ClassNode cls) {
+		stop(sample);
+		getPassProfile(pass).add(cls, null, sample);
+	}
+
+	public void finish(Sample sample, IDexTreeVisitor pass, MethodNode mth) {
+		stop(sample);
+		getPassProfile(pass).add(mth.getParentClass(), mth.getMethodInfo().getShortId(), sample);
+	}
+
+	private void stop(Sample sample) {
+		long wall = System.nanoTime();
+		long cpu = getCpuTime();
+		long alloc = getAllocatedBytes();
+		sample.stop(wall, cpu, alloc);
+		activeSample.set(sample.parent);
+	}
+
+	private PassProfile getPassProfile(IDexTreeVisitor pass) {
+		return passes.computeIfAbsent(pass.getName(), PassProfile::new);
+	}
+
+	private long getCpuTime() {
+		return cpuTimeSupported ? threadBean.getCurrentThreadCpuTime() : 0;
+	}
+
+	private long getAllocatedBytes() {
+		if (!allocSupported) {
+			return 0;
+		}
+		return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+	public boolean isCpuTimeSupported() {
+		return cpuTimeSupported;
+	}
+
+	public boolean isAllocSupported() {
+		return allocSupported;
+	}
+
+	public void reset() {
+		passes.clear();
+	}
+
+	public void save(Path file, PassesProfileFormat format) {
+		try {
+			FileUtils.makeDirsForFile(file);
+			try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+				switch (format) {
+					case JSON:
+						writeJson(writer);
+						break;
+					case COLLAPSED:
+						writeCollapsedStacks(writer);
+						break;
+				}
+			}
+			LOG.info("Passes profile saved to: {}", file.toAbsolutePath());
+		} catch (Exception e) {
+			LOG.error("Failed to save passes profile to: {}", file.toAbsolutePath(), e);
+		}
+	}
+
+	/**
+	 * Passes sorted by wall time (descending), classes and methods also sorted by wall time
+	 */
+	public void writeJson(Writer writer) {
+		Map<String, Object> root = new LinkedHashMap<>();
+		root.put("cpuTimeSupported", cpuTimeSupported);
+		root.put("allocSupported", allocSupported);
+		List<Map<String, Object>> passesList = new ArrayList<>();
+		for (PassProfile pass : sortedPasses()) {
+			Map<String, Object> passMap = pass.getTotal().toMap(pass.getName());
+			List<Map<String, Object>> classesList = new ArrayList<>();
+			for (ClassProfile cls : pass.sortedClasses()) {
+				Map<String, Object> clsMap = cls.getTotal().toMap(cls.getName());
+				clsMap.put("self", cls.getSelf().toMap(null));
+				List<Map<String, Object>> methodsList = new ArrayList<>();
+				for (Map.Entry<String, Counters> entry : cls.sortedMethods()) {
+					methodsList.add(entry.getValue().toMap(entry.getKey()));
+				}
+				clsMap.put("methods", methodsList);
+				classesList.add(clsMap);
+			}
+			passMap.put("classes", classesList);
+			passesList.add(passMap);
+		}
+		root.put("passes", passesList);
+		Gson gson = GsonUtils.defaultGsonBuilder().disableHtmlEscaping().create();
+		gson.toJson(root, writer);
+	}
+
+	/**
+	 * Write profile in 'collapsed stacks' format accepted by flame graph tools:
+	 * {@code pass;class;method value}, value is CPU time in microseconds (wall time if CPU time not supported).
+	 */
+	public void writeCollapsedStacks(Writer writer) throws IOException {
+		for (PassProfile pass : sortedPasses()) {
+			String passFrame = escapeFrame(pass.getName());
+			for (ClassProfile cls : pass.sortedClasses()) {
+				String clsFrame = passFrame + ';' + escapeFrame(cls.getName());
+				writeStackLine(writer, clsFrame, cls.getSelf());
+				for (Map.Entry<String, Counters> entry : cls.sortedMethods()) {
+					writeStackLine(writer, clsFrame + ';' + escapeFrame(entry.getKey()), entry.getValue());
+				}
+			}
+		}
+	}
+
+	private void writeStackLine(Writer writer, String stack, Counters counters) throws IOException {
+		long value = (cpuTimeSupported ? counters.cpu : counters.wall) / 1000;
+		if (value > 0) {
+			writer.write(stack);
+			writer.write(' ');
+			writer.write(Long.toString(value));
+			writer.write('\n');
+		}
+	}
+
+	private static String escapeFrame(String name) {
+		return name.replace(';', ',').replace(' ', '_');
+	}
+
+	public List<PassProfile> sortedPasses() {
+		List<PassProfile> list = new ArrayList<>(passes.values());
+		list.sort(Comparator.comparingLong((PassProfile p) -> p.getTotal().wall).reversed());
+		return list;
+	}
+
+	public static final class Sample {
+		private final @Nullable Sample parent;
+		private long wall;
+		private long cpu;
+		private long alloc;
+		private long nestedWall;
+		private long nestedCpu;
+		private long nestedAlloc;
+		private boolean stopped;
+
+		private Sample(@Nullable Sample parent) {
+			this.parent = parent;
+		}
+
+		private void stop(long wallEnd, long cpuEnd, long allocEnd) {
+			if (stopped) {
+				throw new IllegalStateException("Profiler sample already finished");
+			}
+			stopped = true;
+			long fullWall = wallEnd - wall;
+			long fullCpu = cpuEnd - cpu;
+			long fullAlloc = allocEnd - alloc;
+			wall = fullWall - nestedWall;
+			cpu = fullCpu - nestedCpu;
+			alloc = fullAlloc - nestedAlloc;
+			if (parent != null) {
+				parent.nestedWall += fullWall;
+				parent.nestedCpu += fullCpu;
+				parent.nestedAlloc += fullAlloc;
+			}
+		}
+	}
+
+	public static final class PassProfile {
+		private final String name;
+		private final Counters total = new Counters();
+		private final Map<String, ClassProfile> classes = new ConcurrentHashMap<>();
+
+		private PassProfile(String name) {
+			this.name = name;
+		}
+
+		private void add(ClassNode cls, String mthId, Sample sample) {
+			synchronized (total) {
+				total.add(sample);
+			}
+			String clsName = cls.getClassInfo().getFullName();
+			classes.computeIfAbsent(clsName, ClassProfile::new).add(mthId, sample);
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Counters getTotal() {
+			return total;
+		}
+
+		public List<ClassProfile> sortedClasses() {
+			List<ClassProfile> list = new ArrayList<>(classes.values());
+			list.sort(Comparator.comparingLong((ClassProfile c) -> c.getTotal().wall).reversed());
+			return list;
+		}
+	}
+
+	public static final class ClassProfile {
+		private final String name;
+		private final Counters total = new Counters();
+		private final Counters self = new Counters();
+		private final Map<String, Counters> methods = new HashMap<>();
+
+		private ClassProfile(String name) {
+			this.name = name;
+		}
+
+		private synchronized void add(String mthId, Sample sample) {
+			total.add(sample);
+			if (mthId == null) {
+				self.add(sample);
+			} else {
+				methods.computeIfAbsent(mthId, m -> new Counters()).add(sample);
+			}
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public synchronized Counters getTotal() {
+			return total;
+		}
+
+		public synchronized Counters getSelf() {
+			return self;
+		}
+
+		public synchronized List<Map.Entry<String, Counters>> sortedMethods() {
+			List<Map.Entry<String, Counters>> list = new ArrayList<>(methods.entrySet());
+			list.sort(Comparator.comparingLong((Map.Entry<String, Counters> e) -> e.getValue().wall).reversed());
+			return list;
+		}
+	}
+
+	public static final class Counters {
+		private long calls;
+		private long wall;
+		private long cpu;
+		private long alloc;
+
+		private void add(Sample sample) {
+			calls++;
+			wall += sample.wall;
+			cpu += sample.cpu;
+			alloc += sample.alloc;
+		}
+
+		public long getCalls() {
+			return calls;
+		}
+
+		public long getWallTimeNanos() {
+			return wall;
+		}
+
+		public long getCpuTimeNanos() {
+			return cpu;
+		}
+
+		public long getAllocatedBytes() {
+			return alloc;
+		}
+
+		private Map<String, Object> toMap(String name) {
+			Map<String, Object> map = new LinkedHashMap<>();
+			if (name != null) {
+				map.put("name", name);
+			}
+			map.put("calls", calls);
+			map.put("wallNs", wall);
+			map.put("cpuNs", cpu);
+			map.put("allocBytes", alloc);
+			return map;
+		}
+	}
+}
@@ -0,0 +1,507 @@
+package jadx.core.utils.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import jadx.api.plugins.input.data.ICallSite;
+import jadx.api.plugins.input.data.ICatch;
+import jadx.api.plugins.input.data.IClassData;
+import jadx.api.plugins.input.data.ICodeReader;
+import jadx.api.plugins.input.data.IDebugInfo;
+import jadx.api.plugins.input.data.IFieldRef;
+import jadx.api.plugins.input.data.ILocalVar;
+import jadx.api.plugins.input.data.IMethodHandle;
+import jadx.api.plugins.input.data.IMethodProto;
+import jadx.api.plugins.input.data.IMethodRef;
+import jadx.api.plugins.input.data.ITry;
+import jadx.api.plugins.input.data.annotations.EncodedValue;
+import jadx.api.plugins.input.data.annotations.IAnnotation;
+import jadx.api.plugins.input.data.attributes.IJadxAttribute;
+import jadx.api.plugins.input.data.attributes.types.AnnotationDefaultAttr;
+import jadx.api.plugins.input.data.attributes.types.AnnotationDefaultClassAttr;
+import jadx.api.plugins.input.data.attributes.types.AnnotationMethodParamsAttr;
+import jadx.api.plugins.input.data.attributes.types.AnnotationsAttr;
+import jadx.api.plugins.input.insns.InsnData;
+import jadx.api.plugins.input.insns.Opcode;
+import jadx.api.plugins.input.insns.custom.IArrayPayload;
+import jadx.api.plugins.input.insns.custom.ICustomPayload;
+import jadx.api.plugins.input.insns.custom.ISwitchPayload;
+import jadx.core.dex.info.ConstStorage;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.FieldNode;
+import jadx.core.dex.nodes.IFieldInfoRef;
+import jadx.core.dex.nodes.MethodNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Build hash of class content used as a key for generated code.
+ * <br>
+ * Class content read from input data (types, flags, attributes and instructions with resolved references),
+ * so hash not depends on class position in input file or indexes in shared pools
+ * (raw dex bytes changed by any modification of other classes in same dex).
+ * <br>
+ * Key also includes inner classes, names (aliases) and content of all classes reachable
+ * by dependencies and codegen dependencies, because generated code depends on them
+ * (synthetic accessors, inlined anonymous classes and lambdas, enum switch maps).
+ * Hash of such transitive closure calculated once for every strongly connected component of dependencies graph.
+ */
+public class ClassContentHash {
+	private static final Comparator<ClassNode> RAW_NAME_CMP = Comparator.comparing(ClassNode::getRawName);
+
+	private final String codeVersion;
+	/**
+	 * Hashes calculated under 'this' lock, so plain maps are enough
+	 */
+	private final Map<ClassNode, byte[]> contentHashCache = new HashMap<>();
+	private final Map<ClassNode, byte[]> closureHashCache = new HashMap<>();
+
+	/**
+	 * @param codeVersion included in every key, should contain jadx version and code related args
+	 */
+	public ClassContentHash(String codeVersion) {
+		this.codeVersion = codeVersion;
+	}
+
+	public String getKey(ClassNode cls) {
+		ClassNode topCls = cls.getTopParentClass();
+		MessageDigest md = newDigest();
+		update(md, codeVersion);
+		synchronized (this) {
+			// closure hash is same for all classes in dependencies cycle, so add own content
+			md.update(getContentHash(topCls));
+			md.update(getClosureHash(topCls));
+		}
+		return FileUtils.bytesToHex(md.digest());
+	}
+
+	/**
+	 * Hash of global constants and resource names.
+	 * Used for constants replacement in any class, but not included in class dependencies.
+	 */
+	public static String buildConstsHash(ConstStorage constStorage) {
+		Set<String> consts = new TreeSet<>();
+		for (Map.Entry<Object, IFieldInfoRef> entry : constStorage.getGlobalConstFields().entrySet()) {
+			Object value = entry.getKey();
+			consts.add(entry.getValue().getFieldInfo().getRawFullId() + '=' + value.getClass().getName() + ':' + value);
+		}
+		MessageDigest md = newDigest();
+		for (String constStr : consts) {
+			update(md, constStr);
+		}
+		for (Map.Entry<Integer, String> entry : new TreeMap<>(constStorage.getResourcesNames()).entrySet()) {
+			updateInt(md, entry.getKey());
+			update(md, entry.getValue());
+		}
+		return FileUtils.bytesToHex(md.digest());
+	}
+
+	private byte[] getClosureHash(ClassNode cls) {
+		byte[] hash = closureHashCache.get(cls);
+		if (hash == null) {
+			new ClosureBuilder().build(cls);
+			hash = closureHashCache.get(cls);
+		}
+		return hash;
+	}
+
+	private static List<ClassNode> getDeps(ClassNode cls) {
+		Set<ClassNode> deps = new LinkedHashSet<>();
+		for (ClassNode dep : cls.getDependencies()) {
+			deps.add(dep.getTopParentClass());
+		}
+		for (ClassNode dep : cls.getCodegenDeps()) {
+			deps.add(dep.getTopParentClass());
+		}
+		deps.remove(cls);
+		return new ArrayList<>(deps);
+	}
+
+	/**
+	 * Non-recursive Tarjan's algorithm, dependencies graph can contain very long chains
+	 */
+	private final class ClosureBuilder {
+		private final Map<ClassNode, Integer> indexes = new HashMap<>();
+		private final Deque<ClassNode> stack = new ArrayDeque<>();
+		private final Set<ClassNode> onStack = new HashSet<>();
+
+		void build(ClassNode start) {
+			Deque<Frame> frames = new ArrayDeque<>();
+			frames.push(enter(start));
+			while (!frames.isEmpty()) {
+				Frame frame = frames.peek();
+				if (frame.next < frame.deps.size()) {
+					ClassNode dep = frame.deps.get(frame.next++);
+					if (closureHashCache.containsKey(dep)) {
+						continue;
+					}
+					Integer depIndex = indexes.get(dep);
+					if (depIndex == null) {
+						frames.push(enter(dep));
+					} else if (onStack.contains(dep)) {
+						frame.lowLink = Math.min(frame.lowLink, depIndex);
+					}
+				} else {
+					frames.pop();
+					if (frame.lowLink == frame.index) {
+						buildComponent(frame.cls);
+					}
+					Frame parent = frames.peek();
+					if (parent != null) {
+						parent.lowLink = Math.min(parent.lowLink, frame.lowLink);
+					}
+				}
+			}
+		}
+
+		private Frame enter(ClassNode cls) {
+			int index = indexes.size();
+			indexes.put(cls, index);
+			stack.push(cls);
+			onStack.add(cls);
+			return new Frame(cls, index, getDeps(cls));
+		}
+
+		private void buildComponent(ClassNode rootCls) {
+			List<ClassNode> component = new ArrayList<>();
+			ClassNode cls;
+			do {
+				cls = stack.pop();
+				onStack.remove(cls);
+				component.add(cls);
+			} while (cls != rootCls);
+			component.sort(RAW_NAME_CMP);
+
+			MessageDigest md = newDigest();
+			Set<String> depsHashes = new TreeSet<>();
+			for (ClassNode member : component) {
+				md.update(getContentHash(member));
+				for (ClassNode dep : getDeps(member)) {
+					byte[] depHash = closureHashCache.get(dep);
+					if (depHash != null) {
+						depsHashes.add(FileUtils.bytesToHex(depHash));
+					}
+				}
+			}
+			for (String depHash : depsHashes) {
+				update(md, depHash);
+			}
+			byte[] hash = md.digest();
+			for (ClassNode member : component) {
+				closureHashCache.put(member, hash);
+			}
+		}
+	}
+
+	private static final class Frame {
+		private final ClassNode cls;
+		private final int index;
+		private final List<ClassNode> deps;
+		private int lowLink;
+		private int next;
+
+		private Frame(ClassNode cls, int index, List<ClassNode> deps) {
+			this.cls = cls;
+			this.index = index;
+			this.lowLink = index;
+			this.deps = deps;
+		}
+	}
+
+	private byte[] getContentHash(ClassNode cls) {
+		byte[] hash = contentHashCache.get(cls);
+		if (hash == null) {
+			hash = calcContentHash(cls);
+			contentHashCache.put(cls, hash);
+		}
+		return hash;
+	}
+
+	private byte[] calcContentHash(ClassNode cls) {
+		MessageDigest md = newDigest();
+		update(md, cls.getRawName());
+		update(md, cls.getClassInfo().getAliasFullName());
+		IClassData clsData = cls.getClsData();
+		if (clsData != null) {
+			updateClassData(md, clsData.copy());
+		}
+		for (FieldNode fld : cls.getFields()) {
+			update(md, fld.getFieldInfo().getAlias());
+		}
+		for (MethodNode mth : cls.getMethods()) {
+			update(md, mth.getMethodInfo().getAlias());
+		}
+		List<ClassNode> innerClasses = new ArrayList<>(cls.getInnerClasses());
+		innerClasses.sort(RAW_NAME_CMP);
+		for (ClassNode innerCls : innerClasses) {
+			md.update(getContentHash(innerCls));
+		}
+		return md.digest();
+	}
+
+	private static void updateClassData(MessageDigest md, IClassData clsData) {
+		update(md, clsData.getType());
+		updateInt(md, clsData.getAccessFlags());
+		update(md, String.valueOf(clsData.getSuperType()));
+		for (String intf : clsData.getInterfacesTypes()) {
+			update(md, intf);
+		}
+		updateAttributes(md, clsData.getAttributes());
+		clsData.visitFieldsAndMethods(fld -> {
+			updateFieldRef(md, fld);
+			updateInt(md, fld.getAccessFlags());
+			updateAttributes(md, fld.getAttributes());
+		}, mth -> {
+			updateMethodRef(md, mth.getMethodRef());
+			updateInt(md, mth.getAccessFlags());
+			updateAttributes(md, mth.getAttributes());
+			ICodeReader codeReader = mth.getCodeReader();
+			if (codeReader != null) {
+				updateCode(md, codeReader);
+			}
+		});
+	}
+
+	private static void updateCode(MessageDigest md, ICodeReader codeReader) {
+		updateInt(md, codeReader.getRegistersCount());
+		updateInt(md, codeReader.getArgsStartReg());
+		updateInt(md, codeReader.getUnitsCount());
+		codeReader.visitInstructions(insn -> updateInsn(md, insn));
+		for (ITry tryData : codeReader.getTries()) {
+			updateInt(md, tryData.getStartOffset());
+			updateInt(md, tryData.getEndOffset());
+			ICatch catchData = tryData.getCatch();
+			for (String type : catchData.getTypes()) {
+				update(md, type);
+			}
+			update(md, Arrays.toString(catchData.getHandlers()));
+			updateInt(md, catchData.getCatchAllHandler());
+		}
+		IDebugInfo debugInfo = codeReader.getDebugInfo();
+		if (debugInfo != null) {
+			update(md, new TreeMap<>(debugInfo.getSourceLineMapping()).toString());
+			for (ILocalVar localVar : debugInfo.getLocalVars()) {
+				update(md, localVar.getName());
+				update(md, localVar.getType());
+				update(md, String.valueOf(localVar.getSignature()));
+				updateInt(md, localVar.getRegNum());
+				updateInt(md, localVar.getStartOffset());
+				updateInt(md, localVar.getEndOffset());
+				updateInt(md, localVar.isMarkedAsParameter() ? 1 : 0);
+			}
+		}
+	}
+
+	private static void updateInsn(MessageDigest md, InsnData insn) {
+		Opcode opcode = insn.getOpcode();
+		updateInt(md, insn.getOffset());
+		update(md, opcode.name());
+		if (opcode == Opcode.UNKNOWN) {
+			updateInt(md, insn.getRawOpcodeUnit());
+			return;
+		}
+		insn.decode();
+		int regsCount = insn.getRegsCount();
+		updateInt(md, regsCount);
+		for (int i = 0; i < regsCount; i++) {
+			updateInt(md, insn.getReg(i));
+		}
+		updateInt(md, insn.getResultReg());
+		updateLong(md, insn.getLiteral());
+		updateInt(md, insn.getTarget());
+		switch (insn.getIndexType()) {
+			case TYPE_REF:
+				update(md, insn.getIndexAsType());
+				break;
+			case STRING_REF:
+				update(md, insn.getIndexAsString());
+				break;
+			case FIELD_REF:
+				updateFieldRef(md, insn.getIndexAsField());
+				break;
+			case METHOD_REF:
+				updateMethodRef(md, insn.getIndexAsMethod());
+				break;
+			case CALL_SITE:
+				ICallSite callSite = insn.getIndexAsCallSite();
+				callSite.load();
+				for (EncodedValue value : callSite.getValues()) {
+					updateValue(md, value);
+				}
+				break;
+			default:
+				break;
+		}
+		switch (opcode) {
+			case INVOKE_POLYMORPHIC:
+			case INVOKE_POLYMORPHIC_RANGE:
+				updateProto(md, insn.getIndexAsProto(insn.getTarget()));
+				break;
+			case FILL_ARRAY_DATA_PAYLOAD:
+			case PACKED_SWITCH_PAYLOAD:
+			case SPARSE_SWITCH_PAYLOAD:
+			case PACKED_SWITCH:
+			case SPARSE_SWITCH:
+				updatePayload(md, insn.getPayload());
+				break;
+			default:
+				break;
+		}
+	}
+
+	private static void updatePayload(MessageDigest md, ICustomPayload payload) {
+		if (payload instanceof ISwitchPayload) {
+			ISwitchPayload switchPayload = (ISwitchPayload) payload;
+			update(md, Arrays.toString(switchPayload.getKeys()));
+			update(md, Arrays.toString(switchPayload.getTargets()));
+		} else if (payload instanceof IArrayPayload) {
+			IArrayPayload arrayPayload = (IArrayPayload) payload;
+			updateInt(md, arrayPayload.getElementSize());
+			updateValue(md, arrayPayload.getData());
+		}
+	}
+
+	private static void updateAttributes(MessageDigest md, List<IJadxAttribute> attributes) {
+		for (IJadxAttribute attr : attributes) {
+			update(md, attr.getClass().getName());
+			if (attr instanceof AnnotationsAttr) {
+				updateAnnotations(md, (AnnotationsAttr) attr);
+			} else if (attr instanceof AnnotationMethodParamsAttr) {
+				for (AnnotationsAttr paramAnnotations : ((AnnotationMethodParamsAttr) attr).getParamList()) {
+					updateInt(md, paramAnnotations == null ? -1 : paramAnnotations.size());
+					if (paramAnnotations != null) {
+						updateAnnotations(md, paramAnnotations);
+					}
+				}
+			} else if (attr instanceof AnnotationDefaultAttr) {
+				updateValue(md, ((AnnotationDefaultAttr) attr).getValue());
+			} else if (attr instanceof AnnotationDefaultClassAttr) {
+				updateValue(md, ((AnnotationDefaultClassAttr) attr).getValues());
+			} else if (attr instanceof EncodedValue) {
+				updateValue(md, attr);
+			} else {
+				// other attributes contain only strings and numbers
+				update(md, attr.toString());
+			}
+		}
+	}
+
+	private static void updateAnnotations(MessageDigest md, AnnotationsAttr attr) {
+		List<IAnnotation> list = new ArrayList<>(attr.getAll());
+		list.sort(Comparator.comparing(IAnnotation::getAnnotationClass));
+		for (IAnnotation annotation : list) {
+			updateValue(md, annotation);
+		}
+	}
+
+	/**
+	 * Values from annotations and call sites, references resolved to avoid dependency on unique ids
+	 */
+	private static void updateValue(MessageDigest md, Object value) {
+		if (value instanceof EncodedValue) {
+			EncodedValue encodedValue = (EncodedValue) value;
+			update(md, encodedValue.getType().name());
+			updateValue(md, encodedValue.getValue());
+		} else if (value instanceof List) {
+			List<?> list = (List<?>) value;
+			updateInt(md, list.size());
+			for (Object element : list) {
+				updateValue(md, element);
+			}
+		} else if (value instanceof Map) {
+			Map<?, ?> map = new TreeMap<>((Map<?, ?>) value);
+			for (Map.Entry<?, ?> entry : map.entrySet()) {
+				update(md, String.valueOf(entry.getKey()));
+				updateValue(md, entry.getValue());
+			}
+		} else if (value instanceof IAnnotation) {
+			IAnnotation annotation = (IAnnotation) value;
+			update(md, annotation.getAnnotationClass());
+			update(md, String.valueOf(annotation.getVisibility()));
+			updateValue(md, annotation.getValues());
+		} else if (value instanceof IMethodRef) {
+			updateMethodRef(md, (IMethodRef) value);
+		} else if (value instanceof IMethodProto) {
+			updateProto(md, (IMethodProto) value);
+		} else if (value instanceof IFieldRef) {
+			updateFieldRef(md, (IFieldRef) value);
+		} else if (value instanceof IMethodHandle) {
+			IMethodHandle handle = (IMethodHandle) value;
+			handle.load();
+			update(md, handle.getType().name());
+			if (handle.getType().isField()) {
+				updateFieldRef(md, handle.getFieldRef());
+			} else {
+				updateMethodRef(md, handle.getMethodRef());
+			}
+		} else if (value instanceof byte[]) {
+			update(md, Arrays.toString((byte[]) value));
+		} else if (value instanceof short[]) {
+			update(md, Arrays.toString((short[]) value));
+		} else if (value instanceof int[]) {
+			update(md, Arrays.toString((int[]) value));
+		} else if (value instanceof long[]) {
+			update(md, Arrays.toString((long[]) value));
+		} else {
+			update(md, String.valueOf(value));
+		}
+	}
+
+	private static void updateMethodRef(MessageDigest md, IMethodRef mthRef) {
+		mthRef.load();
+		update(md, mthRef.getParentClassType());
+		update(md, mthRef.getName());
+		updateProto(md, mthRef);
+	}
+
+	private static void updateProto(MessageDigest md, IMethodProto proto) {
+		update(md, proto.getReturnType());
+		for (String argType : proto.getArgTypes()) {
+			update(md, argType);
+		}
+	}
+
+	private static void updateFieldRef(MessageDigest md, IFieldRef fieldRef) {
+		update(md, fieldRef.getParentClassType());
+		update(md, fieldRef.getName());
+		update(md, fieldRef.getType());
+	}
+
+	private static void update(MessageDigest md, String str) {
+		md.update(str.getBytes(StandardCharsets.UTF_8));
+		md.update((byte) 0);
+	}
+
+	private static void updateInt(MessageDigest md, int value) {
+		md.update((byte) (value >>> 24));
+		md.update((byte) (value >>> 16));
+		md.update((byte) (value >>> 8));
+		md.update((byte) value);
+	}
+
+	private static void updateLong(MessageDigest md, long value) {
+		updateInt(md, (int) (value >>> 32));
+		updateInt(md, (int) value);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (Exception e) {
+			throw new JadxRuntimeException("Failed to init digest", e);
+		}
+	}
+}
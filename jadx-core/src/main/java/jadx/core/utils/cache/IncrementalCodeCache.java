@@ -0,0 +1,418 @@
+package jadx.core.utils.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.ICodeInfo;
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.core.Jadx;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Persistent cache of generated code for incremental decompilation.
+ * <br>
+ * Code stored by key from {@link ClassContentHash}, so unchanged classes can be saved without processing.
+ * Only code string is stored (code metadata not needed for saving sources).
+ * <br>
+ * Storage is one file with compressed code entries followed by index and footer (index offset and magic).
+ * Updated store written into temp file (only entries used in current run are kept) and atomically
+ * moved over previous one in {@link #commit()}, so failed or aborted save keeps previous store.
+ * Cache directory locked while cache is open, other instances can't use it at the same time.
+ */
+public class IncrementalCodeCache implements Closeable {
+	private static final Logger LOG = LoggerFactory.getLogger(IncrementalCodeCache.class);
+
+	private static final int MAGIC = 0x4A584943; // 'JXIC'
+	private static final int FORMAT_VERSION = 2;
+	private static final int FOOTER_SIZE = 12;
+	private static final String STORE_FILE = "store";
+	private static final String LOCK_FILE = "lock";
+	private static final String TMP_EXT = ".tmp";
+
+	private final Path dir;
+	private final String codeVersion;
+	private final ClassContentHash contentHash;
+	private final FileChannel lockChannel;
+	private final FileLock lock;
+
+	private final Map<String, Entry> prevEntries;
+	private final @Nullable FileChannel prevData;
+
+	private final Map<String, Entry> newEntries = new ConcurrentHashMap<>();
+	private final FileChannel newData;
+	private long newDataSize;
+	private boolean committed;
+	private boolean closed;
+
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+	private final AtomicInteger errors = new AtomicInteger();
+
+	public static String buildCodeVersion(JadxArgs args, @Nullable JadxDecompiler decompiler) {
+		String version = FORMAT_VERSION
+				+ ":" + Jadx.getVersion()
+				+ ":" + args.getOutputFormat()
+				+ ":" + args.makeCodeArgsHash(decompiler);
+		if (decompiler != null && args.isReplaceConsts()) {
+			// constants from any class can be used in generated code
+			version += ":" + ClassContentHash.buildConstsHash(decompiler.getRoot().getConstValues());
+		}
+		return version;
+	}
+
+	/**
+	 * @throws JadxRuntimeException if cache directory already used by other instance
+	 */
+	public IncrementalCodeCache(Path dir, String codeVersion) throws IOException {
+		this.dir = dir;
+		this.codeVersion = codeVersion;
+		this.contentHash = new ClassContentHash(codeVersion);
+		FileUtils.makeDirs(dir);
+		this.lockChannel = FileChannel.open(dir.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		this.lock = tryLock(lockChannel);
+		if (lock == null) {
+			lockChannel.close();
+			throw new JadxRuntimeException("Incremental cache directory already in use: " + dir.toAbsolutePath());
+		}
+		try {
+			Path storeFile = dir.resolve(STORE_FILE);
+			FileChannel data = Files.exists(storeFile) ? FileChannel.open(storeFile, StandardOpenOption.READ) : null;
+			Map<String, Entry> entries = data != null ? loadIndex(data) : Collections.emptyMap();
+			if (entries.isEmpty() && data != null) {
+				data.close();
+				data = null;
+			}
+			this.prevEntries = entries;
+			this.prevData = data;
+			this.newData = FileChannel.open(dir.resolve(STORE_FILE + TMP_EXT),
+					StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		} catch (Exception e) {
+			lock.release();
+			lockChannel.close();
+			throw e;
+		}
+		LOG.info("Incremental cache loaded, entries: {}, dir: {}", prevEntries.size(), dir.toAbsolutePath());
+	}
+
+	private static @Nullable FileLock tryLock(FileChannel channel) throws IOException {
+		try {
+			return channel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			// already locked in this JVM
+			return null;
+		}
+	}
+
+	/**
+	 * Return cached code or decompile class and store result
+	 */
+	public String getCodeStr(ClassNode cls) {
+		String key;
+		try {
+			key = contentHash.getKey(cls);
+		} catch (Exception e) {
+			LOG.warn("Failed to build cache key for class: {}", cls, e);
+			errors.incrementAndGet();
+			return cls.getCode().getCodeStr();
+		}
+		String cachedCode = load(key);
+		if (cachedCode != null) {
+			hits.incrementAndGet();
+			return cachedCode;
+		}
+		misses.incrementAndGet();
+		ICodeInfo code = cls.getCode();
+		if (code != ICodeInfo.EMPTY) {
+			store(key, code.getCodeStr());
+		}
+		return code.getCodeStr();
+	}
+
+	private @Nullable String load(String key) {
+		Entry entry = prevEntries.get(key);
+		if (entry == null || prevData == null) {
+			return null;
+		}
+		try {
+			byte[] compressed = new byte[entry.getSize()];
+			readFully(prevData, ByteBuffer.wrap(compressed), entry.getOffset());
+			String code = new String(decompress(compressed, entry.getCodeLen()), StandardCharsets.UTF_8);
+			append(key, compressed, entry.getCodeLen());
+			return code;
+		} catch (Exception e) {
+			LOG.warn("Failed to load cached code for key: {}", key, e);
+			errors.incrementAndGet();
+			return null;
+		}
+	}
+
+	private void store(String key, String code) {
+		try {
+			byte[] codeBytes = code.getBytes(StandardCharsets.UTF_8);
+			append(key, compress(codeBytes), codeBytes.length);
+		} catch (Exception e) {
+			LOG.warn("Failed to store code for key: {}", key, e);
+			errors.incrementAndGet();
+		}
+	}
+
+	private void append(String key, byte[] compressed, int codeLen) throws IOException {
+		if (newEntries.containsKey(key)) {
+			return;
+		}
+		long offset;
+		synchronized (newData) {
+			offset = newDataSize;
+			ByteBuffer buf = ByteBuffer.wrap(compressed);
+			while (buf.hasRemaining()) {
+				newData.write(buf, offset + buf.position());
+			}
+			newDataSize += compressed.length;
+		}
+		newEntries.put(key, new Entry(offset, compressed.length, codeLen));
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buf, long pos) throws IOException {
+		while (buf.hasRemaining()) {
+			int read = channel.read(buf, pos + buf.position());
+			if (read < 0) {
+				throw new IOException("Unexpected end of store file");
+			}
+		}
+	}
+
+	private Map<String, Entry> loadIndex(FileChannel data) {
+		try {
+			long size = data.size();
+			if (size < FOOTER_SIZE) {
+				throw new IOException("Store file too small: " + size);
+			}
+			ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+			readFully(data, footer, size - FOOTER_SIZE);
+			footer.flip();
+			long indexOffset = footer.getLong();
+			if (footer.getInt() != MAGIC || indexOffset < 0 || indexOffset > size - FOOTER_SIZE) {
+				throw new IOException("Store file footer is broken");
+			}
+			data.position(indexOffset);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(data)));
+			if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+				LOG.info("Incremental cache format changed, old entries will be dropped");
+				return Collections.emptyMap();
+			}
+			if (!in.readUTF().equals(codeVersion)) {
+				LOG.info("Incremental cache created by other jadx version or with different options, old entries will be dropped");
+				return Collections.emptyMap();
+			}
+			int count = in.readInt();
+			Map<String, Entry> map = new HashMap<>(count);
+			for (int i = 0; i < count; i++) {
+				String key = in.readUTF();
+				long offset = in.readLong();
+				int entrySize = in.readInt();
+				int codeLen = in.readInt();
+				if (offset < 0 || offset + entrySize > indexOffset) {
+					throw new IOException("Entry out of data bounds: " + key);
+				}
+				map.put(key, new Entry(offset, entrySize, codeLen));
+			}
+			return map;
+		} catch (Exception e) {
+			LOG.warn("Failed to load incremental cache index: {}", dir.toAbsolutePath(), e);
+			return Collections.emptyMap();
+		}
+	}
+
+	/**
+	 * Index and footer appended after data entries
+	 */
+	private void writeIndex() throws IOException {
+		long indexOffset = newDataSize;
+		newData.position(indexOffset);
+		// don't close stream: it will close channel
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(newData)));
+		out.writeInt(MAGIC);
+		out.writeInt(FORMAT_VERSION);
+		out.writeUTF(codeVersion);
+		out.writeInt(newEntries.size());
+		for (Map.Entry<String, Entry> mapEntry : newEntries.entrySet()) {
+			Entry entry = mapEntry.getValue();
+			out.writeUTF(mapEntry.getKey());
+			out.writeLong(entry.getOffset());
+			out.writeInt(entry.getSize());
+			out.writeInt(entry.getCodeLen());
+		}
+		out.writeLong(indexOffset);
+		out.writeInt(MAGIC);
+		out.flush();
+	}
+
+	private static byte[] compress(byte[] data) {
+		Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			byte[] buf = new byte[Math.max(64, data.length / 2)];
+			int len = 0;
+			while (!deflater.finished()) {
+				if (len == buf.length) {
+					byte[] newBuf = new byte[buf.length * 2];
+					System.arraycopy(buf, 0, newBuf, 0, len);
+					buf = newBuf;
+				}
+				len += deflater.deflate(buf, len, buf.length - len);
+			}
+			byte[] result = new byte[len];
+			System.arraycopy(buf, 0, result, 0, len);
+			return result;
+		} finally {
+			deflater.end();
+		}
+	}
+
+	private static byte[] decompress(byte[] data, int len) throws DataFormatException {
+		Inflater inflater = new Inflater();
+		try {
+			inflater.setInput(data);
+			byte[] result = new byte[len];
+			int written = inflater.inflate(result);
+			if (written != len) {
+				throw new DataFormatException("Unexpected size of decompressed code: " + written + ", expected: " + len);
+			}
+			return result;
+		} finally {
+			inflater.end();
+		}
+	}
+
+	public int getHits() {
+		return hits.get();
+	}
+
+	public int getMisses() {
+		return misses.get();
+	}
+
+	public int getErrors() {
+		return errors.get();
+	}
+
+	public String getStats() {
+		int total = hits.get() + misses.get();
+		int hitRate = total == 0 ? 0 : hits.get() * 100 / total;
+		return "hits: " + hits.get() + ", misses: " + misses.get() + " (hit rate " + hitRate + "%)"
+				+ ", errors: " + errors.get() + ", stored entries: " + newEntries.size();
+	}
+
+	/**
+	 * Write index and replace previous store, should be called only after successful save
+	 */
+	public synchronized void commit() {
+		if (closed) {
+			throw new JadxRuntimeException("Incremental cache already closed");
+		}
+		try {
+			writeIndex();
+			newData.force(true);
+			newData.close();
+			if (prevData != null) {
+				prevData.close();
+			}
+			Path tmpFile = dir.resolve(STORE_FILE + TMP_EXT);
+			Path storeFile = dir.resolve(STORE_FILE);
+			try {
+				Files.move(tmpFile, storeFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException e) {
+				Files.move(tmpFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+			}
+			committed = true;
+		} catch (Exception e) {
+			throw new JadxRuntimeException("Failed to save incremental cache to: " + dir.toAbsolutePath(), e);
+		} finally {
+			close();
+		}
+	}
+
+	/**
+	 * Release cache directory. If not committed, new entries are dropped and previous store is kept.
+	 */
+	@Override
+	public synchronized void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			newData.close();
+			if (prevData != null) {
+				prevData.close();
+			}
+			if (!committed) {
+				Files.deleteIfExists(dir.resolve(STORE_FILE + TMP_EXT));
+			}
+		} catch (Exception e) {
+			LOG.warn("Failed to close incremental cache: {}", dir.toAbsolutePath(), e);
+		} finally {
+			try {
+				lock.release();
+				lockChannel.close();
+			} catch (Exception e) {
+				LOG.warn("Failed to release incremental cache lock: {}", dir.toAbsolutePath(), e);
+			}
+		}
+	}
+
+	private static final class Entry {
+		private final long offset;
+		private final int size;
+		private final int codeLen;
+
+		private Entry(long offset, int size, int codeLen) {
+			this.offset = offset;
+			this.size = size;
+			this.codeLen = codeLen;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public int getCodeLen() {
+			return codeLen;
+		}
+	}
+}
@@ -0,0 +1,276 @@
+package jadx.core.utils.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.core.utils.Utils;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * Write text files in background threads.
+ * <br>
+ * Producers put files into bounded queue and wait if it is full,
+ * so processing can't get far ahead of the disk.
+ * Writer threads take files in batches, create missing parent directories once per batch
+ * (already created directories are remembered) and write content using file channels.
+ * <br>
+ * Writer thread failure stops all writers, following {@link #write(File, byte[])} calls
+ * and {@link #close()} throw exception with the failure cause, so files can't be lost silently.
+ */
+public class AsyncFileWriter implements IFilesWriter {
+	private static final Logger LOG = LoggerFactory.getLogger(AsyncFileWriter.class);
+
+	private static final int QUEUE_SIZE_PER_THREAD = 256;
+	private static final int BATCH_SIZE = 64;
+	private static final long WAIT_STEP_MS = 100;
+
+	private static final WriteTask STOP = new WriteTask(null, new byte[0]);
+
+	private final BlockingQueue<WriteTask> queue;
+	private final ExecutorService executor;
+	private final int threadsCount;
+	private final Set<Path> createdDirs = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger aliveWriters = new AtomicInteger();
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+	private final AtomicReference<Exception> firstWriteError = new AtomicReference<>();
+
+	private final LongAdder filesCount = new LongAdder();
+	private final LongAdder bytesCount = new LongAdder();
+	private final LongAdder batchesCount = new LongAdder();
+	private final LongAdder queueFullCount = new LongAdder();
+	private final LongAdder errorsCount = new LongAdder();
+
+	private volatile boolean closed;
+
+	public AsyncFileWriter(int threadsCount) {
+		this.threadsCount = Math.max(1, threadsCount);
+		this.queue = new ArrayBlockingQueue<>(this.threadsCount * QUEUE_SIZE_PER_THREAD);
+		this.executor = Executors.newFixedThreadPool(this.threadsCount, Utils.simpleThreadFactory("file-writer"));
+		aliveWriters.set(this.threadsCount);
+		for (int i = 0; i < this.threadsCount; i++) {
+			executor.execute(this::processQueue);
+		}
+	}
+
+	/**
+	 * Add file to write queue, wait if queue is full.
+	 * If current thread interrupted while waiting, file written directly from it.
+	 */
+	@Override
+	public void write(File file, byte[] data) {
+		if (closed) {
+			throw new IllegalStateException("File writer already closed");
+		}
+		checkFailure();
+		WriteTask task = new WriteTask(FileUtils.cutFileName(file).toPath(), data);
+		if (queue.offer(task)) {
+			return;
+		}
+		queueFullCount.increment();
+		try {
+			while (!queue.offer(task, WAIT_STEP_MS, TimeUnit.MILLISECONDS)) {
+				checkFailure();
+				if (aliveWriters.get() == 0) {
+					throw new JadxRuntimeException("File writer threads stopped");
+				}
+			}
+		} catch (InterruptedException e) {
+			// interrupt flag cleared here, so file channel will not be closed by interrupt
+			makeParentDirs(task.getPath());
+			writeFile(task);
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void checkFailure() {
+		Throwable error = failure.get();
+		if (error != null) {
+			throw new JadxRuntimeException("File writer failed", error);
+		}
+	}
+
+	private void processQueue() {
+		List<WriteTask> batch = new ArrayList<>(BATCH_SIZE);
+		try {
+			while (failure.get() == null) {
+				WriteTask task = queue.poll(WAIT_STEP_MS, TimeUnit.MILLISECONDS);
+				if (task == null) {
+					continue;
+				}
+				batch.add(task);
+				queue.drainTo(batch, BATCH_SIZE - 1);
+				batchesCount.increment();
+				boolean stop = writeBatch(batch);
+				batch.clear();
+				if (stop) {
+					return;
+				}
+			}
+		} catch (Throwable e) {
+			// also catch errors (like OOM), so other threads can see failure
+			failure.compareAndSet(null, e);
+			LOG.error("File writer thread failed", e);
+			if (e instanceof InterruptedException) {
+				Thread.currentThread().interrupt();
+			}
+		} finally {
+			aliveWriters.decrementAndGet();
+		}
+	}
+
+	private boolean writeBatch(List<WriteTask> batch) throws InterruptedException {
+		int stopMarkers = 0;
+		for (WriteTask task : batch) {
+			if (task == STOP) {
+				stopMarkers++;
+			} else {
+				makeParentDirs(task.getPath());
+			}
+		}
+		for (WriteTask task : batch) {
+			if (task != STOP) {
+				writeFile(task);
+			}
+		}
+		// batch can contain stop markers for other threads, return them back
+		for (int i = 1; i < stopMarkers; i++) {
+			putStop();
+		}
+		return stopMarkers != 0;
+	}
+
+	/**
+	 * Put stop marker, wait while queue is full and writers still running
+	 */
+	private void putStop() throws InterruptedException {
+		while (!queue.offer(STOP, WAIT_STEP_MS, TimeUnit.MILLISECONDS)) {
+			if (failure.get() != null || aliveWriters.get() == 0) {
+				return;
+			}
+		}
+	}
+
+	private void makeParentDirs(Path file) {
+		Path dir = file.toAbsolutePath().getParent();
+		if (dir == null || createdDirs.contains(dir)) {
+			return;
+		}
+		try {
+			Files.createDirectories(dir);
+			createdDirs.add(dir);
+		} catch (Exception e) {
+			LOG.error("Can't create directory: {}", dir, e);
+		}
+	}
+
+	private void writeFile(WriteTask task) {
+		byte[] bytes = task.getData();
+		try (FileChannel channel = FileChannel.open(task.getPath(),
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes);
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			filesCount.increment();
+			bytesCount.add(bytes.length);
+		} catch (Exception e) {
+			errorsCount.increment();
+			firstWriteError.compareAndSet(null, e);
+			LOG.error("Save file error: {}", task.getPath(), e);
+		}
+	}
+
+	/**
+	 * Write all queued files and stop writer threads.
+	 * Not interruptible: queued files always written (interrupt flag restored at the end).
+	 *
+	 * @throws IOException if writer thread failed or some files not written
+	 */
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		boolean interrupted = false;
+		for (int i = 0; i < threadsCount; i++) {
+			while (true) {
+				try {
+					putStop();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		executor.shutdown();
+		while (true) {
+			try {
+				executor.awaitTermination(1, TimeUnit.DAYS);
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Files writer {}", getStats());
+		}
+		Throwable error = failure.get();
+		if (error != null) {
+			throw new IOException("Files writer failed, " + getStats(), error);
+		}
+		long errors = errorsCount.sum();
+		if (errors != 0) {
+			throw new IOException("Failed to write " + errors + " files", firstWriteError.get());
+		}
+	}
+
+	public String getStats() {
+		return "stats: files: " + filesCount.sum()
+				+ ", bytes: " + bytesCount.sum()
+				+ ", batches: " + batchesCount.sum()
+				+ ", waits on full queue: " + queueFullCount.sum()
+				+ ", errors: " + errorsCount.sum();
+	}
+
+	private static final class WriteTask {
+		private final Path path;
+		private final byte[] data;
+
+		private WriteTask(Path path, byte[] data) {
+			this.path = path;
+			this.data = data;
+		}
+
+		public Path getPath() {
+			return path;
+		}
+
+		public byte[] getData() {
+			return data;
+		}
+	}
+}
@@ -0,0 +1,21 @@
+package jadx.core.utils.files;
+
+import java.io.Closeable;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Output files sink used instead of direct writes into output directories.
+ * Methods can be called from several threads, all files should be written after {@link #close()}.
+ */
+public interface IFilesWriter extends Closeable {
+
+	void write(File file, byte[] data);
+
+	/**
+	 * Write text in UTF-8 with line separator at the end (same as {@link java.io.PrintWriter#println(String)}).
+	 */
+	default void write(File file, String content) {
+		write(file, (content + System.lineSeparator()).getBytes(StandardCharsets.UTF_8));
+	}
+}
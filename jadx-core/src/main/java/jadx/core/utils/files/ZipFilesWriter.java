@@ -0,0 +1,392 @@
+package jadx.core.utils.files;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.ResourceType;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+/**
+ * Collect output files into single zip archive without writing them into output directory.
+ * <br>
+ * Entries compressed in calling (processing) threads and appended to temporary spill file
+ * (created next to the archive), only entries metadata kept in memory.
+ * On {@link #close()} archive written in one pass with entries sorted by name and fixed timestamps,
+ * so result is reproducible and not depend on processing order or threads count.
+ * If archive write failed, partially written file removed.
+ * Entry names are file paths relative to the root directory.
+ * Already compressed files (images, media, archives) and not compressible data stored as is.
+ */
+public class ZipFilesWriter implements IFilesWriter {
+	private static final Logger LOG = LoggerFactory.getLogger(ZipFilesWriter.class);
+
+	private static final int LOCAL_HEADER_SIG = 0x04034b50;
+	private static final int CENTRAL_HEADER_SIG = 0x02014b50;
+	private static final int END_SIG = 0x06054b50;
+	private static final int ZIP64_END_SIG = 0x06064b50;
+	private static final int ZIP64_LOCATOR_SIG = 0x07064b50;
+
+	private static final int VERSION = 20;
+	private static final int VERSION_ZIP64 = 45;
+	private static final int FLAG_UTF8 = 0x0800;
+	private static final int METHOD_STORED = 0;
+	private static final int METHOD_DEFLATED = 8;
+	private static final int ZIP64_EXTRA_ID = 0x0001;
+	private static final long MAX_32 = 0xFFFFFFFFL;
+	private static final int MAX_16 = 0xFFFF;
+
+	/**
+	 * 1980-01-01 00:00:00 (min DOS date)
+	 */
+	private static final int DOS_TIME = 0;
+	private static final int DOS_DATE = (1 << 5) | 1;
+
+	private static final Set<ResourceType> COMPRESSED_TYPES = EnumSet.of(
+			ResourceType.IMG, ResourceType.ARCHIVE, ResourceType.VIDEOS, ResourceType.SOUNDS, ResourceType.APK);
+
+	private final Path zipFile;
+	private final Path rootDir;
+	private final Map<String, ZipEntryData> entries = new ConcurrentSkipListMap<>();
+	private final Queue<Deflater> deflatersPool = new ConcurrentLinkedQueue<>();
+	private final AtomicLong dataSize = new AtomicLong();
+	private final AtomicLong compressedSize = new AtomicLong();
+
+	private final Object spillLock = new Object();
+	private Path spillFile;
+	private FileChannel spill;
+	private long spillSize;
+
+	private volatile boolean closed;
+
+	public ZipFilesWriter(File zipFile, File rootDir) {
+		this.zipFile = zipFile.toPath().toAbsolutePath();
+		this.rootDir = rootDir.toPath().toAbsolutePath().normalize();
+	}
+
+	@Override
+	public void write(File file, byte[] data) {
+		if (closed) {
+			throw new IllegalStateException("Zip writer already closed");
+		}
+		String entryName = getEntryName(FileUtils.cutFileName(file));
+		CRC32 crc = new CRC32();
+		crc.update(data);
+		int method = METHOD_STORED;
+		byte[] content = data;
+		if (!COMPRESSED_TYPES.contains(ResourceType.getFileType(entryName))) {
+			byte[] compressed = compress(data);
+			if (compressed.length < data.length) {
+				method = METHOD_DEFLATED;
+				content = compressed;
+			}
+		}
+		long offset = appendToSpill(content);
+		ZipEntryData entry = new ZipEntryData(method, offset, content.length, data.length, crc.getValue());
+		if (entries.put(entryName, entry) != null) {
+			LOG.debug("Zip entry replaced: {}", entryName);
+		}
+		dataSize.addAndGet(data.length);
+		compressedSize.addAndGet(content.length);
+	}
+
+	/**
+	 * Append entry content to spill file
+	 *
+	 * @return content offset in spill file
+	 */
+	private long appendToSpill(byte[] content) {
+		synchronized (spillLock) {
+			try {
+				if (spill == null) {
+					FileUtils.makeDirsForFile(zipFile);
+					spillFile = Files.createTempFile(zipFile.getParent(), zipFile.getFileName().toString(), ".tmp");
+					spill = FileChannel.open(spillFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+				}
+				long offset = spillSize;
+				ByteBuffer buf = ByteBuffer.wrap(content);
+				long pos = offset;
+				while (buf.hasRemaining()) {
+					pos += spill.write(buf, pos);
+				}
+				spillSize = pos;
+				return offset;
+			} catch (IOException e) {
+				throw new JadxRuntimeException("Failed to write zip entry data into spill file: " + spillFile, e);
+			}
+		}
+	}
+
+	private String getEntryName(File file) {
+		Path path = file.toPath().toAbsolutePath().normalize();
+		if (!path.startsWith(rootDir) || path.equals(rootDir)) {
+			throw new JadxRuntimeException("File not in output directory: " + file + ", dir: " + rootDir);
+		}
+		StringBuilder sb = new StringBuilder();
+		for (Path part : rootDir.relativize(path)) {
+			if (sb.length() != 0) {
+				sb.append('/');
+			}
+			sb.append(part);
+		}
+		return sb.toString();
+	}
+
+	private byte[] compress(byte[] data) {
+		Deflater deflater = deflatersPool.poll();
+		if (deflater == null) {
+			deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+		}
+		try {
+			deflater.setInput(data);
+			deflater.finish();
+			byte[] buf = new byte[Math.max(64, data.length / 2)];
+			int len = 0;
+			while (!deflater.finished()) {
+				if (len == buf.length) {
+					buf = Arrays.copyOf(buf, buf.length * 2);
+				}
+				len += deflater.deflate(buf, len, buf.length - len);
+			}
+			return Arrays.copyOf(buf, len);
+		} finally {
+			deflater.reset();
+			deflatersPool.add(deflater);
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			long start = System.currentTimeMillis();
+			FileUtils.makeDirsForFile(zipFile);
+			try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(zipFile), 64 * 1024)) {
+				synchronized (spillLock) {
+					writeArchive(out);
+				}
+			} catch (Exception e) {
+				deletePartialArchive();
+				throw e;
+			}
+			if (LOG.isDebugEnabled()) {
+				LOG.debug("Zip file {} written in {} ms, {}", zipFile, System.currentTimeMillis() - start, getStats());
+			}
+		} finally {
+			entries.clear();
+			Deflater deflater;
+			while ((deflater = deflatersPool.poll()) != null) {
+				deflater.end();
+			}
+			closeSpill();
+		}
+	}
+
+	private void deletePartialArchive() {
+		try {
+			Files.deleteIfExists(zipFile);
+		} catch (IOException e) {
+			LOG.warn("Failed to delete partially written zip file: {}", zipFile, e);
+		}
+	}
+
+	private void closeSpill() {
+		synchronized (spillLock) {
+			FileUtils.close(spill);
+			spill = null;
+			if (spillFile != null) {
+				try {
+					Files.deleteIfExists(spillFile);
+				} catch (IOException e) {
+					LOG.warn("Failed to delete zip spill file: {}", spillFile, e);
+				}
+			}
+		}
+	}
+
+	private void writeArchive(OutputStream out) throws IOException {
+		ByteBuffer buf = ByteBuffer.allocate(128).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer copyBuf = ByteBuffer.allocate(64 * 1024);
+		int count = entries.size();
+		String[] names = new String[count];
+		byte[][] nameBytes = new byte[count][];
+		long[] offsets = new long[count];
+		long pos = 0;
+		int i = 0;
+		for (Map.Entry<String, ZipEntryData> mapEntry : entries.entrySet()) {
+			ZipEntryData entry = mapEntry.getValue();
+			byte[] name = mapEntry.getKey().getBytes(StandardCharsets.UTF_8);
+			names[i] = mapEntry.getKey();
+			nameBytes[i] = name;
+			offsets[i] = pos;
+			buf.clear();
+			buf.putInt(LOCAL_HEADER_SIG);
+			buf.putShort((short) VERSION);
+			buf.putShort((short) FLAG_UTF8);
+			buf.putShort((short) entry.getMethod());
+			buf.putShort((short) DOS_TIME);
+			buf.putShort((short) DOS_DATE);
+			buf.putInt((int) entry.getCrc());
+			buf.putInt(entry.getCompressedSize());
+			buf.putInt(entry.getSize());
+			buf.putShort((short) name.length);
+			buf.putShort((short) 0);
+			out.write(buf.array(), 0, buf.position());
+			out.write(name);
+			copyFromSpill(entry, copyBuf, out);
+			pos += buf.position() + name.length + entry.getCompressedSize();
+			i++;
+		}
+		long centralStart = pos;
+		for (int j = 0; j < count; j++) {
+			ZipEntryData entry = entries.get(names[j]);
+			byte[] name = nameBytes[j];
+			boolean zip64Offset = offsets[j] >= MAX_32;
+			int version = zip64Offset ? VERSION_ZIP64 : VERSION;
+			buf.clear();
+			buf.putInt(CENTRAL_HEADER_SIG);
+			buf.putShort((short) version); // made by
+			buf.putShort((short) version); // needed to extract
+			buf.putShort((short) FLAG_UTF8);
+			buf.putShort((short) entry.getMethod());
+			buf.putShort((short) DOS_TIME);
+			buf.putShort((short) DOS_DATE);
+			buf.putInt((int) entry.getCrc());
+			buf.putInt(entry.getCompressedSize());
+			buf.putInt(entry.getSize());
+			buf.putShort((short) name.length);
+			buf.putShort((short) (zip64Offset ? 12 : 0)); // extra length
+			buf.putShort((short) 0); // comment length
+			buf.putShort((short) 0); // disk number
+			buf.putShort((short) 0); // internal attributes
+			buf.putInt(0); // external attributes
+			buf.putInt((int) (zip64Offset ? MAX_32 : offsets[j]));
+			out.write(buf.array(), 0, buf.position());
+			out.write(name);
+			pos += buf.position() + name.length;
+			if (zip64Offset) {
+				buf.clear();
+				buf.putShort((short) ZIP64_EXTRA_ID);
+				buf.putShort((short) 8);
+				buf.putLong(offsets[j]);
+				out.write(buf.array(), 0, buf.position());
+				pos += buf.position();
+			}
+		}
+		long centralSize = pos - centralStart;
+		boolean zip64 = count >= MAX_16 || centralStart >= MAX_32 || centralSize >= MAX_32;
+		if (zip64) {
+			long zip64EndStart = pos;
+			buf.clear();
+			buf.putInt(ZIP64_END_SIG);
+			buf.putLong(44); // record size without first 12 bytes
+			buf.putShort((short) VERSION_ZIP64);
+			buf.putShort((short) VERSION_ZIP64);
+			buf.putInt(0); // disk number
+			buf.putInt(0); // central directory disk
+			buf.putLong(count);
+			buf.putLong(count);
+			buf.putLong(centralSize);
+			buf.putLong(centralStart);
+			buf.putInt(ZIP64_LOCATOR_SIG);
+			buf.putInt(0); // disk with zip64 end record
+			buf.putLong(zip64EndStart);
+			buf.putInt(1); // total disks
+			out.write(buf.array(), 0, buf.position());
+		}
+		buf.clear();
+		buf.putInt(END_SIG);
+		buf.putShort((short) 0); // disk number
+		buf.putShort((short) 0); // central directory disk
+		buf.putShort((short) Math.min(count, MAX_16));
+		buf.putShort((short) Math.min(count, MAX_16));
+		buf.putInt((int) Math.min(centralSize, MAX_32));
+		buf.putInt((int) Math.min(centralStart, MAX_32));
+		buf.putShort((short) 0); // comment length
+		out.write(buf.array(), 0, buf.position());
+	}
+
+	private void copyFromSpill(ZipEntryData entry, ByteBuffer copyBuf, OutputStream out) throws IOException {
+		long pos = entry.getOffset();
+		long end = pos + entry.getCompressedSize();
+		while (pos < end) {
+			copyBuf.clear();
+			copyBuf.limit((int) Math.min(copyBuf.capacity(), end - pos));
+			int read = spill.read(copyBuf, pos);
+			if (read == -1) {
+				throw new IOException("Unexpected end of zip spill file: " + spillFile);
+			}
+			out.write(copyBuf.array(), 0, read);
+			pos += read;
+		}
+	}
+
+	public String getStats() {
+		return "entries: " + entries.size()
+				+ ", data size: " + dataSize.get()
+				+ ", compressed size: " + compressedSize.get();
+	}
+
+	/**
+	 * Entry metadata, content stored in spill file
+	 */
+	private static final class ZipEntryData {
+		private final int method;
+		private final long offset;
+		private final int compressedSize;
+		private final int size;
+		private final long crc;
+
+		private ZipEntryData(int method, long offset, int compressedSize, int size, long crc) {
+			this.method = method;
+			this.offset = offset;
+			this.compressedSize = compressedSize;
+			this.size = size;
+			this.crc = crc;
+		}
+
+		public int getMethod() {
+			return method;
+		}
+
+		public long getOffset() {
+			return offset;
+		}
+
+		public int getCompressedSize() {
+			return compressedSize;
+		}
+
+		public int getSize() {
+			return size;
+		}
+
+		public long getCrc() {
+			return crc;
+		}
+	}
+}
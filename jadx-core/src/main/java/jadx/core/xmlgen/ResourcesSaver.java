@@ -5,6 +5,7 @@
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -16,6 +17,7 @@
 import jadx.core.utils.exceptions.JadxException;
 import jadx.core.utils.exceptions.JadxRuntimeException;
 import jadx.core.utils.files.FileUtils;
+import jadx.core.utils.files.IFilesWriter;
 
 public class ResourcesSaver implements Runnable {
 	private static final Logger LOG = LoggerFactory.getLogger(ResourcesSaver.class);
@@ -23,11 +25,17 @@ public class ResourcesSaver implements Runnable {
 	private final ResourceFile resourceFile;
 	private final File outDir;
 	private final IJadxSecurity security;
+	private final @Nullable IFilesWriter fileWriter;
 
 	public ResourcesSaver(JadxDecompiler decompiler, File outDir, ResourceFile resourceFile) {
+		this(decompiler, outDir, resourceFile, null);
+	}
+
+	public ResourcesSaver(JadxDecompiler decompiler, File outDir, ResourceFile resourceFile, @Nullable IFilesWriter fileWriter) {
 		this.resourceFile = resourceFile;
 		this.outDir = outDir;
 		this.security = decompiler.getArgs().getSecurity();
+		this.fileWriter = fileWriter;
 	}
 
 	@Override
@@ -63,6 +71,10 @@ private void save(ResContainer rc, File outDir) {
 	}
 
 	private void saveToFile(ResContainer rc, File outFile) {
+		if (fileWriter != null) {
+			writeToFileWriter(rc, outFile, fileWriter);
+			return;
+		}
 		switch (rc.getDataType()) {
 			case TEXT:
 			case RES_TABLE:
@@ -95,6 +107,34 @@ private void saveToFile(ResContainer rc, File outFile) {
 		}
 	}
 
+	private void writeToFileWriter(ResContainer rc, File outFile, IFilesWriter writer) {
+		try {
+			switch (rc.getDataType()) {
+				case TEXT:
+				case RES_TABLE:
+					writer.write(outFile, rc.getText().getCodeStr());
+					return;
+
+				case DECODED_DATA:
+					writer.write(outFile, rc.getDecodedData());
+					return;
+
+				case RES_LINK:
+					byte[] data = ResourcesLoader.decodeStream(rc.getResLink(), (size, is) -> is.readAllBytes());
+					if (data != null) {
+						writer.write(outFile, data);
+					}
+					return;
+
+				default:
+					LOG.warn("Resource '{}' not saved, unknown type", rc.getName());
+					break;
+			}
+		} catch (Exception e) {
+			LOG.warn("Resource '{}' not saved, got exception", rc.getName(), e);
+		}
+	}
+
 	private void saveResourceFile(ResourceFile resFile, File outFile) throws JadxException {
 		ResourcesLoader.decodeStream(resFile, (size, is) -> {
 			Path target = outFile.toPath();
@@ -4,12 +4,32 @@
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import jadx.api.args.DecompileSchedulerType;
+import jadx.api.args.PassesProfileFormat;
+import jadx.api.impl.NoOpCodeCache;
+import jadx.core.codegen.InsnGen;
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.dex.visitors.ModVisitor;
+import jadx.core.utils.ClassUnloadGovernor;
+import jadx.core.utils.DepsGraphScheduler;
+import jadx.core.utils.PassesProfiler;
+import jadx.core.utils.cache.IncrementalCodeCache;
 import jadx.core.xmlgen.ResContainer;
 import jadx.plugins.input.dex.DexInputPlugin;
 
@@ -44,6 +64,327 @@ public void testExampleUsage() {
 		}
 	}
 
+	@Test
+	public void testDepsGraphScheduler() {
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().add(getFileFromSampleDir("app-with-fake-dex.apk"));
+		args.setOutDir(testDir);
+		args.setSkipResources(true);
+		args.setDecompileSchedulerType(DecompileSchedulerType.DEPS_GRAPH);
+
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			jadx.save();
+
+			assertThat(jadx.getDecompileScheduler()).isInstanceOf(DepsGraphScheduler.class);
+			DepsGraphScheduler.Stats stats = ((DepsGraphScheduler) jadx.getDecompileScheduler()).getLastStats();
+			assertThat(stats).isNotNull();
+			assertThat(stats.getClassesCount()).isEqualTo(3);
+			assertThat(stats.getCriticalPathLength()).isBetween(1, 3);
+			assertThat(jadx.getErrorsCount()).isEqualTo(0);
+		}
+	}
+
+	@Test
+	public void testPassesProfiler() throws IOException {
+		File profileFile = new File(testDir, "profile.txt");
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().add(getFileFromSampleDir("app-with-fake-dex.apk"));
+		args.setOutDir(testDir);
+		args.setSkipResources(true);
+		args.setPassesProfileFile(profileFile);
+		args.setPassesProfileFormat(PassesProfileFormat.COLLAPSED);
+
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			jadx.save();
+
+			PassesProfiler profiler = jadx.getRoot().getPassesProfiler();
+			assertThat(profiler).isNotNull();
+			assertThat(profiler.sortedPasses())
+					.extracting(PassesProfiler.PassProfile::getName)
+					.contains("TypeInferenceVisitor", "RegionMakerVisitor");
+			// nested passes calls excluded from outer, so values can't be negative
+			assertThat(profiler.sortedPasses())
+					.allMatch(p -> p.getTotal().getWallTimeNanos() >= 0 && p.getTotal().getCpuTimeNanos() >= 0);
+			assertThat(profileFile).exists();
+			assertThat(Files.readAllLines(profileFile.toPath()))
+					.allMatch(line -> line.matches("[^ ]+(;[^ ]+){1,2} \\d+"));
+		}
+	}
+
+	@Test
+	public void testIncrementalCache() throws IOException {
+		File cacheDir = new File(testDir, "cache");
+		File firstOut = new File(testDir, "first");
+		File secondOut = new File(testDir, "second");
+		int firstRunClasses = saveWithIncrementalCache(cacheDir, firstOut, 0);
+		assertThat(firstRunClasses).isGreaterThan(0);
+		assertThat(new File(cacheDir, "store")).exists();
+		assertThat(new File(cacheDir, "store.tmp")).doesNotExist();
+
+		saveWithIncrementalCache(cacheDir, secondOut, firstRunClasses);
+		List<Path> firstFiles;
+		try (Stream<Path> stream = Files.walk(firstOut.toPath())) {
+			firstFiles = stream.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+		assertThat(firstFiles).isNotEmpty();
+		for (Path file : firstFiles) {
+			Path secondFile = secondOut.toPath().resolve(firstOut.toPath().relativize(file));
+			assertThat(secondFile).hasSameTextualContentAs(file);
+		}
+	}
+
+	public static class IncConstUser {
+		public int test() {
+			return IncConstHolder.VALUE;
+		}
+	}
+
+	public static class IncConstHolder {
+		public static final int VALUE = 0x12345;
+	}
+
+	public static class IncConstOtherHolder {
+		public static final int VALUE = 0x54321;
+	}
+
+	@Test
+	public void testIncrementalCacheConstChange() throws IOException {
+		List<File> files = copyClassFiles(IncConstUser.class, IncConstHolder.class, IncConstOtherHolder.class);
+		File cacheDir = new File(testDir, "cache");
+		// constant inlined by compiler, so user class don't depend on holder class
+		saveWithIncrementalCache(Arrays.asList(files.get(0), files.get(1)), cacheDir, new File(testDir, "first"), 0);
+		// constant value changed, user class not changed, but can't be taken from cache
+		saveWithIncrementalCache(Arrays.asList(files.get(0), files.get(2)), cacheDir, new File(testDir, "second"), 0);
+	}
+
+	private int saveWithIncrementalCache(File cacheDir, File outDir, int expectedHits) {
+		List<File> inputs = Collections.singletonList(getFileFromSampleDir("app-with-fake-dex.apk"));
+		return saveWithIncrementalCache(inputs, cacheDir, outDir, expectedHits);
+	}
+
+	private int saveWithIncrementalCache(List<File> inputs, File cacheDir, File outDir, int expectedHits) {
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().addAll(inputs);
+		args.setOutDir(outDir);
+		args.setSkipResources(true);
+		args.setIncrementalCacheDir(cacheDir);
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			jadx.save();
+			IncrementalCodeCache cache = jadx.getIncrementalCache();
+			assertThat(cache).isNotNull();
+			assertThat(cache.getHits()).isEqualTo(expectedHits);
+			assertThat(cache.getErrors()).isZero();
+			return cache.getHits() + cache.getMisses();
+		}
+	}
+
+	@Test
+	public void testFilesWriterError() throws IOException {
+		// regular file instead of package directory, so classes can't be written
+		File outDir = new File(testDir, "out");
+		Files.createDirectories(outDir.toPath().resolve("sources"));
+		Files.write(outDir.toPath().resolve("sources/com"), new byte[0]);
+		File cacheDir = new File(testDir, "cache");
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().add(getFileFromSampleDir("app-with-fake-dex.apk"));
+		args.setOutDir(outDir);
+		args.setSkipResources(true);
+		args.setSaveThreadsCount(2);
+		args.setIncrementalCacheDir(cacheDir);
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			jadx.save();
+			assertThat(jadx.getErrorsCount()).isGreaterThan(0);
+			assertThat(jadx.getRoot().getErrorsCounter().getGeneralErrors()).containsExactly("Failed to finish files write");
+			// cache not committed, so classes will be saved again in next run
+			assertThat(new File(cacheDir, "store")).doesNotExist();
+		}
+	}
+
+	@Test
+	public void testClassUnloadGovernor() throws IOException {
+		// classes depend on each other, so already generated classes processed again as dependencies
+		List<File> files = copyClassFiles(InsnGen.class, ModVisitor.class, RootNode.class, ArgType.class);
+		List<String> expectedCode = decompileAll(files, 0);
+		List<String> code = decompileAll(files, 1);
+		assertThat(code).isEqualTo(expectedCode);
+	}
+
+	private List<String> decompileAll(List<File> files, int unloadThreshold) {
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().addAll(files);
+		args.setSkipResources(true);
+		args.setCodeCache(NoOpCodeCache.INSTANCE);
+		args.setUnloadMemoryThreshold(unloadThreshold);
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			ClassUnloadGovernor governor = jadx.getRoot().getClassUnloadGovernor();
+			if (unloadThreshold == 0) {
+				assertThat(governor).isNull();
+			} else {
+				assertThat(governor).isNotNull();
+				// unload on every check, real heap usage depends on GC
+				governor.setMemoryPressureCheck(() -> true);
+			}
+			List<String> codeList = new ArrayList<>();
+			for (JavaClass cls : jadx.getClasses()) {
+				codeList.add(cls.getCode());
+				codeList.add(cls.getCode());
+			}
+			if (governor != null) {
+				assertThat(governor.getUnloadsCount()).isGreaterThan(0);
+				assertThat(governor.getReloadsCount()).isGreaterThan(0);
+			}
+			assertThat(jadx.getErrorsCount()).isEqualTo(0);
+			return codeList;
+		}
+	}
+
+	@Test
+	public void testLazyLoad() {
+		String clsName = "com.github.skylot.simple.MainActivity";
+		List<String> fullLoad = decompileFiltered(clsName, false);
+		List<String> lazyLoad = decompileFiltered(clsName, true);
+		assertThat(lazyLoad).isEqualTo(fullLoad).hasSize(1);
+	}
+
+	private List<String> decompileFiltered(String clsName, boolean lazyLoad) {
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().add(getFileFromSampleDir("app-with-fake-dex.apk"));
+		args.setSkipResources(true);
+		args.setClassFilter(clsName::equals);
+		args.setLazyLoad(lazyLoad);
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			boolean buildConfigLoaded = jadx.getRoot().resolveClass("com.github.skylot.simple.BuildConfig") != null;
+			assertThat(buildConfigLoaded).isEqualTo(!lazyLoad);
+			List<String> codeList = new ArrayList<>();
+			for (JavaClass cls : jadx.getClasses()) {
+				if (cls.getFullName().equals(clsName)) {
+					codeList.add(cls.getCode());
+				}
+			}
+			return codeList;
+		}
+	}
+
+	@SuppressWarnings("unused")
+	public static class LazySample {
+		private List<LazyGenericArg> list;
+
+		@LazyAnnotation(value = LazyAnnotationValue.class, mode = LazyEnum.SECOND)
+		public void test() {
+			try {
+				list.clear();
+			} catch (LazyException e) {
+				System.out.println(e.getMessage());
+			}
+		}
+	}
+
+	public static class LazyGenericArg {
+	}
+
+	public static class LazyException extends RuntimeException {
+		private static final long serialVersionUID = 1L;
+	}
+
+	@Retention(RetentionPolicy.RUNTIME)
+	public @interface LazyAnnotation {
+		Class<?> value();
+
+		LazyEnum mode() default LazyEnum.FIRST;
+	}
+
+	public static class LazyAnnotationValue {
+	}
+
+	public enum LazyEnum {
+		FIRST, SECOND
+	}
+
+	public static class LazyUnused {
+	}
+
+	@Test
+	public void testLazyLoadDeps() throws IOException {
+		List<File> files = copyClassFiles(LazySample.class, LazyGenericArg.class, LazyException.class,
+				LazyAnnotation.class, LazyAnnotationValue.class, LazyEnum.class, LazyUnused.class);
+		String clsName = LazySample.class.getName();
+		List<String> fullLoad = decompileClassFiles(files, clsName, false);
+		List<String> lazyLoad = decompileClassFiles(files, clsName, true);
+		assertThat(lazyLoad).isEqualTo(fullLoad).hasSize(1);
+	}
+
+	private List<String> decompileClassFiles(List<File> files, String clsName, boolean lazyLoad) {
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().addAll(files);
+		args.setSkipResources(true);
+		args.setClassFilter(clsName::equals);
+		args.setLazyLoad(lazyLoad);
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			RootNode root = jadx.getRoot();
+			// generic type argument, catch type, annotation class and annotation values
+			for (Class<?> depCls : Arrays.asList(LazyGenericArg.class, LazyException.class,
+					LazyAnnotation.class, LazyAnnotationValue.class, LazyEnum.class)) {
+				assertThat(root.resolveClass(depCls.getName())).as(depCls.getName()).isNotNull();
+			}
+			assertThat(root.resolveClass(LazyUnused.class.getName()) != null).isEqualTo(!lazyLoad);
+			List<String> codeList = new ArrayList<>();
+			for (JavaClass cls : jadx.getClasses()) {
+				if (cls.getRawName().equals(clsName)) {
+					codeList.add(cls.getCode());
+				}
+			}
+			return codeList;
+		}
+	}
+
+	private List<File> copyClassFiles(Class<?>... classes) throws IOException {
+		List<File> files = new ArrayList<>();
+		for (Class<?> cls : classes) {
+			String clsFile = cls.getName().replace('.', '/') + ".class";
+			Path file = testDir.toPath().resolve(clsFile);
+			Files.createDirectories(file.getParent());
+			try (InputStream in = JadxDecompilerTest.class.getClassLoader().getResourceAsStream(clsFile)) {
+				assertThat(in).isNotNull();
+				Files.copy(in, file);
+			}
+			files.add(file.toFile());
+		}
+		return files;
+	}
+
+	@Test
+	public void testParallelMethodsProcessing() throws IOException {
+		// big classes with many methods to use methods pool
+		List<File> files = copyClassFiles(InsnGen.class, ModVisitor.class, RootNode.class, ArgType.class);
+		List<String> expectedCode = decompileMethods(files, false);
+		List<String> code = decompileMethods(files, true);
+		assertThat(code).isEqualTo(expectedCode).hasSizeGreaterThanOrEqualTo(files.size());
+	}
+
+	private List<String> decompileMethods(List<File> files, boolean parallelMethods) {
+		JadxArgs args = new JadxArgs();
+		args.getInputFiles().addAll(files);
+		args.setThreadsCount(4);
+		args.setSkipResources(true);
+		args.setCodeCache(NoOpCodeCache.INSTANCE);
+		args.setParallelMethodsProcessing(parallelMethods);
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			List<String> codeList = new ArrayList<>();
+			for (JavaClass cls : jadx.getClasses()) {
+				codeList.add(cls.getCode());
+			}
+			return codeList;
+		}
+	}
+
 	@Test
 	public void testDirectDexInput() throws IOException {
 		try (JadxDecompiler jadx = new JadxDecompiler();
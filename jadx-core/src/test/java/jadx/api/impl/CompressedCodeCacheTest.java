@@ -0,0 +1,127 @@
+package jadx.api.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.api.ICodeInfo;
+import jadx.api.metadata.ICodeAnnotation;
+import jadx.api.metadata.annotations.InsnCodeOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompressedCodeCacheTest {
+
+	@Test
+	public void testAddGet() {
+		CompressedCodeCache cache = new CompressedCodeCache(1024 * 1024, 2);
+		Map<Integer, ICodeAnnotation> annotations = new HashMap<>();
+		InsnCodeOffset ann = new InsnCodeOffset(7);
+		annotations.put(5, ann);
+		Map<Integer, Integer> lines = new HashMap<>();
+		lines.put(1, 10);
+		String code = "class A {\n    // юникод\n}\n";
+		cache.add("A", new AnnotatedCodeInfo(code, lines, annotations));
+		cache.add("B", new SimpleCodeInfo("class B {}"));
+		cache.add("C", new SimpleCodeInfo("class C {}"));
+
+		assertThat(cache.contains("A")).isTrue();
+		assertThat(cache.contains("D")).isFalse();
+		assertThat(cache.getEntriesCount()).isEqualTo(3);
+
+		// 'A' already pushed out of front cache, decoded from storage
+		ICodeInfo codeInfo = cache.get("A");
+		assertThat(codeInfo.getCodeStr()).isEqualTo(code);
+		assertThat(codeInfo.getCodeMetadata().getAt(5)).isSameAs(ann);
+		assertThat(codeInfo.getCodeMetadata().getLineMapping()).containsEntry(1, 10);
+		assertThat(cache.getStorageHits()).isEqualTo(1);
+
+		assertThat(cache.get("A")).isSameAs(codeInfo);
+		assertThat(cache.getFrontHits()).isEqualTo(1);
+
+		assertThat(cache.getCode("B")).isEqualTo("class B {}");
+		assertThat(cache.get("B").hasMetadata()).isFalse();
+
+		assertThat(cache.get("D")).isSameAs(ICodeInfo.EMPTY);
+		assertThat(cache.getCode("D")).isNull();
+		assertThat(cache.getMisses()).isEqualTo(2);
+
+		cache.remove("A");
+		assertThat(cache.contains("A")).isFalse();
+		assertThat(cache.get("A")).isSameAs(ICodeInfo.EMPTY);
+
+		cache.close();
+		assertThat(cache.getEntriesCount()).isZero();
+		assertThat(cache.getAllocatedSize()).isZero();
+	}
+
+	@Test
+	public void testReplace() {
+		CompressedCodeCache cache = new CompressedCodeCache(1024 * 1024, 0);
+		cache.add("A", new SimpleCodeInfo("first"));
+		cache.add("A", new SimpleCodeInfo("second version"));
+		assertThat(cache.getCode("A")).isEqualTo("second version");
+		assertThat(cache.getEntriesCount()).isEqualTo(1);
+		assertThat(cache.getRawSize()).isEqualTo("second version".length());
+	}
+
+	@Test
+	public void testEviction() {
+		long limit = 256 * 1024;
+		CompressedCodeCache cache = new CompressedCodeCache(limit, 0);
+		Random rnd = new Random(1);
+		int count = 200;
+		String[] codes = new String[count];
+		for (int i = 0; i < count; i++) {
+			// random data to make compression ineffective
+			StringBuilder sb = new StringBuilder();
+			for (int j = 0; j < 4000; j++) {
+				sb.append((char) ('a' + rnd.nextInt(26)));
+			}
+			codes[i] = sb.toString();
+			cache.add("C" + i, new SimpleCodeInfo(codes[i]));
+			// keep first class used
+			assertThat(cache.getCode("C0")).isEqualTo(codes[0]);
+			cache.get("C0");
+		}
+		assertThat(cache.getAllocatedSize()).isLessThanOrEqualTo(limit);
+		assertThat(cache.getEvictions()).isPositive();
+		assertThat(cache.getEntriesCount()).isLessThan(count);
+
+		assertThat(cache.contains("C0")).isTrue();
+		assertThat(cache.contains("C1")).isFalse();
+		assertThat(cache.getCode("C1")).isNull();
+		String lastName = "C" + (count - 1);
+		assertThat(cache.getCode(lastName)).isEqualTo(codes[count - 1]);
+	}
+
+	@Test
+	public void testConcurrentGetAndRemove() throws InterruptedException {
+		CompressedCodeCache cache = new CompressedCodeCache(1024 * 1024, 4);
+		for (int i = 0; i < 2000; i++) {
+			cache.add("A", new SimpleCodeInfo("class A" + i));
+			cache.add("B", new SimpleCodeInfo("class B"));
+			cache.add("C", new SimpleCodeInfo("class C"));
+			cache.add("D", new SimpleCodeInfo("class D"));
+			cache.add("E", new SimpleCodeInfo("class E")); // push 'A' out of front cache
+			CountDownLatch start = new CountDownLatch(1);
+			Thread reader = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				cache.get("A");
+			});
+			reader.start();
+			start.countDown();
+			cache.remove("A");
+			reader.join();
+			// decoded value of removed entry should not stay in front cache
+			assertThat(cache.get("A")).isSameAs(ICodeInfo.EMPTY);
+		}
+	}
+}
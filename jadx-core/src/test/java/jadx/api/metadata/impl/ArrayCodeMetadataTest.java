@@ -0,0 +1,107 @@
+package jadx.api.metadata.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+
+import jadx.api.metadata.ICodeAnnotation;
+import jadx.api.metadata.ICodeAnnotation.AnnType;
+import jadx.api.metadata.ICodeMetadata;
+import jadx.api.metadata.annotations.InsnCodeOffset;
+import jadx.api.metadata.annotations.NodeEnd;
+import jadx.api.metadata.annotations.VarRef;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArrayCodeMetadataTest {
+
+	@Test
+	public void testEmpty() {
+		assertThat(ArrayCodeMetadata.build(new HashMap<>(), new HashMap<>())).isSameAs(ICodeMetadata.EMPTY);
+		assertThat(ICodeMetadata.EMPTY.getAt(0)).isNull();
+		assertThat(ICodeMetadata.EMPTY.getClosestUp(10)).isNull();
+		assertThat(ICodeMetadata.EMPTY.getAsMap()).isEmpty();
+		assertThat(ICodeMetadata.EMPTY.getLineMapping()).isEmpty();
+	}
+
+	@Test
+	public void testMaps() {
+		Map<Integer, ICodeAnnotation> annotations = new HashMap<>();
+		annotations.put(30, NodeEnd.VALUE);
+		annotations.put(10, new InsnCodeOffset(1));
+		annotations.put(20, new InsnCodeOffset(2));
+		Map<Integer, Integer> lines = new HashMap<>();
+		lines.put(3, 100);
+		lines.put(1, 50);
+		ICodeMetadata metadata = ArrayCodeMetadata.build(lines, annotations);
+
+		assertThat(metadata.getAsMap()).isEqualTo(annotations);
+		assertThat(new ArrayList<>(metadata.getAsMap().keySet())).containsExactly(30, 20, 10);
+		assertThat(metadata.getLineMapping()).isEqualTo(lines);
+		assertThat(metadata.getLineMapping().toString()).isEqualTo("{1=50, 3=100}");
+		assertThat(metadata.getLineMapping().get(3)).isEqualTo(100);
+		assertThat(metadata.getLineMapping().get(2)).isNull();
+		assertThatThrownBy(() -> metadata.getAsMap().values().removeIf(v -> true))
+				.isInstanceOf(UnsupportedOperationException.class);
+	}
+
+	@Test
+	public void testSameAsTreeMapStorage() {
+		Random rnd = new Random(42);
+		for (int k = 0; k < 20; k++) {
+			Map<Integer, ICodeAnnotation> annotations = new HashMap<>();
+			Map<Integer, Integer> lines = new TreeMap<>();
+			int codeLen = 1000;
+			for (int i = 0; i < 100; i++) {
+				annotations.put(rnd.nextInt(codeLen), makeAnnotation(rnd));
+				lines.put(rnd.nextInt(100), rnd.nextInt(1000));
+			}
+			ICodeMetadata expected = CodeMetadataStorage.build(lines, annotations);
+			ICodeMetadata actual = ArrayCodeMetadata.build(lines, annotations);
+
+			assertThat(new ArrayList<>(actual.getAsMap().entrySet()))
+					.isEqualTo(new ArrayList<>(expected.getAsMap().entrySet()));
+			assertThat(actual.getLineMapping()).isEqualTo(expected.getLineMapping());
+			for (int pos = -1; pos <= codeLen + 1; pos++) {
+				assertThat(actual.getAt(pos)).isSameAs(expected.getAt(pos));
+				assertThat(actual.getClosestUp(pos)).isSameAs(expected.getClosestUp(pos));
+				for (AnnType annType : AnnType.values()) {
+					assertThat(actual.searchUp(pos, annType)).isSameAs(expected.searchUp(pos, annType));
+					int limit = Math.max(0, pos - 50);
+					assertThat(actual.searchUp(pos, limit, annType)).isSameAs(expected.searchUp(pos, limit, annType));
+				}
+				assertThat(collectUp(actual, pos)).isEqualTo(collectUp(expected, pos));
+				assertThat(collectDown(actual, pos)).isEqualTo(collectDown(expected, pos));
+			}
+		}
+	}
+
+	private static ICodeAnnotation makeAnnotation(Random rnd) {
+		switch (rnd.nextInt(3)) {
+			case 0:
+				return NodeEnd.VALUE;
+			case 1:
+				return VarRef.fromPos(1 + rnd.nextInt(100));
+			default:
+				return new InsnCodeOffset(rnd.nextInt(100));
+		}
+	}
+
+	private static List<Integer> collectUp(ICodeMetadata metadata, int pos) {
+		List<Integer> list = new ArrayList<>();
+		metadata.searchUp(pos, (p, ann) -> list.add(p) && list.size() >= 5 ? p : null);
+		return list;
+	}
+
+	private static List<Integer> collectDown(ICodeMetadata metadata, int pos) {
+		List<Integer> list = new ArrayList<>();
+		metadata.searchDown(pos, (p, ann) -> list.add(p) && list.size() >= 5 ? p : null);
+		return list;
+	}
+}
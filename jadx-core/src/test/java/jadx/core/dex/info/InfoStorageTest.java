@@ -0,0 +1,79 @@
+package jadx.core.dex.info;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jadx.api.JadxArgs;
+import jadx.core.dex.instructions.args.ArgType;
+import jadx.core.dex.nodes.RootNode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InfoStorageTest {
+	private RootNode root;
+
+	@BeforeEach
+	public void init() {
+		root = new RootNode(new JadxArgs());
+	}
+
+	@Test
+	public void methodsByUniqId() {
+		InfoStorage storage = root.getInfoStorage();
+		ClassInfo cls = ClassInfo.fromName(root, "a.b.C");
+		MethodInfo mth = MethodInfo.fromDetails(root, cls, "m", Collections.emptyList(), ArgType.VOID);
+		int[] ids = { 0x00010000, 0x0001FFFF, 0x7FFF0001, 0xFFFF0001, 0xFFFFFFFF };
+		for (int id : ids) {
+			assertThat(storage.getByUniqId(id)).isNull();
+			storage.putByUniqId(id, mth);
+			assertThat(storage.getByUniqId(id)).isSameAs(mth);
+		}
+		assertThat(storage.getByUniqId(0x00010001)).isNull();
+	}
+
+	@Test
+	public void concurrentInterning() throws Exception {
+		int threads = 8;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			CountDownLatch startLatch = new CountDownLatch(1);
+			List<Future<List<Object>>> results = new ArrayList<>();
+			for (int t = 0; t < threads; t++) {
+				results.add(executor.submit(() -> {
+					startLatch.await();
+					List<Object> list = new ArrayList<>();
+					for (int i = 0; i < 500; i++) {
+						ClassInfo cls = ClassInfo.fromName(root, "pkg" + i % 10 + ".Cls" + i);
+						list.add(cls);
+						list.add(MethodInfo.fromDetails(root, cls, "m", Collections.emptyList(), ArgType.INT));
+						list.add(FieldInfo.from(root, cls, "f", ArgType.INT));
+						list.add(PackageInfo.fromFullPkg(root, "pkg" + i % 10 + ".sub"));
+					}
+					return list;
+				}));
+			}
+			startLatch.countDown();
+			List<Object> first = results.get(0).get();
+			for (Future<List<Object>> result : results) {
+				List<Object> list = result.get();
+				assertThat(list).hasSameSizeAs(first);
+				for (int i = 0; i < list.size(); i++) {
+					assertThat(list.get(i)).isSameAs(first.get(i));
+				}
+			}
+			// only packages repeated
+			assertThat(new HashSet<>(first)).hasSize(first.size() - 490);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package jadx.core.dex.instructions.args;
 
+import java.lang.ref.WeakReference;
+
 import org.junit.jupiter.api.Test;
 
 import static jadx.core.dex.instructions.args.ArgType.WildcardBound.SUPER;
@@ -40,4 +42,34 @@ void testInnerGeneric() {
 		assertThat(genericInner2.toString()).isEqualTo("java.util.Map<K, V>$Entry");
 		assertThat(genericInner2.containsTypeVariable()).isTrue();
 	}
+
+	@Test
+	void testInterning() {
+		assertThat(ArgType.object("Lpkg/Cls;")).isSameAs(ArgType.object("pkg.Cls"));
+		assertThat(ArgType.parse("Ljava/lang/Object;")).isSameAs(ArgType.OBJECT);
+		assertThat(ArgType.parse("[[Lpkg/Cls;")).isSameAs(ArgType.array(ArgType.object("pkg.Cls"), 2));
+		assertThat(ArgType.parse("[I")).isSameAs(ArgType.array(ArgType.INT));
+		assertThat(generic("java.util.List", ArgType.STRING)).isSameAs(generic("Ljava/util/List;", ArgType.STRING));
+		assertThat(ArgType.object("pkg.Cls")).isNotEqualTo(ArgType.object("pkg.Cls2"));
+
+		// type variables are mutable, so not interned
+		ArgType withTypeVar = generic("java.util.List", genericType("T"));
+		assertThat(withTypeVar).isNotSameAs(generic("java.util.List", genericType("T")));
+		assertThat(withTypeVar).isEqualTo(generic("java.util.List", genericType("T")));
+	}
+
+	@Test
+	void testInternedTypesReleased() {
+		WeakReference<ArgType> typeRef = new WeakReference<>(ArgType.object("pkg.TmpInternCls"));
+		WeakReference<ArgType> genericRef = new WeakReference<>(generic("pkg.TmpGeneric", ArgType.STRING));
+		for (int i = 0; i < 50 && (typeRef.get() != null || genericRef.get() != null); i++) {
+			System.gc();
+		}
+		assertThat(typeRef.get()).isNull();
+		assertThat(genericRef.get()).isNull();
+
+		// new canonical instances created after release
+		assertThat(ArgType.object("Lpkg/TmpInternCls;")).isSameAs(ArgType.object("pkg.TmpInternCls"));
+		assertThat(generic("pkg.TmpGeneric", ArgType.STRING)).isSameAs(generic("Lpkg/TmpGeneric;", ArgType.STRING));
+	}
 }
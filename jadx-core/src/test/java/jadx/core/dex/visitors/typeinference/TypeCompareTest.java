@@ -187,6 +187,27 @@ public void compareOuterGenerics() {
 		check(firstInstance, secondInstance, TypeCompareEnum.NARROW);
 	}
 
+	@Test
+	public void compareCache() {
+		ArgType npeType = object("java.lang.NullPointerException");
+		TypeCompareCache cache = compare.getCache();
+		long misses = cache.getMisses();
+		check(npeType, THROWABLE, TypeCompareEnum.NARROW);
+		assertThat(cache.getMisses()).isEqualTo(misses + 2);
+		long hits = cache.getHits();
+		check(npeType, THROWABLE, TypeCompareEnum.NARROW);
+		assertThat(cache.getHits()).isEqualTo(hits + 2);
+
+		// types with variables not cached
+		ArgType typeVar = genericType("T", EXCEPTION);
+		check(THROWABLE, typeVar, TypeCompareEnum.WIDER);
+		assertThat(cache.getHits()).isEqualTo(hits + 2);
+
+		compare.resetCache();
+		assertThat(cache.getSize()).isZero();
+		check(npeType, THROWABLE, TypeCompareEnum.NARROW);
+	}
+
 	private void firstIsNarrow(ArgType first, ArgType second) {
 		check(first, second, TypeCompareEnum.NARROW);
 	}
@@ -0,0 +1,42 @@
+package jadx.core.dex.visitors.usage;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IdSetTest {
+
+	@Test
+	public void sortedUnique() {
+		IdSet set = new IdSet();
+		assertThat(set.isEmpty()).isTrue();
+		assertThat(set.toSortedArray()).isEmpty();
+		set.add(5);
+		set.add(1);
+		set.add(5);
+		set.add(3);
+		set.add(1);
+		assertThat(set.toSortedArray()).containsExactly(1, 3, 5);
+		assertThat(set.size()).isEqualTo(3);
+	}
+
+	@Test
+	public void randomWithMerge() {
+		Random rnd = new Random(42);
+		TreeSet<Integer> expected = new TreeSet<>();
+		IdSet set = new IdSet();
+		for (int s = 0; s < 10; s++) {
+			IdSet shard = new IdSet();
+			for (int i = 0; i < 1000; i++) {
+				int id = rnd.nextInt(300);
+				shard.add(id);
+				expected.add(id);
+			}
+			set.addAll(shard);
+		}
+		assertThat(set.toSortedArray()).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+	}
+}
@@ -0,0 +1,53 @@
+package jadx.core.utils.cache;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jadx.core.utils.exceptions.JadxRuntimeException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IncrementalCodeCacheTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testDirLock() throws Exception {
+		IncrementalCodeCache cache = new IncrementalCodeCache(tempDir, "v1");
+		try {
+			assertThatThrownBy(() -> new IncrementalCodeCache(tempDir, "v1"))
+					.isInstanceOf(JadxRuntimeException.class)
+					.hasMessageContaining("already in use");
+		} finally {
+			cache.close();
+		}
+		new IncrementalCodeCache(tempDir, "v1").close();
+	}
+
+	@Test
+	public void testAbortKeepsPrevStore() throws Exception {
+		Path storeFile = tempDir.resolve("store");
+		new IncrementalCodeCache(tempDir, "v1").commit();
+		assertThat(storeFile).exists();
+		byte[] committed = Files.readAllBytes(storeFile);
+
+		// closed without commit (save failed or cancelled)
+		new IncrementalCodeCache(tempDir, "v1").close();
+		assertThat(storeFile).hasBinaryContent(committed);
+		assertThat(tempDir.resolve("store.tmp")).doesNotExist();
+	}
+
+	@Test
+	public void testBrokenStore() throws Exception {
+		Files.write(tempDir.resolve("store"), new byte[] { 1, 2, 3 });
+		IncrementalCodeCache cache = new IncrementalCodeCache(tempDir, "v1");
+		cache.commit();
+		assertThat(cache.getErrors()).isZero();
+		assertThat(Files.size(tempDir.resolve("store"))).isGreaterThan(3);
+	}
+}
@@ -0,0 +1,68 @@
+package jadx.core.utils.files;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncFileWriterTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testWrite() throws Exception {
+		int count = 2000;
+		try (AsyncFileWriter writer = new AsyncFileWriter(3)) {
+			for (int i = 0; i < count; i++) {
+				File file = tempDir.resolve("pkg" + i % 7).resolve("sub" + i % 3).resolve("Cls" + i + ".java").toFile();
+				writer.write(file, "class Cls" + i + " {}");
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			Path file = tempDir.resolve("pkg" + i % 7).resolve("sub" + i % 3).resolve("Cls" + i + ".java");
+			String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+			assertThat(content).isEqualTo("class Cls" + i + " {}" + System.lineSeparator());
+		}
+	}
+
+	@Test
+	public void testOverwrite() throws Exception {
+		File file = tempDir.resolve("a.txt").toFile();
+		try (AsyncFileWriter writer = new AsyncFileWriter(1)) {
+			writer.write(file, "long content");
+		}
+		try (AsyncFileWriter writer = new AsyncFileWriter(1)) {
+			writer.write(file, "short");
+		}
+		assertThat(Files.readString(file.toPath())).isEqualTo("short" + System.lineSeparator());
+	}
+
+	@Test
+	public void testWriteAfterClose() throws Exception {
+		AsyncFileWriter writer = new AsyncFileWriter(1);
+		writer.close();
+		assertThatThrownBy(() -> writer.write(tempDir.resolve("a.txt").toFile(), ""))
+				.isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	public void testWriteErrorOnClose() throws Exception {
+		// parent path is a file, so write will fail
+		Files.writeString(tempDir.resolve("file"), "");
+		AsyncFileWriter writer = new AsyncFileWriter(2);
+		writer.write(tempDir.resolve("file").resolve("a.txt").toFile(), "a");
+		writer.write(tempDir.resolve("b.txt").toFile(), "b");
+		assertThatThrownBy(writer::close)
+				.isInstanceOf(IOException.class)
+				.hasMessageContaining("Failed to write 1 files");
+		assertThat(Files.readString(tempDir.resolve("b.txt"))).isEqualTo("b" + System.lineSeparator());
+	}
+}
@@ -0,0 +1,137 @@
+package jadx.core.utils.files;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ZipFilesWriterTest {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testWrite() throws Exception {
+		File root = tempDir.resolve("out").toFile();
+		File zip = tempDir.resolve("out.zip").toFile();
+		try (ZipFilesWriter writer = new ZipFilesWriter(zip, root)) {
+			writer.write(new File(root, "sources/b/B.java"), "class B {}");
+			writer.write(new File(root, "sources/a/A.java"), "class A {}");
+			writer.write(new File(root, "resources/data.bin"), new byte[] { 1, 2, 3 });
+		}
+		assertThat(root).doesNotExist();
+		try (ZipFile zipFile = new ZipFile(zip)) {
+			List<String> names = new ArrayList<>();
+			Collections.list(zipFile.entries()).forEach(e -> names.add(e.getName()));
+			assertThat(names).containsExactly("resources/data.bin", "sources/a/A.java", "sources/b/B.java");
+			assertThat(read(zipFile, "sources/a/A.java")).isEqualTo("class A {}" + System.lineSeparator());
+			assertThat(zipFile.getInputStream(zipFile.getEntry("resources/data.bin")).readAllBytes())
+					.isEqualTo(new byte[] { 1, 2, 3 });
+		}
+	}
+
+	@Test
+	public void testReproducible() throws Exception {
+		File root = tempDir.resolve("out").toFile();
+		File zip1 = tempDir.resolve("out1.zip").toFile();
+		File zip2 = tempDir.resolve("out2.zip").toFile();
+		try (ZipFilesWriter writer = new ZipFilesWriter(zip1, root)) {
+			for (int i = 0; i < 100; i++) {
+				writer.write(new File(root, "f" + i + ".txt"), "content " + i);
+			}
+		}
+		try (ZipFilesWriter writer = new ZipFilesWriter(zip2, root)) {
+			for (int i = 99; i >= 0; i--) {
+				writer.write(new File(root, "f" + i + ".txt"), "content " + i);
+			}
+		}
+		assertThat(Files.readAllBytes(zip1.toPath())).isEqualTo(Files.readAllBytes(zip2.toPath()));
+	}
+
+	@Test
+	public void testManyEntries() throws Exception {
+		// more than 65535 entries, zip64 end record required
+		int count = 70_000;
+		File root = tempDir.resolve("out").toFile();
+		File zip = tempDir.resolve("out.zip").toFile();
+		try (ZipFilesWriter writer = new ZipFilesWriter(zip, root)) {
+			for (int i = 0; i < count; i++) {
+				writer.write(new File(root, "dir" + i % 10 + "/f" + i), new byte[] { (byte) i });
+			}
+		}
+		try (ZipFile zipFile = new ZipFile(zip)) {
+			assertThat(zipFile.size()).isEqualTo(count);
+			assertThat(zipFile.getInputStream(zipFile.getEntry("dir7/f12347")).readAllBytes())
+					.isEqualTo(new byte[] { (byte) 12347 });
+		}
+	}
+
+	@Test
+	public void testStoredEntries() throws Exception {
+		File root = tempDir.resolve("out").toFile();
+		File zip = tempDir.resolve("out.zip").toFile();
+		byte[] randomData = new byte[4096];
+		new Random(1).nextBytes(randomData);
+		try (ZipFilesWriter writer = new ZipFilesWriter(zip, root)) {
+			writer.write(new File(root, "res/icon.png"), randomData);
+			writer.write(new File(root, "res/random.bin"), randomData);
+			writer.write(new File(root, "res/text.txt"), "text text text text text");
+		}
+		// spill file removed
+		try (Stream<Path> files = Files.list(tempDir)) {
+			assertThat(files).containsExactly(zip.toPath());
+		}
+		try (ZipFile zipFile = new ZipFile(zip)) {
+			assertThat(zipFile.getEntry("res/icon.png").getMethod()).isEqualTo(ZipEntry.STORED);
+			assertThat(zipFile.getEntry("res/random.bin").getMethod()).isEqualTo(ZipEntry.STORED);
+			assertThat(zipFile.getEntry("res/text.txt").getMethod()).isEqualTo(ZipEntry.DEFLATED);
+			assertThat(zipFile.getInputStream(zipFile.getEntry("res/icon.png")).readAllBytes()).isEqualTo(randomData);
+			assertThat(zipFile.getInputStream(zipFile.getEntry("res/random.bin")).readAllBytes()).isEqualTo(randomData);
+			assertThat(read(zipFile, "res/text.txt")).isEqualTo("text text text text text" + System.lineSeparator());
+		}
+	}
+
+	@Test
+	public void testWriteError() throws Exception {
+		File root = tempDir.resolve("out").toFile();
+		File zip = tempDir.resolve("out.zip").toFile();
+		ZipFilesWriter writer = new ZipFilesWriter(zip, root);
+		writer.write(new File(root, "a.txt"), "text text text text text");
+		// truncate spill file to fail archive write
+		try (Stream<Path> files = Files.list(tempDir)) {
+			Path spillFile = files.filter(f -> f.getFileName().toString().endsWith(".tmp")).findFirst().orElseThrow();
+			Files.write(spillFile, new byte[0]);
+		}
+		assertThatThrownBy(writer::close).hasMessageContaining("Unexpected end of zip spill file");
+		// partial archive and spill file removed
+		try (Stream<Path> files = Files.list(tempDir)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	@Test
+	public void testFileOutsideRoot() {
+		File root = tempDir.resolve("out").toFile();
+		ZipFilesWriter writer = new ZipFilesWriter(tempDir.resolve("out.zip").toFile(), root);
+		assertThatThrownBy(() -> writer.write(new File(root, "../a.txt"), "a"))
+				.hasMessageContaining("File not in output directory");
+	}
+
+	private static String read(ZipFile zipFile, String name) throws Exception {
+		ZipEntry entry = zipFile.getEntry(name);
+		return new String(zipFile.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8);
+	}
+}
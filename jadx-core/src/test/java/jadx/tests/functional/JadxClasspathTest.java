@@ -6,6 +6,7 @@
 import org.junit.jupiter.api.Test;
 
 import jadx.api.JadxArgs;
+import jadx.core.clsp.ClspClass;
 import jadx.core.clsp.ClspGraph;
 import jadx.core.dex.instructions.args.ArgType;
 import jadx.core.dex.nodes.RootNode;
@@ -45,4 +46,28 @@ public void test() {
 
 		assertThat(isCastNeeded(root, OBJECT, STRING)).isTrue();
 	}
+
+	@Test
+	public void testClassDetails() {
+		ClspClass listCls = clsp.getClsDetails(object("java.util.ArrayList"));
+		assertThat(listCls).isNotNull();
+		assertThat(listCls.getTypeParameters()).hasSize(1);
+		assertThat(listCls.getMethodsMap()).containsKey("add(Ljava/lang/Object;)Z");
+		assertThat(listCls.getMethodsMap().get("add(Ljava/lang/Object;)Z").getReturnType()).isEqualTo(ArgType.BOOLEAN);
+	}
+
+	@Test
+	public void testHierarchy() {
+		assertThat(clsp.getSuperTypes(JAVA_LANG_EXCEPTION))
+				.containsExactly(JAVA_LANG_THROWABLE, "java.lang.Object", "java.io.Serializable");
+		assertThat(clsp.getSuperTypes("java.lang.Object")).isEmpty();
+		assertThat(clsp.getSuperTypes("a.b.UnknownClass")).isEmpty();
+		assertThat(clsp.isImplements("a.b.UnknownClass", JAVA_LANG_THROWABLE)).isFalse();
+
+		assertThat(clsp.getImplementations("java.util.AbstractList"))
+				.startsWith("java.util.AbstractSequentialList", "java.util.ArrayList")
+				.contains("java.util.LinkedList")
+				.isSorted();
+		assertThat(clsp.getImplementations("java.util.ArrayList")).doesNotContain("java.util.ArrayList");
+	}
 }
@@ -12,6 +12,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import jadx.api.ICodeCache;
 import jadx.api.ICodeInfo;
 import jadx.api.JadxArgs;
 import jadx.api.JadxDecompiler;
@@ -19,6 +20,7 @@
 import jadx.api.JavaNode;
 import jadx.api.JavaPackage;
 import jadx.api.ResourceFile;
+import jadx.api.impl.CompressedCodeCache;
 import jadx.api.impl.InMemoryCodeCache;
 import jadx.api.metadata.ICodeNodeRef;
 import jadx.api.plugins.pass.JadxPassInfo;
@@ -36,7 +38,9 @@
 import jadx.gui.cache.code.CodeCacheMode;
 import jadx.gui.cache.code.CodeStringCache;
 import jadx.gui.cache.code.disk.BufferCodeCache;
+import jadx.gui.cache.code.disk.CodeSearchIndex;
 import jadx.gui.cache.code.disk.DiskCodeCache;
+import jadx.gui.cache.code.disk.PackCodeCache;
 import jadx.gui.cache.usage.UsageInfoCache;
 import jadx.gui.plugins.context.CommonGuiPluginsContext;
 import jadx.gui.settings.JadxProject;
@@ -58,6 +62,7 @@ public class JadxWrapper {
 	private final MainWindow mainWindow;
 	private volatile @Nullable JadxDecompiler decompiler;
 	private CommonGuiPluginsContext guiPluginsContext;
+	private volatile @Nullable CodeSearchIndex codeSearchIndex;
 
 	public JadxWrapper(MainWindow mainWindow) {
 		this.mainWindow = mainWindow;
@@ -101,6 +106,7 @@ public void unloadClasses() {
 	public void close() {
 		try {
 			synchronized (DECOMPILER_UPDATE_SYNC) {
+				codeSearchIndex = null;
 				if (decompiler != null) {
 					decompiler.close();
 					decompiler = null;
@@ -128,6 +134,13 @@ private void registerCodeCache(JadxDecompiler jadxDecompiler) {
 			jadxDecompiler.getArgs().setCodeCache(new InMemoryCodeCache());
 			return;
 		}
+		if (codeCacheMode == CodeCacheMode.MEMORY_COMPRESSED) {
+			// Default limits used without separate setting: storage allocated off-heap (not counted in '-Xmx'),
+			// and classes dropped on overflow are just decompiled again on next request.
+			// Front cache keeps only a few decoded classes, so heap usage stays small for any project size.
+			jadxDecompiler.getArgs().setCodeCache(new CompressedCodeCache());
+			return;
+		}
 		jadxDecompiler.addCustomPass(new JadxPreparePass() {
 			@Override
 			public JadxPassInfo getInfo() {
@@ -143,16 +156,37 @@ public void init(RootNode root) {
 					case DISK:
 						root.getArgs().setCodeCache(buildBufferedDiskCache(root));
 						break;
+					case DISK_PACK:
+						root.getArgs().setCodeCache(buildPackCodeCache(root));
+						break;
 				}
 			}
 		});
 	}
 
+	private ICodeCache buildPackCodeCache(RootNode root) {
+		try {
+			return new BufferCodeCache(new PackCodeCache(root, getProject().getCacheDir()));
+		} catch (Exception e) {
+			// cache dir locked by another jadx-gui instance or broken
+			LOG.warn("Failed to open pack code cache, fallback to in-memory cache", e);
+			return new InMemoryCodeCache();
+		}
+	}
+
 	private BufferCodeCache buildBufferedDiskCache(RootNode root) {
 		DiskCodeCache diskCache = new DiskCodeCache(root, getProject().getCacheDir());
+		codeSearchIndex = diskCache.getSearchIndex();
 		return new BufferCodeCache(diskCache);
 	}
 
+	/**
+	 * Code search index, available only for 'DISK' and 'DISK_WITH_CACHE' code cache modes
+	 */
+	public @Nullable CodeSearchIndex getCodeSearchIndex() {
+		return codeSearchIndex;
+	}
+
 	private void initUsageCache(JadxArgs jadxArgs) {
 		switch (getSettings().getUsageCacheMode()) {
 			case NONE:
@@ -6,8 +6,10 @@
 // TODO: use localized strings
 public enum CodeCacheMode {
 	MEMORY("Everything in memory: fast search, slow reopen, high memory usage"),
+	MEMORY_COMPRESSED("Compressed code in off-heap memory with limited size: medium search, slow reopen, medium memory usage"),
 	DISK_WITH_CACHE("Code saved on disk with in memory cache: medium search, fast reopen, medium memory usage"),
-	DISK("Everything on disk: slow search, fast reopen, low memory usage");
+	DISK("Everything on disk: slow search, fast reopen, low memory usage"),
+	DISK_PACK("Everything on disk in pack files: slow search, fastest reopen, low memory usage, less files");
 
 	private final String desc;
 
@@ -41,31 +41,40 @@ public CodeMetadataAdapter(RootNode root) {
 
 	public void write(Path metadataFile, ICodeMetadata metadata) {
 		FileUtils.makeDirsForFile(metadataFile);
-		try (OutputStream fileOutput = Files.newOutputStream(metadataFile, WRITE, CREATE, TRUNCATE_EXISTING);
-				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOutput))) {
-			out.write(JADX_METADATA_HEADER);
-			writeLines(out, metadata.getLineMapping());
-			writeAnnotations(out, metadata.getAsMap());
+		try (OutputStream fileOutput = Files.newOutputStream(metadataFile, WRITE, CREATE, TRUNCATE_EXISTING)) {
+			write(fileOutput, metadata);
 		} catch (Exception e) {
 			throw new RuntimeException("Failed to write metadata file", e);
 		}
 	}
 
+	public void write(OutputStream output, ICodeMetadata metadata) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+		out.write(JADX_METADATA_HEADER);
+		writeLines(out, metadata.getLineMapping());
+		writeAnnotations(out, metadata.getAsMap());
+		out.flush();
+	}
+
 	public ICodeInfo readAndBuild(Path metadataFile, String code) {
 		if (!Files.exists(metadataFile)) {
 			return new SimpleCodeInfo(code);
 		}
-		try (InputStream fileInput = Files.newInputStream(metadataFile);
-				DataInputStream in = new DataInputStream(new BufferedInputStream(fileInput))) {
-			in.skipBytes(JADX_METADATA_HEADER.length);
-			Map<Integer, Integer> lines = readLines(in);
-			Map<Integer, ICodeAnnotation> annotations = readAnnotations(in);
-			return new AnnotatedCodeInfo(code, lines, annotations);
+		try (InputStream fileInput = Files.newInputStream(metadataFile)) {
+			return readAndBuild(fileInput, code);
 		} catch (Exception e) {
 			throw new RuntimeException("Failed to parse code annotations", e);
 		}
 	}
 
+	public ICodeInfo readAndBuild(InputStream input, String code) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+		in.skipBytes(JADX_METADATA_HEADER.length);
+		Map<Integer, Integer> lines = readLines(in);
+		Map<Integer, ICodeAnnotation> annotations = readAnnotations(in);
+		return new AnnotatedCodeInfo(code, lines, annotations);
+	}
+
 	private void writeLines(DataOutput out, Map<Integer, Integer> lines) throws IOException {
 		out.writeInt(lines.size());
 		for (Map.Entry<Integer, Integer> entry : lines.entrySet()) {
@@ -0,0 +1,263 @@
+package jadx.gui.cache.code.disk;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.core.dex.nodes.ClassNode;
+
+/**
+ * Trigram index for class code.
+ * For every indexed class stored a bitset with hashed case-folded trigrams from code,
+ * bitset size depends on code length (1-2 bits per code char).
+ * Index used to skip classes which can't contain search string,
+ * found classes still need verification by real search (bitset may give false positives).
+ * <br>
+ * Class ids are indexes in root classes list (same as in {@link DiskCodeCache}).
+ * <br>
+ * Index saved only on cache close, so saved file removed on first change after load or save
+ * to not use outdated index after unclean exit.
+ */
+public class CodeSearchIndex {
+	private static final Logger LOG = LoggerFactory.getLogger(CodeSearchIndex.class);
+
+	private static final int DATA_FORMAT_VERSION = 1;
+
+	private static final int MIN_BITS = 64;
+	private static final int MAX_BITS = 1 << 22;
+
+	private final Path indexFile;
+	private final String codeVersion;
+	private final Map<String, Integer> clsIdMap;
+	private final AtomicReferenceArray<long[]> signatures;
+	private volatile boolean changed;
+
+	public CodeSearchIndex(Path indexFile, String codeVersion, List<ClassNode> classes) {
+		this.indexFile = indexFile;
+		this.codeVersion = codeVersion;
+		int clsCount = classes.size();
+		this.clsIdMap = new HashMap<>(clsCount);
+		for (int i = 0; i < clsCount; i++) {
+			clsIdMap.put(classes.get(i).getRawName(), i);
+		}
+		this.signatures = new AtomicReferenceArray<>(clsCount);
+	}
+
+	public void add(String clsFullName, String code) {
+		Integer clsId = clsIdMap.get(clsFullName);
+		if (clsId != null) {
+			signatures.set(clsId, buildSignature(code));
+			markChanged();
+		}
+	}
+
+	public void remove(String clsFullName) {
+		Integer clsId = clsIdMap.get(clsFullName);
+		if (clsId != null && signatures.getAndSet(clsId, null) != null) {
+			markChanged();
+		}
+	}
+
+	private void markChanged() {
+		if (!changed) {
+			synchronized (this) {
+				if (!changed) {
+					deleteIndexFile();
+					changed = true;
+				}
+			}
+		}
+	}
+
+	public boolean contains(String clsFullName) {
+		Integer clsId = clsIdMap.get(clsFullName);
+		return clsId != null && signatures.get(clsId) != null;
+	}
+
+	/**
+	 * Build filter for search string.
+	 *
+	 * @return null if index can't be used for this search (regex or string too short)
+	 */
+	public @Nullable Filter buildFilter(String searchStr, boolean useRegex) {
+		if (useRegex || searchStr.length() < 3) {
+			return null;
+		}
+		int len = searchStr.length();
+		int[] hashes = new int[len - 2];
+		for (int i = 0; i < len - 2; i++) {
+			char c0 = fold(searchStr.charAt(i));
+			char c1 = fold(searchStr.charAt(i + 1));
+			char c2 = fold(searchStr.charAt(i + 2));
+			hashes[i] = trigramHash(c0, c1, c2);
+		}
+		return new Filter(Arrays.stream(hashes).distinct().toArray());
+	}
+
+	public final class Filter {
+		private final int[] hashes;
+
+		private Filter(int[] hashes) {
+			this.hashes = hashes;
+		}
+
+		/**
+		 * Return false only if class indexed and its code can't contain search string
+		 */
+		public boolean mayContain(String clsFullName) {
+			Integer clsId = clsIdMap.get(clsFullName);
+			if (clsId == null) {
+				return true;
+			}
+			long[] sig = signatures.get(clsId);
+			if (sig == null) {
+				return true;
+			}
+			int mask = sig.length * 64 - 1;
+			for (int hash : hashes) {
+				int bit = hash & mask;
+				if ((sig[bit >>> 6] & 1L << bit) == 0) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	static long[] buildSignature(String code) {
+		int len = code.length();
+		int bits = Math.max(MIN_BITS, Math.min(MAX_BITS, Integer.highestOneBit(Math.max(1, len - 1)) << 1));
+		long[] sig = new long[bits / 64];
+		if (len < 3) {
+			return sig;
+		}
+		int mask = bits - 1;
+		char c0 = fold(code.charAt(0));
+		char c1 = fold(code.charAt(1));
+		for (int i = 2; i < len; i++) {
+			char c2 = fold(code.charAt(i));
+			int bit = trigramHash(c0, c1, c2) & mask;
+			sig[bit >>> 6] |= 1L << bit;
+			c0 = c1;
+			c1 = c2;
+		}
+		return sig;
+	}
+
+	/**
+	 * Same chars folding as in {@link String#regionMatches(boolean, int, String, int, int)}
+	 * used for ignore case search, so one index works for both search modes.
+	 */
+	private static char fold(char c) {
+		if (c < 128) {
+			return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+		}
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	private static int trigramHash(char c0, char c1, char c2) {
+		int h = (c0 * 0x01000193 ^ c1) * 0x01000193 ^ c2;
+		h *= 0x9E3779B1;
+		return h ^ h >>> 16;
+	}
+
+	public void load() {
+		if (!Files.exists(indexFile)) {
+			return;
+		}
+		long start = System.currentTimeMillis();
+		int count = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+			if (in.readInt() != DATA_FORMAT_VERSION
+					|| !in.readUTF().equals(codeVersion)
+					|| in.readInt() != signatures.length()) {
+				LOG.debug("Code search index outdated, ignore");
+				return;
+			}
+			int entries = in.readInt();
+			for (int i = 0; i < entries; i++) {
+				int clsId = in.readInt();
+				long[] sig = new long[in.readInt()];
+				for (int j = 0; j < sig.length; j++) {
+					sig[j] = in.readLong();
+				}
+				signatures.set(clsId, sig);
+			}
+			count = entries;
+		} catch (Exception e) {
+			LOG.warn("Failed to load code search index: {}", indexFile, e);
+			reset();
+		}
+		LOG.info("Loaded code search index for {} classes, time: {}ms", count, System.currentTimeMillis() - start);
+	}
+
+	public synchronized void save() {
+		if (!changed) {
+			return;
+		}
+		// changes made after snapshot will remove saved file
+		changed = false;
+		try {
+			Path tmpFile = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+			int clsCount = signatures.length();
+			long[][] snapshot = new long[clsCount][];
+			int entries = 0;
+			for (int i = 0; i < clsCount; i++) {
+				long[] sig = signatures.get(i);
+				if (sig != null) {
+					snapshot[i] = sig;
+					entries++;
+				}
+			}
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmpFile)))) {
+				out.writeInt(DATA_FORMAT_VERSION);
+				out.writeUTF(codeVersion);
+				out.writeInt(clsCount);
+				out.writeInt(entries);
+				for (int i = 0; i < clsCount; i++) {
+					long[] sig = snapshot[i];
+					if (sig != null) {
+						out.writeInt(i);
+						out.writeInt(sig.length);
+						for (long l : sig) {
+							out.writeLong(l);
+						}
+					}
+				}
+			}
+			Files.move(tmpFile, indexFile, StandardCopyOption.REPLACE_EXISTING);
+		} catch (Exception e) {
+			LOG.warn("Failed to save code search index: {}", indexFile, e);
+			changed = true;
+		}
+	}
+
+	public synchronized void reset() {
+		for (int i = 0; i < signatures.length(); i++) {
+			signatures.set(i, null);
+		}
+		changed = false;
+		deleteIndexFile();
+	}
+
+	private void deleteIndexFile() {
+		try {
+			Files.deleteIfExists(indexFile);
+		} catch (Exception e) {
+			LOG.warn("Failed to delete code search index: {}", indexFile, e);
+		}
+	}
+}
@@ -45,6 +45,7 @@ public class DiskCodeCache implements ICodeCache {
 	private final CodeMetadataAdapter codeMetadataAdapter;
 	private final ExecutorService writePool;
 	private final Map<String, CacheData> clsDataMap;
+	private final CodeSearchIndex searchIndex;
 
 	public DiskCodeCache(RootNode root, Path projectCacheDir) {
 		baseDir = projectCacheDir.resolve("code");
@@ -56,8 +57,10 @@ public DiskCodeCache(RootNode root, Path projectCacheDir) {
 		writePool = Executors.newFixedThreadPool(args.getThreadsCount());
 		codeMetadataAdapter = new CodeMetadataAdapter(root);
 		clsDataMap = buildClassDataMap(root.getClasses());
+		searchIndex = new CodeSearchIndex(baseDir.resolve("search-index"), codeVersion, root.getClasses());
 		if (checkCodeVersion()) {
 			loadCachedSet();
+			loadSearchIndex();
 		} else {
 			reset();
 		}
@@ -95,6 +98,7 @@ private void reset() {
 			throw new JadxRuntimeException("Failed to reset code cache", e);
 		} finally {
 			clsDataMap.values().forEach(d -> d.setCached(false));
+			searchIndex.reset();
 		}
 	}
 
@@ -106,6 +110,10 @@ public void add(String clsFullName, ICodeInfo codeInfo) {
 		CacheData clsData = getClsData(clsFullName);
 		clsData.setTmpCodeInfo(codeInfo);
 		clsData.setCached(true);
+		// drop old code from index, new one will be added on write
+		synchronized (clsData) {
+			searchIndex.remove(clsFullName);
+		}
 		writePool.execute(() -> {
 			try {
 				int clsId = clsData.getClsId();
@@ -113,6 +121,11 @@ public void add(String clsFullName, ICodeInfo codeInfo) {
 				if (code != null) {
 					FileUtils.writeFile(getJavaFile(clsId), code.getCodeStr());
 					codeMetadataAdapter.write(getMetadataFile(clsId), code.getCodeMetadata());
+					synchronized (clsData) {
+						if (clsData.isCached() && clsData.getTmpCodeInfo() == code) {
+							searchIndex.add(clsFullName, code.getCodeStr());
+						}
+					}
 				}
 			} catch (Exception e) {
 				LOG.error("Failed to write code cache for " + clsFullName, e);
@@ -178,6 +191,9 @@ public boolean contains(String clsFullName) {
 	public void remove(String clsFullName) {
 		try {
 			CacheData clsData = getClsData(clsFullName);
+			synchronized (clsData) {
+				searchIndex.remove(clsFullName);
+			}
 			if (clsData.isCached()) {
 				clsData.setCached(false);
 				if (clsData.getTmpCodeInfo() == null) {
@@ -195,7 +211,47 @@ public void remove(String clsFullName) {
 		}
 	}
 
-	private String buildCodeVersion(JadxArgs args, @Nullable JadxDecompiler decompiler) {
+	public CodeSearchIndex getSearchIndex() {
+		return searchIndex;
+	}
+
+	/**
+	 * Load saved index and add missing classes in background
+	 */
+	private void loadSearchIndex() {
+		searchIndex.load();
+		List<String> notIndexed = new ArrayList<>();
+		for (Map.Entry<String, CacheData> entry : clsDataMap.entrySet()) {
+			String clsFullName = entry.getKey();
+			if (!entry.getValue().isCached()) {
+				searchIndex.remove(clsFullName);
+			} else if (!searchIndex.contains(clsFullName)) {
+				notIndexed.add(clsFullName);
+			}
+		}
+		if (notIndexed.isEmpty()) {
+			return;
+		}
+		writePool.execute(() -> {
+			long start = System.currentTimeMillis();
+			for (String clsFullName : notIndexed) {
+				CacheData clsData = getClsData(clsFullName);
+				synchronized (clsData) {
+					// skip if changed after start, index will be updated on write
+					if (clsData.isCached() && clsData.getTmpCodeInfo() == null) {
+						String code = getCode(clsFullName);
+						if (code != null) {
+							searchIndex.add(clsFullName, code);
+						}
+					}
+				}
+			}
+			LOG.info("Code search index updated for {} classes, time: {}ms",
+					notIndexed.size(), System.currentTimeMillis() - start);
+		});
+	}
+
+	static String buildCodeVersion(JadxArgs args, @Nullable JadxDecompiler decompiler) {
 		List<File> inputFiles = new ArrayList<>(args.getInputFiles());
 		if (args.getGeneratedRenamesMappingFileMode().shouldRead()
 				&& args.getGeneratedRenamesMappingFile() != null
@@ -276,6 +332,7 @@ public void close() throws IOException {
 				if (!completed) {
 					LOG.warn("Disk code cache closing terminated by timeout");
 				}
+				searchIndex.save();
 			} catch (InterruptedException e) {
 				LOG.error("Failed to close disk code cache", e);
 			}
@@ -0,0 +1,931 @@
+package jadx.gui.cache.code.disk;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import jadx.api.ICodeCache;
+import jadx.api.ICodeInfo;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.Utils;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.FileUtils;
+import jadx.zip.io.ByteBufferBackedInputStream;
+
+/**
+ * Disk code cache stored in several pack files instead of two files per class.
+ * <br>
+ * Files in 'code-pack' dir:
+ * <ul>
+ * <li>'code-version' - checked same as in {@link DiskCodeCache}</li>
+ * <li>'index' - memory mapped table with fixed size slot per class (class id is an index in root classes list),
+ * slot contains segment number, record offset and size</li>
+ * <li>'segment-N.pack' - append-only segments with records:
+ * class id, code length, metadata length, code (UTF-8), metadata</li>
+ * </ul>
+ * Records read through memory mapping of segment files.
+ * Replaced or removed records become garbage, segments with a lot of garbage compacted in background
+ * by moving live records into current segment.
+ * <br>
+ * Slots published in index only after record data forced to disk, so index never points to unwritten data.
+ * Compacted segment files can't be deleted on Windows while still mapped,
+ * such files removed on next open (no live records points to them).
+ * <br>
+ * Cache dir used by one instance at a time, guarded by lock on 'code-pack.lock' file.
+ */
+public class PackCodeCache implements ICodeCache {
+	private static final Logger LOG = LoggerFactory.getLogger(PackCodeCache.class);
+
+	private static final int PACK_FORMAT_VERSION = 1;
+	private static final int INDEX_MAGIC = 0x4A585049; // 'JXPI'
+	private static final int INDEX_HEADER_SIZE = 16;
+	private static final int SLOT_SIZE = 12;
+	private static final int RECORD_HEADER_SIZE = 12;
+	private static final int NO_SEGMENT = -1;
+
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_EXT = ".pack";
+	private static final long DEFAULT_SEGMENT_MAX_SIZE = 64L * 1024 * 1024;
+	private static final int COMPACT_GARBAGE_PERCENT = 50;
+	private static final int FLUSH_BATCH_SIZE = 256;
+
+	private final Path baseDir;
+	private final Path lockFile;
+	private final Path codeVersionFile;
+	private final Path indexFile;
+	private final String codeVersion;
+	private final CodeMetadataAdapter codeMetadataAdapter;
+	private final Map<String, CacheData> clsDataMap;
+	private final int clsCount;
+	private final long segmentMaxSize;
+
+	/**
+	 * Single thread for all appends and compaction, so segments changed only here
+	 */
+	private final ExecutorService writeExecutor;
+	private final Map<Integer, Segment> segments = new ConcurrentHashMap<>();
+	private final AtomicBoolean compactScheduled = new AtomicBoolean();
+	private final AtomicInteger pendingWrites = new AtomicInteger();
+	/**
+	 * Appended but not yet forced records and their segments, accessed only from write thread
+	 */
+	private final List<PendingRecord> pendingRecords = new ArrayList<>();
+	private final Set<Segment> dirtySegments = new LinkedHashSet<>();
+	private FileChannel lockChannel;
+	private FileLock lock;
+	private FileChannel indexChannel;
+	private MappedByteBuffer index;
+	private Segment activeSegment;
+
+	private final long openTime;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong hitsTime = new AtomicLong();
+	private final AtomicLong compactedSegments = new AtomicLong();
+
+	public PackCodeCache(RootNode root, Path projectCacheDir) {
+		this(root, projectCacheDir, DEFAULT_SEGMENT_MAX_SIZE);
+	}
+
+	/**
+	 * @param segmentMaxSize size of segment file to start new one
+	 */
+	public PackCodeCache(RootNode root, Path projectCacheDir, long segmentMaxSize) {
+		long start = System.currentTimeMillis();
+		baseDir = projectCacheDir.resolve("code-pack");
+		lockFile = projectCacheDir.resolve("code-pack.lock");
+		codeVersionFile = baseDir.resolve("code-version");
+		indexFile = baseDir.resolve("index");
+		codeVersion = PACK_FORMAT_VERSION + ":" + DiskCodeCache.buildCodeVersion(root.getArgs(), root.getDecompiler());
+		codeMetadataAdapter = new CodeMetadataAdapter(root);
+		clsDataMap = buildClassDataMap(root.getClasses());
+		clsCount = root.getClasses().size();
+		this.segmentMaxSize = segmentMaxSize;
+		writeExecutor = Executors.newSingleThreadExecutor(Utils.simpleThreadFactory("code-pack"));
+		try {
+			acquireLock();
+			if (!checkCodeVersion() || !openIndex()) {
+				reset();
+			}
+			int count = loadSegments();
+			openTime = System.currentTimeMillis() - start;
+			LOG.info("Found {} classes in pack code cache, segments: {}, open time: {}ms, dir: {}",
+					count, segments.size(), openTime, baseDir.toAbsolutePath());
+		} catch (Exception e) {
+			writeExecutor.shutdown();
+			closeFiles();
+			releaseLock();
+			if (e instanceof JadxRuntimeException) {
+				throw (JadxRuntimeException) e;
+			}
+			throw new JadxRuntimeException("Failed to open pack code cache: " + baseDir.toAbsolutePath(), e);
+		}
+		scheduleCompact();
+	}
+
+	private void acquireLock() throws IOException {
+		FileUtils.makeDirsForFile(lockFile);
+		lockChannel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+		try {
+			lock = lockChannel.tryLock();
+		} catch (OverlappingFileLockException e) {
+			lock = null;
+		}
+		if (lock == null) {
+			throw new JadxRuntimeException("Pack code cache directory already in use: " + baseDir.toAbsolutePath());
+		}
+	}
+
+	private void releaseLock() {
+		try {
+			if (lock != null) {
+				lock.release();
+				lock = null;
+			}
+		} catch (Exception e) {
+			LOG.warn("Failed to release pack code cache lock", e);
+		}
+		FileUtils.close(lockChannel);
+	}
+
+	private boolean checkCodeVersion() {
+		try {
+			if (!Files.exists(codeVersionFile)) {
+				return false;
+			}
+			String currentCodeVer = FileUtils.readFile(codeVersionFile);
+			return currentCodeVer.equals(codeVersion);
+		} catch (Exception e) {
+			LOG.warn("Failed to load code version file", e);
+			return false;
+		}
+	}
+
+	private boolean openIndex() throws IOException {
+		if (!Files.exists(indexFile) || Files.size(indexFile) != getIndexSize()) {
+			return false;
+		}
+		// check header before mapping, mapped file can't be deleted on reset
+		ByteBuffer header = ByteBuffer.allocate(12);
+		try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+			while (header.hasRemaining() && channel.read(header) != -1) {
+				// read full header
+			}
+		}
+		if (header.getInt(0) != INDEX_MAGIC || header.getInt(4) != PACK_FORMAT_VERSION || header.getInt(8) != clsCount) {
+			return false;
+		}
+		mapIndex();
+		return true;
+	}
+
+	private void reset() throws IOException {
+		LOG.info("Resetting pack code cache, base dir: {}", baseDir.toAbsolutePath());
+		closeFiles();
+		FileUtils.deleteDirIfExists(baseDir);
+		FileUtils.makeDirs(baseDir);
+		FileUtils.writeFile(codeVersionFile, codeVersion);
+		mapIndex();
+		index.putInt(0, INDEX_MAGIC);
+		index.putInt(4, PACK_FORMAT_VERSION);
+		index.putInt(8, clsCount);
+		for (int clsId = 0; clsId < clsCount; clsId++) {
+			index.putInt(getSlotPos(clsId), NO_SEGMENT);
+		}
+	}
+
+	private void mapIndex() throws IOException {
+		indexChannel = FileChannel.open(indexFile,
+				StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, getIndexSize());
+	}
+
+	/**
+	 * Open segment files and mark classes with valid slots as cached
+	 */
+	private int loadSegments() throws IOException {
+		int lastNum = -1;
+		for (Path file : FileUtils.listFiles(baseDir, PackCodeCache::isSegmentFile)) {
+			String fileName = file.getFileName().toString();
+			int num = Integer.parseInt(fileName.substring(SEGMENT_PREFIX.length(), fileName.length() - SEGMENT_EXT.length()));
+			segments.put(num, new Segment(num, file));
+			lastNum = Math.max(lastNum, num);
+		}
+		Map<Integer, Long> liveSizes = new HashMap<>();
+		int count = 0;
+		for (CacheData data : clsDataMap.values()) {
+			int clsId = data.getClsId();
+			Slot slot = readSlot(clsId);
+			if (slot == null) {
+				continue;
+			}
+			Segment segment = segments.get(slot.getSegment());
+			if (segment == null || slot.getOffset() + (long) slot.getSize() > segment.getSize()) {
+				// segment not fully written, data will be counted as garbage below
+				index.putInt(getSlotPos(clsId), NO_SEGMENT);
+				continue;
+			}
+			liveSizes.merge(slot.getSegment(), (long) slot.getSize(), Long::sum);
+			data.setCached(true);
+			count++;
+		}
+		for (Segment segment : new ArrayList<>(segments.values())) {
+			long live = liveSizes.getOrDefault(segment.getNum(), 0L);
+			if (live == 0 && segment.getNum() != lastNum) {
+				// compacted before, but file was still mapped at that time
+				segments.remove(segment.getNum());
+				segment.close();
+				Files.deleteIfExists(segment.getFile());
+				continue;
+			}
+			segment.addGarbage(segment.getSize() - live);
+		}
+		Segment lastSegment = segments.get(lastNum);
+		if (lastSegment != null && lastSegment.getSize() < segmentMaxSize) {
+			activeSegment = lastSegment;
+		} else {
+			activeSegment = addSegment(lastNum + 1);
+		}
+		return count;
+	}
+
+	private static boolean isSegmentFile(Path file) {
+		String fileName = file.getFileName().toString();
+		return fileName.startsWith(SEGMENT_PREFIX) && fileName.endsWith(SEGMENT_EXT);
+	}
+
+	private Segment addSegment(int num) throws IOException {
+		Segment segment = new Segment(num, baseDir.resolve(SEGMENT_PREFIX + num + SEGMENT_EXT));
+		segments.put(num, segment);
+		return segment;
+	}
+
+	/**
+	 * Async writes backed by in-memory store.
+	 * Code kept in memory until record forced to disk and published in index (in batches).
+	 */
+	@Override
+	public void add(String clsFullName, ICodeInfo codeInfo) {
+		CacheData clsData = getClsData(clsFullName);
+		clsData.setTmpCodeInfo(codeInfo);
+		clsData.setCached(true);
+		pendingWrites.incrementAndGet();
+		writeExecutor.execute(() -> {
+			ICodeInfo code = clsData.getTmpCodeInfo();
+			try {
+				if (code != null) {
+					ByteBuffer record = buildRecord(clsData.getClsId(), code);
+					int size = record.remaining();
+					Segment segment = appendRecord(record);
+					long offset = segment.getSize() - size;
+					pendingRecords.add(new PendingRecord(clsData, code, segment.getNum(), (int) offset, size));
+				}
+			} catch (Exception e) {
+				LOG.error("Failed to write code cache for " + clsFullName, e);
+				remove(clsFullName);
+			}
+			if (pendingWrites.decrementAndGet() == 0 || pendingRecords.size() >= FLUSH_BATCH_SIZE) {
+				flushPending();
+			}
+		});
+	}
+
+	/**
+	 * Force appended records to disk and only after that publish them in index.
+	 * Should be called only from write thread.
+	 */
+	private void flushPending() {
+		if (pendingRecords.isEmpty()) {
+			return;
+		}
+		try {
+			for (Segment segment : dirtySegments) {
+				segment.force();
+			}
+			for (PendingRecord pending : pendingRecords) {
+				CacheData clsData = pending.getClsData();
+				int clsId = clsData.getClsId();
+				writeSlot(clsId, pending.getSegment(), pending.getOffset(), pending.getSize());
+				if (!clsData.isCached()) {
+					// removed while written
+					clearSlot(clsId);
+				}
+			}
+			index.force();
+		} catch (Exception e) {
+			LOG.error("Failed to flush code cache records", e);
+			for (PendingRecord pending : pendingRecords) {
+				CacheData clsData = pending.getClsData();
+				clearSlot(clsData.getClsId());
+				if (clsData.getTmpCodeInfo() == pending.getCode()) {
+					clsData.setCached(false);
+				}
+			}
+		} finally {
+			for (PendingRecord pending : pendingRecords) {
+				pending.getClsData().clearTmpCodeInfo(pending.getCode());
+			}
+			pendingRecords.clear();
+			dirtySegments.clear();
+		}
+	}
+
+	private ByteBuffer buildRecord(int clsId, ICodeInfo code) throws IOException {
+		byte[] codeBytes = code.getCodeStr().getBytes(StandardCharsets.UTF_8);
+		ByteArrayOutputStream metadataOut = new ByteArrayOutputStream();
+		codeMetadataAdapter.write(metadataOut, code.getCodeMetadata());
+		byte[] metadataBytes = metadataOut.toByteArray();
+		ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + codeBytes.length + metadataBytes.length);
+		record.putInt(clsId);
+		record.putInt(codeBytes.length);
+		record.putInt(metadataBytes.length);
+		record.put(codeBytes);
+		record.put(metadataBytes);
+		record.flip();
+		return record;
+	}
+
+	/**
+	 * Append record to active segment, start new segment if size limit reached.
+	 * Should be called only from write thread.
+	 */
+	private Segment appendRecord(ByteBuffer record) throws IOException {
+		Segment segment = activeSegment;
+		if (segment.getSize() != 0 && segment.getSize() + record.remaining() > segmentMaxSize) {
+			segment = addSegment(segment.getNum() + 1);
+			activeSegment = segment;
+			scheduleCompact();
+		}
+		segment.append(record);
+		dirtySegments.add(segment);
+		return segment;
+	}
+
+	@Override
+	public @Nullable String getCode(String clsFullName) {
+		try {
+			if (!contains(clsFullName)) {
+				misses.incrementAndGet();
+				return null;
+			}
+			CacheData clsData = getClsData(clsFullName);
+			ICodeInfo tmpCodeInfo = clsData.getTmpCodeInfo();
+			if (tmpCodeInfo != null) {
+				return tmpCodeInfo.getCodeStr();
+			}
+			long start = System.nanoTime();
+			ByteBuffer record = readRecord(clsData.getClsId());
+			if (record == null) {
+				misses.incrementAndGet();
+				return null;
+			}
+			String code = readCode(record);
+			addHit(start);
+			return code;
+		} catch (Exception e) {
+			LOG.error("Failed to read class code for {}", clsFullName, e);
+			return null;
+		}
+	}
+
+	@Override
+	public @NotNull ICodeInfo get(String clsFullName) {
+		try {
+			if (!contains(clsFullName)) {
+				misses.incrementAndGet();
+				return ICodeInfo.EMPTY;
+			}
+			CacheData clsData = getClsData(clsFullName);
+			ICodeInfo tmpCodeInfo = clsData.getTmpCodeInfo();
+			if (tmpCodeInfo != null) {
+				return tmpCodeInfo;
+			}
+			long start = System.nanoTime();
+			ByteBuffer record = readRecord(clsData.getClsId());
+			if (record == null) {
+				misses.incrementAndGet();
+				return ICodeInfo.EMPTY;
+			}
+			String code = readCode(record);
+			int codeLen = record.getInt(4);
+			record.position(RECORD_HEADER_SIZE + codeLen);
+			ICodeInfo codeInfo = codeMetadataAdapter.readAndBuild(new ByteBufferBackedInputStream(record), code);
+			addHit(start);
+			return codeInfo;
+		} catch (Exception e) {
+			LOG.error("Failed to read code cache for {}", clsFullName, e);
+			return ICodeInfo.EMPTY;
+		}
+	}
+
+	private static String readCode(ByteBuffer record) {
+		int codeLen = record.getInt(4);
+		byte[] codeBytes = new byte[codeLen];
+		record.position(RECORD_HEADER_SIZE);
+		record.get(codeBytes);
+		return new String(codeBytes, StandardCharsets.UTF_8);
+	}
+
+	private void addHit(long startNanos) {
+		hitsTime.addAndGet(System.nanoTime() - startNanos);
+		hits.incrementAndGet();
+	}
+
+	/**
+	 * Read record for class. Slot can be changed by compaction between slot and segment read, so retry once.
+	 */
+	private @Nullable ByteBuffer readRecord(int clsId) throws IOException {
+		for (int attempt = 0; attempt < 2; attempt++) {
+			Slot slot = readSlot(clsId);
+			if (slot == null) {
+				return null;
+			}
+			Segment segment = segments.get(slot.getSegment());
+			if (segment == null) {
+				continue;
+			}
+			ByteBuffer record;
+			try {
+				record = segment.read(slot.getOffset(), slot.getSize());
+			} catch (ClosedChannelException e) {
+				continue;
+			}
+			if (record.getInt(0) != clsId
+					|| RECORD_HEADER_SIZE + record.getInt(4) + record.getInt(8) != slot.getSize()) {
+				throw new JadxRuntimeException("Corrupted pack record for class id: " + clsId);
+			}
+			return record;
+		}
+		return null;
+	}
+
+	@Override
+	public boolean contains(String clsFullName) {
+		return getClsData(clsFullName).isCached();
+	}
+
+	@Override
+	public void remove(String clsFullName) {
+		CacheData clsData = getClsData(clsFullName);
+		if (clsData.isCached()) {
+			LOG.debug("Removing class info from pack: {}", clsFullName);
+			clsData.setCached(false);
+			// pending record (if any) will be cleared after publish
+			clsData.setTmpCodeInfo(null);
+			clearSlot(clsData.getClsId());
+			scheduleCompact();
+		}
+	}
+
+	private void scheduleCompact() {
+		if (compactScheduled.compareAndSet(false, true)) {
+			try {
+				writeExecutor.execute(this::compact);
+			} catch (Exception e) {
+				// executor already closed
+				compactScheduled.set(false);
+			}
+		}
+	}
+
+	/**
+	 * Move live records from segments with high garbage ratio. Should be called only from write thread.
+	 */
+	private void compact() {
+		compactScheduled.set(false);
+		// pending records can be in previous (not active) segment
+		flushPending();
+		for (Segment segment : new ArrayList<>(segments.values())) {
+			if (segment != activeSegment && needCompact(segment)) {
+				try {
+					compactSegment(segment);
+				} catch (Exception e) {
+					LOG.warn("Failed to compact code cache segment: {}", segment.getFile(), e);
+				}
+			}
+		}
+	}
+
+	private boolean needCompact(Segment segment) {
+		long garbage = segment.getGarbage();
+		if (garbage == segment.getSize()) {
+			return true;
+		}
+		// skip small segments (unfinished before restart)
+		return garbage > segmentMaxSize / 8 && garbage * 100 > segment.getSize() * COMPACT_GARBAGE_PERCENT;
+	}
+
+	/**
+	 * Copy live records, force copies to disk and only after that switch slots to new location.
+	 */
+	private void compactSegment(Segment segment) throws IOException {
+		long start = System.currentTimeMillis();
+		int segNum = segment.getNum();
+		List<Move> moves = new ArrayList<>();
+		for (int clsId = 0; clsId < clsCount; clsId++) {
+			Slot slot = readSlot(clsId);
+			if (slot == null || slot.getSegment() != segNum) {
+				continue;
+			}
+			ByteBuffer record = segment.read(slot.getOffset(), slot.getSize());
+			Segment newSegment = appendRecord(record);
+			int newOffset = (int) (newSegment.getSize() - slot.getSize());
+			moves.add(new Move(clsId, slot, newSegment, newOffset));
+		}
+		for (Segment dirtySegment : dirtySegments) {
+			dirtySegment.force();
+		}
+		dirtySegments.clear();
+		for (Move move : moves) {
+			Slot slot = move.getSlot();
+			if (!replaceSlot(move.getClsId(), slot, move.getSegment().getNum(), move.getOffset())) {
+				// removed or replaced while copied
+				move.getSegment().addGarbage(slot.getSize());
+			}
+		}
+		index.force();
+		segments.remove(segNum);
+		segment.close();
+		try {
+			Files.deleteIfExists(segment.getFile());
+		} catch (IOException e) {
+			// still mapped (Windows), will be removed on next open
+			LOG.debug("Compacted segment file not deleted: {}, reason: {}", segment.getFile(), e.getMessage());
+		}
+		compactedSegments.incrementAndGet();
+		if (LOG.isDebugEnabled()) {
+			LOG.debug("Code cache segment {} compacted in {}ms, moved records: {}",
+					segNum, System.currentTimeMillis() - start, moves.size());
+		}
+	}
+
+	private int getSlotPos(int clsId) {
+		return INDEX_HEADER_SIZE + clsId * SLOT_SIZE;
+	}
+
+	private long getIndexSize() {
+		return INDEX_HEADER_SIZE + (long) clsCount * SLOT_SIZE;
+	}
+
+	private @Nullable Slot readSlot(int clsId) {
+		int pos = getSlotPos(clsId);
+		synchronized (index) {
+			int segment = index.getInt(pos);
+			if (segment == NO_SEGMENT) {
+				return null;
+			}
+			return new Slot(segment, index.getInt(pos + 4), index.getInt(pos + 8));
+		}
+	}
+
+	private void writeSlot(int clsId, int segNum, int offset, int size) {
+		int pos = getSlotPos(clsId);
+		synchronized (index) {
+			markGarbage(pos);
+			index.putInt(pos, segNum);
+			index.putInt(pos + 4, offset);
+			index.putInt(pos + 8, size);
+		}
+	}
+
+	private boolean replaceSlot(int clsId, Slot expected, int segNum, int offset) {
+		int pos = getSlotPos(clsId);
+		synchronized (index) {
+			if (index.getInt(pos) != expected.getSegment() || index.getInt(pos + 4) != expected.getOffset()) {
+				return false;
+			}
+			index.putInt(pos, segNum);
+			index.putInt(pos + 4, offset);
+			return true;
+		}
+	}
+
+	private void clearSlot(int clsId) {
+		int pos = getSlotPos(clsId);
+		synchronized (index) {
+			markGarbage(pos);
+			index.putInt(pos, NO_SEGMENT);
+		}
+	}
+
+	private void markGarbage(int slotPos) {
+		int prevSegment = index.getInt(slotPos);
+		if (prevSegment != NO_SEGMENT) {
+			Segment segment = segments.get(prevSegment);
+			if (segment != null) {
+				segment.addGarbage(index.getInt(slotPos + 8));
+			}
+		}
+	}
+
+	private CacheData getClsData(String clsFullName) {
+		CacheData clsData = clsDataMap.get(clsFullName);
+		if (clsData == null) {
+			throw new JadxRuntimeException("Unknown class name: " + clsFullName);
+		}
+		return clsData;
+	}
+
+	private Map<String, CacheData> buildClassDataMap(List<ClassNode> classes) {
+		int count = classes.size();
+		Map<String, CacheData> map = new HashMap<>(count);
+		for (int i = 0; i < count; i++) {
+			ClassNode cls = classes.get(i);
+			map.put(cls.getRawName(), new CacheData(i));
+		}
+		return map;
+	}
+
+	public long getOpenTime() {
+		return openTime;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Average time to read code from pack files in microseconds
+	 */
+	public long getAvgHitLatency() {
+		long hitsCount = hits.get();
+		return hitsCount == 0 ? 0 : hitsTime.get() / hitsCount / 1000;
+	}
+
+	public String getStats() {
+		long size = 0;
+		long garbage = 0;
+		for (Segment segment : segments.values()) {
+			size += segment.getSize();
+			garbage += segment.getGarbage();
+		}
+		return "open time: " + openTime + "ms"
+				+ ", hits: " + hits.get() + ", misses: " + misses.get()
+				+ ", avg hit latency: " + getAvgHitLatency() + "us"
+				+ ", segments: " + segments.size() + ", size: " + size + ", garbage: " + garbage
+				+ ", compacted segments: " + compactedSegments.get();
+	}
+
+	@Override
+	public void close() throws IOException {
+		synchronized (this) {
+			try {
+				writeExecutor.shutdown();
+				boolean completed = writeExecutor.awaitTermination(1, TimeUnit.MINUTES);
+				if (!completed) {
+					LOG.warn("Pack code cache closing terminated by timeout");
+				}
+			} catch (InterruptedException e) {
+				LOG.error("Failed to close pack code cache", e);
+			}
+			LOG.info("Pack code cache closed, {}", getStats());
+			closeFiles();
+			releaseLock();
+		}
+	}
+
+	private void closeFiles() {
+		if (index != null) {
+			index.force();
+		}
+		FileUtils.close(indexChannel);
+		for (Segment segment : segments.values()) {
+			segment.close();
+		}
+		segments.clear();
+	}
+
+	private static final class Segment {
+		private final int num;
+		private final Path file;
+		private final FileChannel channel;
+		private final AtomicLong garbage = new AtomicLong();
+		private volatile long size;
+		private volatile @Nullable MappedByteBuffer mapped;
+
+		private Segment(int num, Path file) throws IOException {
+			this.num = num;
+			this.file = file;
+			this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+			this.size = channel.size();
+		}
+
+		private void append(ByteBuffer record) throws IOException {
+			long pos = size;
+			while (record.hasRemaining()) {
+				pos += channel.write(record, pos);
+			}
+			size = pos;
+		}
+
+		/**
+		 * Return record view from mapped segment, mapping extended if record added after last map
+		 */
+		private ByteBuffer read(int offset, int len) throws IOException {
+			MappedByteBuffer map = mapped;
+			if (map == null || offset + len > map.capacity()) {
+				synchronized (this) {
+					map = mapped;
+					if (map == null || offset + len > map.capacity()) {
+						map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+						mapped = map;
+					}
+				}
+			}
+			ByteBuffer buf = map.duplicate();
+			buf.position(offset);
+			buf.limit(offset + len);
+			return buf.slice();
+		}
+
+		private void addGarbage(long bytes) {
+			garbage.addAndGet(bytes);
+		}
+
+		private long getGarbage() {
+			return garbage.get();
+		}
+
+		private int getNum() {
+			return num;
+		}
+
+		private Path getFile() {
+			return file;
+		}
+
+		private long getSize() {
+			return size;
+		}
+
+		private void force() throws IOException {
+			channel.force(false);
+		}
+
+		private void close() {
+			mapped = null;
+			FileUtils.close(channel);
+		}
+	}
+
+	private static final class Move {
+		private final int clsId;
+		private final Slot slot;
+		private final Segment segment;
+		private final int offset;
+
+		private Move(int clsId, Slot slot, Segment segment, int offset) {
+			this.clsId = clsId;
+			this.slot = slot;
+			this.segment = segment;
+			this.offset = offset;
+		}
+
+		private int getClsId() {
+			return clsId;
+		}
+
+		private Slot getSlot() {
+			return slot;
+		}
+
+		private Segment getSegment() {
+			return segment;
+		}
+
+		private int getOffset() {
+			return offset;
+		}
+	}
+
+	private static final class PendingRecord {
+		private final CacheData clsData;
+		private final ICodeInfo code;
+		private final int segment;
+		private final int offset;
+		private final int size;
+
+		private PendingRecord(CacheData clsData, ICodeInfo code, int segment, int offset, int size) {
+			this.clsData = clsData;
+			this.code = code;
+			this.segment = segment;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		private CacheData getClsData() {
+			return clsData;
+		}
+
+		private ICodeInfo getCode() {
+			return code;
+		}
+
+		private int getSegment() {
+			return segment;
+		}
+
+		private int getOffset() {
+			return offset;
+		}
+
+		private int getSize() {
+			return size;
+		}
+	}
+
+	private static final class Slot {
+		private final int segment;
+		private final int offset;
+		private final int size;
+
+		private Slot(int segment, int offset, int size) {
+			this.segment = segment;
+			this.offset = offset;
+			this.size = size;
+		}
+
+		private int getSegment() {
+			return segment;
+		}
+
+		private int getOffset() {
+			return offset;
+		}
+
+		private int getSize() {
+			return size;
+		}
+	}
+
+	private static final class CacheData {
+		private final int clsId;
+		private volatile boolean cached;
+		private volatile @Nullable ICodeInfo tmpCodeInfo;
+
+		private CacheData(int clsId) {
+			this.clsId = clsId;
+		}
+
+		private int getClsId() {
+			return clsId;
+		}
+
+		private boolean isCached() {
+			return cached;
+		}
+
+		private void setCached(boolean cached) {
+			this.cached = cached;
+		}
+
+		private @Nullable ICodeInfo getTmpCodeInfo() {
+			return tmpCodeInfo;
+		}
+
+		private synchronized void setTmpCodeInfo(@Nullable ICodeInfo tmpCodeInfo) {
+			this.tmpCodeInfo = tmpCodeInfo;
+		}
+
+		/**
+		 * Clear only if code not replaced by newer add
+		 */
+		private synchronized void clearTmpCodeInfo(ICodeInfo written) {
+			if (this.tmpCodeInfo == written) {
+				this.tmpCodeInfo = null;
+			}
+		}
+	}
+}
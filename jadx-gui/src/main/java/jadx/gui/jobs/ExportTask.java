@@ -43,7 +43,10 @@ public ITaskExecutor scheduleTasks() {
 
 	private void wrapCodeCache() {
 		uiCodeCache = wrapper.getArgs().getCodeCache();
-		if (mainWindow.getSettings().getCodeCacheMode() != CodeCacheMode.DISK) {
+		CodeCacheMode codeCacheMode = mainWindow.getSettings().getCodeCacheMode();
+		if (codeCacheMode != CodeCacheMode.DISK
+				&& codeCacheMode != CodeCacheMode.DISK_PACK
+				&& codeCacheMode != CodeCacheMode.MEMORY_COMPRESSED) {
 			// do not save newly decompiled code in cache to not increase memory usage
 			// TODO: maybe make memory limited cache?
 			wrapper.getArgs().setCodeCache(new FixedCodeCache(uiCodeCache));
@@ -14,6 +14,7 @@
 import jadx.api.metadata.ICodeNodeRef;
 import jadx.api.utils.CodeUtils;
 import jadx.gui.JadxWrapper;
+import jadx.gui.cache.code.disk.CodeSearchIndex;
 import jadx.gui.jobs.Cancelable;
 import jadx.gui.search.SearchSettings;
 import jadx.gui.treemodel.CodeNode;
@@ -29,6 +30,7 @@ public final class CodeSearchProvider extends BaseSearchProvider {
 	private final ICodeCache codeCache;
 	private final JadxWrapper wrapper;
 	private final @Nullable Set<JavaClass> includedClasses;
+	private final @Nullable CodeSearchIndex.Filter indexFilter;
 
 	private @Nullable String code;
 	private int clsNum = 0;
@@ -40,6 +42,10 @@ public CodeSearchProvider(MainWindow mw, SearchSettings searchSettings,
 		this.codeCache = mw.getWrapper().getArgs().getCodeCache();
 		this.wrapper = mw.getWrapper();
 		this.includedClasses = includedClasses;
+		CodeSearchIndex searchIndex = wrapper.getCodeSearchIndex();
+		this.indexFilter = searchIndex != null
+				? searchIndex.buildFilter(searchStr, searchSettings.isUseRegex())
+				: null;
 	}
 
 	@Override
@@ -53,7 +59,7 @@ public CodeSearchProvider(MainWindow mw, SearchSettings searchSettings,
 			JavaClass cls = classes.get(clsNum);
 			if (inclCls == null || inclCls.contains(cls)) {
 				String clsCode = code;
-				if (clsCode == null && !cls.isInner() && !cls.isNoCode()) {
+				if (clsCode == null && !cls.isInner() && !cls.isNoCode() && !skipByIndex(cls)) {
 					clsCode = getClassCode(cls, codeCache);
 				}
 				if (clsCode != null) {
@@ -73,6 +79,19 @@ public CodeSearchProvider(MainWindow mw, SearchSettings searchSettings,
 		}
 	}
 
+	/**
+	 * Skip class without reading code if index shows that code can't contain search string.
+	 * Index used only for already cached code, so not decompiled classes processed as usual.
+	 */
+	private boolean skipByIndex(JavaClass cls) {
+		CodeSearchIndex.Filter filter = indexFilter;
+		if (filter == null) {
+			return false;
+		}
+		String clsRawName = cls.getRawName();
+		return codeCache.contains(clsRawName) && !filter.mayContain(clsRawName);
+	}
+
 	private @Nullable JNode searchNext(JavaClass javaClass, String clsCode) {
 		int newPos = searchMth.find(clsCode, searchStr, pos);
 		if (newPos == -1) {
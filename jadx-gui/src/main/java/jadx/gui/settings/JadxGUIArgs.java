@@ -2,6 +2,7 @@
 
 import com.beust.jcommander.Parameter;
 
+import jadx.api.JadxArgs;
 import jadx.cli.JadxCLIArgs;
 import jadx.cli.config.JadxConfigExclude;
 
@@ -14,6 +15,24 @@ public class JadxGUIArgs extends JadxCLIArgs {
 	)
 	private String cmdSelectClass = null;
 
+	@JadxConfigExclude
+	@Parameter(
+			names = { "--select-class-lazy" },
+			description = "GUI: load only class from '--select-class' (raw full name) and classes used by it, faster for big inputs"
+	)
+	private boolean cmdSelectClassLazyLoad = false;
+
+	@Override
+	public JadxArgs toJadxArgs() {
+		JadxArgs args = super.toJadxArgs();
+		if (cmdSelectClass != null && cmdSelectClassLazyLoad) {
+			String clsName = cmdSelectClass;
+			args.setClassFilter(clsName::equals);
+			args.setLazyLoad(true);
+		}
+		return args;
+	}
+
 	public String getCmdSelectClass() {
 		return cmdSelectClass;
 	}
@@ -21,4 +40,8 @@ public String getCmdSelectClass() {
 	public void setCmdSelectClass(String cmdSelectClass) {
 		this.cmdSelectClass = cmdSelectClass;
 	}
+
+	public boolean isCmdSelectClassLazyLoad() {
+		return cmdSelectClassLazyLoad;
+	}
 }
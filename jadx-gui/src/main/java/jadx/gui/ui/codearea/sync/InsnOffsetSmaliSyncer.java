@@ -5,6 +5,7 @@
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
+import java.util.TreeMap;
 
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -54,8 +55,7 @@ public boolean syncTo(CodeArea to) {
 		LOG.debug("lineInfo key {}, lineInfo value {}, caretLineNumber {}", lineInfo.getKey(), lineInfo.getValue(),
 				from.getCaretLineNumber());
 		ICodeMetadata toMetadata = to.getCodeMetadata();
-		NavigableMap<Integer, ICodeAnnotation> codeAreaAnnotationMap =
-				(NavigableMap<Integer, ICodeAnnotation>) toMetadata.getAsMap();
+		NavigableMap<Integer, ICodeAnnotation> codeAreaAnnotationMap = new TreeMap<>(toMetadata.getAsMap());
 		Iterator<NavigableMap.Entry<Integer, ICodeAnnotation>> methodDecl =
 				findMethodDeclAnnotation(codeAreaAnnotationMap, lineInfo.getKey());
 		if (methodDecl == null) {
@@ -117,7 +117,7 @@ private static Iterator<NavigableMap.Entry<Integer, ICodeAnnotation>> findMethod
 			NavigableMap<Integer, ICodeAnnotation> map,
 			String smaliLineMthFullID) {
 		// Ensure we use NavigableMap here to get ordering guarantee from iterator call
-		Iterator<NavigableMap.Entry<Integer, ICodeAnnotation>> it = map.descendingMap().entrySet().iterator();
+		Iterator<NavigableMap.Entry<Integer, ICodeAnnotation>> it = map.entrySet().iterator();
 		while (it.hasNext()) {
 			NavigableMap.Entry<Integer, ICodeAnnotation> entry = it.next();
 			if (entry.getValue() instanceof NodeDeclareRef) {
@@ -10,7 +10,9 @@
 
 import jadx.api.ICodeInfo;
 import jadx.api.impl.NoOpCodeCache;
+import jadx.api.impl.SimpleCodeInfo;
 import jadx.core.dex.nodes.ClassNode;
+import jadx.gui.cache.code.disk.CodeSearchIndex;
 import jadx.gui.cache.code.disk.DiskCodeCache;
 import jadx.tests.api.IntegrationTest;
 
@@ -44,4 +46,57 @@ public void test() throws IOException {
 
 		cache.close();
 	}
+
+	@Test
+	public void searchIndex() throws IOException {
+		disableCompilation();
+		getArgs().setCodeCache(NoOpCodeCache.INSTANCE);
+		ClassNode clsNode = getClassNode(DiskCodeCacheTest.class);
+		ICodeInfo codeInfo = clsNode.getCode();
+		String clsKey = clsNode.getFullName();
+
+		DiskCodeCache cache = new DiskCodeCache(clsNode.root(), tempDir);
+		cache.add(clsKey, codeInfo);
+		cache.close();
+
+		// check saved index after reopen
+		DiskCodeCache reopenedCache = new DiskCodeCache(clsNode.root(), tempDir);
+		CodeSearchIndex index = reopenedCache.getSearchIndex();
+		assertThat(index.contains(clsKey)).isTrue();
+		assertThat(index.buildFilter("DiskCodeCacheTest", false).mayContain(clsKey)).isTrue();
+		assertThat(index.buildFilter("diskCODEcacheTEST", false).mayContain(clsKey)).isTrue();
+		// string not present in decompiled code
+		String missingStr = new StringBuilder("edoCnIgnissim").reverse().toString();
+		assertThat(index.buildFilter(missingStr, false).mayContain(clsKey)).isFalse();
+		assertThat(index.buildFilter("Di", false)).isNull();
+		assertThat(index.buildFilter("Disk.*Test", true)).isNull();
+
+		reopenedCache.remove(clsKey);
+		assertThat(index.contains(clsKey)).isFalse();
+		assertThat(index.buildFilter(missingStr, false).mayContain(clsKey)).isTrue();
+		reopenedCache.close();
+	}
+
+	@Test
+	public void searchIndexRemovedOnChange() throws IOException {
+		disableCompilation();
+		getArgs().setCodeCache(NoOpCodeCache.INSTANCE);
+		ClassNode clsNode = getClassNode(DiskCodeCacheTest.class);
+		ICodeInfo codeInfo = clsNode.getCode();
+		String clsKey = clsNode.getFullName();
+		Path indexFile = tempDir.resolve("code").resolve("search-index");
+
+		DiskCodeCache cache = new DiskCodeCache(clsNode.root(), tempDir);
+		cache.add(clsKey, codeInfo);
+		cache.close();
+		assertThat(indexFile).exists();
+
+		// saved index outdated after change, should not be used if cache not closed
+		DiskCodeCache reopenedCache = new DiskCodeCache(clsNode.root(), tempDir);
+		assertThat(reopenedCache.getSearchIndex().contains(clsKey)).isTrue();
+		reopenedCache.add(clsKey, new SimpleCodeInfo("class Changed {}"));
+		assertThat(indexFile).doesNotExist();
+		reopenedCache.close();
+		assertThat(indexFile).exists();
+	}
 }
@@ -0,0 +1,189 @@
+package jadx.gui.utils.cache.code;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import jadx.api.ICodeInfo;
+import jadx.api.impl.NoOpCodeCache;
+import jadx.api.impl.SimpleCodeInfo;
+import jadx.core.dex.nodes.ClassNode;
+import jadx.core.dex.nodes.RootNode;
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.gui.cache.code.disk.PackCodeCache;
+import jadx.tests.api.IntegrationTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PackCodeCacheTest extends IntegrationTest {
+
+	@SuppressWarnings("unused")
+	private static class SampleA {
+	}
+
+	@SuppressWarnings("unused")
+	private static class SampleB {
+	}
+
+	@TempDir
+	public Path tempDir;
+
+	@Test
+	public void test() throws IOException {
+		ClassNode clsNode = loadClassNode();
+		ICodeInfo codeInfo = clsNode.getCode();
+		String clsKey = clsNode.getRawName();
+
+		PackCodeCache cache = new PackCodeCache(clsNode.root(), tempDir);
+		cache.add(clsKey, codeInfo);
+		cache.close();
+
+		// read after reopen
+		PackCodeCache reopenedCache = new PackCodeCache(clsNode.root(), tempDir);
+		assertThat(reopenedCache.contains(clsKey)).isTrue();
+		ICodeInfo readCodeInfo = reopenedCache.get(clsKey);
+		assertThat(readCodeInfo.getCodeStr()).isEqualTo(codeInfo.getCodeStr());
+		assertThat(readCodeInfo.getCodeMetadata().getLineMapping()).isEqualTo(codeInfo.getCodeMetadata().getLineMapping());
+		assertThat(readCodeInfo.getCodeMetadata().getAsMap()).hasSameSizeAs(codeInfo.getCodeMetadata().getAsMap());
+		assertThat(reopenedCache.getCode(clsKey)).isEqualTo(codeInfo.getCodeStr());
+		assertThat(reopenedCache.getHits()).isEqualTo(2);
+
+		reopenedCache.remove(clsKey);
+		assertThat(reopenedCache.contains(clsKey)).isFalse();
+		assertThat(reopenedCache.get(clsKey)).isSameAs(ICodeInfo.EMPTY);
+		reopenedCache.close();
+
+		PackCodeCache emptyCache = new PackCodeCache(clsNode.root(), tempDir);
+		assertThat(emptyCache.contains(clsKey)).isFalse();
+		emptyCache.close();
+	}
+
+	@Test
+	public void testSegmentsRollover() throws IOException {
+		RootNode root = loadClassNode().root();
+		List<String> keys = getClassKeys(root);
+
+		// every record in separate segment
+		PackCodeCache cache = new PackCodeCache(root, tempDir, 1);
+		for (String key : keys) {
+			cache.add(key, new SimpleCodeInfo(buildCode(key)));
+		}
+		cache.close();
+		assertThat(listSegments()).hasSize(keys.size());
+
+		PackCodeCache reopenedCache = new PackCodeCache(root, tempDir, 1);
+		for (String key : keys) {
+			assertThat(reopenedCache.getCode(key)).isEqualTo(buildCode(key));
+		}
+		reopenedCache.close();
+	}
+
+	@Test
+	public void testCompaction() throws IOException {
+		RootNode root = loadClassNode().root();
+		List<String> keys = getClassKeys(root);
+		String liveKey = keys.get(keys.size() - 1);
+
+		PackCodeCache cache = new PackCodeCache(root, tempDir);
+		for (String key : keys) {
+			cache.add(key, new SimpleCodeInfo(buildCode(key)));
+		}
+		cache.close();
+		assertThat(listSegments()).containsExactly("segment-0.pack");
+
+		// most of records removed, remaining one should be moved into new segment
+		PackCodeCache smallCache = new PackCodeCache(root, tempDir, 1);
+		for (String key : keys) {
+			if (!key.equals(liveKey)) {
+				smallCache.remove(key);
+			}
+		}
+		smallCache.close();
+		assertThat(listSegments()).containsExactly("segment-1.pack");
+
+		PackCodeCache reopenedCache = new PackCodeCache(root, tempDir);
+		for (String key : keys) {
+			assertThat(reopenedCache.contains(key)).isEqualTo(key.equals(liveKey));
+		}
+		assertThat(reopenedCache.getCode(liveKey)).isEqualTo(buildCode(liveKey));
+		reopenedCache.close();
+	}
+
+	@Test
+	public void testTruncatedSegment() throws IOException {
+		RootNode root = loadClassNode().root();
+		List<String> keys = getClassKeys(root);
+
+		PackCodeCache cache = new PackCodeCache(root, tempDir);
+		for (String key : keys) {
+			cache.add(key, new SimpleCodeInfo(buildCode(key)));
+		}
+		cache.close();
+
+		// emulate interrupted write of last record
+		Path segmentFile = tempDir.resolve("code-pack").resolve("segment-0.pack");
+		try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.WRITE)) {
+			channel.truncate(channel.size() - 1);
+		}
+
+		PackCodeCache reopenedCache = new PackCodeCache(root, tempDir);
+		int last = keys.size() - 1;
+		for (int i = 0; i < last; i++) {
+			String key = keys.get(i);
+			assertThat(reopenedCache.getCode(key)).isEqualTo(buildCode(key));
+		}
+		assertThat(reopenedCache.contains(keys.get(last))).isFalse();
+		assertThat(reopenedCache.get(keys.get(last))).isSameAs(ICodeInfo.EMPTY);
+		reopenedCache.close();
+	}
+
+	@Test
+	public void testDirLock() throws IOException {
+		RootNode root = loadClassNode().root();
+		PackCodeCache cache = new PackCodeCache(root, tempDir);
+		try {
+			assertThatThrownBy(() -> new PackCodeCache(root, tempDir))
+					.isInstanceOf(JadxRuntimeException.class)
+					.hasMessageContaining("already in use");
+		} finally {
+			cache.close();
+		}
+		new PackCodeCache(root, tempDir).close();
+	}
+
+	private ClassNode loadClassNode() {
+		disableCompilation();
+		getArgs().setCodeCache(NoOpCodeCache.INSTANCE);
+		return getClassNode(PackCodeCacheTest.class);
+	}
+
+	private static List<String> getClassKeys(RootNode root) {
+		List<String> keys = root.getClasses().stream()
+				.map(ClassNode::getRawName)
+				.collect(Collectors.toList());
+		assertThat(keys).hasSizeGreaterThanOrEqualTo(3);
+		return keys;
+	}
+
+	private static String buildCode(String clsKey) {
+		return "class " + clsKey + " {\n}\n";
+	}
+
+	private List<String> listSegments() throws IOException {
+		try (Stream<Path> stream = Files.list(tempDir.resolve("code-pack"))) {
+			return stream.map(p -> p.getFileName().toString())
+					.filter(name -> name.startsWith("segment-"))
+					.sorted()
+					.collect(Collectors.toList());
+		}
+	}
+}
@@ -6,13 +6,19 @@
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -23,6 +29,8 @@
 import jadx.plugins.input.dex.sections.DexConsts;
 import jadx.plugins.input.dex.sections.DexHeaderV41;
 import jadx.plugins.input.dex.utils.DexCheckSum;
+import jadx.plugins.input.dex.utils.DexStringsPool;
+import jadx.plugins.input.dex.utils.IDexData;
 import jadx.zip.IZipEntry;
 import jadx.zip.ZipContent;
 import jadx.zip.ZipReader;
@@ -36,6 +44,7 @@ public class DexFileLoader {
 	private final DexInputOptions options;
 
 	private ZipReader zipReader = new ZipReader();
+	private int threadsCount = 1;
 
 	public DexFileLoader(DexInputOptions options) {
 		this.options = options;
@@ -45,17 +54,57 @@ public void setZipReader(ZipReader zipReader) {
 		this.zipReader = zipReader;
 	}
 
+	/**
+	 * Threads used for reading, decompressing and checksum verification of dex files
+	 */
+	public void setThreadsCount(int threadsCount) {
+		this.threadsCount = Math.max(1, threadsCount);
+	}
+
+	/**
+	 * Files and zip entries loaded concurrently,
+	 * readers created after that in input order to keep ids assignment stable.
+	 */
 	public List<DexReader> collectDexFiles(List<Path> pathsList) {
-		return pathsList.stream()
-				.map(Path::toFile)
-				.map(this::loadDexFromFile)
-				.filter(list -> !list.isEmpty())
-				.flatMap(Collection::stream)
-				.peek(dr -> LOG.debug("Loading dex: {}", dr))
+		List<DexContent> dexList = runLoad(() -> loadAll(pathsList, path -> loadDexFromFile(path.toFile())));
+		return buildReaders(dexList);
+	}
+
+	private List<DexContent> runLoad(Supplier<List<DexContent>> load) {
+		if (threadsCount == 1) {
+			return load.get();
+		}
+		ForkJoinPool pool = new ForkJoinPool(threadsCount);
+		try {
+			// parallel streams started inside use this pool
+			return pool.submit(load::get).join();
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Results concatenated in source elements order
+	 */
+	private <T> List<DexContent> loadAll(List<T> list, Function<T, List<DexContent>> loadFunc) {
+		Stream<T> stream = threadsCount > 1 && list.size() > 1 ? list.parallelStream() : list.stream();
+		return stream.map(loadFunc)
+				.flatMap(List::stream)
 				.collect(Collectors.toList());
 	}
 
-	private List<DexReader> loadDexFromFile(File file) {
+	private List<DexReader> buildReaders(List<DexContent> dexList) {
+		List<DexReader> readers = new ArrayList<>(dexList.size());
+		DexStringsPool stringsPool = options.isDedupStrings() && dexList.size() > 1 ? new DexStringsPool() : null;
+		for (DexContent dex : dexList) {
+			DexReader dexReader = new DexReader(getNextUniqId(), dex.getFileName(), dex.getContent(), dex.getOffset(), stringsPool);
+			LOG.debug("Loading dex: {}", dexReader);
+			readers.add(dexReader);
+		}
+		return readers;
+	}
+
+	private List<DexContent> loadDexFromFile(File file) {
 		try (InputStream inputStream = new FileInputStream(file)) {
 			return load(file, inputStream, file.getAbsolutePath());
 		} catch (Exception e) {
@@ -64,7 +113,7 @@ private List<DexReader> loadDexFromFile(File file) {
 		}
 	}
 
-	private List<DexReader> load(@Nullable File file, InputStream inputStream, String fileName) throws IOException {
+	private List<DexContent> load(@Nullable File file, InputStream inputStream, String fileName) throws IOException {
 		try (InputStream in = inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream)) {
 			byte[] magic = new byte[DexConsts.MAX_MAGIC_SIZE];
 			in.mark(magic.length);
@@ -72,9 +121,12 @@ private List<DexReader> load(@Nullable File file, InputStream inputStream, Strin
 				return Collections.emptyList();
 			}
 			if (isStartWithBytes(magic, DexConsts.DEX_FILE_MAGIC)) {
+				if (file != null && options.isUseMappedFiles()) {
+					return readDexContent(fileName, mapFile(file));
+				}
 				in.reset();
 				byte[] content = readAllBytes(in);
-				return loadDexReaders(fileName, content);
+				return readDexContent(fileName, ByteBuffer.wrap(content));
 			}
 			if (fileName.endsWith(".dex")) {
 				// report invalid magic in '.dex' file
@@ -92,30 +144,89 @@ private List<DexReader> load(@Nullable File file, InputStream inputStream, Strin
 		}
 	}
 
-	private List<DexReader> loadFromZipEntry(byte[] content, String fileName) {
+	private List<DexContent> loadFromZipEntry(byte[] content, String fileName) {
 		if (isStartWithBytes(content, DexConsts.DEX_FILE_MAGIC) || fileName.endsWith(".dex")) {
-			return loadDexReaders(fileName, content);
+			return readDexContent(fileName, ByteBuffer.wrap(content));
 		}
 		return Collections.emptyList();
 	}
 
+	/**
+	 * Zero-copy load: stored entry used as a slice of mapped zip file,
+	 * compressed entry decompressed into off-heap buffer.
+	 */
+	private List<DexContent> loadFromZipEntryBuffer(IZipEntry entry) throws IOException {
+		String fileName = entry.getName();
+		if (fileName.endsWith(".dex") || isDexEntry(entry)) {
+			return readDexContent(fileName, entry.getByteBuffer());
+		}
+		return Collections.emptyList();
+	}
+
+	private static boolean isDexEntry(IZipEntry entry) throws IOException {
+		if (entry.getUncompressedSize() < DexConsts.MAX_MAGIC_SIZE) {
+			return false;
+		}
+		try (InputStream in = entry.getInputStream()) {
+			byte[] magic = new byte[DexConsts.MAX_MAGIC_SIZE];
+			return in.readNBytes(magic, 0, magic.length) == magic.length && isStartWithBytes(magic, DexConsts.DEX_FILE_MAGIC);
+		}
+	}
+
+	private static ByteBuffer mapFile(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+			if (size >= Integer.MAX_VALUE) {
+				throw new IOException("File is too big: " + file.getAbsolutePath());
+			}
+			// mapping stays valid after channel close
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		}
+	}
+
 	public List<DexReader> loadDexReaders(String fileName, byte[] content) {
+		return loadDexReaders(fileName, ByteBuffer.wrap(content));
+	}
+
+	public List<DexReader> loadDexReaders(String fileName, ByteBuffer content) {
+		return buildReaders(readDexContent(fileName, content));
+	}
+
+	/**
+	 * Load several dex files as one input
+	 */
+	public List<DexReader> loadDexReaders(List<IDexData> list) {
+		List<DexContent> dexList = new ArrayList<>();
+		for (IDexData data : list) {
+			dexList.addAll(readDexContent(data.getFileName(), ByteBuffer.wrap(data.getContent())));
+		}
+		return buildReaders(dexList);
+	}
+
+	/**
+	 * Split DEX container and verify checksums, ready to create readers
+	 */
+	private List<DexContent> readDexContent(String fileName, ByteBuffer content) {
 		DexHeaderV41 dexHeaderV41 = DexHeaderV41.readIfPresent(content);
 		if (dexHeaderV41 != null) {
 			return DexHeaderV41.readSubDexOffsets(content, dexHeaderV41)
 					.stream()
-					.map(offset -> loadSingleDex(fileName, content, offset))
+					.map(offset -> checkDex(fileName, content, offset))
 					.collect(Collectors.toList());
 		}
-		DexReader dexReader = loadSingleDex(fileName, content, 0);
-		return Collections.singletonList(dexReader);
+		return Collections.singletonList(checkDex(fileName, content, 0));
 	}
 
-	private DexReader loadSingleDex(String fileName, byte[] content, int offset) {
+	private DexContent checkDex(String fileName, ByteBuffer content, int offset) {
 		if (options.isVerifyChecksum()) {
 			DexCheckSum.verify(fileName, content, offset);
 		}
-		return new DexReader(getNextUniqId(), fileName, content, offset);
+		return new DexContent(fileName, content, offset);
+	}
+
+	private DexReader loadSingleDex(String fileName, ByteBuffer content, int offset) {
+		DexContent dex = checkDex(fileName, content, offset);
+		return new DexReader(getNextUniqId(), dex.getFileName(), dex.getContent(), dex.getOffset());
 	}
 
 	/**
@@ -124,34 +235,34 @@ private DexReader loadSingleDex(String fileName, byte[] content, int offset) {
 	 */
 	@Deprecated
 	public DexReader loadDexReader(String fileName, byte[] content) {
-		return loadSingleDex(fileName, content, 0);
+		return loadSingleDex(fileName, ByteBuffer.wrap(content), 0);
 	}
 
-	private List<DexReader> collectDexFromZip(File file) {
-		List<DexReader> result = new ArrayList<>();
+	private List<DexContent> collectDexFromZip(File file) {
 		try (ZipContent zip = zipReader.open(file)) {
-			for (IZipEntry entry : zip.getEntries()) {
-				if (entry.isDirectory()) {
-					continue;
-				}
-				try {
-					List<DexReader> readers;
-					if (entry.preferBytes()) {
-						readers = loadFromZipEntry(entry.getBytes(), entry.getName());
-					} else {
-						readers = load(null, entry.getInputStream(), entry.getName());
-					}
-					if (!readers.isEmpty()) {
-						result.addAll(readers);
-					}
-				} catch (Exception e) {
-					LOG.error("Failed to read zip entry: {}", entry, e);
-				}
-			}
+			List<IZipEntry> entries = zip.getEntries().stream()
+					.filter(entry -> !entry.isDirectory())
+					.collect(Collectors.toList());
+			return loadAll(entries, this::loadZipEntry);
 		} catch (Exception e) {
 			LOG.error("Failed to process zip file: {}", file.getAbsolutePath(), e);
+			return Collections.emptyList();
+		}
+	}
+
+	private List<DexContent> loadZipEntry(IZipEntry entry) {
+		try {
+			if (options.isUseMappedFiles()) {
+				return loadFromZipEntryBuffer(entry);
+			}
+			if (entry.preferBytes()) {
+				return loadFromZipEntry(entry.getBytes(), entry.getName());
+			}
+			return load(null, entry.getInputStream(), entry.getName());
+		} catch (Exception e) {
+			LOG.error("Failed to read zip entry: {}", entry, e);
+			return Collections.emptyList();
 		}
-		return result;
 	}
 
 	private static boolean isStartWithBytes(byte[] fileMagic, byte[] expectedBytes) {
@@ -191,4 +302,31 @@ private static synchronized int getNextUniqId() {
 	private static synchronized void resetDexUniqId() {
 		dexUniqId = 1;
 	}
+
+	/**
+	 * Verified dex content without assigned id
+	 */
+	private static final class DexContent {
+		private final String fileName;
+		private final ByteBuffer content;
+		private final int offset;
+
+		private DexContent(String fileName, ByteBuffer content, int offset) {
+			this.fileName = fileName;
+			this.content = content;
+			this.offset = offset;
+		}
+
+		public String getFileName() {
+			return fileName;
+		}
+
+		public ByteBuffer getContent() {
+			return content;
+		}
+
+		public int getOffset() {
+			return offset;
+		}
+	}
 }
@@ -5,6 +5,8 @@
 public class DexInputOptions extends BasePluginOptionsBuilder {
 
 	private boolean verifyChecksum;
+	private boolean useMappedFiles;
+	private boolean dedupStrings;
 
 	@Override
 	public void registerOptions() {
@@ -12,9 +14,27 @@ public void registerOptions() {
 				.description("verify dex file checksum before load")
 				.defaultValue(true)
 				.setter(v -> verifyChecksum = v);
+
+		boolOption(DexInputPlugin.PLUGIN_ID + ".mmap")
+				.description("use memory mapped files and off-heap buffers for dex content (mapped files stay locked on Windows)")
+				.defaultValue(false)
+				.setter(v -> useMappedFiles = v);
+
+		boolOption(DexInputPlugin.PLUGIN_ID + ".dedup-strings")
+				.description("share equal strings between dex files of multi-dex input")
+				.defaultValue(true)
+				.setter(v -> dedupStrings = v);
 	}
 
 	public boolean isVerifyChecksum() {
 		return verifyChecksum;
 	}
+
+	public boolean isUseMappedFiles() {
+		return useMappedFiles;
+	}
+
+	public boolean isDedupStrings() {
+		return dedupStrings;
+	}
 }
@@ -4,7 +4,6 @@
 import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import org.jetbrains.annotations.Nullable;
 
@@ -32,6 +31,7 @@ public void init(JadxPluginContext context) {
 		context.registerOptions(options);
 		context.addCodeInput(this::loadFiles);
 		loader.setZipReader(context.getZipReader());
+		loader.setThreadsCount(context.getArgs().getThreadsCount());
 	}
 
 	public ICodeLoader loadFiles(List<Path> input) {
@@ -61,9 +61,7 @@ public ICodeLoader loadDexFromInputStream(InputStream in, @Nullable String fileL
 	}
 
 	public ICodeLoader loadDexData(List<IDexData> list) {
-		List<DexReader> readers = list.stream()
-				.flatMap(data -> loader.loadDexReaders(data.getFileName(), data.getContent()).stream())
-				.collect(Collectors.toList());
+		List<DexReader> readers = loader.loadDexReaders(list);
 		return new DexLoadResult(readers, null);
 	}
 }
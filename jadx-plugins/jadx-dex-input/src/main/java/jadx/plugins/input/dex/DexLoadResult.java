@@ -2,6 +2,8 @@
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -27,6 +29,30 @@ public void visitClasses(Consumer<IClassData> consumer) {
 		}
 	}
 
+	@Override
+	public void visitClassesByType(String type, Consumer<IClassData> consumer) {
+		for (DexReader dexReader : dexReaders) {
+			dexReader.visitClassesByType(type, consumer);
+		}
+	}
+
+	@Override
+	public boolean isSearchByTypeSupported() {
+		return true;
+	}
+
+	@Override
+	public List<ICodeLoader> splitForParallelLoad() {
+		if (dexReaders.size() <= 1) {
+			return Collections.singletonList(this);
+		}
+		List<ICodeLoader> parts = new ArrayList<>(dexReaders.size());
+		for (DexReader dexReader : dexReaders) {
+			parts.add(new DexLoadResult(Collections.singletonList(dexReader), null));
+		}
+		return parts;
+	}
+
 	@Override
 	public void close() throws IOException {
 		if (closeable != null) {
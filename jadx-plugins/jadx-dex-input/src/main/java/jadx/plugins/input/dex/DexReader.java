@@ -1,25 +1,69 @@
 package jadx.plugins.input.dex;
 
 import java.nio.ByteBuffer;
+import java.util.Arrays;
 import java.util.function.Consumer;
 
+import org.jetbrains.annotations.Nullable;
+
 import jadx.api.plugins.input.data.IClassData;
 import jadx.plugins.input.dex.sections.DexClassData;
 import jadx.plugins.input.dex.sections.DexHeader;
 import jadx.plugins.input.dex.sections.SectionReader;
 import jadx.plugins.input.dex.sections.annotations.AnnotationsParser;
+import jadx.plugins.input.dex.utils.DexStringsPool;
 
 public class DexReader {
 	private final int uniqId;
 	private final String inputFileName;
 	private final ByteBuffer buf;
 	private final DexHeader header;
+	/**
+	 * Decoded strings, index is string id, filled on first access.
+	 * Empty if string ids section not fit into dex content (strings decoded on every access).
+	 */
+	private final String[] strings;
+	private final @Nullable DexStringsPool stringsPool;
+	/**
+	 * Class def index for every type id, -1 if class not defined in this dex.
+	 * Built on first search by type.
+	 */
+	private volatile int[] classDefsByType;
 
 	public DexReader(int uniqId, String inputFileName, byte[] content, int offset) {
+		this(uniqId, inputFileName, ByteBuffer.wrap(content), offset);
+	}
+
+	/**
+	 * Buffer can be read-only and direct (memory mapped file or off-heap),
+	 * position and limit should cover whole dex content.
+	 */
+	public DexReader(int uniqId, String inputFileName, ByteBuffer content, int offset) {
+		this(uniqId, inputFileName, content, offset, null);
+	}
+
+	/**
+	 * @param stringsPool shared between dex files of one input to deduplicate strings, can be {@code null}
+	 */
+	public DexReader(int uniqId, String inputFileName, ByteBuffer content, int offset, @Nullable DexStringsPool stringsPool) {
 		this.uniqId = uniqId;
 		this.inputFileName = inputFileName;
-		this.buf = ByteBuffer.wrap(content);
+		this.buf = content.position() == 0 ? content : content.slice();
 		this.header = new DexHeader(new SectionReader(this, offset));
+		this.strings = new String[getStringsCacheSize(header, buf)];
+		this.stringsPool = stringsPool;
+	}
+
+	/**
+	 * Check string ids section bounds before allocation, so corrupted header can't cause OOM
+	 */
+	private static int getStringsCacheSize(DexHeader header, ByteBuffer buf) {
+		int size = header.getStringIdsSize();
+		int offset = header.getStringIdsOff();
+		if (size <= 0 || offset < 0 || offset + size * 4L > buf.limit()) {
+			return 0;
+		}
+		return size;
 	}
 
 	public void visitClasses(Consumer<IClassData> consumer) {
@@ -37,10 +81,88 @@ public void visitClasses(Consumer<IClassData> consumer) {
 		}
 	}
 
+	/**
+	 * Search class def by type descriptor without decoding other classes.
+	 * Type ids sorted by string content (required by dex format), so binary search is used.
+	 */
+	public void visitClassesByType(String type, Consumer<IClassData> consumer) {
+		int typeIdx = searchTypeId(type);
+		if (typeIdx == -1) {
+			return;
+		}
+		int classDefIdx = getClassDefsByType()[typeIdx];
+		if (classDefIdx == -1) {
+			return;
+		}
+		SectionReader in = new SectionReader(this, header.getClassDefsOff() + classDefIdx * DexClassData.SIZE);
+		AnnotationsParser annotationsParser = new AnnotationsParser(in.copy(), in.copy());
+		consumer.accept(new DexClassData(in, annotationsParser));
+	}
+
+	private int searchTypeId(String type) {
+		SectionReader in = new SectionReader(this, 0);
+		int low = 0;
+		int high = header.getTypeIdsSize() - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = in.getType(mid).compareTo(type);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -1;
+	}
+
+	private int[] getClassDefsByType() {
+		int[] index = classDefsByType;
+		if (index == null) {
+			index = new int[header.getTypeIdsSize()];
+			Arrays.fill(index, -1);
+			int count = header.getClassDefsSize();
+			SectionReader in = new SectionReader(this, header.getClassDefsOff());
+			for (int i = 0; i < count; i++) {
+				int typeIdx = in.pos(i * DexClassData.SIZE).readInt();
+				if (typeIdx >= 0 && typeIdx < index.length && index[typeIdx] == -1) {
+					index[typeIdx] = i;
+				}
+			}
+			classDefsByType = index;
+		}
+		return index;
+	}
+
 	public ByteBuffer getBuf() {
 		return buf;
 	}
 
+	/**
+	 * Dex content as bytes array, copied if buffer not backed by array (mapped or direct).
+	 * Used only for disassembly, copy not cached to keep content off-heap.
+	 */
+	public byte[] getContentBytes() {
+		if (buf.hasArray() && buf.arrayOffset() == 0) {
+			return buf.array();
+		}
+		ByteBuffer dup = buf.duplicate();
+		dup.position(0);
+		byte[] bytes = new byte[dup.limit()];
+		dup.get(bytes);
+		return bytes;
+	}
+
+	public String[] getStrings() {
+		return strings;
+	}
+
+	public String intern(String str) {
+		DexStringsPool pool = stringsPool;
+		return pool != null ? pool.intern(str) : str;
+	}
+
 	public DexHeader getHeader() {
 		return header;
 	}
@@ -214,7 +214,7 @@ public int getClassDefOffset() {
 
 	@Override
 	public String getDisassembledCode() {
-		byte[] dexBuf = in.getDexReader().getBuf().array();
+		byte[] dexBuf = in.getDexReader().getContentBytes();
 		return SmaliUtils.getSmaliCode(dexBuf, getClassDefOffset());
 	}
 
@@ -170,7 +170,20 @@ public String getString(int idx) {
 		if (idx == NO_INDEX) {
 			return null;
 		}
-		// TODO: make string pool cache?
+		String[] strings = dexReader.getStrings();
+		if (idx < 0 || idx >= strings.length) {
+			return decodeString(idx);
+		}
+		String str = strings[idx];
+		if (str == null) {
+			// concurrent decode of same string is harmless, strings are immutable and safe to publish
+			str = dexReader.intern(decodeString(idx));
+			strings[idx] = str;
+		}
+		return str;
+	}
+
+	private String decodeString(int idx) {
 		int stringIdsOff = dexReader.getHeader().getStringIdsOff();
 		absPos(stringIdsOff + idx * 4);
 		int strOff = readInt();
@@ -1,5 +1,7 @@
 package jadx.plugins.input.dex.utils;
 
+import java.nio.ByteBuffer;
+
 public class DataReader {
 
 	public static int readU4(byte[] data, int pos) {
@@ -9,4 +11,12 @@ public static int readU4(byte[] data, int pos) {
 		byte b4 = data[pos];
 		return (b4 & 0xFF) << 24 | (b3 & 0xFF) << 16 | (b2 & 0xFF) << 8 | b1 & 0xFF;
 	}
+
+	public static int readU4(ByteBuffer buf, int pos) {
+		byte b1 = buf.get(pos++);
+		byte b2 = buf.get(pos++);
+		byte b3 = buf.get(pos++);
+		byte b4 = buf.get(pos);
+		return (b4 & 0xFF) << 24 | (b3 & 0xFF) << 16 | (b2 & 0xFF) << 8 | b1 & 0xFF;
+	}
 }
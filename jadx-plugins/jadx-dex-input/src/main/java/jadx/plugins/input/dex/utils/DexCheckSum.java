@@ -1,5 +1,6 @@
 package jadx.plugins.input.dex.utils;
 
+import java.nio.ByteBuffer;
 import java.util.zip.Adler32;
 
 import jadx.plugins.input.dex.DexException;
@@ -17,7 +18,28 @@ public static void verify(String fileName, byte[] content, int offset) {
 		int checksum = DataReader.readU4(content, offset + 8);
 		Adler32 adler32 = new Adler32();
 		adler32.update(content, offset + 12, len - 12);
-		int fileChecksum = (int) adler32.getValue();
+		checkValue(fileName, checksum, (int) adler32.getValue());
+	}
+
+	public static void verify(String fileName, ByteBuffer content, int offset) {
+		int size = content.limit();
+		if (offset + 32 + 4 > size) {
+			throw new DexException("Dex file truncated, can't read file length, file: " + fileName);
+		}
+		int len = DataReader.readU4(content, offset + 32);
+		if (offset + len > size) {
+			throw new DexException("Dex file truncated, length in header: " + len + ", file: " + fileName);
+		}
+		int checksum = DataReader.readU4(content, offset + 8);
+		ByteBuffer data = content.duplicate();
+		data.position(offset + 12);
+		data.limit(offset + len);
+		Adler32 adler32 = new Adler32();
+		adler32.update(data);
+		checkValue(fileName, checksum, (int) adler32.getValue());
+	}
+
+	private static void checkValue(String fileName, int checksum, int fileChecksum) {
 		if (checksum != fileChecksum) {
 			throw new DexException(String.format("Bad dex file checksum: 0x%08x, expected: 0x%08x, file: %s",
 					fileChecksum, checksum, fileName));
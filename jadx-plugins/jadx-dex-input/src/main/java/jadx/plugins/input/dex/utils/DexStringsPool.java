@@ -0,0 +1,21 @@
+package jadx.plugins.input.dex.utils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Share equal strings decoded from different dex files of one input (multi-dex apk),
+ * so every dex string cache reference same instances.
+ */
+public class DexStringsPool {
+	private final Map<String, String> strings = new ConcurrentHashMap<>();
+
+	public String intern(String str) {
+		String prev = strings.putIfAbsent(str, str);
+		return prev == null ? str : prev;
+	}
+
+	public int size() {
+		return strings.size();
+	}
+}
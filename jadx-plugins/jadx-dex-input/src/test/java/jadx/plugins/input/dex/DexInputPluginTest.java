@@ -1,8 +1,12 @@
 package jadx.plugins.input.dex;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -13,6 +17,8 @@
 import jadx.api.plugins.input.data.AccessFlags;
 import jadx.api.plugins.input.data.AccessFlagsScope;
 import jadx.api.plugins.input.data.ICodeReader;
+import jadx.plugins.input.dex.utils.IDexData;
+import jadx.plugins.input.dex.utils.SimpleDexData;
 import jadx.plugins.input.dex.utils.SmaliTestUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,6 +40,123 @@ public void loadTestSmali() throws Exception {
 		processFile(SmaliTestUtils.compileSmaliFromResource("samples/test.smali"));
 	}
 
+	@Test
+	public void loadMappedFiles() throws Exception {
+		checkMappedLoad(Paths.get(ClassLoader.getSystemResource("samples/hello.dex").toURI()));
+		checkMappedLoad(Paths.get(ClassLoader.getSystemResource("samples/app-with-fake-dex.apk").toURI()));
+	}
+
+	@Test
+	public void loadParallel() throws Exception {
+		List<Path> files = new ArrayList<>();
+		files.add(Paths.get(ClassLoader.getSystemResource("samples/app-with-fake-dex.apk").toURI()));
+		files.add(Paths.get(ClassLoader.getSystemResource("samples/hello.dex").toURI()));
+		DexInputOptions options = new DexInputOptions();
+		options.setOptions(Collections.emptyMap());
+
+		List<DexReader> sequential = new DexFileLoader(options).collectDexFiles(files);
+		DexFileLoader parallelLoader = new DexFileLoader(options);
+		parallelLoader.setThreadsCount(4);
+		List<DexReader> parallel = parallelLoader.collectDexFiles(files);
+		assertThat(parallel).hasSameSizeAs(sequential).hasSizeGreaterThan(1);
+		for (int i = 0; i < parallel.size(); i++) {
+			DexReader dexReader = parallel.get(i);
+			assertThat(dexReader.getInputFileName()).isEqualTo(sequential.get(i).getInputFileName());
+			assertThat(collectTypes(dexReader)).isEqualTo(collectTypes(sequential.get(i)));
+			if (i > 0) {
+				// ids assigned in input order
+				assertThat(dexReader.getUniqId()).isEqualTo(parallel.get(i - 1).getUniqId() + 1);
+			}
+		}
+	}
+
+	@Test
+	public void sharedStrings() throws Exception {
+		byte[] content = Files.readAllBytes(Paths.get(ClassLoader.getSystemResource("samples/hello.dex").toURI()));
+		List<IDexData> list = new ArrayList<>();
+		list.add(new SimpleDexData("classes.dex", content));
+		list.add(new SimpleDexData("classes2.dex", content.clone()));
+
+		DexInputOptions options = new DexInputOptions();
+		options.setOptions(Collections.emptyMap());
+		assertThat(options.isDedupStrings()).isTrue();
+		List<DexReader> readers = new DexFileLoader(options).loadDexReaders(list);
+		assertThat(readers).hasSize(2);
+		List<String> first = collectTypes(readers.get(0));
+		List<String> second = collectTypes(readers.get(1));
+		assertThat(second).isEqualTo(first).isNotEmpty();
+		for (int i = 0; i < first.size(); i++) {
+			assertThat(second.get(i)).isSameAs(first.get(i));
+		}
+		// cached on second access
+		assertThat(collectTypes(readers.get(0)).get(0)).isSameAs(first.get(0));
+
+		DexInputOptions noDedupOptions = new DexInputOptions();
+		noDedupOptions.setOptions(Collections.singletonMap(DexInputPlugin.PLUGIN_ID + ".dedup-strings", "no"));
+		List<DexReader> noDedupReaders = new DexFileLoader(noDedupOptions).loadDexReaders(list);
+		List<String> noDedupTypes = collectTypes(noDedupReaders.get(1));
+		assertThat(noDedupTypes).isEqualTo(first);
+		assertThat(noDedupTypes.get(0)).isNotSameAs(collectTypes(noDedupReaders.get(0)).get(0));
+	}
+
+	@Test
+	public void wrongStringIdsSize() throws Exception {
+		byte[] content = Files.readAllBytes(Paths.get(ClassLoader.getSystemResource("samples/hello.dex").toURI()));
+		List<String> expectedTypes = collectTypes(new DexReader(0, "hello.dex", content, 0));
+		// set 'string_ids_size' in header to huge value, strings should be decoded without cache
+		ByteBuffer.wrap(content).order(ByteOrder.LITTLE_ENDIAN).putInt(0x38, Integer.MAX_VALUE - 8);
+		DexReader dexReader = new DexReader(0, "hello.dex", content, 0);
+		assertThat(dexReader.getStrings()).isEmpty();
+		assertThat(collectTypes(dexReader)).isEqualTo(expectedTypes).isNotEmpty();
+	}
+
+	@Test
+	public void searchByType() throws Exception {
+		Path sample = Paths.get(ClassLoader.getSystemResource("samples/app-with-fake-dex.apk").toURI());
+		try (ICodeLoader result = new DexInputPlugin().loadFiles(Collections.singletonList(sample))) {
+			assertThat(result.isSearchByTypeSupported()).isTrue();
+			List<String> types = new ArrayList<>();
+			result.visitClasses(cls -> types.add(cls.getType()));
+			assertThat(types).isNotEmpty();
+			for (String type : types) {
+				List<String> found = new ArrayList<>();
+				result.visitClassesByType(type, cls -> found.add(cls.getType()));
+				assertThat(found).containsExactly(type);
+			}
+			// referenced but not defined
+			List<String> notFound = new ArrayList<>();
+			result.visitClassesByType("Landroid/app/Activity;", cls -> notFound.add(cls.getType()));
+			result.visitClassesByType("Lcom/example/Unknown;", cls -> notFound.add(cls.getType()));
+			assertThat(notFound).isEmpty();
+		}
+	}
+
+	private static void checkMappedLoad(Path sample) {
+		List<Path> files = Collections.singletonList(sample);
+		DexInputOptions mmapOptions = new DexInputOptions();
+		mmapOptions.setOptions(Collections.singletonMap(DexInputPlugin.PLUGIN_ID + ".mmap", "yes"));
+		assertThat(mmapOptions.isUseMappedFiles()).isTrue();
+		DexInputOptions heapOptions = new DexInputOptions();
+		heapOptions.setOptions(Collections.emptyMap());
+		assertThat(heapOptions.isUseMappedFiles()).isFalse();
+
+		List<DexReader> mapped = new DexFileLoader(mmapOptions).collectDexFiles(files);
+		List<DexReader> heap = new DexFileLoader(heapOptions).collectDexFiles(files);
+		assertThat(mapped).hasSameSizeAs(heap).isNotEmpty();
+		for (int i = 0; i < mapped.size(); i++) {
+			DexReader mappedReader = mapped.get(i);
+			assertThat(mappedReader.getBuf().isDirect()).isTrue();
+			assertThat(mappedReader.getContentBytes()).isEqualTo(heap.get(i).getContentBytes());
+			assertThat(collectTypes(mappedReader)).isEqualTo(collectTypes(heap.get(i)));
+		}
+	}
+
+	private static List<String> collectTypes(DexReader dexReader) {
+		List<String> types = new ArrayList<>();
+		dexReader.visitClasses(cls -> types.add(cls.getType()));
+		return types;
+	}
+
 	private static void processFile(Path sample) throws IOException {
 		System.out.println("Input file: " + sample.toAbsolutePath());
 		long start = System.currentTimeMillis();
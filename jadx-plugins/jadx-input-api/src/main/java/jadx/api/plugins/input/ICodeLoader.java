@@ -1,6 +1,8 @@
 package jadx.api.plugins.input;
 
 import java.io.Closeable;
+import java.util.Collections;
+import java.util.List;
 import java.util.function.Consumer;
 
 import jadx.api.plugins.input.data.IClassData;
@@ -10,4 +12,33 @@ public interface ICodeLoader extends Closeable {
 	void visitClasses(Consumer<IClassData> consumer);
 
 	boolean isEmpty();
+
+	/**
+	 * Split into independent parts which can be visited concurrently.
+	 * Parts order and classes order inside parts should be the same as in {@link #visitClasses(Consumer)}.
+	 * Parts not closed by caller, only this loader closed.
+	 */
+	default List<ICodeLoader> splitForParallelLoad() {
+		return Collections.singletonList(this);
+	}
+
+	/**
+	 * Visit only classes with provided type descriptor (like {@code Lcom/example/Cls;}),
+	 * more than one class can be visited if input contains duplicates.
+	 * Default implementation visit all classes, use {@link #isSearchByTypeSupported()} to check for fast search.
+	 */
+	default void visitClassesByType(String type, Consumer<IClassData> consumer) {
+		visitClasses(cls -> {
+			if (cls.getType().equals(type)) {
+				consumer.accept(cls);
+			}
+		});
+	}
+
+	/**
+	 * Loader can search class by type without visiting all classes (used for lazy classes load)
+	 */
+	default boolean isSearchByTypeSupported() {
+		return false;
+	}
 }
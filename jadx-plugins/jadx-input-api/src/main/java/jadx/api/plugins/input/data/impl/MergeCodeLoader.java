@@ -2,6 +2,7 @@
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Consumer;
 
@@ -41,6 +42,15 @@ public boolean isEmpty() {
 		return true;
 	}
 
+	@Override
+	public List<ICodeLoader> splitForParallelLoad() {
+		List<ICodeLoader> parts = new ArrayList<>();
+		for (ICodeLoader codeLoader : codeLoaders) {
+			parts.addAll(codeLoader.splitForParallelLoad());
+		}
+		return parts;
+	}
+
 	@Override
 	public void close() throws IOException {
 		for (ICodeLoader codeLoader : codeLoaders) {
@@ -0,0 +1,262 @@
+package jadx.plugins.input.javaconvert;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.android.tools.r8.Version;
+
+import jadx.core.utils.exceptions.JadxRuntimeException;
+import jadx.core.utils.files.FileUtils;
+
+/**
+ * Persistent cache of converted dex files.
+ * Entries stored in directories named by hash of jar content and converter version/options,
+ * so changed jar or converter update produce new entry.
+ * Entry directory modification time updated on every use, entries not used for a long time
+ * or least recently used entries above total size limit removed by {@link #cleanup()}.
+ */
+public class ConvertCache {
+	private static final Logger LOG = LoggerFactory.getLogger(ConvertCache.class);
+
+	/**
+	 * Increase on changes in conversion logic to invalidate old entries
+	 */
+	private static final int CACHE_FORMAT_VERSION = 1;
+
+	private static final String DEX_EXT = ".dex";
+	private static final String STAGING_DIR_SUFFIX = "-tmp-";
+
+	private static final long MAX_AGE_MS = TimeUnit.DAYS.toMillis(30);
+	private static final long MAX_TOTAL_SIZE = 1024L * 1024 * 1024;
+
+	private final Path cacheDir;
+	private final String converterVersion;
+	private final long maxAgeMs;
+	private final long maxTotalSize;
+	/**
+	 * Entries used by this instance, not removed at cleanup because dex files still loading
+	 */
+	private final Set<String> usedKeys = ConcurrentHashMap.newKeySet();
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+
+	public ConvertCache(Path cacheDir, JavaConvertOptions options) {
+		this(cacheDir, CACHE_FORMAT_VERSION
+				+ ":" + options.getMode()
+				+ ":" + options.isD8Desugar()
+				+ ":d8=" + Version.getVersionString()
+				+ ":dx=" + com.android.dx.Version.VERSION,
+				MAX_AGE_MS, MAX_TOTAL_SIZE);
+	}
+
+	ConvertCache(Path cacheDir, String converterVersion, long maxAgeMs, long maxTotalSize) {
+		this.cacheDir = cacheDir;
+		this.converterVersion = converterVersion;
+		this.maxAgeMs = maxAgeMs;
+		this.maxTotalSize = maxTotalSize;
+	}
+
+	public String buildKey(Path jar) throws IOException {
+		MessageDigest md = newDigest();
+		md.update(converterVersion.getBytes(StandardCharsets.UTF_8));
+		byte[] buffer = new byte[FileUtils.READ_BUFFER_SIZE];
+		try (InputStream in = Files.newInputStream(jar)) {
+			while (true) {
+				int count = in.read(buffer);
+				if (count == -1) {
+					break;
+				}
+				md.update(buffer, 0, count);
+			}
+		}
+		return FileUtils.bytesToHex(md.digest());
+	}
+
+	/**
+	 * Return cached dex files or null if entry not found
+	 */
+	public @Nullable List<Path> get(String key) {
+		Path entryDir = cacheDir.resolve(key);
+		if (!Files.isDirectory(entryDir)) {
+			misses.incrementAndGet();
+			return null;
+		}
+		try {
+			List<Path> dexFiles = listDexFiles(entryDir);
+			// mark as recently used, checked at cleanup
+			Files.setLastModifiedTime(entryDir, FileTime.fromMillis(System.currentTimeMillis()));
+			usedKeys.add(key);
+			hits.incrementAndGet();
+			return dexFiles;
+		} catch (Exception e) {
+			LOG.warn("Failed to read convert cache entry: {}", entryDir, e);
+			misses.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Copy dex files into cache.
+	 * Entry directory filled in staging directory and moved at once,
+	 * so concurrent instances never see incomplete entries.
+	 *
+	 * @return dex files from cache or original files if saving failed
+	 */
+	public List<Path> put(String key, List<Path> dexFiles) {
+		Path entryDir = cacheDir.resolve(key);
+		Path stagingDir = null;
+		try {
+			stagingDir = Files.createTempDirectory(cacheDir, key + STAGING_DIR_SUFFIX);
+			for (Path dexFile : dexFiles) {
+				Files.copy(dexFile, stagingDir.resolve(dexFile.getFileName().toString()));
+			}
+			try {
+				Files.move(stagingDir, entryDir, StandardCopyOption.ATOMIC_MOVE);
+				stagingDir = null;
+			} catch (IOException e) {
+				if (!Files.isDirectory(entryDir)) {
+					throw e;
+				}
+				// already added by another instance
+			}
+			usedKeys.add(key);
+			return listDexFiles(entryDir);
+		} catch (Exception e) {
+			LOG.warn("Failed to save converted files to cache: {}", entryDir, e);
+			return dexFiles;
+		} finally {
+			if (stagingDir != null) {
+				FileUtils.deleteDirIfExists(stagingDir);
+			}
+		}
+	}
+
+	/**
+	 * Remove entries not used longer than max age and least recently used entries above total size limit.
+	 * Also remove staging directories left after crash.
+	 */
+	public void cleanup() {
+		try {
+			long now = System.currentTimeMillis();
+			List<Path> dirs;
+			try (Stream<Path> stream = Files.list(cacheDir)) {
+				dirs = stream.filter(Files::isDirectory).collect(Collectors.toList());
+			}
+			long totalSize = 0;
+			List<CacheEntry> entries = new ArrayList<>();
+			for (Path dir : dirs) {
+				String name = dir.getFileName().toString();
+				if (usedKeys.contains(name)) {
+					totalSize += calcSize(dir);
+					continue;
+				}
+				long lastUsed = Files.getLastModifiedTime(dir).toMillis();
+				if (now - lastUsed > maxAgeMs) {
+					removeEntry(dir);
+				} else if (!name.contains(STAGING_DIR_SUFFIX)) {
+					entries.add(new CacheEntry(dir, lastUsed, calcSize(dir)));
+				}
+			}
+			// keep recently used entries
+			entries.sort(Comparator.comparingLong(CacheEntry::getLastUsed).reversed());
+			for (CacheEntry entry : entries) {
+				totalSize += entry.getSize();
+				if (totalSize > maxTotalSize) {
+					removeEntry(entry.getDir());
+				}
+			}
+		} catch (Exception e) {
+			LOG.warn("Failed to cleanup convert cache: {}", cacheDir, e);
+		}
+	}
+
+	private static void removeEntry(Path dir) {
+		LOG.debug("Remove convert cache entry: {}", dir);
+		FileUtils.deleteDirIfExists(dir);
+	}
+
+	private static long calcSize(Path dir) throws IOException {
+		try (Stream<Path> stream = Files.list(dir)) {
+			long size = 0;
+			for (Path file : (Iterable<Path>) stream::iterator) {
+				size += Files.size(file);
+			}
+			return size;
+		}
+	}
+
+	public int getHits() {
+		return hits.get();
+	}
+
+	public int getMisses() {
+		return misses.get();
+	}
+
+	private static List<Path> listDexFiles(Path dir) throws IOException {
+		List<Path> list;
+		try (Stream<Path> stream = Files.list(dir)) {
+			list = stream
+					.filter(p -> p.getFileName().toString().endsWith(DEX_EXT))
+					.collect(Collectors.toCollection(ArrayList::new));
+		}
+		if (list.isEmpty()) {
+			throw new JadxRuntimeException("Empty convert cache entry: " + dir);
+		}
+		// keep d8/dx order: classes.dex, classes2.dex, ..., classes10.dex
+		list.sort(Comparator.comparingInt((Path p) -> p.getFileName().toString().length())
+				.thenComparing(p -> p.getFileName().toString()));
+		return list;
+	}
+
+	private static final class CacheEntry {
+		private final Path dir;
+		private final long lastUsed;
+		private final long size;
+
+		private CacheEntry(Path dir, long lastUsed, long size) {
+			this.dir = dir;
+			this.lastUsed = lastUsed;
+			this.size = size;
+		}
+
+		public Path getDir() {
+			return dir;
+		}
+
+		public long getLastUsed() {
+			return lastUsed;
+		}
+
+		public long getSize() {
+			return size;
+		}
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (Exception e) {
+			throw new JadxRuntimeException("Failed to create hash", e);
+		}
+	}
+}
@@ -18,6 +18,7 @@ public class ConvertResult implements Closeable {
 
 	private final List<Path> converted = new ArrayList<>();
 	private final List<Path> tmpPaths = new ArrayList<>();
+	private final List<Path> jarsToConvert = new ArrayList<>();
 
 	public List<Path> getConverted() {
 		return converted;
@@ -27,16 +28,30 @@ public void addConvertedFiles(List<Path> paths) {
 		converted.addAll(paths);
 	}
 
-	public void addTempPath(Path path) {
+	/**
+	 * Thread safe, also called from convert threads
+	 */
+	public synchronized void addTempPath(Path path) {
 		tmpPaths.add(path);
 	}
 
+	/**
+	 * Jars collected for conversion, converted together after all inputs processed
+	 */
+	List<Path> getJarsToConvert() {
+		return jarsToConvert;
+	}
+
+	void addJarToConvert(Path jar) {
+		jarsToConvert.add(jar);
+	}
+
 	public boolean isEmpty() {
 		return converted.isEmpty();
 	}
 
 	@Override
-	public void close() {
+	public synchronized void close() {
 		for (Path tmpPath : tmpPaths) {
 			try {
 				delete(tmpPath);
@@ -7,32 +7,44 @@
 import java.nio.file.Path;
 import java.nio.file.PathMatcher;
 import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import jadx.api.plugins.JadxPluginContext;
 import jadx.api.plugins.utils.CommonFileUtils;
 import jadx.api.security.IJadxSecurity;
+import jadx.core.utils.Utils;
+import jadx.core.utils.exceptions.JadxRuntimeException;
 import jadx.zip.ZipReader;
 
 public class JavaConvertLoader {
 	private static final Logger LOG = LoggerFactory.getLogger(JavaConvertLoader.class);
 
+	private static final long REPACK_ENTRY_TIME = 1_000_000_000_000L;
+
 	private final JavaConvertOptions options;
 	private final ZipReader zipReader;
 	private final IJadxSecurity security;
+	private final JadxPluginContext context;
 
 	public JavaConvertLoader(JavaConvertOptions options, JadxPluginContext context) {
 		this.options = options;
 		this.zipReader = context.getZipReader();
 		this.security = context.getArgs().getSecurity();
+		this.context = context;
 	}
 
 	public ConvertResult process(List<Path> input) {
@@ -40,6 +52,7 @@ public ConvertResult process(List<Path> input) {
 		processJars(input, result);
 		processAars(input, result);
 		processClassFiles(input, result);
+		convertJars(result);
 		return result;
 	}
 
@@ -174,47 +187,114 @@ private boolean repackAndConvertJar(ConvertResult result, Path path) throws Exce
 		return true;
 	}
 
-	private void convertSimpleJar(ConvertResult result, Path path) throws Exception {
+	private void convertSimpleJar(ConvertResult result, Path path) {
+		result.addJarToConvert(path);
+	}
+
+	/**
+	 * Convert collected jars using bounded thread pool.
+	 * Results added in collection order to keep dex files order stable.
+	 */
+	private void convertJars(ConvertResult result) {
+		List<Path> jars = result.getJarsToConvert();
+		if (jars.isEmpty()) {
+			return;
+		}
+		long start = System.currentTimeMillis();
+		ConvertCache cache = options.isCache() ? new ConvertCache(context.files().getPluginCacheDir(), options) : null;
+		int threadsCount = Math.min(jars.size(), Math.max(1, context.getArgs().getThreadsCount()));
+		ExecutorService executor = Executors.newFixedThreadPool(threadsCount, Utils.simpleThreadFactory("java-convert"));
+		try {
+			List<Future<List<Path>>> futures = new ArrayList<>(jars.size());
+			for (Path jar : jars) {
+				futures.add(executor.submit(() -> convertJarToDex(result, jar, cache)));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				try {
+					result.addConvertedFiles(futures.get(i).get());
+				} catch (ExecutionException e) {
+					LOG.error("Failed to convert file: {}", jars.get(i).toAbsolutePath(), e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new JadxRuntimeException("Java convert interrupted", e);
+		} finally {
+			executor.shutdownNow();
+		}
+		long time = System.currentTimeMillis() - start;
+		if (cache != null) {
+			LOG.info("Converted {} jars in {} ms using {} threads, cache hits: {}, misses: {}",
+					jars.size(), time, threadsCount, cache.getHits(), cache.getMisses());
+			cache.cleanup();
+		} else {
+			LOG.info("Converted {} jars in {} ms using {} threads", jars.size(), time, threadsCount);
+		}
+	}
+
+	private List<Path> convertJarToDex(ConvertResult result, Path path, @Nullable ConvertCache cache) throws Exception {
+		String cacheKey = null;
+		if (cache != null) {
+			cacheKey = cache.buildKey(path);
+			List<Path> cachedFiles = cache.get(cacheKey);
+			if (cachedFiles != null) {
+				LOG.debug("Loaded {} dex from cache for {}", cachedFiles.size(), path.toAbsolutePath());
+				return cachedFiles;
+			}
+		}
 		Path tempDirectory = Files.createTempDirectory("jadx-");
 		result.addTempPath(tempDirectory);
 		LOG.debug("Converting to dex ...");
-		convert(path, tempDirectory);
+		boolean success = convert(path, tempDirectory);
 		List<Path> dexFiles = collectFilesInDir(tempDirectory);
 		LOG.debug("Converted {} to {} dex", path.toAbsolutePath(), dexFiles.size());
-		result.addConvertedFiles(dexFiles);
+		if (cacheKey != null && success && !dexFiles.isEmpty()) {
+			return cache.put(cacheKey, dexFiles);
+		}
+		return dexFiles;
 	}
 
-	private void convert(Path path, Path tempDirectory) {
+	/**
+	 * @return false if conversion failed
+	 */
+	private boolean convert(Path path, Path tempDirectory) {
 		JavaConvertOptions.Mode mode = options.getMode();
 		switch (mode) {
 			case DX:
 				try {
 					DxConverter.run(path, tempDirectory);
+					return true;
 				} catch (Throwable e) {
 					LOG.error("DX convert failed, path: {}", path, e);
+					return false;
 				}
-				break;
 
 			case D8:
 				try {
 					D8Converter.run(path, tempDirectory, options);
+					return true;
 				} catch (Throwable e) {
 					LOG.error("D8 convert failed, path: {}", path, e);
+					return false;
 				}
-				break;
 
 			case BOTH:
 				try {
 					DxConverter.run(path, tempDirectory);
+					return true;
 				} catch (Throwable e) {
 					LOG.warn("DX convert failed, trying D8, path: {}", path);
 					try {
 						D8Converter.run(path, tempDirectory, options);
+						return true;
 					} catch (Throwable ex) {
 						LOG.error("D8 convert failed: {}", ex.getMessage());
+						return false;
 					}
 				}
-				break;
+
+			default:
+				return false;
 		}
 	}
 
@@ -237,9 +317,8 @@ private static void addFileToJar(JarOutputStream jar, Path source, String entryN
 	private static void addJarEntry(JarOutputStream jar, String entryName, byte[] content,
 			FileTime modTime) throws IOException {
 		JarEntry entry = new JarEntry(entryName);
-		if (modTime != null) {
-			entry.setTime(modTime.toMillis());
-		}
+		// fixed time for repacked entries to get same jar content (and convert cache key) on each run
+		entry.setTime(modTime != null ? modTime.toMillis() : REPACK_ENTRY_TIME);
 		jar.putNextEntry(entry);
 		jar.write(content);
 		jar.closeEntry();
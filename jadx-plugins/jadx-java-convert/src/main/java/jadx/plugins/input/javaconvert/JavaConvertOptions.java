@@ -12,6 +12,7 @@ public enum Mode {
 
 	private Mode mode;
 	private boolean d8Desugar;
+	private boolean cache;
 
 	@Override
 	public void registerOptions() {
@@ -24,6 +25,11 @@ public void registerOptions() {
 				.description("use desugar in d8")
 				.defaultValue(false)
 				.setter(v -> d8Desugar = v);
+
+		boolOption(PLUGIN_ID + ".cache")
+				.description("save converted dex files in cache dir and reuse for unchanged jars")
+				.defaultValue(true)
+				.setter(v -> cache = v);
 	}
 
 	public Mode getMode() {
@@ -33,4 +39,8 @@ public Mode getMode() {
 	public boolean isD8Desugar() {
 		return d8Desugar;
 	}
+
+	public boolean isCache() {
+		return cache;
+	}
 }
@@ -0,0 +1,122 @@
+package jadx.plugins.input.javaconvert;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConvertCacheTest {
+	private static final long MAX_AGE_MS = TimeUnit.DAYS.toMillis(1);
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testPutAndGet() throws IOException {
+		Path cacheDir = makeDir("cache");
+		ConvertCache cache = new ConvertCache(cacheDir, "v1", MAX_AGE_MS, Long.MAX_VALUE);
+		Path jar = writeFile(tempDir.resolve("input.jar"), 10);
+		String key = cache.buildKey(jar);
+		assertThat(cache.get(key)).isNull();
+
+		List<Path> dexFiles = makeDexFiles(makeDir("converted"), "classes10.dex", "classes2.dex", "classes.dex");
+		List<Path> cachedFiles = cache.put(key, dexFiles);
+		assertThat(cachedFiles).allMatch(p -> p.startsWith(cacheDir));
+		assertThat(fileNames(cachedFiles)).containsExactly("classes.dex", "classes2.dex", "classes10.dex");
+		assertThat(cacheDir).isDirectoryNotContaining(p -> p.getFileName().toString().contains("-tmp-"));
+
+		assertThat(cache.get(key)).isEqualTo(cachedFiles);
+		assertThat(cache.getHits()).isEqualTo(1);
+		assertThat(cache.getMisses()).isEqualTo(1);
+	}
+
+	@Test
+	public void testKey() throws IOException {
+		Path cacheDir = makeDir("cache");
+		Path jar = writeFile(tempDir.resolve("input.jar"), 10);
+		String key = new ConvertCache(cacheDir, "v1", MAX_AGE_MS, Long.MAX_VALUE).buildKey(jar);
+		assertThat(new ConvertCache(cacheDir, "v1", MAX_AGE_MS, Long.MAX_VALUE).buildKey(jar)).isEqualTo(key);
+		assertThat(new ConvertCache(cacheDir, "v2", MAX_AGE_MS, Long.MAX_VALUE).buildKey(jar)).isNotEqualTo(key);
+
+		writeFile(jar, 11);
+		assertThat(new ConvertCache(cacheDir, "v1", MAX_AGE_MS, Long.MAX_VALUE).buildKey(jar)).isNotEqualTo(key);
+	}
+
+	@Test
+	public void testCleanupByAge() throws IOException {
+		Path cacheDir = makeDir("cache");
+		ConvertCache cache = new ConvertCache(cacheDir, "v1", MAX_AGE_MS, Long.MAX_VALUE);
+		cache.put("old", makeDexFiles(makeDir("old"), "classes.dex"));
+		cache.put("new", makeDexFiles(makeDir("new"), "classes.dex"));
+		Path staging = makeDir("cache/old-tmp-1");
+		setLastUsed(cacheDir.resolve("old"), 2);
+		setLastUsed(staging, 2);
+
+		// entries used by running instance never removed
+		cache.cleanup();
+		assertThat(cacheDir.resolve("old")).isDirectory();
+
+		ConvertCache nextCache = new ConvertCache(cacheDir, "v1", MAX_AGE_MS, Long.MAX_VALUE);
+		nextCache.cleanup();
+		assertThat(cacheDir.resolve("old")).doesNotExist();
+		assertThat(staging).doesNotExist();
+		assertThat(cacheDir.resolve("new")).isDirectory();
+		assertThat(nextCache.get("new")).hasSize(1);
+	}
+
+	@Test
+	public void testCleanupBySize() throws IOException {
+		Path cacheDir = makeDir("cache");
+		ConvertCache cache = new ConvertCache(cacheDir, "v1", MAX_AGE_MS, Long.MAX_VALUE);
+		for (int i = 0; i < 4; i++) {
+			String key = "entry" + i;
+			cache.put(key, makeDexFiles(makeDir(key), "classes.dex"));
+			setLastUsed(cacheDir.resolve(key), 4 - i);
+		}
+		// each entry is 100 bytes, 'entry0' is the oldest
+		ConvertCache nextCache = new ConvertCache(cacheDir, "v1", TimeUnit.DAYS.toMillis(10), 250);
+		assertThat(nextCache.get("entry0")).isNotNull();
+		nextCache.cleanup();
+		assertThat(cacheDir.resolve("entry0")).isDirectory();
+		assertThat(cacheDir.resolve("entry1")).doesNotExist();
+		assertThat(cacheDir.resolve("entry2")).doesNotExist();
+		assertThat(cacheDir.resolve("entry3")).isDirectory();
+	}
+
+	private Path makeDir(String name) throws IOException {
+		return Files.createDirectories(tempDir.resolve(name));
+	}
+
+	private static List<Path> makeDexFiles(Path dir, String... names) throws IOException {
+		List<Path> files = new ArrayList<>();
+		for (String name : names) {
+			files.add(writeFile(dir.resolve(name), 100));
+		}
+		return files;
+	}
+
+	private static Path writeFile(Path file, int size) throws IOException {
+		return Files.write(file, new byte[size]);
+	}
+
+	private static void setLastUsed(Path dir, int daysAgo) throws IOException {
+		long time = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(daysAgo);
+		Files.setLastModifiedTime(dir, FileTime.fromMillis(time));
+	}
+
+	private static List<String> fileNames(List<Path> files) {
+		List<String> names = new ArrayList<>();
+		for (Path file : files) {
+			names.add(file.getFileName().toString());
+		}
+		return names;
+	}
+}
@@ -0,0 +1,95 @@
+package jadx.plugins.input.javaconvert;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+
+import jadx.api.JadxArgs;
+import jadx.api.JadxDecompiler;
+import jadx.api.plugins.input.ICodeLoader;
+import jadx.core.plugins.PluginContext;
+import jadx.core.plugins.files.SingleDirFilesGetter;
+import jadx.core.utils.files.FileUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JavaConvertLoaderTest {
+	private static final int JARS_COUNT = 8;
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void testParallelConvertOrder() throws IOException {
+		checkConvertOrder(false);
+	}
+
+	@Test
+	public void testCachedConvertOrder() throws IOException {
+		checkConvertOrder(true);
+	}
+
+	private void checkConvertOrder(boolean cache) throws IOException {
+		List<Path> jars = new ArrayList<>();
+		List<String> expectedTypes = new ArrayList<>();
+		for (int i = 0; i < JARS_COUNT; i++) {
+			// reversed names to not match sorted order
+			String clsName = "test/Cls" + (JARS_COUNT - i);
+			jars.add(makeJar(tempDir.resolve("input-" + i + ".jar"), clsName, i * 50));
+			expectedTypes.add('L' + clsName + ';');
+		}
+		JadxArgs args = new JadxArgs();
+		args.setInputFiles(FileUtils.toFiles(jars));
+		args.setThreadsCount(4);
+		args.setFilesGetter(new SingleDirFilesGetter(tempDir.resolve("jadx")));
+		args.getPluginOptions().put(JavaConvertPlugin.PLUGIN_ID + ".cache", cache ? "yes" : "no");
+		try (JadxDecompiler jadx = new JadxDecompiler(args)) {
+			jadx.load();
+			JavaConvertPlugin plugin = getPlugin(jadx);
+			// second run uses cache if enabled
+			for (int run = 0; run < 2; run++) {
+				try (ICodeLoader codeLoader = plugin.loadFiles(jars)) {
+					List<String> types = new ArrayList<>();
+					codeLoader.visitClasses(cls -> types.add(cls.getType()));
+					assertThat(types).containsExactlyElementsOf(expectedTypes);
+				}
+			}
+		}
+	}
+
+	private static JavaConvertPlugin getPlugin(JadxDecompiler jadx) {
+		for (PluginContext context : jadx.getPluginManager().getResolvedPluginContexts()) {
+			if (context.getPluginId().equals(JavaConvertPlugin.PLUGIN_ID)) {
+				return (JavaConvertPlugin) context.getPluginInstance();
+			}
+		}
+		throw new AssertionError("Plugin not found: " + JavaConvertPlugin.PLUGIN_ID);
+	}
+
+	/**
+	 * Jar with single class, fields count used to get different conversion time
+	 */
+	private static Path makeJar(Path jar, String clsName, int fieldsCount) throws IOException {
+		ClassWriter cw = new ClassWriter(0);
+		cw.visit(Opcodes.V1_8, Opcodes.ACC_PUBLIC, clsName, null, "java/lang/Object", null);
+		for (int i = 0; i < fieldsCount; i++) {
+			cw.visitField(Opcodes.ACC_PUBLIC, "f" + i, "I", null, null).visitEnd();
+		}
+		cw.visitEnd();
+		try (JarOutputStream jo = new JarOutputStream(Files.newOutputStream(jar))) {
+			jo.putNextEntry(new JarEntry(clsName + ".class"));
+			jo.write(cw.toByteArray());
+			jo.closeEntry();
+		}
+		return jar;
+	}
+}
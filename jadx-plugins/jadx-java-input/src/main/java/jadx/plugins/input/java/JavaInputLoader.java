@@ -8,10 +8,13 @@
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
@@ -35,6 +38,7 @@ public class JavaInputLoader {
 	private final Path tempPath;
 
 	private int classUniqId = 1;
+	private int threadsCount = 1;
 
 	public JavaInputLoader(ZipReader zipReader, Path tempPath) {
 		this.zipReader = zipReader;
@@ -49,24 +53,62 @@ public JavaInputLoader() {
 		this(new ZipReader(), TempFilesGetter.INSTANCE.getTempDir());
 	}
 
+	/**
+	 * Threads used for reading and decompressing of jar entries
+	 */
+	public void setThreadsCount(int threadsCount) {
+		this.threadsCount = Math.max(1, threadsCount);
+	}
+
+	/**
+	 * Files and jar entries loaded concurrently,
+	 * readers created after that in input order to keep ids assignment stable.
+	 */
 	public List<JavaClassReader> collectFiles(List<Path> inputFiles) {
-		return inputFiles.stream()
-				.map(Path::toFile)
-				.map(this::loadFromFile)
-				.filter(list -> !list.isEmpty())
-				.flatMap(Collection::stream)
-				.collect(Collectors.toList());
+		List<ClassContent> list = runLoad(() -> loadAll(inputFiles, path -> loadFromFile(path.toFile())));
+		return buildReaders(list);
 	}
 
 	public List<JavaClassReader> loadInputStream(InputStream in, String name) throws IOException {
-		return loadReader(in, name, null, null);
+		return buildReaders(loadReader(in, name, null, null));
+	}
+
+	private List<ClassContent> runLoad(Supplier<List<ClassContent>> load) {
+		if (threadsCount == 1) {
+			return load.get();
+		}
+		ForkJoinPool pool = new ForkJoinPool(threadsCount);
+		try {
+			// parallel streams started inside use this pool
+			return pool.submit(load::get).join();
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Results concatenated in source elements order
+	 */
+	private <T> List<ClassContent> loadAll(List<T> list, Function<T, List<ClassContent>> loadFunc) {
+		Stream<T> stream = threadsCount > 1 && list.size() > 1 ? list.parallelStream() : list.stream();
+		return stream.map(loadFunc)
+				.flatMap(List::stream)
+				.collect(Collectors.toList());
+	}
+
+	private List<JavaClassReader> buildReaders(List<ClassContent> list) {
+		List<JavaClassReader> readers = new ArrayList<>(list.size());
+		for (ClassContent cls : list) {
+			readers.add(new JavaClassReader(getNextUniqId(), cls.getFileName(), cls.getData()));
+		}
+		return readers;
 	}
 
 	public JavaClassReader loadClass(byte[] content, String fileName) {
 		return new JavaClassReader(getNextUniqId(), fileName, content);
 	}
 
-	private List<JavaClassReader> loadFromFile(File file) {
+	private List<ClassContent> loadFromFile(File file) {
 		try (InputStream inputStream = new BufferedInputStream(new FileInputStream(file))) {
 			return loadReader(inputStream, file.getName(), file, null);
 		} catch (Exception e) {
@@ -75,7 +117,7 @@ private List<JavaClassReader> loadFromFile(File file) {
 		}
 	}
 
-	private List<JavaClassReader> loadReader(InputStream in, String name,
+	private List<ClassContent> loadReader(InputStream in, String name,
 			@Nullable File file, @Nullable String parentFileName) throws IOException {
 		byte[] magic = new byte[MAX_MAGIC_SIZE];
 		if (in.read(magic) != magic.length) {
@@ -83,35 +125,31 @@ private List<JavaClassReader> loadReader(InputStream in, String name,
 		}
 		if (isStartWithBytes(magic, JAVA_CLASS_FILE_MAGIC) || name.endsWith(".class")) {
 			byte[] data = CommonFileUtils.loadBytes(magic, in);
-			String source = concatSource(parentFileName, name);
-			JavaClassReader reader = new JavaClassReader(getNextUniqId(), source, data);
-			return Collections.singletonList(reader);
+			return Collections.singletonList(new ClassContent(concatSource(parentFileName, name), data));
 		}
 		if (isStartWithBytes(magic, ZIP_FILE_MAGIC) || CommonFileUtils.isZipFileExt(name)) {
 			if (file != null) {
 				return collectFromZip(file, name);
 			}
 			File zipFile = CommonFileUtils.saveToTempFile(magic, in, ".zip").toFile();
-			List<JavaClassReader> readers = collectFromZip(zipFile, concatSource(parentFileName, name));
+			List<ClassContent> list = collectFromZip(zipFile, concatSource(parentFileName, name));
 			CommonFileUtils.safeDeleteFile(zipFile);
-			return readers;
+			return list;
 		}
 		return Collections.emptyList();
 	}
 
-	private List<JavaClassReader> loadReaderFromZipEntry(byte[] content, String name, String parentFileName) throws IOException {
+	private List<ClassContent> loadReaderFromZipEntry(byte[] content, String name, String parentFileName) throws IOException {
 		if (isStartWithBytes(content, JAVA_CLASS_FILE_MAGIC) || name.endsWith(".class")) {
-			String source = concatSource(parentFileName, name);
-			JavaClassReader reader = new JavaClassReader(getNextUniqId(), source, content);
-			return Collections.singletonList(reader);
+			return Collections.singletonList(new ClassContent(concatSource(parentFileName, name), content));
 		}
 		if (isStartWithBytes(content, ZIP_FILE_MAGIC) || CommonFileUtils.isZipFileExt(name)) {
 			Path tempZip = Files.createTempFile(tempPath, "temp", ".zip");
 			FileUtils.writeFile(tempZip, content);
 			File zipFile = tempZip.toFile();
-			List<JavaClassReader> readers = collectFromZip(zipFile, concatSource(parentFileName, name));
+			List<ClassContent> list = collectFromZip(zipFile, concatSource(parentFileName, name));
 			CommonFileUtils.safeDeleteFile(zipFile);
-			return readers;
+			return list;
 		}
 		return Collections.emptyList();
 	}
@@ -123,34 +161,32 @@ private static String concatSource(@Nullable String parentFileName, String name)
 		return parentFileName + ':' + name;
 	}
 
-	private List<JavaClassReader> collectFromZip(File file, String name) {
-		List<JavaClassReader> result = new ArrayList<>();
+	private List<ClassContent> collectFromZip(File file, String name) {
 		try (ZipContent zip = zipReader.open(file)) {
-			for (IZipEntry entry : zip.getEntries()) {
-				if (entry.isDirectory()) {
-					continue;
-				}
-				String entryName = entry.getName();
-				if (entryName.startsWith("META-INF/versions/")) {
+			List<IZipEntry> entries = zip.getEntries().stream()
+					.filter(entry -> !entry.isDirectory())
 					// skip classes for different java versions
-					continue;
-				}
-				try {
-					List<JavaClassReader> readers;
-					if (entry.preferBytes()) {
-						readers = loadReaderFromZipEntry(entry.getBytes(), entryName, name);
-					} else {
-						readers = loadReader(entry.getInputStream(), entryName, null, name);
-					}
-					result.addAll(readers);
-				} catch (Exception e) {
-					LOG.error("Failed to read zip entry: {}", entry, e);
-				}
-			}
+					.filter(entry -> !entry.getName().startsWith("META-INF/versions/"))
+					.collect(Collectors.toList());
+			return loadAll(entries, entry -> loadZipEntry(entry, name));
 		} catch (Exception e) {
 			LOG.error("Failed to process zip file: {}", name, e);
+			return Collections.emptyList();
+		}
+	}
+
+	private List<ClassContent> loadZipEntry(IZipEntry entry, String zipName) {
+		try {
+			if (entry.preferBytes()) {
+				return loadReaderFromZipEntry(entry.getBytes(), entry.getName(), zipName);
+			}
+			try (InputStream in = entry.getInputStream()) {
+				return loadReader(in, entry.getName(), null, zipName);
+			}
+		} catch (Exception e) {
+			LOG.error("Failed to read zip entry: {}", entry, e);
+			return Collections.emptyList();
 		}
-		return result;
 	}
 
 	public static boolean isStartWithBytes(byte[] fileMagic, byte[] expectedBytes) {
@@ -169,4 +205,22 @@ public static boolean isStartWithBytes(byte[] fileMagic, byte[] expectedBytes) {
 	private int getNextUniqId() {
 		return classUniqId++;
 	}
+
+	private static final class ClassContent {
+		private final String fileName;
+		private final byte[] data;
+
+		ClassContent(String fileName, byte[] data) {
+			this.fileName = fileName;
+			this.data = data;
+		}
+
+		public String getFileName() {
+			return fileName;
+		}
+
+		public byte[] getData() {
+			return data;
+		}
+	}
 }
@@ -27,6 +27,7 @@ public JadxPluginInfo getPluginInfo() {
 	public void init(JadxPluginContext context) {
 		context.addCodeInput(inputFiles -> {
 			JavaInputLoader loader = new JavaInputLoader(context.getZipReader(), context.files().getPluginTempDir());
+			loader.setThreadsCount(context.getArgs().getThreadsCount());
 			List<JavaClassReader> readers = loader.collectFiles(inputFiles);
 			if (readers.isEmpty()) {
 				return EmptyCodeLoader.INSTANCE;
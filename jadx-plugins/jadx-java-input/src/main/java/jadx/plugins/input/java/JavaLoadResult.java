@@ -2,7 +2,11 @@
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import org.jetbrains.annotations.Nullable;
@@ -15,9 +19,18 @@
 public class JavaLoadResult implements ICodeLoader {
 	private static final Logger LOG = LoggerFactory.getLogger(JavaLoadResult.class);
 
+	/**
+	 * Classes count in one part for parallel load
+	 */
+	private static final int PART_SIZE = 1024;
+
 	private final List<JavaClassReader> readers;
 	@Nullable
 	private final Closeable closeable;
+	/**
+	 * Readers for every class type, built on first search by type
+	 */
+	private volatile Map<String, List<JavaClassReader>> readersByType;
 
 	public JavaLoadResult(List<JavaClassReader> readers) {
 		this(readers, null);
@@ -39,6 +52,58 @@ public void visitClasses(Consumer<IClassData> consumer) {
 		}
 	}
 
+	@Override
+	public void visitClassesByType(String type, Consumer<IClassData> consumer) {
+		List<JavaClassReader> list = getReadersByType().get(type);
+		if (list == null) {
+			return;
+		}
+		for (JavaClassReader reader : list) {
+			try {
+				consumer.accept(reader.loadClassData());
+			} catch (Exception e) {
+				LOG.error("Failed to load class data for file: {}", reader.getFileName(), e);
+			}
+		}
+	}
+
+	@Override
+	public boolean isSearchByTypeSupported() {
+		return true;
+	}
+
+	private Map<String, List<JavaClassReader>> getReadersByType() {
+		Map<String, List<JavaClassReader>> map = readersByType;
+		if (map == null) {
+			map = new HashMap<>(readers.size());
+			for (JavaClassReader reader : readers) {
+				try {
+					String type = reader.loadClassData().getType();
+					map.computeIfAbsent(type, t -> new ArrayList<>(1)).add(reader);
+				} catch (Exception e) {
+					// broken class already reported on classes visit
+					LOG.debug("Failed to read class type from file: {}", reader.getFileName(), e);
+				}
+			}
+			readersByType = map;
+		}
+		return map;
+	}
+
+	@Override
+	public List<ICodeLoader> splitForParallelLoad() {
+		int size = readers.size();
+		if (size <= PART_SIZE) {
+			return Collections.singletonList(this);
+		}
+		List<ICodeLoader> parts = new ArrayList<>(size / PART_SIZE + 1);
+		for (int start = 0; start < size; start += PART_SIZE) {
+			int end = Math.min(start + PART_SIZE, size);
+			parts.add(new JavaLoadResult(readers.subList(start, end), null));
+		}
+		return parts;
+	}
+
 	@Override
 	public boolean isEmpty() {
 		return readers.isEmpty();
@@ -69,6 +69,10 @@ private void skipAttributes(DataReader data) {
 		}
 	}
 
+	public int getConstPoolSize() {
+		return constPoolOffsets.length;
+	}
+
 	public int getOffsetOfConstEntry(int num) {
 		return constPoolOffsets[num];
 	}
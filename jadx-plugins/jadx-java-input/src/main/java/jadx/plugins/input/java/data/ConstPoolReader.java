@@ -1,6 +1,8 @@
 package jadx.plugins.input.java.data;
 
+import java.lang.ref.SoftReference;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.jetbrains.annotations.NotNull;
@@ -30,6 +32,12 @@ public class ConstPoolReader {
 	private final DataReader data;
 	private final ClassOffsets offsets;
 
+	/**
+	 * Decoded constants cache, kept by soft reference to not hold memory for all loaded classes.
+	 * Concurrent fill is safe: only immutable objects stored.
+	 */
+	private SoftReference<ConstCache> cacheRef;
+
 	public ConstPoolReader(JavaClassReader clsReader, JavaClassData javaClassData, DataReader data, ClassOffsets offsets) {
 		this.clsReader = clsReader;
 		this.clsData = javaClassData;
@@ -39,9 +47,16 @@ public ConstPoolReader(JavaClassReader clsReader, JavaClassData javaClassData, D
 
 	@Nullable
 	public String getClass(int idx) {
-		jumpToData(idx);
-		int nameIdx = data.readU2();
-		return fixType(getUtf8(nameIdx));
+		// class and utf8 constants have different indexes, so same strings array used
+		String[] strings = getCache().strings;
+		String cls = strings[idx];
+		if (cls == null) {
+			jumpToData(idx);
+			int nameIdx = data.readU2();
+			cls = fixType(getUtf8(nameIdx));
+			strings[idx] = cls;
+		}
+		return cls;
 	}
 
 	public IFieldRef getFieldRef(int idx) {
@@ -81,7 +96,7 @@ public IMethodRef getMethodRef(int idx) {
 		mthRef.initUniqId(clsReader, idx, true);
 		mthRef.setParentClassType(getClass(clsIdx));
 		mthRef.setName(getUtf8(nameIdx));
-		mthRef.setDescr(getUtf8(descIdx));
+		mthRef.setDescr(this, descIdx);
 		return mthRef;
 	}
 
@@ -112,7 +127,7 @@ private CallSite resolveMethodCallSite(int bootstrapMthIdx, int nameIdx, int des
 		List<EncodedValue> values = new ArrayList<>(6);
 		values.add(new EncodedValue(EncodedType.ENCODED_METHOD_HANDLE, getMethodHandle(rawBootstrapMethod.getMethodHandleIdx())));
 		values.add(new EncodedValue(EncodedType.ENCODED_STRING, getUtf8(nameIdx)));
-		values.add(new EncodedValue(EncodedType.ENCODED_METHOD_TYPE, DescriptorParser.parseToMethodProto(getUtf8(descIdx))));
+		values.add(new EncodedValue(EncodedType.ENCODED_METHOD_TYPE, getMethodProto(descIdx)));
 		for (int argConstIdx : rawBootstrapMethod.getArgs()) {
 			values.add(readAsEncodedValue(argConstIdx));
 		}
@@ -159,8 +174,52 @@ public String getUtf8(int idx) {
 		if (idx == 0) {
 			return null;
 		}
-		jumpToData(idx);
-		return readString();
+		String[] strings = getCache().strings;
+		String str = strings[idx];
+		if (str == null) {
+			jumpToData(idx);
+			str = readString();
+			strings[idx] = str;
+		}
+		return str;
+	}
+
+	/**
+	 * Parsed method descriptor, shared between all references with same descriptor in this class
+	 */
+	public JavaMethodProto getMethodProto(int descIdx) {
+		ConstCache cache = getCache();
+		JavaMethodProto[] protos = cache.protos;
+		if (protos == null) {
+			protos = new JavaMethodProto[cache.strings.length];
+			cache.protos = protos;
+		}
+		JavaMethodProto proto = protos[descIdx];
+		if (proto == null) {
+			proto = DescriptorParser.parseToMethodProto(getUtf8(descIdx));
+			proto.setArgTypes(Collections.unmodifiableList(proto.getArgTypes()));
+			protos[descIdx] = proto;
+		}
+		return proto;
+	}
+
+	private ConstCache getCache() {
+		SoftReference<ConstCache> ref = cacheRef;
+		ConstCache cache = ref == null ? null : ref.get();
+		if (cache == null) {
+			cache = new ConstCache(offsets.getConstPoolSize());
+			cacheRef = new SoftReference<>(cache);
+		}
+		return cache;
+	}
+
+	private static final class ConstCache {
+		private final String[] strings;
+		private JavaMethodProto[] protos;
+
+		ConstCache(int size) {
+			this.strings = new String[size];
+		}
 	}
 
 	public ConstantType jumpToConst(int idx) {
@@ -224,7 +283,7 @@ public EncodedValue readAsEncodedValue(int idx) {
 			case CLASS:
 				return new EncodedValue(EncodedType.ENCODED_TYPE, getClass(idx));
 			case METHOD_TYPE:
-				return new EncodedValue(EncodedType.ENCODED_METHOD_TYPE, DescriptorParser.parseToMethodProto(getUtf8(readU2())));
+				return new EncodedValue(EncodedType.ENCODED_METHOD_TYPE, getMethodProto(readU2()));
 			case METHOD_HANDLE:
 				return new EncodedValue(EncodedType.ENCODED_METHOD_HANDLE, getMethodHandle(idx));
 
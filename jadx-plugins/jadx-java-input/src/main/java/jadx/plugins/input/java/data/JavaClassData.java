@@ -129,7 +129,7 @@ private void parseMethod(DataReader reader, JavaMethodData method, int id) {
 		methodRef.reset();
 		methodRef.initUniqId(clsReader, id, false);
 		methodRef.setName(constPoolReader.getUtf8(nameIdx));
-		methodRef.setDescr(constPoolReader.getUtf8(descriptorIdx));
+		methodRef.setDescr(constPoolReader, descriptorIdx);
 
 		if (methodRef.getName().equals("<init>")) {
 			accessFlags |= AccessFlags.CONSTRUCTOR; // java bytecode don't use that flag
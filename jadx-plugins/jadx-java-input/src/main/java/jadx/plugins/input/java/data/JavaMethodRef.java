@@ -10,6 +10,11 @@ public class JavaMethodRef extends JavaMethodProto implements IMethodRef {
 	private String parentClassType;
 	private String name;
 	private String descr;
+	/**
+	 * Descriptor index in constant pool, used to get cached proto, 0 if not set
+	 */
+	private int descrIdx;
+	private ConstPoolReader constPoolReader;
 
 	@Override
 	public int getUniqId() {
@@ -51,6 +56,14 @@ public String getDescriptor() {
 
 	public void setDescr(String descr) {
 		this.descr = descr;
+		this.descrIdx = 0;
+		this.constPoolReader = null;
+	}
+
+	public void setDescr(ConstPoolReader constPoolReader, int descrIdx) {
+		this.descr = constPoolReader.getUtf8(descrIdx);
+		this.descrIdx = descrIdx;
+		this.constPoolReader = constPoolReader;
 	}
 
 	public void reset() {
@@ -61,7 +74,13 @@ public void reset() {
 	@Override
 	public void load() {
 		if (getReturnType() == null) {
-			DescriptorParser.fillMethodProto(descr, this);
+			if (descrIdx != 0) {
+				JavaMethodProto proto = constPoolReader.getMethodProto(descrIdx);
+				setReturnType(proto.getReturnType());
+				setArgTypes(proto.getArgTypes());
+			} else {
+				DescriptorParser.fillMethodProto(descr, this);
+			}
 		}
 	}
 
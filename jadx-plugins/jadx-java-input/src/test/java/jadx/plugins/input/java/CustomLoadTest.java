@@ -6,17 +6,25 @@
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import jadx.api.JadxArgs;
 import jadx.api.JadxDecompiler;
 import jadx.api.plugins.input.ICodeLoader;
+import jadx.api.plugins.input.data.IClassData;
+import jadx.api.plugins.input.data.IMethodRef;
+import jadx.zip.ZipReader;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
@@ -110,6 +118,63 @@ void load() {
 		jadx.getClassesWithInners().forEach(cls -> System.out.println(cls.getCode()));
 	}
 
+	@Test
+	void loadJarParallel(@TempDir Path tempDir) throws IOException {
+		Path jar = tempDir.resolve("test.jar");
+		try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(jar))) {
+			for (int i = 0; i < 20; i++) {
+				for (String name : Arrays.asList("HelloWorld.class", "HelloWorld$HelloInner.class")) {
+					out.putNextEntry(new ZipEntry("p" + i + '/' + name));
+					Files.copy(getSample(name), out);
+					out.closeEntry();
+				}
+			}
+		}
+		List<Path> files = Collections.singletonList(jar);
+		List<JavaClassReader> sequential = new JavaInputLoader(new ZipReader(), tempDir).collectFiles(files);
+		JavaInputLoader parallelLoader = new JavaInputLoader(new ZipReader(), tempDir);
+		parallelLoader.setThreadsCount(4);
+		List<JavaClassReader> parallel = parallelLoader.collectFiles(files);
+		assertThat(parallel).hasSize(40);
+		for (int i = 0; i < parallel.size(); i++) {
+			JavaClassReader reader = parallel.get(i);
+			assertThat(reader.getFileName()).isEqualTo(sequential.get(i).getFileName());
+			assertThat(reader.getData()).isEqualTo(sequential.get(i).getData());
+			// ids assigned in input order
+			assertThat(reader.getId()).isEqualTo(i + 1);
+		}
+		try (ICodeLoader loadResult = new JavaLoadResult(parallel)) {
+			List<String> types = new ArrayList<>();
+			loadResult.visitClasses(cls -> types.add(cls.getType()));
+			List<String> partsTypes = new ArrayList<>();
+			for (ICodeLoader part : loadResult.splitForParallelLoad()) {
+				part.visitClasses(cls -> partsTypes.add(cls.getType()));
+			}
+			assertThat(partsTypes).isEqualTo(types).hasSize(40);
+		}
+	}
+
+	@Test
+	void cachedMethodProto() throws IOException {
+		byte[] content = Files.readAllBytes(getSample("HelloWorld.class"));
+		IClassData clsData = new JavaInputLoader().loadClass(content, "HelloWorld.class").loadClassData();
+		List<List<String>> argTypes = new ArrayList<>();
+		for (int i = 0; i < 2; i++) {
+			clsData.visitFieldsAndMethods(fld -> {
+			}, mth -> {
+				IMethodRef mthRef = mth.getMethodRef();
+				mthRef.load();
+				argTypes.add(mthRef.getArgTypes());
+			});
+		}
+		int count = argTypes.size() / 2;
+		assertThat(count).isPositive();
+		for (int i = 0; i < count; i++) {
+			// same descriptor parsed only once
+			assertThat(argTypes.get(count + i)).isSameAs(argTypes.get(i));
+		}
+	}
+
 	public void loadDecompiler(ICodeLoader codeLoader) {
 		try {
 			jadx.addCustomCodeLoader(codeLoader);
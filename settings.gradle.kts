@@ -13,6 +13,7 @@
 include("jadx-gui")
 
 include("jadx-plugins-tools")
+include("jadx-benchmarks")
 
 include("jadx-commons:jadx-app-commons")
 include("jadx-commons:jadx-zip")